@@ -0,0 +1,110 @@
+package com.joabsonlg.tictactoewebsocket.benchmark;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.manager.TicTacToeManager;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Multi-threaded benchmarks of a shared {@link TicTacToeManager}: concurrent joins and leaves pairing through the
+ * matchmaker, and concurrent moves over a pool of games. Few games means many threads fighting over the same locks.
+ * The thread count can be changed with {@code -t}.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ContentionBenchmark {
+
+    @Param({"16", "4096"})
+    public int games;
+
+    private TicTacToeManager manager;
+    private TicTacToe[] pool;
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        manager = new TicTacToeManager();
+        pool = new TicTacToe[games];
+        for (int i = 0; i < games; i++) {
+            pool[i] = manager.joinGame("first-" + i);
+            manager.joinGame("second-" + i);
+        }
+    }
+
+    /**
+     * Names owned by one benchmark thread, so concurrent joins never reuse a seated player.
+     */
+    @State(Scope.Thread)
+    public static class Players {
+        private static final int NAMES = 1024;
+
+        private final String[] names = new String[NAMES];
+        private int next;
+
+        @Setup
+        public void setUp(ContentionBenchmark benchmark) {
+            int threadId = benchmark.threadIds.getAndIncrement();
+            for (int i = 0; i < NAMES; i++) {
+                names[i] = "thread-" + threadId + "-" + i;
+            }
+        }
+
+        String next() {
+            next = (next + 1) % NAMES;
+            return names[next];
+        }
+    }
+
+    @Benchmark
+    public TicTacToe joinAndLeave(Players players) {
+        String player = players.next();
+        TicTacToe game = manager.joinGame(player);
+        manager.leaveGame(player);
+        return game;
+    }
+
+    /**
+     * Plays a random legal move on a random game of the pool, starting the game over when it is finished.
+     */
+    @Benchmark
+    public GameState move() {
+        TicTacToe game = pool[ThreadLocalRandom.current().nextInt(games)];
+        GameState[] state = new GameState[1];
+        manager.withGameLock(game.getGameId(), () -> {
+            if (game.isGameOver()) {
+                game.resetBoard();
+                game.setWinner(null);
+                game.setTurn(game.getPlayer1());
+                game.setGameState(GameState.PLAYER1_TURN);
+            }
+            int cell = ThreadLocalRandom.current().nextInt(9);
+            while (!game.makeMove(game.getTurn(), cell)) {
+                cell = (cell + 1) % 9;
+            }
+            state[0] = game.getGameState();
+        });
+        return state[0];
+    }
+}
@@ -0,0 +1,105 @@
+package com.joabsonlg.tictactoewebsocket.benchmark;
+
+import com.joabsonlg.tictactoewebsocket.engine.Board;
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link TicTacToe#makeMove(String, int)} with win and tie detection. Each operation replays a whole
+ * game on a reused board, so the numbers include one {@link TicTacToe#resetBoard()}.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EngineBenchmark {
+
+    /**
+     * X wins on the main diagonal on the fifth move.
+     */
+    private static final int[] WIN = {0, 1, 4, 2, 8};
+
+    /**
+     * Fills the board without a line: X O X / X O O / O X X.
+     */
+    private static final int[] TIE = {0, 1, 2, 4, 3, 5, 7, 6, 8};
+
+    /**
+     * X wins with five in a row on the middle row of a 15x15 board, O playing the row below.
+     */
+    private static final int[] GOMOKU_WIN = new int[9];
+
+    static {
+        for (int i = 0; i < 5; i++) {
+            GOMOKU_WIN[2 * i] = 7 * 15 + 5 + i;
+            if (i < 4) {
+                GOMOKU_WIN[2 * i + 1] = 8 * 15 + 5 + i;
+            }
+        }
+    }
+
+    private TicTacToe classic;
+    private TicTacToe gomoku;
+    private Board board;
+
+    @Setup
+    public void setUp() {
+        classic = new TicTacToe("player1", "player2");
+        gomoku = new TicTacToe("player1", "player2", 15, 5);
+        board = Board.create(3, 3);
+    }
+
+    @Benchmark
+    public GameState winningGame() {
+        return play(classic, WIN);
+    }
+
+    @Benchmark
+    public GameState tiedGame() {
+        return play(classic, TIE);
+    }
+
+    @Benchmark
+    public GameState gomokuWinningGame() {
+        return play(gomoku, GOMOKU_WIN);
+    }
+
+    /**
+     * The bare board, without the player bookkeeping of {@link TicTacToe}.
+     */
+    @Benchmark
+    public int boardTiedGame() {
+        board.clear();
+        for (int i = 0; i < TIE.length; i++) {
+            board.place(TIE[i], (i & 1) == 0 ? Board.X : Board.O);
+        }
+        return board.winner();
+    }
+
+    private static GameState play(TicTacToe game, int[] moves) {
+        game.resetBoard();
+        game.setWinner(null);
+        game.setTurn(game.getPlayer1());
+        game.setGameState(GameState.PLAYER1_TURN);
+        for (int i = 0; i < moves.length; i++) {
+            game.makeMove((i & 1) == 0 ? game.getPlayer1() : game.getPlayer2(), moves[i]);
+        }
+        return game.getGameState();
+    }
+}
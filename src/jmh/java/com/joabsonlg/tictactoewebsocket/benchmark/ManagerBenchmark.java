@@ -0,0 +1,88 @@
+package com.joabsonlg.tictactoewebsocket.benchmark;
+
+import com.joabsonlg.tictactoewebsocket.manager.TicTacToeManager;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the {@link TicTacToeManager} operations with 1k, 10k and 100k live, full games.
+ * Every operation leaves the manager as it found it, so the number of games stays constant.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ManagerBenchmark {
+
+    private static final int NAMES = 1024;
+
+    @Param({"1000", "10000", "100000"})
+    public int games;
+
+    private TicTacToeManager manager;
+    private String[] seatedPlayers;
+    private String[] newPlayers;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        manager = new TicTacToeManager();
+        seatedPlayers = new String[2 * games];
+        for (int i = 0; i < seatedPlayers.length; i++) {
+            seatedPlayers[i] = "seated-" + i;
+            manager.joinGame(seatedPlayers[i]);
+        }
+        newPlayers = new String[NAMES];
+        for (int i = 0; i < NAMES; i++) {
+            newPlayers[i] = "new-" + i;
+        }
+    }
+
+    @Benchmark
+    public TicTacToe getGameByPlayer() {
+        next = (next + 1) % seatedPlayers.length;
+        return manager.getGameByPlayer(seatedPlayers[next]);
+    }
+
+    /**
+     * A player opens a game and leaves it before anybody joins.
+     */
+    @Benchmark
+    public TicTacToe joinAndLeave() {
+        String player = newPlayers[next = (next + 1) % NAMES];
+        TicTacToe game = manager.joinGame(player);
+        manager.leaveGame(player);
+        return game;
+    }
+
+    /**
+     * Two players are paired, then the second and the first leave, exercising the seat reopening too.
+     */
+    @Benchmark
+    public TicTacToe joinPairAndLeave() {
+        next = (next + 2) % NAMES;
+        String first = newPlayers[next];
+        String second = newPlayers[next + 1];
+        manager.joinGame(first);
+        TicTacToe game = manager.joinGame(second);
+        manager.leaveGame(second);
+        manager.leaveGame(first);
+        return game;
+    }
+}
@@ -0,0 +1,77 @@
+package com.joabsonlg.tictactoewebsocket.benchmark;
+
+import com.joabsonlg.tictactoewebsocket.manager.Matchmaker;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the rated {@link Matchmaker} with 1k and 100k queued games, whose players are rated around 1500.
+ * A joining player is either paired with a game, which is queued again so the number of games stays constant, or,
+ * rated far from everybody, looks at every bucket within the maximum window and finds no game.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatchmakingBenchmark {
+
+    private static final int NAMES = 1024;
+
+    @Param({"1000", "100000"})
+    public int queued;
+
+    private final Map<String, Integer> ratings = new HashMap<>();
+    private Matchmaker matchmaker;
+    private String[] joiners;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        matchmaker = new Matchmaker(player -> ratings.getOrDefault(player, 1500), 50, 100, 25, 1000);
+        for (int i = 0; i < queued; i++) {
+            String player = "queued-" + i;
+            ratings.put(player, 1500 + (int) (random.nextGaussian() * 200));
+            matchmaker.offer(new TicTacToe(player, null));
+        }
+        joiners = new String[NAMES];
+        for (int i = 0; i < NAMES; i++) {
+            joiners[i] = "joiner-" + i;
+            ratings.put(joiners[i], 1500 + (int) (random.nextGaussian() * 200));
+        }
+        ratings.put("outlier", 3900);
+    }
+
+    @Benchmark
+    public TicTacToe pollAndRequeue() {
+        TicTacToe game = matchmaker.poll(joiners[next = (next + 1) % NAMES], open -> true);
+        if (game != null) {
+            matchmaker.offer(game);
+        }
+        return game;
+    }
+
+    @Benchmark
+    public TicTacToe pollUnmatched() {
+        return matchmaker.poll("outlier", open -> true);
+    }
+}
@@ -0,0 +1,90 @@
+package com.joabsonlg.tictactoewebsocket.benchmark;
+
+import com.joabsonlg.tictactoewebsocket.ai.MonteCarloSearch;
+import com.joabsonlg.tictactoewebsocket.engine.Board;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link MonteCarloSearch} with a fixed number of playouts on a 15x15 board, five in a row, from an
+ * opening of a few moves, with one to several workers on a fork/join pool. Besides the searches per second, the
+ * playouts per second are reported, which should grow with the workers as long as there are cores for them.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MonteCarloBenchmark {
+
+    /**
+     * A crossed opening around the center.
+     */
+    private static final int[] OPENING = {7 * 15 + 7, 7 * 15 + 8, 8 * 15 + 8, 6 * 15 + 6, 8 * 15 + 7};
+
+    @Param({"1", "2", "4"})
+    public int parallelism;
+
+    @Param({"10000"})
+    public long playouts;
+
+    private ForkJoinPool pool;
+    private MonteCarloSearch search;
+    private TicTacToe game;
+
+    /**
+     * Playouts of one iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+
+        public long playouts;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            playouts = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism);
+        search = new MonteCarloSearch(pool, playouts, Long.MAX_VALUE, parallelism);
+        game = new TicTacToe("player1", "player2", 15, 5);
+        for (int i = 0; i < OPENING.length; i++) {
+            game.placeMark(OPENING[i], i % 2 == 0 ? Board.X : Board.O);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int search(Counters counters) {
+        MonteCarloSearch.Result result = search.search(game);
+        counters.playouts += result.playouts();
+        return result.move();
+    }
+}
@@ -0,0 +1,98 @@
+package com.joabsonlg.tictactoewebsocket.benchmark;
+
+import com.joabsonlg.tictactoewebsocket.ai.AlphaBetaSearch;
+import com.joabsonlg.tictactoewebsocket.engine.Board;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link AlphaBetaSearch} to a fixed depth on a 15x15 board, five in a row, from an opening of a few
+ * moves. Besides the time of a search, the visited nodes and the transposition table lookups and hits are reported
+ * per second; their ratios are the nodes per search and the hit rate.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SearchBenchmark {
+
+    /**
+     * A crossed opening around the center.
+     */
+    private static final int[] OPENING = {7 * 15 + 7, 7 * 15 + 8, 8 * 15 + 8, 6 * 15 + 6, 8 * 15 + 7};
+
+    @Param({"4", "6"})
+    public int depth;
+
+    /**
+     * Memory of the transposition table, in bytes.
+     */
+    @Param({"1048576", "16777216"})
+    public long tableBytes;
+
+    private TicTacToe game;
+    private AlphaBetaSearch search;
+
+    /**
+     * Statistics of the searches of one iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+
+        public long nodes;
+        public long probes;
+        public long hits;
+
+        @Setup(Level.Iteration)
+        public void clear() {
+            nodes = 0;
+            probes = 0;
+            hits = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        game = new TicTacToe("player1", "player2", 15, 5);
+        for (int i = 0; i < OPENING.length; i++) {
+            game.placeMark(OPENING[i], i % 2 == 0 ? Board.X : Board.O);
+        }
+    }
+
+    /**
+     * A fresh table per search, so searches do not only look up the results of the previous one. A search takes
+     * milliseconds, long enough for the per-invocation setup to be kept out of the measurement.
+     */
+    @Setup(Level.Invocation)
+    public void newTable() {
+        search = new AlphaBetaSearch(Long.MAX_VALUE, tableBytes);
+    }
+
+    @Benchmark
+    public int search(Counters counters) {
+        AlphaBetaSearch.Result result = search.search(game, Long.MAX_VALUE, depth);
+        counters.nodes += result.nodes();
+        counters.probes += result.probes();
+        counters.hits += result.hits();
+        return result.move();
+    }
+}
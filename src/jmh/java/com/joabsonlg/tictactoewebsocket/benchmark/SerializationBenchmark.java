@@ -0,0 +1,156 @@
+package com.joabsonlg.tictactoewebsocket.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joabsonlg.tictactoewebsocket.codec.BinaryMessageCodec;
+import com.joabsonlg.tictactoewebsocket.codec.GameJsonMessageConverter;
+import com.joabsonlg.tictactoewebsocket.codec.WireFormatInterceptor;
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import com.joabsonlg.tictactoewebsocket.model.dto.MoveMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.TicTacToeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the serialization of game messages: Jackson, as used by the STOMP endpoints,
+ * against the binary wire format, for full snapshots and move deltas.
+ * <p>
+ * The broadcast benchmarks follow a snapshot from its conversion by the message converter to the frame handed to a
+ * subscriber: as JSON, as binary encoded from the snapshot kept by the converter, and as binary read back from the
+ * JSON, the path of messages published as bytes.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    private static final String BINARY_SESSION = "binary-session";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GameJsonMessageConverter converter = new GameJsonMessageConverter(objectMapper);
+    private final WireFormatInterceptor interceptor = new WireFormatInterceptor();
+
+    private TicTacToe game;
+    private TicTacToeMessage snapshot;
+    private MoveMessage delta;
+    private byte[] moveRequest;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        game = new TicTacToe("player1", "player2");
+        game.setGameState(GameState.PLAYER1_TURN);
+        game.makeMove("player1", 4);
+        game.makeMove("player2", 0);
+        game.makeMove("player1", 8);
+        snapshot = new TicTacToeMessage(game);
+        snapshot.setType("game.joined");
+        delta = new MoveMessage(game, 8);
+
+        TicTacToeMessage request = new TicTacToeMessage();
+        request.setType("game.move");
+        request.setGameId(game.getGameId());
+        request.setSender("player2");
+        request.setMove(2);
+        moveRequest = objectMapper.writeValueAsBytes(request);
+
+        Map<String, Object> attributes = new HashMap<>();
+        interceptor.beforeHandshake(null, null, null, attributes);
+        StompHeaderAccessor connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+        connect.setSessionId(BINARY_SESSION);
+        connect.setSessionAttributes(attributes);
+        connect.setNativeHeader(WireFormatInterceptor.WIRE_FORMAT_HEADER, WireFormatInterceptor.BINARY);
+        interceptor.preSend(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()), null);
+    }
+
+    @Benchmark
+    public byte[] jsonSnapshot() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(snapshot);
+    }
+
+    @Benchmark
+    public byte[] jsonDelta() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(delta);
+    }
+
+    @Benchmark
+    public TicTacToeMessage jsonReadMove() throws IOException {
+        return objectMapper.readValue(moveRequest, TicTacToeMessage.class);
+    }
+
+    @Benchmark
+    public byte[] binarySnapshot() {
+        return BinaryMessageCodec.encode(snapshot);
+    }
+
+    @Benchmark
+    public byte[] binaryDelta() {
+        return BinaryMessageCodec.encode(delta);
+    }
+
+    @Benchmark
+    public Object jsonBroadcast() {
+        return toSubscriber(publish(true)).getPayload();
+    }
+
+    @Benchmark
+    public Object binaryBroadcast() {
+        return interceptor.preSend(toSubscriber(publish(true)), null).getPayload();
+    }
+
+    @Benchmark
+    public Object binaryBroadcastFromJson() {
+        return interceptor.preSend(toSubscriber(publish(false)), null).getPayload();
+    }
+
+    /**
+     * Converts a new snapshot of the game as the messaging template does. A fresh snapshot per call keeps the
+     * interceptor from serving its cached frame.
+     *
+     * @param keepSource whether the converter may keep the snapshot in the headers
+     */
+    private Message<?> publish(boolean keepSource) {
+        TicTacToeMessage message = new TicTacToeMessage(game);
+        message.setType("game.move");
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setDestination("/topic/game." + game.getGameId());
+        headers.setLeaveMutable(keepSource);
+        return converter.toMessage(message, headers.getMessageHeaders());
+    }
+
+    /**
+     * Copies a published message for one subscriber, as the simple broker does.
+     */
+    private static Message<?> toSubscriber(Message<?> published) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(BINARY_SESSION);
+        headers.setSubscriptionId("sub-0");
+        headers.copyHeadersIfAbsent(published.getHeaders());
+        headers.setLeaveMutable(true);
+        return MessageBuilder.createMessage(published.getPayload(), headers.getMessageHeaders());
+    }
+}
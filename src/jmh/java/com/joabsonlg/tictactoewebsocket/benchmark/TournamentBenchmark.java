@@ -0,0 +1,86 @@
+package com.joabsonlg.tictactoewebsocket.benchmark;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.enumeration.TournamentFormat;
+import com.joabsonlg.tictactoewebsocket.tournament.Match;
+import com.joabsonlg.tictactoewebsocket.tournament.Tournament;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmarks of a {@link Tournament} round transition: recording every result of a round and pairing the next one,
+ * halfway through a Swiss tournament or at the first round of an elimination.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class TournamentBenchmark {
+
+    private static final GameState[] OUTCOMES = {GameState.PLAYER1_WON, GameState.PLAYER2_WON, GameState.TIE};
+
+    @Param({"1000", "10000"})
+    public int players;
+
+    @Param({"SWISS", "SINGLE_ELIMINATION"})
+    public TournamentFormat format;
+
+    private final SplittableRandom random = new SplittableRandom(42);
+    private List<String> names;
+    private Tournament tournament;
+    private List<Match> round;
+
+    @Setup
+    public void setUp() {
+        names = IntStream.range(0, players).mapToObj(i -> "player" + i).toList();
+    }
+
+    /**
+     * A tournament with a few rounds played, so the pairing has scores and previous opponents to take into account.
+     * Playing them takes about as long as the measured transition, which is well above JMH's per-invocation overhead.
+     */
+    @Setup(Level.Invocation)
+    public void playRounds() {
+        tournament = new Tournament("benchmark", format, names, 9);
+        round = tournament.nextRound();
+        int played = format == TournamentFormat.SWISS ? 4 : 0;
+        for (int i = 0; i < played; i++) {
+            reportAll();
+            round = tournament.nextRound();
+        }
+    }
+
+    @Benchmark
+    public List<Match> roundTransition() {
+        reportAll();
+        return tournament.nextRound();
+    }
+
+    private void reportAll() {
+        for (Match match : round) {
+            // Ties are replayed in an elimination; the replay's result settles the match.
+            for (Match replay : tournament.report(match, OUTCOMES[random.nextInt(OUTCOMES.length)])) {
+                tournament.report(replay, GameState.PLAYER1_WON);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.joabsonlg.tictactoewebsocket.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram of latencies in microseconds.
+ * <p>
+ * Values below 64 get a bucket each; above that every power of two is split into 32 buckets,
+ * so a recorded value is off by at most about 3%.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+class LatencyHistogram {
+
+    private static final int LINEAR = 64;
+    private static final int SUB_BUCKETS = 32;
+    private static final int BUCKETS = LINEAR + (63 - 6) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    void record(long micros) {
+        counts.incrementAndGet(indexOf(Math.max(0, micros)));
+    }
+
+    long count() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the value at the given percentile, e.g. 99.9, or 0 if nothing was recorded.
+     */
+    long percentile(double percentile) {
+        long total = count();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= Math.max(1, rank)) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(BUCKETS - 1);
+    }
+
+    long max() {
+        for (int i = BUCKETS - 1; i >= 0; i--) {
+            if (counts.get(i) != 0) {
+                return upperBoundOf(i);
+            }
+        }
+        return 0;
+    }
+
+    private static int indexOf(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - 5)) & (SUB_BUCKETS - 1);
+        return LINEAR + (exponent - 6) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int exponent = (index - LINEAR) / SUB_BUCKETS + 6;
+        long sub = (index - LINEAR) % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << (exponent - 5)) - 1;
+    }
+}
@@ -0,0 +1,217 @@
+package com.joabsonlg.tictactoewebsocket.loadtest;
+
+import com.joabsonlg.tictactoewebsocket.TictactoewebsocketApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Headless load generator: starts the application on a random local port and drives it with simulated players
+ * over SockJS/STOMP, each on its own session, cycling through join, moves and game over or leave.
+ * <p>
+ * At the end it reports move throughput, the move round-trip latency (from sending {@code /app/game.move} to
+ * receiving its delta) and error counts. Run it with
+ * <pre>
+ * ./mvnw -P loadtest test-compile exec:exec -Dloadtest.args="--players=2000 --duration=60"
+ * </pre>
+ * Options, all {@code --name=value}:
+ * <ul>
+ *     <li>{@code players} number of concurrent sessions, default 1000;</li>
+ *     <li>{@code duration} measurement time in seconds, default 30;</li>
+ *     <li>{@code think} delay before each move and rejoin in milliseconds, default 100;</li>
+ *     <li>{@code leave} probability of leaving a game instead of moving, default 0.01;</li>
+ *     <li>{@code stall} milliseconds without progress before a player asks for a resync, default 3000;</li>
+ *     <li>{@code executor} {@code PLATFORM} or {@code VIRTUAL} channel executors, to compare both;</li>
+ *     <li>{@code mode} {@code DIRECT} or {@code ACTOR} execution of game events;</li>
+ *     <li>{@code url} an already running server to use instead of the embedded one.</li>
+ * </ul>
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class LoadGenerator {
+
+    /**
+     * Sessions connecting at the same time while the load ramps up.
+     */
+    private static final int CONNECT_BATCH = 100;
+
+    private static final int REPORT_INTERVAL_SECONDS = 5;
+
+    record Settings(int players, int durationSeconds, long thinkMillis, double leaveProbability,
+                    long stallTimeoutMillis, String executor, String mode, String url) {
+
+        static Settings parse(String[] args) {
+            Map<String, String> options = new HashMap<>();
+            for (String arg : args) {
+                if (!arg.startsWith("--") || !arg.contains("=")) {
+                    throw new IllegalArgumentException("Expected --name=value, got " + arg);
+                }
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+            return new Settings(
+                    Integer.parseInt(options.getOrDefault("players", "1000")),
+                    Integer.parseInt(options.getOrDefault("duration", "30")),
+                    Long.parseLong(options.getOrDefault("think", "100")),
+                    Double.parseDouble(options.getOrDefault("leave", "0.01")),
+                    Long.parseLong(options.getOrDefault("stall", "3000")),
+                    options.getOrDefault("executor", "PLATFORM").toUpperCase(Locale.ROOT),
+                    options.getOrDefault("mode", "DIRECT").toUpperCase(Locale.ROOT),
+                    options.get("url"));
+        }
+    }
+
+    /**
+     * Counters shared by every simulated player.
+     */
+    static class Stats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder moves = new LongAdder();
+        final LongAdder gamesFinished = new LongAdder();
+        final LongAdder gamesAbandoned = new LongAdder();
+        final LongAdder leaves = new LongAdder();
+        final LongAdder resyncs = new LongAdder();
+        final LongAdder gaps = new LongAdder();
+        final LongAdder stalls = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder connectFailures = new LongAdder();
+        final LongAdder transportErrors = new LongAdder();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.parse(args);
+        ConfigurableApplicationContext context = null;
+        String url = settings.url();
+        if (url == null) {
+            // Devtools reads this before the environment exists; a restarted context would be shut down under us.
+            System.setProperty("spring.devtools.restart.enabled", "false");
+            Path data = Files.createTempDirectory("loadtest-data");
+            context = new SpringApplicationBuilder(TictactoewebsocketApplication.class)
+                    .run("--server.port=0",
+                            // A fresh journal and archive, so games of an earlier run are not restored.
+                            "--tictactoe.journal.dir=" + data.resolve("journal"),
+                            "--tictactoe.snapshot.file=" + data.resolve("games.snapshot"),
+                            "--tictactoe.archive.dir=" + data.resolve("archive"),
+                            "--tictactoe.websocket.executor=" + settings.executor(),
+                            "--tictactoe.execution.mode=" + settings.mode());
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            url = "ws://localhost:" + port + "/ws";
+        }
+        try {
+            new LoadGenerator(settings).run(url);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+        System.exit(0);
+    }
+
+    private final Settings settings;
+    private final Stats stats = new Stats();
+
+    LoadGenerator(Settings settings) {
+        this.settings = settings;
+    }
+
+    void run(String url) throws InterruptedException {
+        StandardWebSocketClient webSocketClient = new StandardWebSocketClient();
+        WebSocketStompClient stompClient = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(webSocketClient))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+                Runtime.getRuntime().availableProcessors(), runnable -> {
+                    Thread thread = new Thread(runnable, "loadtest-scheduler");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        System.out.printf("Connecting %d players to %s (executor %s, mode %s)%n",
+                settings.players(), url, settings.executor(), settings.mode());
+        List<SimulatedPlayer> players = connect(stompClient, url, scheduler);
+        System.out.printf("%d sessions connected, %d failed%n", players.size(), stats.connectFailures.sum());
+
+        scheduler.scheduleAtFixedRate(() -> {
+            long now = System.nanoTime();
+            players.forEach(player -> player.checkStalled(now));
+        }, 100, 100, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        players.forEach(SimulatedPlayer::start);
+        long lastMoves = 0;
+        for (int elapsed = REPORT_INTERVAL_SECONDS; elapsed <= settings.durationSeconds(); elapsed += REPORT_INTERVAL_SECONDS) {
+            TimeUnit.SECONDS.sleep(REPORT_INTERVAL_SECONDS);
+            long moves = stats.moves.sum();
+            System.out.printf("[%3ds] %8.0f moves/s, p99 %6d us, errors %d%n", elapsed,
+                    (moves - lastMoves) / (double) REPORT_INTERVAL_SECONDS, stats.latency.percentile(99),
+                    stats.errors.sum() + stats.transportErrors.sum());
+            lastMoves = moves;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        players.forEach(SimulatedPlayer::stop);
+        scheduler.shutdownNow();
+        report(seconds);
+        stompClient.stop();
+    }
+
+    private List<SimulatedPlayer> connect(WebSocketStompClient stompClient, String url,
+                                          ScheduledExecutorService scheduler) {
+        List<SimulatedPlayer> players = new ArrayList<>(settings.players());
+        for (int batchStart = 0; batchStart < settings.players(); batchStart += CONNECT_BATCH) {
+            int batchEnd = Math.min(settings.players(), batchStart + CONNECT_BATCH);
+            List<CompletableFuture<StompSession>> batch = new ArrayList<>();
+            for (int i = batchStart; i < batchEnd; i++) {
+                batch.add(stompClient.connectAsync(url, new StompSessionHandlerAdapter() {
+                    @Override
+                    public void handleTransportError(StompSession session, Throwable exception) {
+                        stats.transportErrors.increment();
+                    }
+                }));
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    StompSession session = batch.get(i).get(30, TimeUnit.SECONDS);
+                    players.add(new SimulatedPlayer("player-" + (batchStart + i), session, settings, stats, scheduler));
+                } catch (Exception e) {
+                    stats.connectFailures.increment();
+                }
+            }
+        }
+        return players;
+    }
+
+    private void report(double seconds) {
+        LatencyHistogram latency = stats.latency;
+        System.out.println();
+        System.out.println("==== Load test results ====");
+        System.out.printf("Players:            %d (executor %s, mode %s)%n", settings.players(), settings.executor(), settings.mode());
+        System.out.printf("Duration:           %.1f s%n", seconds);
+        System.out.printf("Moves:              %d (%.0f moves/s)%n", stats.moves.sum(), stats.moves.sum() / seconds);
+        System.out.printf("Games finished:     %d (%.0f games/s)%n", stats.gamesFinished.sum(), stats.gamesFinished.sum() / seconds);
+        System.out.printf("Games abandoned:    %d, leaves %d%n", stats.gamesAbandoned.sum(), stats.leaves.sum());
+        System.out.printf("Move round trip:    p50 %d us, p99 %d us, p99.9 %d us, max %d us%n",
+                latency.percentile(50), latency.percentile(99), latency.percentile(99.9), latency.max());
+        System.out.printf("Resyncs:            %d (gaps %d, stalls %d)%n", stats.resyncs.sum(), stats.gaps.sum(), stats.stalls.sum());
+        System.out.printf("Errors:             %d server, %d transport, %d failed connects%n",
+                stats.errors.sum(), stats.transportErrors.sum(), stats.connectFailures.sum());
+    }
+}
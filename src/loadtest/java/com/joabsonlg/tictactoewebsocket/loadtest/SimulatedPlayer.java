@@ -0,0 +1,321 @@
+package com.joabsonlg.tictactoewebsocket.loadtest;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.model.dto.JoinMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.PlayerMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.TicTacToeMessage;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulated player on its own STOMP session. It plays the same protocol as the browser client: join, play random
+ * legal moves when it is its turn, apply move deltas, ask for a resync on a sequence gap and join again once the game
+ * is over. With a small probability it leaves a game in the middle and joins again.
+ * <p>
+ * Every callback runs on a client thread, so the player's state is guarded by its monitor.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+class SimulatedPlayer {
+
+    private final String name;
+    private final StompSession session;
+    private final LoadGenerator.Settings settings;
+    private final LoadGenerator.Stats stats;
+    private final ScheduledExecutorService scheduler;
+
+    private StompSession.Subscription gameSubscription;
+    private String gameId;
+    private String player1;
+    private String player2;
+    private GameState gameState;
+    private String[] board;
+    private int size;
+    private long seq;
+
+    /**
+     * Sequence number the delta of our pending move will carry, or 0 if no move is in flight.
+     */
+    private long pendingSeq;
+    private long pendingSince;
+    private long lastProgress = System.nanoTime();
+    private boolean moveScheduled;
+    private volatile boolean stopped;
+
+    SimulatedPlayer(String name, StompSession session, LoadGenerator.Settings settings, LoadGenerator.Stats stats,
+                    ScheduledExecutorService scheduler) {
+        this.name = name;
+        this.session = session;
+        this.settings = settings;
+        this.stats = stats;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Subscribes to the session's reply queue and asks to join a game.
+     */
+    synchronized void start() {
+        session.subscribe("/user/queue/game.state", new Handler());
+        join();
+    }
+
+    synchronized void stop() {
+        stopped = true;
+        if (gameId != null) {
+            PlayerMessage message = new PlayerMessage();
+            message.setType("game.leave");
+            message.setPlayer(name);
+            send("/app/game.leave", message);
+        }
+    }
+
+    /**
+     * Recovers a player that has not heard from the server for longer than the stall timeout. The inbound channel
+     * is multi-threaded, so a SUBSCRIBE may be handled after messages it should have received were published:
+     * a player without a game sends its join again, which the server answers with its current game, and a player
+     * in a game asks for a resync.
+     */
+    synchronized void checkStalled(long now) {
+        if (stopped || moveScheduled || now - lastProgress <= TimeUnit.MILLISECONDS.toNanos(settings.stallTimeoutMillis())) {
+            return;
+        }
+        if (gameState != null && gameState != GameState.WAITING_FOR_PLAYER) {
+            stats.stalls.increment();
+        }
+        lastProgress = now;
+        pendingSeq = 0;
+        if (gameId == null) {
+            JoinMessage message = new JoinMessage();
+            message.setType("game.join");
+            message.setPlayer(name);
+            send("/app/game.join", message);
+        } else {
+            resync();
+        }
+    }
+
+    private void join() {
+        if (stopped) {
+            return;
+        }
+        resetGame();
+        lastProgress = System.nanoTime();
+        JoinMessage message = new JoinMessage();
+        message.setType("game.join");
+        message.setPlayer(name);
+        send("/app/game.join", message);
+    }
+
+    private void resetGame() {
+        if (gameSubscription != null) {
+            gameSubscription.unsubscribe();
+            gameSubscription = null;
+        }
+        gameId = null;
+        gameState = null;
+        pendingSeq = 0;
+    }
+
+    private synchronized void onEvent(Event event) {
+        if (stopped || event.type == null) {
+            return;
+        }
+        switch (event.type) {
+            case "game.joined" -> {
+                if (gameSubscription == null || !event.gameId.equals(gameId)) {
+                    if (gameSubscription != null) {
+                        gameSubscription.unsubscribe();
+                    }
+                    gameSubscription = session.subscribe("/topic/game." + event.gameId, new Handler());
+                }
+                gameId = event.gameId;
+                applySnapshot(event);
+            }
+            case "game.join", "game.left", "game.resync" -> applySnapshot(event);
+            case "game.delta" -> applyDelta(event);
+            case "game.gameOver", "game.expired" -> {
+                stats.gamesAbandoned.increment();
+                rejoinLater();
+            }
+            case "error" -> {
+                stats.errors.increment();
+                if (event.content != null && event.content.startsWith("Game not found")) {
+                    // The game finished or was abandoned while our message was in flight.
+                    rejoinLater();
+                } else if (pendingSeq != 0) {
+                    // The move was rejected; find out where the game stands.
+                    pendingSeq = 0;
+                    resync();
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void applySnapshot(Event event) {
+        if (gameId == null || !gameId.equals(event.gameId)) {
+            // Late message of a game we already left.
+            return;
+        }
+        if (!name.equals(event.player1) && !name.equals(event.player2)) {
+            // A leave was handled after our next join; we are no longer seated in this game.
+            rejoinLater();
+            return;
+        }
+        lastProgress = System.nanoTime();
+        player1 = event.player1;
+        player2 = event.player2;
+        gameState = event.gameState;
+        seq = event.seq;
+        size = event.board.length;
+        board = new String[size * size];
+        for (int row = 0; row < size; row++) {
+            System.arraycopy(event.board[row], 0, board, row * size, size);
+        }
+        if (pendingSeq != 0 && seq >= pendingSeq) {
+            pendingSeq = 0;
+        }
+        maybeMove();
+    }
+
+    private void applyDelta(Event event) {
+        if (gameId == null || !gameId.equals(event.gameId) || event.seq <= seq) {
+            return;
+        }
+        if (event.seq != seq + 1) {
+            stats.gaps.increment();
+            resync();
+            return;
+        }
+        board[event.cell] = event.mark;
+        seq = event.seq;
+        lastProgress = System.nanoTime();
+        gameState = event.gameState;
+        if (pendingSeq == seq) {
+            stats.latency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - pendingSince));
+            stats.moves.increment();
+            pendingSeq = 0;
+        }
+        if (isOver(gameState)) {
+            if (name.equals(player1)) {
+                stats.gamesFinished.increment();
+            }
+            rejoinLater();
+            return;
+        }
+        maybeMove();
+    }
+
+    private void maybeMove() {
+        if (moveScheduled || pendingSeq != 0 || !isMyTurn()) {
+            return;
+        }
+        if (ThreadLocalRandom.current().nextDouble() < settings.leaveProbability()) {
+            PlayerMessage message = new PlayerMessage();
+            message.setType("game.leave");
+            message.setPlayer(name);
+            send("/app/game.leave", message);
+            stats.leaves.increment();
+            rejoinLater();
+            return;
+        }
+        moveScheduled = true;
+        scheduler.schedule(this::move, settings.thinkMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void move() {
+        moveScheduled = false;
+        if (stopped || pendingSeq != 0 || !isMyTurn()) {
+            return;
+        }
+        int start = ThreadLocalRandom.current().nextInt(board.length);
+        for (int i = 0; i < board.length; i++) {
+            int cell = (start + i) % board.length;
+            if (" ".equals(board[cell])) {
+                TicTacToeMessage message = new TicTacToeMessage();
+                message.setType("game.move");
+                message.setGameId(gameId);
+                message.setSender(name);
+                message.setMove(cell);
+                pendingSeq = seq + 1;
+                pendingSince = System.nanoTime();
+                send("/app/game.move", message);
+                return;
+            }
+        }
+    }
+
+    private void resync() {
+        if (gameId == null) {
+            return;
+        }
+        stats.resyncs.increment();
+        PlayerMessage message = new PlayerMessage();
+        message.setType("game.resync");
+        message.setGameId(gameId);
+        send("/app/game.resync", message);
+    }
+
+    private void rejoinLater() {
+        resetGame();
+        scheduler.schedule(() -> {
+            synchronized (this) {
+                join();
+            }
+        }, settings.thinkMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private boolean isMyTurn() {
+        return (gameState == GameState.PLAYER1_TURN && name.equals(player1))
+                || (gameState == GameState.PLAYER2_TURN && name.equals(player2));
+    }
+
+    private static boolean isOver(GameState state) {
+        return state == GameState.PLAYER1_WON || state == GameState.PLAYER2_WON || state == GameState.TIE;
+    }
+
+    private void send(String destination, Object payload) {
+        try {
+            session.send(destination, payload);
+        } catch (RuntimeException e) {
+            stats.errors.increment();
+        }
+    }
+
+    /**
+     * Any message the server sends on the game's topic or the session's queue: a snapshot, a delta or an error.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    static class Event {
+        public String type;
+        public String gameId;
+        public String player1;
+        public String player2;
+        public String[][] board;
+        public GameState gameState;
+        public long seq;
+        public int cell;
+        public String mark;
+        public String content;
+    }
+
+    private class Handler implements StompFrameHandler {
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return Event.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            onEvent((Event) payload);
+        }
+    }
+}
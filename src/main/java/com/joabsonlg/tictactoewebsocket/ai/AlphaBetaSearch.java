@@ -0,0 +1,397 @@
+package com.joabsonlg.tictactoewebsocket.ai;
+
+import com.joabsonlg.tictactoewebsocket.engine.Board;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+
+/**
+ * Game-tree search for boards too large for a lookup table, such as 15x15 five in a row.
+ * <p>
+ * Negamax with alpha-beta pruning, deepened one ply at a time until the per-move time budget runs out; the move of
+ * the last completed iteration is played. Results are kept in a {@link TranspositionTable} of fixed size shared by
+ * all searches. Positions are keyed by Zobrist hashes kept for all eight symmetries of the board at once, the
+ * smallest being the canonical key, so rotated and mirrored positions share one entry.
+ * <p>
+ * The evaluation is kept up to date as marks are placed and removed: every window of {@code winLength} cells holding
+ * marks of only one side is worth a weight growing eightfold with each mark, and a window filled by one side is a
+ * win, so evaluating a leaf or detecting a win costs nothing extra. Moves are tried in order of the transposition
+ * table's move, then of the windows they extend or block plus a history of the moves that caused cutoffs. On boards
+ * larger than 5x5 only cells within two rows and columns of a mark are considered.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class AlphaBetaSearch implements BotEngine {
+
+    /**
+     * Score of a win on the next move; wins further away score one less per ply.
+     */
+    static final int WIN = 1 << 28;
+
+    private static final int INFINITY = WIN + 1;
+    private static final int MAX_PLY = 64;
+
+    /**
+     * Scores beyond this are wins or losses found by the search.
+     */
+    private static final int WIN_THRESHOLD = WIN - 2 * MAX_PLY;
+
+    private final long moveTimeNanos;
+    private final TranspositionTable table;
+
+    /**
+     * Outcome of a search.
+     *
+     * @param move         the cell to play, or -1 if the board is full
+     * @param score        the score of the move for the side to move, above {@code 1 << 27} for a forced win
+     * @param depth        the depth of the last completed iteration
+     * @param nodes        the number of positions visited
+     * @param probes       the number of transposition table lookups
+     * @param hits         the number of lookups that found the position
+     * @param elapsedNanos the time spent searching
+     */
+    public record Result(int move, int score, int depth, long nodes, long probes, long hits, long elapsedNanos) {
+
+        /**
+         * @return the share of the transposition table lookups that found the position
+         */
+        public double hitRate() {
+            return probes == 0 ? 0 : (double) hits / probes;
+        }
+
+        /**
+         * @return the number of positions visited per second
+         */
+        public double nodesPerSecond() {
+            return elapsedNanos == 0 ? 0 : nodes * 1e9 / elapsedNanos;
+        }
+    }
+
+    /**
+     * Constructs a new AlphaBetaSearch.
+     *
+     * @param moveTimeNanos the time budget of a move
+     * @param tableBytes    the memory of the transposition table
+     */
+    public AlphaBetaSearch(long moveTimeNanos, long tableBytes) {
+        this.moveTimeNanos = moveTimeNanos;
+        this.table = new TranspositionTable(tableBytes);
+    }
+
+    @Override
+    public int bestMove(TicTacToe game) {
+        return search(game, moveTimeNanos, MAX_PLY).move();
+    }
+
+    /**
+     * Searches the best move for the side to move within the time budget.
+     *
+     * @param game     a game that is not over
+     * @param budget   the time budget, in nanoseconds; the first iteration always completes
+     * @param maxDepth the deepest iteration, in plies
+     * @return the move and the statistics of the search
+     */
+    public Result search(TicTacToe game, long budget, int maxDepth) {
+        long start = System.nanoTime();
+        // Capped so the deadline does not overflow when searching without a limit.
+        long deadline = start + Math.min(budget, Long.MAX_VALUE / 4);
+        Search search = new Search(BoardGeometry.of(game.getSize(), game.getWinLength()), table, deadline,
+                Math.min(maxDepth, MAX_PLY));
+        for (int cell = 0; cell < search.cells.length; cell++) {
+            int mark = game.markAt(cell);
+            if (mark != Board.EMPTY) {
+                search.place(cell, mark);
+            }
+        }
+        table.newSearch();
+        return search.run(start);
+    }
+
+    /**
+     * @return the number of entries of the transposition table
+     */
+    public int getTableCapacity() {
+        return table.capacity();
+    }
+
+    /**
+     * State of one search: a private copy of the board with its evaluation and hashes.
+     */
+    private static final class Search {
+
+        private final BoardGeometry geometry;
+        private final TranspositionTable table;
+        private final long deadline;
+        private final int maxDepth;
+        private final boolean restrictToNeighbours;
+
+        private final byte[] cells;
+        private final int[] xInWindow;
+        private final int[] oInWindow;
+        private final int[] near;
+        private final int[] history;
+        private final long[] hashes = new long[BoardGeometry.SYMMETRIES];
+        private final int[] weights;
+        private final int[][] moves;
+        private final int[][] orderScores;
+
+        /**
+         * Sum of the window weights, positive for X.
+         */
+        private long evaluation;
+        private int marks;
+
+        private long nodes;
+        private long probes;
+        private long hits;
+        private boolean checkTime;
+        private boolean aborted;
+        private int rootBest = -1;
+
+        Search(BoardGeometry geometry, TranspositionTable table, long deadline, int maxDepth) {
+            this.geometry = geometry;
+            this.table = table;
+            this.deadline = deadline;
+            this.maxDepth = maxDepth;
+            this.restrictToNeighbours = geometry.size > 5;
+            this.cells = new byte[geometry.cells];
+            this.xInWindow = new int[geometry.windowCount];
+            this.oInWindow = new int[geometry.windowCount];
+            this.near = new int[geometry.cells];
+            this.history = new int[geometry.cells];
+            this.weights = new int[geometry.winLength + 1];
+            for (int count = 1; count <= geometry.winLength; count++) {
+                weights[count] = 1 << Math.min(3 * (count - 1), 24);
+            }
+            int plies = Math.min(maxDepth, geometry.cells) + 1;
+            this.moves = new int[plies][geometry.cells];
+            this.orderScores = new int[plies][geometry.cells];
+        }
+
+        /**
+         * Places a mark and updates the evaluation, the hashes and the neighbourhoods.
+         *
+         * @return true if the mark completes a window
+         */
+        boolean place(int cell, int mark) {
+            cells[cell] = (byte) mark;
+            marks++;
+            long[] keys = geometry.zobrist[mark - 1];
+            for (int s = 0; s < BoardGeometry.SYMMETRIES; s++) {
+                hashes[s] ^= keys[geometry.symmetries[s][cell]];
+            }
+            boolean won = false;
+            for (int w : geometry.windowsOf[cell]) {
+                evaluation -= windowValue(w);
+                if (mark == Board.X) {
+                    won |= ++xInWindow[w] == geometry.winLength;
+                } else {
+                    won |= ++oInWindow[w] == geometry.winLength;
+                }
+                evaluation += windowValue(w);
+            }
+            for (int neighbour : geometry.neighbours[cell]) {
+                near[neighbour]++;
+            }
+            return won;
+        }
+
+        void remove(int cell, int mark) {
+            cells[cell] = Board.EMPTY;
+            marks--;
+            long[] keys = geometry.zobrist[mark - 1];
+            for (int s = 0; s < BoardGeometry.SYMMETRIES; s++) {
+                hashes[s] ^= keys[geometry.symmetries[s][cell]];
+            }
+            for (int w : geometry.windowsOf[cell]) {
+                evaluation -= windowValue(w);
+                if (mark == Board.X) {
+                    xInWindow[w]--;
+                } else {
+                    oInWindow[w]--;
+                }
+                evaluation += windowValue(w);
+            }
+            for (int neighbour : geometry.neighbours[cell]) {
+                near[neighbour]--;
+            }
+        }
+
+        private long windowValue(int w) {
+            int x = xInWindow[w];
+            int o = oInWindow[w];
+            if (x > 0) {
+                return o > 0 ? 0 : weights[x];
+            }
+            return -weights[o];
+        }
+
+        Result run(long start) {
+            int depthLimit = Math.min(maxDepth, geometry.cells - marks);
+            int bestMove = -1;
+            int bestScore = 0;
+            int completed = 0;
+            for (int depth = 1; depth <= depthLimit; depth++) {
+                checkTime = depth > 1;
+                int score = negamax(depth, -INFINITY, INFINITY, 0);
+                if (aborted) {
+                    break;
+                }
+                bestMove = rootBest;
+                bestScore = score;
+                completed = depth;
+                if (Math.abs(score) > WIN_THRESHOLD || System.nanoTime() - deadline > 0) {
+                    break;
+                }
+            }
+            return new Result(bestMove, bestScore, completed, nodes, probes, hits, System.nanoTime() - start);
+        }
+
+        private int negamax(int depth, int alpha, int beta, int ply) {
+            if ((++nodes & 1023) == 0 && checkTime && System.nanoTime() - deadline > 0) {
+                aborted = true;
+            }
+            if (aborted) {
+                return 0;
+            }
+            if (marks == cells.length) {
+                return 0;
+            }
+            int mover = (marks & 1) == 0 ? Board.X : Board.O;
+            if (depth == 0) {
+                long score = mover == Board.X ? evaluation : -evaluation;
+                return (int) Math.max(-WIN_THRESHOLD, Math.min(WIN_THRESHOLD, score));
+            }
+
+            int symmetry = canonicalSymmetry();
+            long key = hashes[symmetry];
+            int ttMove = -1;
+            probes++;
+            long data = table.probe(key);
+            if (data != 0) {
+                hits++;
+                int stored = TranspositionTable.moveOf(data);
+                if (stored >= 0 && stored < cells.length) {
+                    ttMove = geometry.inverses[symmetry][stored];
+                }
+                if (ply > 0 && TranspositionTable.depthOf(data) >= depth) {
+                    int score = fromTable(TranspositionTable.scoreOf(data), ply);
+                    int bound = TranspositionTable.boundOf(data);
+                    if (bound == TranspositionTable.EXACT
+                            || bound == TranspositionTable.LOWER && score >= beta
+                            || bound == TranspositionTable.UPPER && score <= alpha) {
+                        return score;
+                    }
+                }
+            }
+
+            int[] candidates = moves[ply];
+            int[] scores = orderScores[ply];
+            int count = generate(candidates, scores, ttMove, mover);
+            int originalAlpha = alpha;
+            int best = -INFINITY;
+            int bestMove = -1;
+            for (int i = 0; i < count; i++) {
+                int cell = selectNext(candidates, scores, i, count);
+                boolean won = place(cell, mover);
+                int score = won ? WIN - ply : -negamax(depth - 1, -beta, -alpha, ply + 1);
+                remove(cell, mover);
+                if (aborted) {
+                    return 0;
+                }
+                if (score > best) {
+                    best = score;
+                    bestMove = cell;
+                    if (ply == 0) {
+                        rootBest = cell;
+                    }
+                }
+                if (score > alpha) {
+                    alpha = score;
+                }
+                if (alpha >= beta) {
+                    history[cell] += depth * depth;
+                    break;
+                }
+            }
+            if (bestMove < 0) {
+                return best;
+            }
+            int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                    : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, geometry.symmetries[symmetry][bestMove], depth, bound, toTable(best, ply));
+            return best;
+        }
+
+        /**
+         * Lists the moves to try with their ordering scores.
+         *
+         * @return the number of moves
+         */
+        private int generate(int[] candidates, int[] scores, int ttMove, int mover) {
+            int count = 0;
+            for (int cell : geometry.centerOrder) {
+                if (cells[cell] != Board.EMPTY || restrictToNeighbours && near[cell] == 0 && marks > 0) {
+                    continue;
+                }
+                int score = history[cell];
+                for (int w : geometry.windowsOf[cell]) {
+                    int own = mover == Board.X ? xInWindow[w] : oInWindow[w];
+                    int other = mover == Board.X ? oInWindow[w] : xInWindow[w];
+                    if (other == 0) {
+                        // Extending a line of our own; a win beats any block.
+                        score += own == geometry.winLength - 1 ? 1 << 29 : weights[own + 1];
+                    } else if (own == 0) {
+                        score += weights[other];
+                    }
+                }
+                candidates[count] = cell;
+                scores[count++] = cell == ttMove ? Integer.MAX_VALUE : score;
+                if (marks == 0 && restrictToNeighbours) {
+                    // Any first move near the center will do.
+                    break;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Moves the best remaining candidate to position {@code from} and returns it. Picking lazily is cheaper than
+         * sorting, as a cutoff usually comes after a few moves.
+         */
+        private static int selectNext(int[] candidates, int[] scores, int from, int count) {
+            int best = from;
+            for (int i = from + 1; i < count; i++) {
+                if (scores[i] > scores[best]) {
+                    best = i;
+                }
+            }
+            int cell = candidates[best];
+            candidates[best] = candidates[from];
+            candidates[from] = cell;
+            int score = scores[best];
+            scores[best] = scores[from];
+            scores[from] = score;
+            return cell;
+        }
+
+        private int canonicalSymmetry() {
+            int symmetry = 0;
+            for (int s = 1; s < BoardGeometry.SYMMETRIES; s++) {
+                if (hashes[s] < hashes[symmetry]) {
+                    symmetry = s;
+                }
+            }
+            return symmetry;
+        }
+
+        /**
+         * Converts a win or loss score from plies to the root into plies to the stored position.
+         */
+        private static int toTable(int score, int ply) {
+            return score > WIN_THRESHOLD ? score + ply : score < -WIN_THRESHOLD ? score - ply : score;
+        }
+
+        private static int fromTable(int score, int ply) {
+            return score > WIN_THRESHOLD ? score - ply : score < -WIN_THRESHOLD ? score + ply : score;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.joabsonlg.tictactoewebsocket.ai;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Precomputed tables of one board configuration, shared by every search on it: the winning windows through each
+ * cell, the eight symmetries of the square, the Zobrist keys, the cells in order of distance to the center and the
+ * neighbourhood of each cell.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+final class BoardGeometry {
+
+    static final int SYMMETRIES = 8;
+
+    private static final Map<Integer, BoardGeometry> CACHE = new ConcurrentHashMap<>();
+
+    final int size;
+    final int winLength;
+    final int cells;
+
+    /**
+     * Number of windows: runs of {@code winLength} cells along a row, a column or a diagonal.
+     */
+    final int windowCount;
+
+    /**
+     * {@code windowsOf[cell]} lists the windows containing the cell.
+     */
+    final int[][] windowsOf;
+
+    /**
+     * {@code symmetries[s][cell]} is the image of the cell under symmetry {@code s}; symmetry 0 is the identity.
+     */
+    final int[][] symmetries;
+
+    /**
+     * {@code inverses[s]} undoes {@code symmetries[s]}.
+     */
+    final int[][] inverses;
+
+    /**
+     * {@code zobrist[mark - 1][cell]}, the keys of the marks, different for every configuration.
+     */
+    final long[][] zobrist;
+
+    /**
+     * The cells, from the center outwards.
+     */
+    final int[] centerOrder;
+
+    /**
+     * {@code neighbours[cell]} lists the other cells at most two rows and two columns away.
+     */
+    final int[][] neighbours;
+
+    private BoardGeometry(int size, int winLength) {
+        this.size = size;
+        this.winLength = winLength;
+        this.cells = size * size;
+
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        int[] counts = new int[cells];
+        int[][] windows = new int[4 * cells][];
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                for (int[] d : directions) {
+                    int endRow = row + d[0] * (winLength - 1);
+                    int endCol = col + d[1] * (winLength - 1);
+                    if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size) {
+                        continue;
+                    }
+                    int[] window = new int[winLength];
+                    for (int i = 0; i < winLength; i++) {
+                        window[i] = (row + d[0] * i) * size + col + d[1] * i;
+                        counts[window[i]]++;
+                    }
+                    windows[count++] = window;
+                }
+            }
+        }
+        this.windowCount = count;
+        this.windowsOf = new int[cells][];
+        for (int cell = 0; cell < cells; cell++) {
+            windowsOf[cell] = new int[counts[cell]];
+            counts[cell] = 0;
+        }
+        for (int w = 0; w < count; w++) {
+            for (int cell : windows[w]) {
+                windowsOf[cell][counts[cell]++] = w;
+            }
+        }
+
+        this.symmetries = new int[SYMMETRIES][cells];
+        this.inverses = new int[SYMMETRIES][cells];
+        int last = size - 1;
+        for (int cell = 0; cell < cells; cell++) {
+            int r = cell / size;
+            int c = cell % size;
+            int[] images = {
+                    cell, c * size + last - r, (last - r) * size + last - c, (last - c) * size + r,
+                    r * size + last - c, (last - r) * size + c, c * size + r, (last - c) * size + last - r
+            };
+            for (int s = 0; s < SYMMETRIES; s++) {
+                symmetries[s][cell] = images[s];
+                inverses[s][images[s]] = cell;
+            }
+        }
+
+        SplittableRandom random = new SplittableRandom(0x5EED_0000L ^ ((long) size << 16 | winLength));
+        this.zobrist = new long[2][cells];
+        for (long[] keys : zobrist) {
+            Arrays.setAll(keys, i -> random.nextLong());
+        }
+
+        double center = last / 2.0;
+        this.centerOrder = IntStream.range(0, cells).boxed()
+                .sorted(Comparator.comparingDouble(cell -> Math.hypot(cell / size - center, cell % size - center)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        this.neighbours = new int[cells][];
+        int[] around = new int[24];
+        for (int cell = 0; cell < cells; cell++) {
+            int r = cell / size;
+            int c = cell % size;
+            int found = 0;
+            for (int row = Math.max(0, r - 2); row <= Math.min(last, r + 2); row++) {
+                for (int col = Math.max(0, c - 2); col <= Math.min(last, c + 2); col++) {
+                    if (row != r || col != c) {
+                        around[found++] = row * size + col;
+                    }
+                }
+            }
+            neighbours[cell] = Arrays.copyOf(around, found);
+        }
+    }
+
+    /**
+     * Returns the tables of a configuration, building them on first use.
+     *
+     * @param size      the number of rows and columns
+     * @param winLength the number of marks in a row needed to win
+     * @return the shared tables
+     */
+    static BoardGeometry of(int size, int winLength) {
+        return CACHE.computeIfAbsent(size << 16 | winLength, key -> new BoardGeometry(size, winLength));
+    }
+}
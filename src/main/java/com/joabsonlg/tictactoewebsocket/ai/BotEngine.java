@@ -0,0 +1,20 @@
+package com.joabsonlg.tictactoewebsocket.ai;
+
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+
+/**
+ * Chooses the moves of a bot.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public interface BotEngine {
+
+    /**
+     * Chooses a move for the side to move, X when the number of marks on the board is even. The game must not
+     * change during the call, e.g. because the caller holds its lock.
+     *
+     * @param game a game that is not over
+     * @return the row-major cell to play, or -1 if there is no free cell
+     */
+    int bestMove(TicTacToe game);
+}
@@ -0,0 +1,426 @@
+package com.joabsonlg.tictactoewebsocket.ai;
+
+import com.joabsonlg.tictactoewebsocket.engine.Board;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Monte Carlo tree search, for boards too large to search exhaustively.
+ * <p>
+ * Workers on a {@link ForkJoinPool} grow one shared tree (tree parallelization). Each walks down from the root along
+ * the child with the best upper confidence bound, expands the node it stops at, plays random moves to the end of the
+ * game and adds the result to the nodes it walked through. Node statistics are updated with atomic adds and children
+ * are published with a compare-and-set, so workers never lock. A walk counts its visit on the way down, before the
+ * result is known; this virtual loss steers concurrent walks apart while results are pending.
+ * <p>
+ * Each worker plays on its own primitive copy of the board with a list of the free cells, restored from the root
+ * position with array copies, so a playout allocates nothing. The move played is the root's most visited child.
+ * On boards larger than 5x5 the tree only holds moves within two rows and columns of a mark; playouts use any cell.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class MonteCarloSearch implements BotEngine {
+
+    /**
+     * Weight of the exploration term of the upper confidence bound, with results between 0 and 1.
+     */
+    private static final double EXPLORATION = 1.0;
+
+    /**
+     * Visits of a node before it is expanded, so most of the nodes reached once never allocate children.
+     */
+    private static final int EXPAND_AFTER = 2;
+
+    private final ForkJoinPool pool;
+    private final long maxPlayouts;
+    private final long moveTimeNanos;
+    private final int parallelism;
+
+    /**
+     * Outcome of a search.
+     *
+     * @param move         the cell to play, or -1 if the board is full
+     * @param winRate      the share of the playouts through the move won by the side to move, a draw counting half
+     * @param playouts     the number of playouts
+     * @param elapsedNanos the time spent searching
+     */
+    public record Result(int move, double winRate, long playouts, long elapsedNanos) {
+
+        /**
+         * @return the number of playouts per second
+         */
+        public double playoutsPerSecond() {
+            return elapsedNanos == 0 ? 0 : playouts * 1e9 / elapsedNanos;
+        }
+    }
+
+    /**
+     * Constructs a new MonteCarloSearch. A search stops when either limit is reached.
+     *
+     * @param pool          the pool running the workers, shared with other searches
+     * @param maxPlayouts   the number of playouts of a move
+     * @param moveTimeNanos the time budget of a move
+     * @param parallelism   the number of workers of a search
+     */
+    public MonteCarloSearch(ForkJoinPool pool, long maxPlayouts, long moveTimeNanos, int parallelism) {
+        if (maxPlayouts < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("playouts and parallelism must be positive");
+        }
+        this.pool = pool;
+        this.maxPlayouts = maxPlayouts;
+        this.moveTimeNanos = moveTimeNanos;
+        this.parallelism = (int) Math.min(parallelism, maxPlayouts);
+    }
+
+    @Override
+    public int bestMove(TicTacToe game) {
+        return search(game).move();
+    }
+
+    /**
+     * Searches the best move for the side to move.
+     *
+     * @param game a game that is not over
+     * @return the move and the statistics of the search
+     */
+    public Result search(TicTacToe game) {
+        long start = System.nanoTime();
+        BoardGeometry geometry = BoardGeometry.of(game.getSize(), game.getWinLength());
+        Position position = new Position(geometry, game);
+        if (position.freeCount == 0) {
+            return new Result(-1, 0, 0, System.nanoTime() - start);
+        }
+        int toMove = (geometry.cells - position.freeCount & 1) == 0 ? Board.X : Board.O;
+        Node root = new Node(-1, opponent(toMove));
+        long deadline = start + Math.min(moveTimeNanos, Long.MAX_VALUE / 4);
+
+        Worker[] workers = new Worker[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            long quota = maxPlayouts / parallelism + (i < maxPlayouts % parallelism ? 1 : 0);
+            workers[i] = new Worker(position, root, quota, deadline, System.nanoTime() * 0x9E3779B97F4A7C15L + i);
+        }
+        if (parallelism == 1) {
+            workers[0].compute();
+        } else {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(workers);
+                }
+            });
+        }
+
+        long playouts = 0;
+        for (Worker worker : workers) {
+            playouts += worker.playouts;
+        }
+        Node best = null;
+        for (Node child : root.children) {
+            if (best == null || child.visits > best.visits) {
+                best = child;
+            }
+        }
+        double winRate = best.visits == 0 ? 0 : best.score / (2.0 * best.visits);
+        return new Result(best.move, winRate, playouts, System.nanoTime() - start);
+    }
+
+    private static int opponent(int mark) {
+        return mark == Board.X ? Board.O : Board.X;
+    }
+
+    /**
+     * The position searched, copied from the game once and then read by every worker.
+     */
+    private static final class Position {
+
+        final BoardGeometry geometry;
+        final byte[] cells;
+        final int[] free;
+        final int[] slot;
+        final int freeCount;
+
+        Position(BoardGeometry geometry, TicTacToe game) {
+            this.geometry = geometry;
+            this.cells = new byte[geometry.cells];
+            this.free = new int[geometry.cells];
+            this.slot = new int[geometry.cells];
+            int count = 0;
+            for (int cell = 0; cell < cells.length; cell++) {
+                cells[cell] = (byte) game.markAt(cell);
+                if (cells[cell] == Board.EMPTY) {
+                    slot[cell] = count;
+                    free[count++] = cell;
+                }
+            }
+            this.freeCount = count;
+        }
+    }
+
+    /**
+     * Node of the shared tree: the move leading to it and the results of the walks through it.
+     */
+    private static final class Node {
+
+        private static final VarHandle VISITS;
+        private static final VarHandle SCORE;
+        private static final VarHandle CHILDREN;
+
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.lookup();
+                VISITS = lookup.findVarHandle(Node.class, "visits", int.class);
+                SCORE = lookup.findVarHandle(Node.class, "score", long.class);
+                CHILDREN = lookup.findVarHandle(Node.class, "children", Node[].class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        final int move;
+
+        /**
+         * The mark that played {@link #move}.
+         */
+        final int mover;
+
+        volatile int visits;
+
+        /**
+         * Half-points of {@link #mover}: two per win, one per draw.
+         */
+        volatile long score;
+
+        volatile Node[] children;
+
+        Node(int move, int mover) {
+            this.move = move;
+            this.mover = mover;
+        }
+
+        void addVisit() {
+            VISITS.getAndAdd(this, 1);
+        }
+
+        void addScore(long points) {
+            SCORE.getAndAdd(this, points);
+        }
+
+        /**
+         * Publishes the children unless another worker did first.
+         *
+         * @return the children in the tree
+         */
+        Node[] publish(Node[] created) {
+            Node[] witness = (Node[]) CHILDREN.compareAndExchange(this, (Node[]) null, created);
+            return witness == null ? created : witness;
+        }
+    }
+
+    /**
+     * Runs playouts from the root until its quota or the deadline is reached.
+     */
+    private static final class Worker extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Position position;
+        private final BoardGeometry geometry;
+        private final Node root;
+        private final long quota;
+        private final long deadline;
+        private final byte[] cells;
+        private final int[] free;
+        private final int[] slot;
+        private final Node[] path;
+        private int freeCount;
+        private long seed;
+        long playouts;
+
+        Worker(Position position, Node root, long quota, long deadline, long seed) {
+            this.position = position;
+            this.geometry = position.geometry;
+            this.root = root;
+            this.quota = quota;
+            this.deadline = deadline;
+            this.cells = new byte[geometry.cells];
+            this.free = new int[geometry.cells];
+            this.slot = new int[geometry.cells];
+            this.path = new Node[geometry.cells + 1];
+            this.seed = seed == 0 ? 1 : seed;
+        }
+
+        @Override
+        protected void compute() {
+            // The first playout always runs, so the root has children to pick from.
+            while (playouts < quota && (playouts == 0 || (playouts & 63) != 0 || System.nanoTime() - deadline < 0)) {
+                playout();
+                playouts++;
+            }
+        }
+
+        private void playout() {
+            System.arraycopy(position.cells, 0, cells, 0, cells.length);
+            System.arraycopy(position.free, 0, free, 0, position.freeCount);
+            System.arraycopy(position.slot, 0, slot, 0, slot.length);
+            freeCount = position.freeCount;
+
+            Node node = root;
+            root.addVisit();
+            path[0] = root;
+            int depth = 1;
+            int winner = -1;
+            while (winner < 0) {
+                Node[] children = node.children;
+                if (children == null) {
+                    if (node != root && node.visits < EXPAND_AFTER) {
+                        break;
+                    }
+                    children = node.publish(expand(opponent(node.mover)));
+                }
+                Node child = select(node, children);
+                child.addVisit();
+                path[depth++] = child;
+                if (play(child.move, child.mover)) {
+                    winner = child.mover;
+                } else if (freeCount == 0) {
+                    winner = Board.EMPTY;
+                }
+                node = child;
+            }
+            if (winner < 0) {
+                winner = rollout(opponent(node.mover));
+            }
+            for (int i = 0; i < depth; i++) {
+                Node visited = path[i];
+                visited.addScore(winner == visited.mover ? 2 : winner == Board.EMPTY ? 1 : 0);
+                path[i] = null;
+            }
+        }
+
+        /**
+         * Creates the children of the current position, where {@code mark} is to move.
+         */
+        private Node[] expand(int mark) {
+            boolean restrict = geometry.size > 5 && freeCount < cells.length;
+            int count = 0;
+            for (int i = 0; i < freeCount; i++) {
+                if (!restrict || isNearMark(free[i])) {
+                    count++;
+                }
+            }
+            if (count == 0) {
+                // An empty large board: open in the center.
+                return new Node[]{new Node(geometry.centerOrder[0], mark)};
+            }
+            Node[] children = new Node[count];
+            count = 0;
+            for (int i = 0; i < freeCount; i++) {
+                if (!restrict || isNearMark(free[i])) {
+                    children[count++] = new Node(free[i], mark);
+                }
+            }
+            return children;
+        }
+
+        private boolean isNearMark(int cell) {
+            for (int neighbour : geometry.neighbours[cell]) {
+                if (cells[neighbour] != Board.EMPTY) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Picks the child with the best upper confidence bound; a child not visited yet comes first.
+         */
+        private static Node select(Node parent, Node[] children) {
+            double logVisits = Math.log(Math.max(1, parent.visits));
+            Node best = children[0];
+            double bestValue = Double.NEGATIVE_INFINITY;
+            for (Node child : children) {
+                int visits = child.visits;
+                if (visits == 0) {
+                    return child;
+                }
+                double value = child.score / (2.0 * visits) + EXPLORATION * Math.sqrt(logVisits / visits);
+                if (value > bestValue) {
+                    bestValue = value;
+                    best = child;
+                }
+            }
+            return best;
+        }
+
+        /**
+         * Plays random moves to the end of the game.
+         *
+         * @return the mark of the winner, or {@link Board#EMPTY} for a draw
+         */
+        private int rollout(int mark) {
+            while (freeCount > 0) {
+                int cell = free[nextInt(freeCount)];
+                if (play(cell, mark)) {
+                    return mark;
+                }
+                mark = opponent(mark);
+            }
+            return Board.EMPTY;
+        }
+
+        /**
+         * Places a mark and takes the cell off the free list.
+         *
+         * @return true if the mark completes a line
+         */
+        private boolean play(int cell, int mark) {
+            cells[cell] = (byte) mark;
+            int index = slot[cell];
+            int last = free[--freeCount];
+            free[index] = last;
+            slot[last] = index;
+            return completesLine(cell, mark);
+        }
+
+        private boolean completesLine(int cell, int mark) {
+            int size = geometry.size;
+            int row = cell / size;
+            int col = cell % size;
+            return count(row, col, 0, 1, mark) + count(row, col, 0, -1, mark) > geometry.winLength - 2
+                    || count(row, col, 1, 0, mark) + count(row, col, -1, 0, mark) > geometry.winLength - 2
+                    || count(row, col, 1, 1, mark) + count(row, col, -1, -1, mark) > geometry.winLength - 2
+                    || count(row, col, 1, -1, mark) + count(row, col, -1, 1, mark) > geometry.winLength - 2;
+        }
+
+        /**
+         * Counts the marks in a row from the cell next to (row, col) in one direction.
+         */
+        private int count(int row, int col, int dRow, int dCol, int mark) {
+            int size = geometry.size;
+            int count = 0;
+            for (int r = row + dRow, c = col + dCol; r >= 0 && r < size && c >= 0 && c < size; r += dRow, c += dCol) {
+                if (cells[r * size + c] != mark) {
+                    break;
+                }
+                count++;
+            }
+            return count;
+        }
+
+        /**
+         * A random number below the bound, from a xorshift generator.
+         */
+        private int nextInt(int bound) {
+            long x = seed;
+            x ^= x << 13;
+            x ^= x >>> 7;
+            x ^= x << 17;
+            seed = x;
+            return (int) (((x >>> 32) * bound) >>> 32);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.joabsonlg.tictactoewebsocket.ai;
+
+/**
+ * Fixed-size transposition table shared by concurrent searches, without locks.
+ * <p>
+ * Entries are two longs, the packed data and the key XOR the data, so a torn entry written by two threads at once
+ * fails the key check and reads as a miss rather than as wrong data. Entries are grouped in buckets of two: the first
+ * keeps the deepest result and is only replaced by one at least as deep or when it is left over from an earlier
+ * search, the second always takes the newest result. The table never grows, so its memory is fixed when created.
+ * <p>
+ * The data packs the best move plus one (16 bits), the depth (8 bits), the {@link #EXACT}, {@link #LOWER} or
+ * {@link #UPPER} bound (2 bits), the generation of the search (6 bits) and the score (32 bits).
+ *
+ * @author Joabson Arley do Nascimento
+ */
+final class TranspositionTable {
+
+    static final int EXACT = 1;
+    static final int LOWER = 2;
+    static final int UPPER = 3;
+
+    private static final int ENTRY_LONGS = 2;
+    private static final int BUCKET_ENTRIES = 2;
+
+    private final long[] entries;
+    private final int bucketMask;
+    private volatile int generation;
+
+    /**
+     * Creates a table using at most the given memory.
+     *
+     * @param maxBytes the memory cap, rounded down to a power of two of buckets, at least one bucket
+     */
+    TranspositionTable(long maxBytes) {
+        long buckets = Math.max(1, maxBytes / (Long.BYTES * ENTRY_LONGS * BUCKET_ENTRIES));
+        int bucketCount = (int) Math.min(Long.highestOneBit(buckets), 1 << 26);
+        this.entries = new long[bucketCount * ENTRY_LONGS * BUCKET_ENTRIES];
+        this.bucketMask = bucketCount - 1;
+    }
+
+    /**
+     * Starts a new search, making the deep results of the earlier ones replaceable.
+     */
+    void newSearch() {
+        generation = generation + 1 & 0x3F;
+    }
+
+    /**
+     * Looks a position up.
+     *
+     * @param key the canonical Zobrist key of the position
+     * @return the packed data, or 0 if the position is not in the table
+     */
+    long probe(long key) {
+        int base = bucketOf(key);
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int entry = base + i * ENTRY_LONGS;
+            long data = entries[entry + 1];
+            if ((entries[entry] ^ data) == key && data != 0) {
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores the result of a search of a position.
+     *
+     * @param key   the canonical Zobrist key of the position
+     * @param move  the best move, in the canonical orientation, or -1
+     * @param depth the depth searched
+     * @param bound {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     * @param score the score for the side to move
+     */
+    void store(long key, int move, int depth, int bound, int score) {
+        int current = generation;
+        long data = (move + 1L) & 0xFFFF | (long) Math.min(depth, 0xFF) << 16 | (long) bound << 24
+                | (long) current << 26 | (long) score << 32;
+        int base = bucketOf(key);
+        int deep = base;
+        int recent = base + ENTRY_LONGS;
+        long deepData = entries[deep + 1];
+        boolean sameKey = (entries[deep] ^ deepData) == key;
+        int entry = sameKey || depthOf(deepData) <= depth || generationOf(deepData) != current ? deep : recent;
+        entries[entry + 1] = data;
+        entries[entry] = key ^ data;
+    }
+
+    /**
+     * @return the number of entries of the table
+     */
+    int capacity() {
+        return entries.length / ENTRY_LONGS;
+    }
+
+    static int moveOf(long data) {
+        return (int) (data & 0xFFFF) - 1;
+    }
+
+    static int depthOf(long data) {
+        return (int) (data >>> 16 & 0xFF);
+    }
+
+    static int boundOf(long data) {
+        return (int) (data >>> 24 & 0x3);
+    }
+
+    static int scoreOf(long data) {
+        return (int) (data >> 32);
+    }
+
+    private static int generationOf(long data) {
+        return (int) (data >>> 26 & 0x3F);
+    }
+
+    private int bucketOf(long key) {
+        return ((int) (key ^ key >>> 32) & bucketMask) * ENTRY_LONGS * BUCKET_ENTRIES;
+    }
+}
@@ -0,0 +1,169 @@
+package com.joabsonlg.tictactoewebsocket.cluster;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This application's node of a cluster. Each game lives on one node, its owner on the {@link HashRing}, and the nodes
+ * exchange messages through a {@link ClusterRelay}:
+ * <ul>
+ *     <li>Games are created with IDs owned by the node creating them, see {@link #newGameId()}, so the players who
+ *     joined there play on the node they are connected to.</li>
+ *     <li>Client messages about a game owned by another node, e.g. a move sent after reconnecting to another node, are
+ *     {@link #forward forwarded} to the owner, which handles them as if they had been received there.</li>
+ *     <li>As an interceptor of the broker channel, the node relays every message published on a {@code /topic} or
+ *     {@code /queue} destination to the other nodes, which publish it to their own subscribers. Replies to a single
+ *     session are resolved to a {@code /queue} destination of that session first, so they reach a session connected
+ *     to another node as well.</li>
+ * </ul>
+ * Messages received from the relay carry the {@link #RELAYED_FROM_HEADER} header, so they are not relayed again.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class ClusterNode implements ChannelInterceptor {
+
+    /**
+     * Header naming the node a relayed message came from.
+     */
+    public static final String RELAYED_FROM_HEADER = "tictactoe.relayedFrom";
+
+    private final String nodeId;
+    private final HashRing ring;
+    private final ClusterRelay relay;
+    private volatile MessageChannel inboundChannel;
+    private volatile MessageChannel brokerChannel;
+
+    /**
+     * Constructs a new ClusterNode. It receives nothing until {@link #start started}.
+     *
+     * @param nodeId the ID of this node, one of the ring's nodes
+     * @param ring   the ring of the cluster, the same on every node
+     * @param relay  the transport between the nodes
+     */
+    public ClusterNode(String nodeId, HashRing ring, ClusterRelay relay) {
+        if (!ring.getNodes().contains(nodeId)) {
+            throw new IllegalArgumentException("Node " + nodeId + " is not one of " + ring.getNodes());
+        }
+        this.nodeId = nodeId;
+        this.ring = ring;
+        this.relay = relay;
+    }
+
+    /**
+     * Connects the node to the relay. Forwarded client messages are sent to the inbound channel, relayed broadcasts
+     * to the broker channel.
+     *
+     * @param inboundChannel the channel of the messages received from clients
+     * @param brokerChannel  the channel of the messages published to the broker
+     */
+    public void start(MessageChannel inboundChannel, MessageChannel brokerChannel) {
+        this.inboundChannel = inboundChannel;
+        this.brokerChannel = brokerChannel;
+        relay.register(nodeId, this::receive);
+    }
+
+    /**
+     * Disconnects the node from the relay.
+     */
+    public void stop() {
+        relay.unregister(nodeId);
+    }
+
+    /**
+     * Creates the ID of a new game owned by this node. Random IDs are drawn until one falls on this node's share of
+     * the ring, which takes as many draws as there are nodes on average.
+     *
+     * @return a random game ID
+     */
+    public String newGameId() {
+        String gameId;
+        do {
+            gameId = UUID.randomUUID().toString();
+        } while (!isLocal(gameId));
+        return gameId;
+    }
+
+    /**
+     * Check if a game is owned by this node.
+     *
+     * @param gameId the ID of the game
+     * @return true if the game lives on this node
+     */
+    public boolean isLocal(String gameId) {
+        return nodeId.equals(ring.ownerOf(gameId));
+    }
+
+    /**
+     * Returns the node owning a game.
+     *
+     * @param gameId the ID of the game
+     * @return the ID of the owning node
+     */
+    public String ownerOf(String gameId) {
+        return ring.ownerOf(gameId);
+    }
+
+    /**
+     * Sends a client message about a game to the node owning it, where it is handled as if it had been received there.
+     *
+     * @param gameId      the ID of the game
+     * @param destination the application destination, e.g. {@code /app/game.move}
+     * @param payload     the serialized payload
+     * @param contentType the content type of the payload
+     * @param sessionId   the ID of the client session, so replies to the session find it, or null
+     * @return false if the owner is not connected
+     */
+    public boolean forward(String gameId, String destination, byte[] payload, MimeType contentType, String sessionId) {
+        RelayedMessage message = new RelayedMessage(nodeId, destination, sessionId,
+                contentType != null ? contentType.toString() : null, payload);
+        return relay.send(ring.ownerOf(gameId), message);
+    }
+
+    /**
+     * Relays the broadcasts published on this node to the other nodes.
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        MessageHeaders headers = message.getHeaders();
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        if (SimpMessageHeaderAccessor.getMessageType(headers) == SimpMessageType.MESSAGE
+                && headers.get(RELAYED_FROM_HEADER) == null
+                && message.getPayload() instanceof byte[] payload
+                && destination != null && (destination.startsWith("/topic/") || destination.startsWith("/queue/"))) {
+            Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+            relay.broadcast(new RelayedMessage(nodeId, destination, null,
+                    contentType != null ? contentType.toString() : null, payload));
+        }
+        return message;
+    }
+
+    /**
+     * Handles a message from another node.
+     */
+    private void receive(RelayedMessage relayed) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setDestination(relayed.destination());
+        headers.setHeader(RELAYED_FROM_HEADER, relayed.origin());
+        if (relayed.contentType() != null) {
+            headers.setContentType(MimeTypeUtils.parseMimeType(relayed.contentType()));
+        }
+        if (relayed.destination().startsWith("/app/")) {
+            // Message handlers require a session; messages not tied to one get a session standing for the origin.
+            headers.setSessionId(relayed.sessionId() != null ? relayed.sessionId() : "cluster-" + relayed.origin());
+            headers.setSessionAttributes(new ConcurrentHashMap<>());
+            inboundChannel.send(MessageBuilder.createMessage(relayed.payload(), headers.getMessageHeaders()));
+        } else {
+            brokerChannel.send(MessageBuilder.createMessage(relayed.payload(), headers.getMessageHeaders()));
+        }
+    }
+}
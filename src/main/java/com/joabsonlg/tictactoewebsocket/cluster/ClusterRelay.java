@@ -0,0 +1,46 @@
+package com.joabsonlg.tictactoewebsocket.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Transport of messages between the nodes of a cluster. {@link LoopbackRelay} connects nodes running in one JVM;
+ * another transport, e.g. over a message broker, is plugged in by declaring a bean of this type.
+ * <p>
+ * Messages from one node to another must be delivered in the order they were sent, since the broadcasts of a game
+ * are deltas applied in order by the clients.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public interface ClusterRelay {
+
+    /**
+     * Connects a node, which from then on receives the messages sent to it and the broadcasts of the other nodes.
+     *
+     * @param nodeId   the ID of the node
+     * @param receiver called with each message for the node
+     */
+    void register(String nodeId, Consumer<RelayedMessage> receiver);
+
+    /**
+     * Disconnects a node.
+     *
+     * @param nodeId the ID of the node
+     */
+    void unregister(String nodeId);
+
+    /**
+     * Sends a message to one node.
+     *
+     * @param nodeId  the ID of the target node
+     * @param message the message
+     * @return false if the node is not connected
+     */
+    boolean send(String nodeId, RelayedMessage message);
+
+    /**
+     * Sends a message to every connected node but its {@link RelayedMessage#origin() origin}.
+     *
+     * @param message the message
+     */
+    void broadcast(RelayedMessage message);
+}
@@ -0,0 +1,87 @@
+package com.joabsonlg.tictactoewebsocket.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Consistent hash ring mapping game IDs to the node owning them.
+ * <p>
+ * Each node is placed on the ring at a number of points, its virtual nodes, and a key belongs to the node of the
+ * first point at or after the key's hash. Adding or removing a node only moves the keys between its points and the
+ * previous ones, about one node's share, and the virtual nodes spread that share evenly over the others. Every node
+ * of a cluster builds the same ring from the same configuration, so they all agree on the owners without talking.
+ * The ring is immutable; the points are kept in a sorted array searched by bisection.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public final class HashRing {
+
+    private final List<String> nodes;
+    private final long[] points;
+    private final String[] owners;
+
+    /**
+     * Builds the ring of a cluster.
+     *
+     * @param nodes        the IDs of the nodes, at least one
+     * @param virtualNodes the number of points of each node
+     */
+    public HashRing(Collection<String> nodes, int virtualNodes) {
+        if (nodes.isEmpty() || virtualNodes < 1) {
+            throw new IllegalArgumentException("A ring needs at least one node and one virtual node per node");
+        }
+        this.nodes = nodes.stream().distinct().sorted().toList();
+        long[][] placed = new long[this.nodes.size() * virtualNodes][];
+        int count = 0;
+        for (int node = 0; node < this.nodes.size(); node++) {
+            for (int i = 0; i < virtualNodes; i++) {
+                placed[count++] = new long[]{hash(this.nodes.get(node) + '#' + i), node};
+            }
+        }
+        // Sorted by point, then by node, so colliding points resolve the same way on every node.
+        Arrays.sort(placed, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        this.points = new long[count];
+        this.owners = new String[count];
+        for (int i = 0; i < count; i++) {
+            points[i] = placed[i][0];
+            owners[i] = this.nodes.get((int) placed[i][1]);
+        }
+    }
+
+    /**
+     * Returns the node owning a key.
+     *
+     * @param key the key, e.g. a game ID
+     * @return the ID of the owning node
+     */
+    public String ownerOf(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * @return the IDs of the nodes, sorted
+     */
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * 64-bit FNV-1a of the UTF-8 bytes, finished with the SplitMix64 mixer so close keys land far apart.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ hash >>> 30) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ hash >>> 27) * 0x94d049bb133111ebL;
+        return hash ^ hash >>> 31;
+    }
+}
@@ -0,0 +1,59 @@
+package com.joabsonlg.tictactoewebsocket.cluster;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * {@link ClusterRelay} between nodes in the same JVM, e.g. several application contexts started by a test. Messages
+ * are handed to the receiving node on the sender's thread, so they arrive in the order they were sent and a message
+ * has been handled when sending returns.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class LoopbackRelay implements ClusterRelay {
+
+    private static final LoopbackRelay SHARED = new LoopbackRelay();
+
+    private final Map<String, Consumer<RelayedMessage>> nodes = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the relay of the JVM, which every application context uses unless another relay is configured.
+     *
+     * @return the shared relay
+     */
+    public static LoopbackRelay shared() {
+        return SHARED;
+    }
+
+    @Override
+    public void register(String nodeId, Consumer<RelayedMessage> receiver) {
+        if (nodes.putIfAbsent(nodeId, receiver) != null) {
+            throw new IllegalStateException("Node " + nodeId + " is already connected");
+        }
+    }
+
+    @Override
+    public void unregister(String nodeId) {
+        nodes.remove(nodeId);
+    }
+
+    @Override
+    public boolean send(String nodeId, RelayedMessage message) {
+        Consumer<RelayedMessage> receiver = nodes.get(nodeId);
+        if (receiver == null) {
+            return false;
+        }
+        receiver.accept(message);
+        return true;
+    }
+
+    @Override
+    public void broadcast(RelayedMessage message) {
+        nodes.forEach((nodeId, receiver) -> {
+            if (!nodeId.equals(message.origin())) {
+                receiver.accept(message);
+            }
+        });
+    }
+}
@@ -0,0 +1,17 @@
+package com.joabsonlg.tictactoewebsocket.cluster;
+
+/**
+ * A STOMP message carried between nodes by a {@link ClusterRelay}: either a broadcast published on a broker
+ * destination of the origin, or a client message forwarded to the node owning its game.
+ *
+ * @param origin      the ID of the node that sent it
+ * @param destination the broker destination, e.g. {@code /topic/game.<id>}, or the application destination of a
+ *                    forwarded message, e.g. {@code /app/game.move}
+ * @param sessionId   the ID of the client session a forwarded message came from, or null
+ * @param contentType the content type of the payload, or null
+ * @param payload     the serialized payload
+ * @author Joabson Arley do Nascimento
+ */
+public record RelayedMessage(String origin, String destination, String sessionId, String contentType,
+                             byte[] payload) {
+}
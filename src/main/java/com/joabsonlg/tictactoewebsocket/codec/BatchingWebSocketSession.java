@@ -0,0 +1,222 @@
+package com.joabsonlg.tictactoewebsocket.codec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Session coalescing the STOMP frames sent to a client within a short window into a single WebSocket message, so a
+ * burst of messages, e.g. a move followed by the bot's reply, costs one frame and one write.
+ * <p>
+ * A STOMP frame ends with a NULL octet, so frames can follow each other in one WebSocket message; both the browser
+ * client and Spring's decoder split them. The first frame of a batch schedules its flush after the
+ * {@link FrameBatcher}'s window; a batch reaching the batcher's size limits is flushed right away. Text and binary
+ * frames are never mixed in one message, and heart-beats, which a client only expects on their own, are sent as they
+ * are once the pending batch is flushed.
+ * <p>
+ * Closed batches wait in order for the session's writer. A sending thread writes them itself, waiting for a write in
+ * progress, so a slow client pushes back on Spring's session decorator above this one. A timed flush never writes:
+ * it hands the batch to the batcher's writers, whose task gives up if another thread is writing, since that thread
+ * writes the batch before it lets go of the session.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+class BatchingWebSocketSession extends WebSocketSessionDecorator {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchingWebSocketSession.class);
+
+    private final FrameBatcher batcher;
+    private final ReentrantLock writing = new ReentrantLock();
+
+    // Guarded by this.
+    private final Queue<WebSocketMessage<?>> ready = new ArrayDeque<>();
+    private WebSocketMessage<?> first;
+    private StringBuilder text;
+    private ByteArrayOutputStream binary;
+    private int pendingMessages;
+    private int pendingBytes;
+    private ScheduledFuture<?> scheduledFlush;
+
+    BatchingWebSocketSession(WebSocketSession delegate, FrameBatcher batcher) {
+        super(delegate);
+        this.batcher = batcher;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        synchronized (this) {
+            if (!(message instanceof TextMessage || message instanceof BinaryMessage) || isHeartbeat(message)) {
+                closeBatch();
+                ready.add(message);
+            } else {
+                if (first != null && first.getClass() != message.getClass()) {
+                    closeBatch();
+                }
+                append(message);
+                if (pendingMessages >= batcher.getMaxMessages() || pendingBytes >= batcher.getMaxBytes()) {
+                    closeBatch();
+                } else if (scheduledFlush == null) {
+                    scheduledFlush = batcher.schedule(this::flushScheduled);
+                }
+            }
+            if (ready.isEmpty()) {
+                return;
+            }
+        }
+        writeReady(true);
+    }
+
+    /**
+     * Sends the pending batch now.
+     *
+     * @throws IOException if the batch cannot be written
+     */
+    public void flush() throws IOException {
+        synchronized (this) {
+            closeBatch();
+        }
+        writeReady(true);
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        try {
+            flush();
+        } catch (IOException e) {
+            logger.debug("Could not flush session {} before closing it", getId(), e);
+        }
+        super.close(status);
+    }
+
+    private void append(WebSocketMessage<?> message) {
+        pendingMessages++;
+        pendingBytes += message instanceof TextMessage textMessage
+                ? textMessage.getPayload().length()
+                : message.getPayloadLength();
+        if (first == null) {
+            first = message;
+            return;
+        }
+        if (message instanceof TextMessage textMessage) {
+            if (text == null) {
+                text = new StringBuilder(((TextMessage) first).getPayload());
+            }
+            text.append(textMessage.getPayload());
+        } else {
+            if (binary == null) {
+                binary = new ByteArrayOutputStream();
+                write(binary, ((BinaryMessage) first).getPayload());
+            }
+            write(binary, ((BinaryMessage) message).getPayload());
+        }
+    }
+
+    private void closeBatch() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        if (first == null) {
+            return;
+        }
+        WebSocketMessage<?> batch;
+        if (pendingMessages == 1) {
+            batch = first;
+        } else if (text != null) {
+            batch = new TextMessage(text.toString());
+        } else {
+            batch = new BinaryMessage(binary.toByteArray());
+        }
+        batcher.flushed(pendingMessages);
+        first = null;
+        text = null;
+        binary = null;
+        pendingMessages = 0;
+        pendingBytes = 0;
+        ready.add(batch);
+    }
+
+    /**
+     * Writes the closed batches in order. A thread that gives up on a write in progress leaves the batches to the
+     * writing thread, which checks for more once it has let go of the session.
+     *
+     * @param wait whether to wait for a write in progress, otherwise give up
+     * @throws IOException if a batch cannot be written
+     */
+    private void writeReady(boolean wait) throws IOException {
+        do {
+            if (wait) {
+                writing.lock();
+            } else if (!writing.tryLock()) {
+                return;
+            }
+            try {
+                WebSocketMessage<?> batch;
+                while ((batch = nextReady()) != null) {
+                    getDelegate().sendMessage(batch);
+                }
+            } finally {
+                writing.unlock();
+            }
+        } while (hasReady());
+    }
+
+    private synchronized WebSocketMessage<?> nextReady() {
+        return ready.poll();
+    }
+
+    private synchronized boolean hasReady() {
+        return !ready.isEmpty();
+    }
+
+    private void flushScheduled() {
+        synchronized (this) {
+            scheduledFlush = null;
+            closeBatch();
+        }
+        batcher.write(() -> {
+            try {
+                writeReady(false);
+            } catch (IOException | RuntimeException e) {
+                logger.debug("Could not flush session {}, closing it", getId(), e);
+                try {
+                    getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+                } catch (IOException closeFailure) {
+                    logger.debug("Could not close session {}", getId(), closeFailure);
+                }
+            }
+        });
+    }
+
+    private static boolean isHeartbeat(WebSocketMessage<?> message) {
+        if (message instanceof TextMessage textMessage) {
+            return "\n".equals(textMessage.getPayload());
+        }
+        ByteBuffer payload = ((BinaryMessage) message).getPayload();
+        return payload.remaining() == 1 && payload.get(payload.position()) == '\n';
+    }
+
+    private static void write(ByteArrayOutputStream out, ByteBuffer payload) {
+        ByteBuffer buffer = payload.duplicate();
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        } else {
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            out.writeBytes(bytes);
+        }
+    }
+}
@@ -0,0 +1,389 @@
+package com.joabsonlg.tictactoewebsocket.codec;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.model.dto.JoinMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.Message;
+import com.joabsonlg.tictactoewebsocket.model.dto.MoveMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.PlayerMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.TicTacToeMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of the game messages.
+ * <p>
+ * Every frame starts with a version byte and a kind byte, followed by the fields of the message in a fixed order:
+ * <ul>
+ *     <li>integers are unsigned LEB128 varints;</li>
+ *     <li>strings are a varint of {@code length + 1} followed by UTF-8 bytes, with 0 standing for null;</li>
+ *     <li>game IDs in canonical UUID form take 16 bytes;</li>
+ *     <li>the game state is a single byte, {@code ordinal + 1} or 0 for null;</li>
+ *     <li>the board is its size followed by 2 bits per cell (0 empty, 1 X, 2 O), row-major, so a 3x3 board takes 4 bytes.</li>
+ * </ul>
+ * A move delta of a UUID game takes 23 bytes, against more than 100 bytes of JSON.
+ * <p>
+ * Version 2 added the win length after the board of a game message, and the size and win length of the board asked for
+ * at the end of a join message.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public final class BinaryMessageCodec {
+
+    public static final byte VERSION = 2;
+
+    static final byte KIND_GAME = 1;
+    static final byte KIND_MOVE = 2;
+    static final byte KIND_JOIN = 3;
+    static final byte KIND_PLAYER = 4;
+
+    private static final byte ID_NULL = 0;
+    private static final byte ID_UUID = 1;
+    private static final byte ID_STRING = 2;
+
+    private static final GameState[] STATES = GameState.values();
+
+    private BinaryMessageCodec() {
+    }
+
+    /**
+     * Encodes a game message.
+     *
+     * @param message the message to encode
+     * @return the encoded frame
+     * @throws IllegalArgumentException if the message type is not supported
+     */
+    public static byte[] encode(Message message) {
+        Writer out = new Writer();
+        out.writeByte(VERSION);
+        if (message instanceof MoveMessage move) {
+            out.writeByte(KIND_MOVE);
+            out.writeId(move.getGameId());
+            out.writeVarLong(move.getSeq());
+            out.writeVarLong(move.getCell());
+            out.writeByte(markCode(move.getMark()));
+            out.writeState(move.getGameState());
+        } else if (message instanceof TicTacToeMessage game) {
+            out.writeByte(KIND_GAME);
+            out.writeString(game.getType());
+            out.writeId(game.getGameId());
+            out.writeString(game.getPlayer1());
+            out.writeString(game.getPlayer2());
+            out.writeString(game.getWinner());
+            out.writeString(game.getTurn());
+            out.writeString(game.getContent());
+            out.writeString(game.getSender());
+            out.writeVarLong(game.getMove());
+            out.writeState(game.getGameState());
+            out.writeVarLong(game.getSeq());
+            out.writeBoard(game.getBoard());
+            out.writeVarLong(game.getWinLength());
+        } else if (message instanceof JoinMessage join) {
+            out.writeByte(KIND_JOIN);
+            out.writeString(join.getType());
+            out.writeId(join.getGameId());
+            out.writeString(join.getPlayer());
+            out.writeString(join.getContent());
+            out.writeVarLong(join.getSize());
+            out.writeVarLong(join.getWinLength());
+        } else if (message instanceof PlayerMessage player) {
+            out.writeByte(KIND_PLAYER);
+            out.writeString(player.getType());
+            out.writeId(player.getGameId());
+            out.writeString(player.getPlayer());
+            out.writeString(player.getContent());
+        } else {
+            throw new IllegalArgumentException("Unsupported message type: " + message.getClass().getName());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes a frame produced by {@link #encode(Message)}.
+     *
+     * @param frame the encoded frame
+     * @return the decoded message
+     * @throws IllegalArgumentException if the frame is truncated, malformed or of another version
+     */
+    public static Message decode(byte[] frame) {
+        Reader in = new Reader(frame);
+        int version = in.readByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported wire format version: " + version);
+        }
+        int kind = in.readByte();
+        Message message = switch (kind) {
+            case KIND_MOVE -> {
+                MoveMessage move = new MoveMessage();
+                move.setType("game.delta");
+                move.setGameId(in.readId());
+                move.setSeq(in.readVarLong());
+                move.setCell((int) in.readVarLong());
+                move.setMark(markOf(in.readByte()));
+                move.setGameState(in.readState());
+                yield move;
+            }
+            case KIND_GAME -> {
+                TicTacToeMessage game = new TicTacToeMessage();
+                game.setType(in.readString());
+                game.setGameId(in.readId());
+                game.setPlayer1(in.readString());
+                game.setPlayer2(in.readString());
+                game.setWinner(in.readString());
+                game.setTurn(in.readString());
+                game.setContent(in.readString());
+                game.setSender(in.readString());
+                game.setMove((int) in.readVarLong());
+                game.setGameState(in.readState());
+                game.setSeq(in.readVarLong());
+                game.setBoard(in.readBoard());
+                game.setWinLength((int) in.readVarLong());
+                yield game;
+            }
+            case KIND_JOIN -> {
+                JoinMessage join = new JoinMessage();
+                join.setType(in.readString());
+                join.setGameId(in.readId());
+                join.setPlayer(in.readString());
+                join.setContent(in.readString());
+                join.setSize((int) in.readVarLong());
+                join.setWinLength((int) in.readVarLong());
+                yield join;
+            }
+            case KIND_PLAYER -> {
+                PlayerMessage player = new PlayerMessage();
+                player.setType(in.readString());
+                player.setGameId(in.readId());
+                player.setPlayer(in.readString());
+                player.setContent(in.readString());
+                yield player;
+            }
+            default -> throw new IllegalArgumentException("Unknown message kind: " + kind);
+        };
+        if (in.remaining() != 0) {
+            throw new IllegalArgumentException("Trailing bytes after message: " + in.remaining());
+        }
+        return message;
+    }
+
+    private static int markCode(String mark) {
+        if ("X".equals(mark)) {
+            return 1;
+        }
+        return "O".equals(mark) ? 2 : 0;
+    }
+
+    private static String markOf(int code) {
+        return switch (code) {
+            case 0 -> " ";
+            case 1 -> "X";
+            case 2 -> "O";
+            default -> throw new IllegalArgumentException("Invalid mark: " + code);
+        };
+    }
+
+    /**
+     * Growable output buffer.
+     */
+    private static final class Writer {
+        private byte[] buffer = new byte[64];
+        private int length;
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[length++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[length++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            if (value == null) {
+                writeVarLong(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, length, bytes.length);
+            length += bytes.length;
+        }
+
+        void writeId(String id) {
+            if (id == null) {
+                writeByte(ID_NULL);
+                return;
+            }
+            UUID uuid = parseUuid(id);
+            if (uuid == null) {
+                writeByte(ID_STRING);
+                writeString(id);
+                return;
+            }
+            writeByte(ID_UUID);
+            writeLong(uuid.getMostSignificantBits());
+            writeLong(uuid.getLeastSignificantBits());
+        }
+
+        void writeState(GameState state) {
+            writeByte(state == null ? 0 : state.ordinal() + 1);
+        }
+
+        void writeBoard(String[][] board) {
+            if (board == null) {
+                writeVarLong(0);
+                return;
+            }
+            int size = board.length;
+            writeVarLong(size + 1L);
+            int cells = size * size;
+            ensure((cells + 3) / 4);
+            int start = length;
+            length += (cells + 3) / 4;
+            for (int cell = 0; cell < cells; cell++) {
+                int code = markCode(board[cell / size][cell % size]);
+                buffer[start + cell / 4] |= (byte) (code << ((cell % 4) * 2));
+            }
+        }
+
+        private void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[length++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, length);
+        }
+
+        /**
+         * Returns the UUID the ID is the canonical form of, or null if it is any other string.
+         */
+        private static UUID parseUuid(String id) {
+            if (id.length() != 36) {
+                return null;
+            }
+            try {
+                UUID uuid = UUID.fromString(id);
+                return uuid.toString().equals(id) ? uuid : null;
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Bounds-checked input cursor.
+     */
+    private static final class Reader {
+        private final byte[] buffer;
+        private int position;
+
+        Reader(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        int remaining() {
+            return buffer.length - position;
+        }
+
+        int readByte() {
+            require(1);
+            return buffer[position++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        String readString() {
+            long length = readVarLong();
+            if (length == 0) {
+                return null;
+            }
+            if (length < 0 || length - 1 > remaining()) {
+                throw new IllegalArgumentException("Truncated frame");
+            }
+            int size = (int) (length - 1);
+            String value = new String(buffer, position, size, StandardCharsets.UTF_8);
+            position += size;
+            return value;
+        }
+
+        String readId() {
+            int tag = readByte();
+            return switch (tag) {
+                case ID_NULL -> null;
+                case ID_UUID -> new UUID(readLong(), readLong()).toString();
+                case ID_STRING -> readString();
+                default -> throw new IllegalArgumentException("Invalid ID tag: " + tag);
+            };
+        }
+
+        GameState readState() {
+            int code = readByte();
+            if (code > STATES.length) {
+                throw new IllegalArgumentException("Invalid game state: " + code);
+            }
+            return code == 0 ? null : STATES[code - 1];
+        }
+
+        String[][] readBoard() {
+            long encodedSize = readVarLong();
+            if (encodedSize == 0) {
+                return null;
+            }
+            long encodedCells = (encodedSize - 1) * (encodedSize - 1);
+            if (encodedSize < 0 || encodedSize - 1 > remaining() * 2L || (encodedCells + 3) / 4 > remaining()) {
+                throw new IllegalArgumentException("Truncated frame");
+            }
+            int size = (int) (encodedSize - 1);
+            int cells = size * size;
+            int bytes = (cells + 3) / 4;
+            String[][] board = new String[size][size];
+            for (int cell = 0; cell < cells; cell++) {
+                int code = (buffer[position + cell / 4] >>> ((cell % 4) * 2)) & 0b11;
+                board[cell / size][cell % size] = markOf(code);
+            }
+            position += bytes;
+            return board;
+        }
+
+        private long readLong() {
+            require(8);
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        private void require(int bytes) {
+            if (bytes > remaining()) {
+                throw new IllegalArgumentException("Truncated frame");
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.joabsonlg.tictactoewebsocket.codec;
+
+import com.joabsonlg.tictactoewebsocket.model.dto.JoinMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.Message;
+import com.joabsonlg.tictactoewebsocket.model.dto.MoveMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.PlayerMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.TicTacToeMessage;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.util.MimeType;
+
+import java.util.Map;
+
+/**
+ * Message converter for the {@link BinaryMessageCodec} wire format.
+ * <p>
+ * The content type is {@code application/octet-stream;format=tictactoe}: STOMP frames are only sent as binary
+ * WebSocket messages when their content type is compatible with {@code application/octet-stream}. Matching is strict,
+ * so messages without this content type are left to the JSON converter.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class BinaryMessageConverter extends AbstractMessageConverter {
+
+    public static final MimeType MIME_TYPE = new MimeType("application", "octet-stream", Map.of("format", "tictactoe"));
+
+    public BinaryMessageConverter() {
+        super(MIME_TYPE);
+        setStrictContentTypeMatch(true);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz == TicTacToeMessage.class || clazz == MoveMessage.class
+                || clazz == JoinMessage.class || clazz == PlayerMessage.class;
+    }
+
+    @Override
+    protected Object convertFromInternal(org.springframework.messaging.Message<?> message, Class<?> targetClass,
+                                         Object conversionHint) {
+        if (!(message.getPayload() instanceof byte[] frame)) {
+            return null;
+        }
+        Message decoded;
+        try {
+            decoded = BinaryMessageCodec.decode(frame);
+        } catch (IllegalArgumentException e) {
+            throw new MessageConversionException(message, "Invalid binary game message: " + e.getMessage(), e);
+        }
+        return targetClass.isInstance(decoded) ? decoded : null;
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        return BinaryMessageCodec.encode((Message) payload);
+    }
+}
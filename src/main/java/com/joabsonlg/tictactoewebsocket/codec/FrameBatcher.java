@@ -0,0 +1,107 @@
+package com.joabsonlg.tictactoewebsocket.codec;
+
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+
+import java.io.Closeable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Decorates the WebSocket handler so every client session batches the frames sent to it, see
+ * {@link BatchingWebSocketSession}. The batch windows are timed by a small pool of daemon threads shared by all
+ * sessions, which never write to a socket.
+ * <p>
+ * Batches flushed at the end of their window are written by a separate pool of writers, which grows with the
+ * sessions being written to at once: a client that does not read holds one writer, and never delays the flushes of
+ * the other sessions. The messages sent to that session meanwhile are buffered by Spring's session decorator above
+ * the batching one, until its send time limit closes the session.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class FrameBatcher implements WebSocketHandlerDecoratorFactory, Closeable {
+
+    private final long windowNanos;
+    private final int maxMessages;
+    private final int maxBytes;
+    private final IntConsumer batchListener;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final ExecutorService writers;
+
+    /**
+     * Constructs a new FrameBatcher.
+     *
+     * @param windowNanos   how long the first frame of a batch waits for more frames
+     * @param maxMessages   the number of frames flushed right away as one batch
+     * @param maxBytes      the approximate size of a batch flushed right away
+     * @param flushThreads  the number of threads timing the batch windows
+     * @param batchListener told the number of frames of each batch written
+     */
+    public FrameBatcher(long windowNanos, int maxMessages, int maxBytes, int flushThreads, IntConsumer batchListener) {
+        this.windowNanos = windowNanos;
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+        this.batchListener = batchListener;
+        AtomicInteger threads = new AtomicInteger();
+        this.scheduler = new ScheduledThreadPoolExecutor(flushThreads, runnable -> {
+            Thread thread = new Thread(runnable, "ws-batch-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.setRemoveOnCancelPolicy(true);
+        AtomicInteger writerThreads = new AtomicInteger();
+        this.writers = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "ws-write-" + writerThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                super.afterConnectionEstablished(new BatchingWebSocketSession(session, FrameBatcher.this));
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        writers.shutdownNow();
+    }
+
+    int getMaxMessages() {
+        return maxMessages;
+    }
+
+    int getMaxBytes() {
+        return maxBytes;
+    }
+
+    ScheduledFuture<?> schedule(Runnable flush) {
+        return scheduler.schedule(flush, windowNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void write(Runnable write) {
+        try {
+            writers.execute(write);
+        } catch (RejectedExecutionException e) {
+            // Closed: the sessions are going away.
+        }
+    }
+
+    void flushed(int messages) {
+        batchListener.accept(messages);
+    }
+}
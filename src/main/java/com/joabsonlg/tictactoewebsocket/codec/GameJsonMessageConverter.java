@@ -0,0 +1,48 @@
+package com.joabsonlg.tictactoewebsocket.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joabsonlg.tictactoewebsocket.model.dto.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+
+/**
+ * JSON converter of the game messages that keeps the message it serialized in the {@link #SOURCE_HEADER} header.
+ * <p>
+ * The broker copies the header to the message of each subscriber, so the {@link WireFormatInterceptor} encodes the
+ * frames of binary connections from the game message itself, and never parses the JSON back. The header is not
+ * written to the wire, as only native headers become STOMP headers.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class GameJsonMessageConverter extends MappingJackson2MessageConverter {
+
+    /**
+     * Header holding the game message a JSON payload was serialized from.
+     */
+    public static final String SOURCE_HEADER = GameJsonMessageConverter.class.getName() + ".source";
+
+    /**
+     * Constructs a new GameJsonMessageConverter.
+     *
+     * @param objectMapper the mapper serializing the game messages
+     */
+    public GameJsonMessageConverter(ObjectMapper objectMapper) {
+        setObjectMapper(objectMapper);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Message.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected Object convertToInternal(Object payload, MessageHeaders headers, Object conversionHint) {
+        MessageHeaderAccessor accessor = headers != null
+                ? MessageHeaderAccessor.getAccessor(headers, MessageHeaderAccessor.class) : null;
+        if (accessor != null && accessor.isMutable()) {
+            accessor.setHeader(SOURCE_HEADER, payload);
+        }
+        return super.convertToInternal(payload, headers, conversionHint);
+    }
+}
@@ -0,0 +1,166 @@
+package com.joabsonlg.tictactoewebsocket.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joabsonlg.tictactoewebsocket.model.dto.MoveMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.TicTacToeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Negotiates the wire format of each STOMP connection and transcodes outgoing game messages for binary connections.
+ * <p>
+ * A client asks for the binary format with a {@code wire-format: binary} header on its CONNECT frame. SockJS can only
+ * carry text, so the request is honoured only for connections made to a native WebSocket endpoint, which are marked
+ * during the handshake by this class. Messages are published once as JSON; on the way out, those addressed to a binary
+ * connection are re-encoded with the {@link BinaryMessageCodec}. A broadcast hands the same payload to every
+ * subscriber, so the re-encoded frame is cached by payload identity and each broadcast is transcoded once.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class WireFormatInterceptor implements ChannelInterceptor, HandshakeInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(WireFormatInterceptor.class);
+
+    /**
+     * CONNECT header used to request a wire format.
+     */
+    public static final String WIRE_FORMAT_HEADER = "wire-format";
+
+    /**
+     * Value of {@link #WIRE_FORMAT_HEADER} requesting the binary format.
+     */
+    public static final String BINARY = "binary";
+
+    /**
+     * Session attribute set on connections whose transport can carry binary frames.
+     */
+    static final String BINARY_CAPABLE_ATTRIBUTE = WireFormatInterceptor.class.getName() + ".binaryCapable";
+
+    private static final int CACHE_SIZE = 64;
+
+    private final Set<String> binarySessions = ConcurrentHashMap.newKeySet();
+    private final AtomicReferenceArray<Transcoded> cache = new AtomicReferenceArray<>(CACHE_SIZE);
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler,
+                                   Map<String, Object> attributes) {
+        attributes.put(BINARY_CAPABLE_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response, WebSocketHandler wsHandler,
+                               Exception exception) {
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, SimpMessageHeaderAccessor.class);
+        if (accessor == null || accessor.getSessionId() == null) {
+            return message;
+        }
+        SimpMessageType messageType = accessor.getMessageType();
+        if (messageType == SimpMessageType.CONNECT) {
+            negotiate(accessor);
+        } else if (messageType == SimpMessageType.DISCONNECT) {
+            binarySessions.remove(accessor.getSessionId());
+        } else if (messageType == SimpMessageType.MESSAGE && binarySessions.contains(accessor.getSessionId())) {
+            byte[] binary = encode(message, accessor);
+            if (binary != null) {
+                SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.wrap(message);
+                headers.setContentType(BinaryMessageConverter.MIME_TYPE);
+                return MessageBuilder.createMessage(binary, headers.getMessageHeaders());
+            }
+        }
+        return message;
+    }
+
+    /**
+     * Returns true if the given session negotiated the binary format.
+     *
+     * @param sessionId the ID of the WebSocket session
+     * @return true if messages to the session are binary
+     */
+    public boolean isBinary(String sessionId) {
+        return binarySessions.contains(sessionId);
+    }
+
+    private void negotiate(SimpMessageHeaderAccessor accessor) {
+        if (!BINARY.equals(accessor.getFirstNativeHeader(WIRE_FORMAT_HEADER))) {
+            return;
+        }
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        if (attributes != null && Boolean.TRUE.equals(attributes.get(BINARY_CAPABLE_ATTRIBUTE))) {
+            binarySessions.add(accessor.getSessionId());
+        } else {
+            logger.debug("Session {} asked for the binary format over a text-only transport, using JSON",
+                    accessor.getSessionId());
+        }
+    }
+
+    /**
+     * Encodes a game message in the binary format, from the game message it was serialized from if known.
+     *
+     * @return the binary frame, or null if the payload is not a game message
+     */
+    private byte[] encode(Message<?> message, SimpMessageHeaderAccessor accessor) {
+        Object source = message.getHeaders().get(GameJsonMessageConverter.SOURCE_HEADER);
+        if (source == null) {
+            source = message.getPayload();
+            if (!(source instanceof byte[]) || accessor.getContentType() == null
+                    || !MimeTypeUtils.APPLICATION_JSON.isCompatibleWith(accessor.getContentType())) {
+                return null;
+            }
+        }
+        int slot = System.identityHashCode(source) & (CACHE_SIZE - 1);
+        Transcoded cached = cache.get(slot);
+        if (cached != null && cached.source == source) {
+            return cached.binary;
+        }
+        byte[] binary;
+        try {
+            binary = source instanceof com.joabsonlg.tictactoewebsocket.model.dto.Message gameMessage
+                    ? BinaryMessageCodec.encode(gameMessage) : transcode((byte[]) source);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.debug("Sending a message as JSON, it is not a game message", e);
+            return null;
+        }
+        cache.set(slot, new Transcoded(source, binary));
+        return binary;
+    }
+
+    /**
+     * Re-encodes a JSON game message in the binary format.
+     */
+    private byte[] transcode(byte[] json) throws IOException {
+        JsonNode tree = objectMapper.readTree(json);
+        Class<? extends com.joabsonlg.tictactoewebsocket.model.dto.Message> type =
+                "game.delta".equals(tree.path("type").asText()) ? MoveMessage.class : TicTacToeMessage.class;
+        return BinaryMessageCodec.encode(objectMapper.treeToValue(tree, type));
+    }
+
+    private record Transcoded(Object source, byte[] binary) {
+    }
+}
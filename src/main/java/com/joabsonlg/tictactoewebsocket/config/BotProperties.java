@@ -0,0 +1,182 @@
+package com.joabsonlg.tictactoewebsocket.config;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.BotEngineType;
+import com.joabsonlg.tictactoewebsocket.enumeration.Difficulty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Seating of the bots and choice and tuning of their search on larger boards, bound from {@code tictactoe.bot.*}.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+@ConfigurationProperties(prefix = "tictactoe.bot")
+public class BotProperties {
+
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * How long a game waits for a player before a bot takes the seat.
+     */
+    private Duration wait = Duration.ofSeconds(30);
+
+    /**
+     * The alpha-beta search, and the threads every search runs on.
+     */
+    private final Search search = new Search();
+
+    /**
+     * The search choosing the moves.
+     */
+    private BotEngineType engine = BotEngineType.ALPHA_BETA;
+
+    /**
+     * The level of the Monte Carlo search used.
+     */
+    private Difficulty difficulty = Difficulty.MEDIUM;
+
+    /**
+     * Monte Carlo search of the easy level: few playouts on one worker.
+     */
+    private final Level easy = new Level(2_000, Duration.ofMillis(50), 1);
+
+    /**
+     * Monte Carlo search of the medium level.
+     */
+    private final Level medium = new Level(50_000, Duration.ofMillis(200), Math.min(2, PROCESSORS));
+
+    /**
+     * Monte Carlo search of the hard level: bounded by time, on every core.
+     */
+    private final Level hard = new Level(10_000_000, Duration.ofMillis(500), PROCESSORS);
+
+    public Duration getWait() {
+        return wait;
+    }
+
+    public void setWait(Duration wait) {
+        this.wait = wait;
+    }
+
+    public Search getSearch() {
+        return search;
+    }
+
+    public BotEngineType getEngine() {
+        return engine;
+    }
+
+    public void setEngine(BotEngineType engine) {
+        this.engine = engine;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public void setDifficulty(Difficulty difficulty) {
+        this.difficulty = difficulty;
+    }
+
+    public Level getEasy() {
+        return easy;
+    }
+
+    public Level getMedium() {
+        return medium;
+    }
+
+    public Level getHard() {
+        return hard;
+    }
+
+    /**
+     * Returns the settings of a difficulty level.
+     *
+     * @param difficulty the level
+     * @return its settings
+     */
+    public Level getLevel(Difficulty difficulty) {
+        return switch (difficulty) {
+            case EASY -> easy;
+            case MEDIUM -> medium;
+            case HARD -> hard;
+        };
+    }
+
+    /**
+     * Limits of an alpha-beta move, and the threads the searches of either engine run on, off the inbound threads.
+     * A search started while every thread is busy waits for one.
+     */
+    public static class Search {
+        private Duration moveTime = Duration.ofMillis(200);
+        private DataSize tableSize = DataSize.ofMegabytes(16);
+        private int threads = PROCESSORS;
+
+        public Duration getMoveTime() {
+            return moveTime;
+        }
+
+        public void setMoveTime(Duration moveTime) {
+            this.moveTime = moveTime;
+        }
+
+        public DataSize getTableSize() {
+            return tableSize;
+        }
+
+        public void setTableSize(DataSize tableSize) {
+            this.tableSize = tableSize;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+    }
+
+    /**
+     * Limits of a Monte Carlo move: the number of playouts sets the strength, the number of parallel workers the
+     * playouts per second. A move stops at whichever of the playouts and the move time comes first.
+     */
+    public static class Level {
+        private long playouts;
+        private Duration moveTime;
+        private int parallelism;
+
+        public Level(long playouts, Duration moveTime, int parallelism) {
+            this.playouts = playouts;
+            this.moveTime = moveTime;
+            this.parallelism = parallelism;
+        }
+
+        public long getPlayouts() {
+            return playouts;
+        }
+
+        public void setPlayouts(long playouts) {
+            this.playouts = playouts;
+        }
+
+        public Duration getMoveTime() {
+            return moveTime;
+        }
+
+        public void setMoveTime(Duration moveTime) {
+            this.moveTime = moveTime;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.joabsonlg.tictactoewebsocket.config;
+
+import com.joabsonlg.tictactoewebsocket.cluster.ClusterNode;
+import com.joabsonlg.tictactoewebsocket.cluster.ClusterRelay;
+import com.joabsonlg.tictactoewebsocket.cluster.HashRing;
+import com.joabsonlg.tictactoewebsocket.cluster.LoopbackRelay;
+import com.joabsonlg.tictactoewebsocket.manager.TicTacToeManager;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.MessageChannel;
+
+import java.util.List;
+
+/**
+ * Configuration of the cluster mode, enabled with {@code tictactoe.cluster.enabled=true}. Every node lists the same
+ * {@code tictactoe.cluster.nodes} and names itself with {@code tictactoe.cluster.node-id}.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+@Configuration
+@ConditionalOnProperty(name = "tictactoe.cluster.enabled", havingValue = "true")
+public class ClusterConfig {
+
+    /**
+     * Transport between the nodes, unless another one is declared: the in-JVM relay, which connects the application
+     * contexts started in one JVM.
+     *
+     * @return the relay
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ClusterRelay clusterRelay() {
+        return LoopbackRelay.shared();
+    }
+
+    /**
+     * This application's node. New games get IDs owned by it.
+     *
+     * @param manager      the game manager
+     * @param relay        the transport between the nodes
+     * @param nodeId       the ID of this node
+     * @param nodes        the IDs of every node of the cluster
+     * @param virtualNodes the number of points of each node on the hash ring
+     * @return the cluster node
+     */
+    @Bean(destroyMethod = "stop")
+    public ClusterNode clusterNode(TicTacToeManager manager, ClusterRelay relay,
+                                   @Value("${tictactoe.cluster.node-id}") String nodeId,
+                                   @Value("${tictactoe.cluster.nodes}") List<String> nodes,
+                                   @Value("${tictactoe.cluster.virtual-nodes:256}") int virtualNodes) {
+        ClusterNode node = new ClusterNode(nodeId, new HashRing(nodes, virtualNodes), relay);
+        manager.setGameIdSupplier(node::newGameId);
+        return node;
+    }
+
+    /**
+     * Connects the node to the relay once the message channels are ready.
+     *
+     * @param node           the cluster node
+     * @param inboundChannel the channel of the messages received from clients
+     * @param brokerChannel  the channel of the messages published to the broker
+     * @return the callback starting the node
+     */
+    @Bean
+    public SmartInitializingSingleton clusterNodeStarter(ClusterNode node,
+                                                         @Qualifier("clientInboundChannel") MessageChannel inboundChannel,
+                                                         @Qualifier("brokerChannel") MessageChannel brokerChannel) {
+        return () -> node.start(inboundChannel, brokerChannel);
+    }
+}
@@ -0,0 +1,336 @@
+package com.joabsonlg.tictactoewebsocket.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joabsonlg.tictactoewebsocket.ai.AlphaBetaSearch;
+import com.joabsonlg.tictactoewebsocket.ai.BotEngine;
+import com.joabsonlg.tictactoewebsocket.ai.MonteCarloSearch;
+import com.joabsonlg.tictactoewebsocket.enumeration.BotEngineType;
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.manager.BotPlayer;
+import com.joabsonlg.tictactoewebsocket.manager.BotSeatedEvent;
+import com.joabsonlg.tictactoewebsocket.manager.GameExpiredEvent;
+import com.joabsonlg.tictactoewebsocket.manager.GameMailboxes;
+import com.joabsonlg.tictactoewebsocket.manager.GameReaper;
+import com.joabsonlg.tictactoewebsocket.manager.Matchmaker;
+import com.joabsonlg.tictactoewebsocket.manager.PlayerRatings;
+import com.joabsonlg.tictactoewebsocket.manager.Rematcher;
+import com.joabsonlg.tictactoewebsocket.manager.TicTacToeManager;
+import com.joabsonlg.tictactoewebsocket.manager.TimerWheel;
+import com.joabsonlg.tictactoewebsocket.manager.WaitingPlayerMovedEvent;
+import com.joabsonlg.tictactoewebsocket.metrics.GameMetrics;
+import com.joabsonlg.tictactoewebsocket.persistence.GameArchive;
+import com.joabsonlg.tictactoewebsocket.persistence.GameJournal;
+import com.joabsonlg.tictactoewebsocket.persistence.GameSnapshotter;
+import com.joabsonlg.tictactoewebsocket.spectator.SpectatorHub;
+import com.joabsonlg.tictactoewebsocket.tournament.TournamentMatchEvent;
+import com.joabsonlg.tictactoewebsocket.tournament.TournamentRoundEvent;
+import com.joabsonlg.tictactoewebsocket.tournament.TournamentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration class for the game manager and the infrastructure that executes game events.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+@Configuration
+@EnableConfigurationProperties(BotProperties.class)
+public class GameConfig {
+
+    /**
+     * Elo ratings of the players, updated as their games end.
+     *
+     * @return the player ratings
+     */
+    @Bean
+    public PlayerRatings playerRatings() {
+        return new PlayerRatings();
+    }
+
+    /**
+     * The manager holding every live Tic-Tac-Toe game. Joining players are paired by rating: a waiting player accepts
+     * opponents within a rating window that widens the longer they wait.
+     *
+     * @param ratings       the player ratings, kept up to date by the manager's games
+     * @param bucketWidth   the range of ratings of a matchmaking queue
+     * @param initialWindow the rating difference a player accepts as soon as they start waiting
+     * @param windowGrowth  the rating difference added to the window per second of waiting
+     * @param maxWindow     the rating difference a player accepts after waiting long enough
+     * @return the game manager shared by all controllers
+     */
+    @Bean
+    public TicTacToeManager ticTacToeManager(PlayerRatings ratings,
+                                             @Value("${tictactoe.matchmaking.bucket-width:50}") int bucketWidth,
+                                             @Value("${tictactoe.matchmaking.initial-window:100}") int initialWindow,
+                                             @Value("${tictactoe.matchmaking.window-growth:25}") int windowGrowth,
+                                             @Value("${tictactoe.matchmaking.max-window:1000}") int maxWindow) {
+        TicTacToeManager manager = new TicTacToeManager(
+                new Matchmaker(ratings::getRating, bucketWidth, initialWindow, windowGrowth, maxWindow));
+        manager.addListener(ratings);
+        return manager;
+    }
+
+    /**
+     * Per-game mailboxes used when {@code tictactoe.execution.mode=actor}. They run on virtual threads
+     * when the JDK supports them, and on a fixed pool of platform threads otherwise.
+     *
+     * @param capacity the maximum number of pending events per game
+     * @param poolSize the number of platform threads used when virtual threads are unavailable
+     * @return the game mailboxes
+     */
+    @Bean(destroyMethod = "shutdown")
+    public GameMailboxes gameMailboxes(@Value("${tictactoe.mailbox.capacity:256}") int capacity,
+                                       @Value("${tictactoe.mailbox.pool-size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int poolSize) {
+        return new GameMailboxes(VirtualThreads.newExecutorOrPlatform("game-mailbox-", poolSize), capacity);
+    }
+
+    /**
+     * Timer wheel driving the expiration of idle games.
+     *
+     * @param tick      the resolution of the expirations
+     * @param wheelSize the number of slots of the wheel; timeouts longer than a turn of the wheel take extra rounds
+     * @return the timer wheel, started
+     */
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public TimerWheel gameTimerWheel(@Value("${tictactoe.expiry.tick:1s}") Duration tick,
+                                     @Value("${tictactoe.expiry.wheel-size:512}") int wheelSize) {
+        return new TimerWheel(tick.toNanos(), TimeUnit.NANOSECONDS, wheelSize);
+    }
+
+    /**
+     * Periodic pass pairing the players already waiting whose rating windows came to overlap. Players moved out of
+     * their game are announced with a {@link WaitingPlayerMovedEvent}.
+     *
+     * @param manager   the game manager
+     * @param wheel     the timer wheel
+     * @param interval  the time between two passes
+     * @param publisher publisher of the moves
+     * @return the rematcher, scheduled
+     */
+    @Bean
+    public Rematcher rematcher(TicTacToeManager manager, TimerWheel wheel,
+                               @Value("${tictactoe.matchmaking.rematch-interval:1s}") Duration interval,
+                               ApplicationEventPublisher publisher) {
+        return new Rematcher(manager, wheel, interval.toNanos(),
+                (closedGameId, game) -> publisher.publishEvent(new WaitingPlayerMovedEvent(closedGameId, game)));
+    }
+
+    /**
+     * Reaper removing games that wait too long for a second player or see no move for too long.
+     * Expired games are announced with a {@link GameExpiredEvent}.
+     *
+     * @param manager    the game manager
+     * @param wheel      the timer wheel
+     * @param idleTtl    how long a started game may go without a move
+     * @param waitingTtl how long a game may wait for its second player
+     * @param publisher  publisher of the expiration events
+     * @return the game reaper
+     */
+    @Bean
+    public GameReaper gameReaper(TicTacToeManager manager, TimerWheel wheel,
+                                 @Value("${tictactoe.expiry.idle-ttl:5m}") Duration idleTtl,
+                                 @Value("${tictactoe.expiry.waiting-ttl:10m}") Duration waitingTtl,
+                                 ApplicationEventPublisher publisher) {
+        return new GameReaper(manager, wheel, idleTtl.toNanos(), waitingTtl.toNanos(), game -> publisher.publishEvent(
+                new GameExpiredEvent(game, game.getGameState() == GameState.WAITING_FOR_PLAYER)));
+    }
+
+    /**
+     * Search choosing the bots' moves on boards larger than the classic one: the alpha-beta search, or the Monte Carlo
+     * search at the configured difficulty. The Monte Carlo workers run on a pool of their own, whose daemon threads
+     * retire while no bot is thinking.
+     *
+     * @param properties the choice of search, the alpha-beta limits and the difficulty levels
+     * @return the bot engine
+     */
+    @Bean
+    @ConditionalOnProperty(name = "tictactoe.bot.enabled", havingValue = "true")
+    public BotEngine botEngine(BotProperties properties) {
+        if (properties.getEngine() == BotEngineType.MONTE_CARLO) {
+            BotProperties.Level level = properties.getLevel(properties.getDifficulty());
+            return new MonteCarloSearch(new ForkJoinPool(Math.max(1, level.getParallelism())), level.getPlayouts(),
+                    level.getMoveTime().toNanos(), level.getParallelism());
+        }
+        BotProperties.Search search = properties.getSearch();
+        return new AlphaBetaSearch(search.getMoveTime().toNanos(), search.getTableSize().toBytes());
+    }
+
+    /**
+     * Bot taking the open seat of games that wait too long for a second player. Seated bots are announced with a
+     * {@link BotSeatedEvent}. Its moves on larger boards are searched, with either engine, on a pool of their own, so
+     * a search never holds an inbound thread or a game's lock; the pool's daemon threads retire while no bot is
+     * thinking.
+     *
+     * @param manager    the game manager
+     * @param wheel      the timer wheel
+     * @param engine     the engine choosing the bot's moves
+     * @param properties the wait before a bot takes a seat, and the number of searches run at once
+     * @param publisher  publisher of the seating events
+     * @return the bot player
+     */
+    @Bean
+    @ConditionalOnProperty(name = "tictactoe.bot.enabled", havingValue = "true")
+    public BotPlayer botPlayer(TicTacToeManager manager, TimerWheel wheel, BotEngine engine, BotProperties properties,
+                               ApplicationEventPublisher publisher) {
+        int threads = Math.max(1, properties.getSearch().getThreads());
+        ThreadPoolExecutor searches = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "bot-search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        searches.allowCoreThreadTimeOut(true);
+        manager.setBotEngine(engine);
+        manager.setBotExecutor(searches);
+        return new BotPlayer(manager, wheel, properties.getWait().toNanos(),
+                game -> publisher.publishEvent(new BotSeatedEvent(game)));
+    }
+
+    /**
+     * Journal of the game events. On startup the live games are rebuilt from the latest snapshot and the journal
+     * records written after it, before any client can connect; from then on every change to a game is appended to
+     * the journal. It depends on the reaper so restored games are tracked for expiration.
+     *
+     * @param manager       the game manager
+     * @param directory     the directory of the journal segments
+     * @param segmentSize   the size of a journal segment file
+     * @param flushInterval the interval between two syncs of the journal to disk
+     * @param snapshotFile  the snapshot file
+     * @return the journal, listening to the manager
+     * @throws IOException if the journal or the snapshot cannot be read
+     */
+    @Bean(destroyMethod = "close")
+    @DependsOn("gameReaper")
+    @ConditionalOnProperty(name = "tictactoe.journal.enabled", havingValue = "true")
+    public GameJournal gameJournal(TicTacToeManager manager,
+                                   @Value("${tictactoe.journal.dir:data/journal}") String directory,
+                                   @Value("${tictactoe.journal.segment-size:64MB}") DataSize segmentSize,
+                                   @Value("${tictactoe.journal.flush-interval:10ms}") Duration flushInterval,
+                                   @Value("${tictactoe.snapshot.file:data/games.snapshot}") String snapshotFile) throws IOException {
+        GameJournal journal = new GameJournal(Path.of(directory), segmentSize.toBytes(), flushInterval.toNanos());
+        journal.restore(manager, GameSnapshotter.load(Path.of(snapshotFile)));
+        manager.addListener(journal);
+        journal.start();
+        return journal;
+    }
+
+    /**
+     * Periodic snapshots of the live games, which bound the journal replayed on startup. A last snapshot is taken
+     * on shutdown, before the journal is closed.
+     *
+     * @param manager      the game manager
+     * @param journal      the journal the snapshots are positioned in
+     * @param snapshotFile the snapshot file
+     * @param interval     the interval between two snapshots
+     * @return the snapshotter, started
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "tictactoe.journal.enabled", havingValue = "true")
+    public GameSnapshotter gameSnapshotter(TicTacToeManager manager, GameJournal journal,
+                                           @Value("${tictactoe.snapshot.file:data/games.snapshot}") String snapshotFile,
+                                           @Value("${tictactoe.snapshot.interval:1m}") Duration interval) {
+        GameSnapshotter snapshotter = new GameSnapshotter(Path.of(snapshotFile), manager, journal);
+        snapshotter.start(interval.toNanos(), TimeUnit.NANOSECONDS);
+        return snapshotter;
+    }
+
+    /**
+     * Archive of the finished games, served by the game history API.
+     *
+     * @param manager   the game manager
+     * @param directory the directory of the archive files
+     * @return the archive, listening to the manager
+     * @throws IOException if the archive cannot be opened
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "tictactoe.archive.enabled", havingValue = "true")
+    public GameArchive gameArchive(TicTacToeManager manager,
+                                   @Value("${tictactoe.archive.dir:data/archive}") String directory) throws IOException {
+        GameArchive archive = new GameArchive(Path.of(directory));
+        manager.addListener(archive);
+        return archive;
+    }
+
+    /**
+     * Broadcast pipeline of the spectators. Snapshots are published to the spectator's session as already serialized
+     * JSON, so the broker sends the same bytes to every spectator of a game. The template is looked up on first use,
+     * as the message broker configuration depends on the hub to intercept the outbound channel.
+     *
+     * @param manager     the game manager
+     * @param mapper      the mapper serializing the snapshots
+     * @param template    the template publishing to the broker
+     * @param metrics     the meters of the sent and coalesced snapshots
+     * @param tick        the interval between two batches of snapshots
+     * @param maxInFlight the snapshots a spectator may have pending before it is skipped
+     * @return the spectator hub, started
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "tictactoe.spectator.enabled", havingValue = "true")
+    public SpectatorHub spectatorHub(TicTacToeManager manager, ObjectMapper mapper,
+                                     ObjectProvider<SimpMessagingTemplate> template, GameMetrics metrics,
+                                     @Value("${tictactoe.spectator.tick:100ms}") Duration tick,
+                                     @Value("${tictactoe.spectator.max-in-flight:2}") int maxInFlight) {
+        SpectatorHub hub = new SpectatorHub(manager, mapper, (sessionId, payload) -> {
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            headers.setSessionId(sessionId);
+            headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            headers.setHeader(SpectatorHub.SPECTATOR_HEADER, Boolean.TRUE);
+            headers.setLeaveMutable(true);
+            template.getObject().send("/user/" + sessionId + SpectatorHub.DESTINATION,
+                    MessageBuilder.createMessage(payload, headers.getMessageHeaders()));
+        }, maxInFlight, metrics::spectatorsTicked);
+        hub.start(tick.toNanos(), TimeUnit.NANOSECONDS);
+        return hub;
+    }
+
+    /**
+     * Tournaments played as games of the manager. Rounds starting and tournaments finishing are announced with a
+     * {@link TournamentRoundEvent}, and players moved from a waiting game to their match with a
+     * {@link TournamentMatchEvent}.
+     *
+     * @param manager   the game manager
+     * @param publisher publisher of the round and match events
+     * @return the tournament service, listening to the manager
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "tictactoe.tournament.enabled", havingValue = "true")
+    public TournamentService tournamentService(TicTacToeManager manager, ApplicationEventPublisher publisher) {
+        return new TournamentService(manager, tournament -> publisher.publishEvent(
+                new TournamentRoundEvent(tournament, tournament.getRound(), tournament.isFinished())),
+                (closedGameId, game) -> publisher.publishEvent(new TournamentMatchEvent(closedGameId, game)));
+    }
+
+    /**
+     * Meters of the game handlers, the matchmaking and the messages sent to clients.
+     *
+     * @param registry  the registry exposed through the actuator
+     * @param manager   the game manager, sampled by the gauges
+     * @param mailboxes the game mailboxes, sampled by the gauges
+     * @return the game metrics
+     */
+    @Bean
+    public GameMetrics gameMetrics(MeterRegistry registry, TicTacToeManager manager, GameMailboxes mailboxes) {
+        return new GameMetrics(registry, manager, mailboxes);
+    }
+}
@@ -0,0 +1,81 @@
+package com.joabsonlg.tictactoewebsocket.config;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * {@link ThreadPoolTaskExecutor} that runs every task on its own virtual thread.
+ * <p>
+ * Spring 6.0's channel registration only accepts a {@code ThreadPoolTaskExecutor}, so this class keeps that type
+ * but routes all submissions to a virtual thread per task executor. The inherited pool is kept at a single thread
+ * and is only there to satisfy the parent's lifecycle and statistics.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class VirtualThreadTaskExecutor extends ThreadPoolTaskExecutor {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ExecutorService virtualThreads;
+
+    /**
+     * Constructs a new VirtualThreadTaskExecutor.
+     *
+     * @throws IllegalStateException if the running JDK has no virtual threads
+     */
+    public VirtualThreadTaskExecutor() {
+        this.virtualThreads = VirtualThreads.newThreadPerTaskExecutor();
+        setCorePoolSize(1);
+        setMaxPoolSize(1);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        virtualThreads.execute(task);
+    }
+
+    // The deprecated overloads stay overridden: channels only take a ThreadPoolTaskExecutor on Spring 6.0, and any
+    // caller using them through that type must still land on a virtual thread rather than the inherited pool.
+    @SuppressWarnings("deprecation")
+    @Override
+    public void execute(Runnable task, long startTimeout) {
+        virtualThreads.execute(task);
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        return virtualThreads.submit(task);
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        return virtualThreads.submit(task);
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public ListenableFuture<?> submitListenable(Runnable task) {
+        ListenableFutureTask<Object> future = new ListenableFutureTask<>(task, null);
+        virtualThreads.execute(future);
+        return future;
+    }
+
+    @SuppressWarnings("deprecation")
+    @Override
+    public <T> ListenableFuture<T> submitListenable(Callable<T> task) {
+        ListenableFutureTask<T> future = new ListenableFutureTask<>(task);
+        virtualThreads.execute(future);
+        return future;
+    }
+
+    @Override
+    public void shutdown() {
+        virtualThreads.shutdown();
+        super.shutdown();
+    }
+}
@@ -0,0 +1,89 @@
+package com.joabsonlg.tictactoewebsocket.config;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Access to virtual threads without requiring them at compile time.
+ * <p>
+ * The application is built for Java 17, where virtual threads do not exist. On a JDK that has them
+ * (21 or later) they are looked up reflectively once; otherwise callers fall back to platform threads.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public final class VirtualThreads {
+
+    private static final MethodHandle NEW_THREAD_PER_TASK_EXECUTOR = findNewThreadPerTaskExecutor();
+
+    private VirtualThreads() {
+    }
+
+    private static MethodHandle findNewThreadPerTaskExecutor() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Check if the running JDK supports virtual threads.
+     *
+     * @return true if virtual threads are available
+     */
+    public static boolean isAvailable() {
+        return NEW_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for each task.
+     *
+     * @return the executor
+     * @throws IllegalStateException if the running JDK has no virtual threads
+     */
+    public static ExecutorService newThreadPerTaskExecutor() {
+        if (NEW_THREAD_PER_TASK_EXECUTOR == null) {
+            throw new IllegalStateException("Virtual threads require Java 21 or later, running on " + Runtime.version());
+        }
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create a virtual thread executor", e);
+        }
+    }
+
+    /**
+     * Creates a virtual thread per task executor if available, otherwise a fixed pool of daemon platform threads.
+     *
+     * @param namePrefix the name prefix of the platform threads
+     * @param poolSize   the number of platform threads used as fallback
+     * @return the executor
+     */
+    public static ExecutorService newExecutorOrPlatform(String namePrefix, int poolSize) {
+        if (isAvailable()) {
+            return newThreadPerTaskExecutor();
+        }
+        return Executors.newFixedThreadPool(poolSize, daemonThreadFactory(namePrefix));
+    }
+
+    /**
+     * Creates a factory of named daemon platform threads.
+     *
+     * @param namePrefix the name prefix, followed by a counter
+     * @return the thread factory
+     */
+    public static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -1,10 +1,31 @@
 package com.joabsonlg.tictactoewebsocket.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joabsonlg.tictactoewebsocket.cluster.ClusterNode;
+import com.joabsonlg.tictactoewebsocket.codec.BinaryMessageConverter;
+import com.joabsonlg.tictactoewebsocket.codec.FrameBatcher;
+import com.joabsonlg.tictactoewebsocket.codec.GameJsonMessageConverter;
+import com.joabsonlg.tictactoewebsocket.codec.WireFormatInterceptor;
+import com.joabsonlg.tictactoewebsocket.enumeration.ChannelExecutorType;
+import com.joabsonlg.tictactoewebsocket.metrics.GameMetrics;
+import com.joabsonlg.tictactoewebsocket.metrics.MessageSizeInterceptor;
+import com.joabsonlg.tictactoewebsocket.spectator.SpectatorHub;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.util.List;
 
 /**
  * Configuration class for setting up WebSocket messaging in the application.
@@ -15,30 +36,169 @@ import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerCo
  */
 @Configuration
 @EnableWebSocketMessageBroker
+@EnableConfigurationProperties(WebSocketProperties.class)
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketConfig.class);
+
+    @Autowired
+    private WebSocketProperties properties;
+
+    @Autowired
+    private GameMetrics gameMetrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * This application's node in cluster mode, relaying the broadcasts to the other nodes; null otherwise.
+     */
+    @Autowired(required = false)
+    private ClusterNode clusterNode;
+
+    /**
+     * The spectators' broadcast pipeline, counting down the snapshots written to spectators; null when disabled.
+     */
+    @Autowired(required = false)
+    private SpectatorHub spectatorHub;
+
+    /**
+     * Per-connection negotiation of the JSON or binary wire format.
+     */
+    private final WireFormatInterceptor wireFormatInterceptor = new WireFormatInterceptor();
+
     /**
-     * Registers the "/ws" endpoint, allowing clients to connect to the WebSocket message broker.
+     * Registers the "/ws" endpoint, allowing clients to connect to the WebSocket message broker through SockJS,
+     * and the "/ws-native" endpoint for plain WebSocket clients. Only connections to "/ws-native" can use the
+     * binary wire format, as SockJS frames are text.
      *
      * @param registry the registry for registering STOMP endpoints
      */
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws").setAllowedOriginPatterns("*").withSockJS();
+        registry.addEndpoint("/ws-native").setAllowedOriginPatterns("*").addInterceptors(wireFormatInterceptor);
+    }
+
+    /**
+     * Adds the binary converter and the JSON converter of the game messages in front of the default ones. The binary
+     * converter only handles messages whose content type is {@link BinaryMessageConverter#MIME_TYPE}, so JSON remains
+     * the default format; the JSON one keeps each game message next to its JSON, for binary connections to encode.
+     *
+     * @param messageConverters the converters to add to
+     * @return true, to keep the default converters
+     */
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        messageConverters.add(new BinaryMessageConverter());
+        messageConverters.add(new GameJsonMessageConverter(objectMapper));
+        return true;
     }
 
     /**
      * Configures the message broker to use destination prefixes to filter messages.
      * All messages that start with "/app" are routed to the message-handling methods,
-     * while messages that start with "/queue", "/topic", or "/user" are routed to the message broker.
-     * The message broker broadcasts messages to subscribed clients that are connected to the broker.
+     * while messages that start with "/queue" or "/topic" are routed to the message broker.
+     * Messages that start with "/user" are resolved to the destinations of a single session first, so "/user"
+     * must not be a broker prefix too: the broker would register the untranslated subscription under the same
+     * subscription ID and race with the translated one.
+     * The message broker broadcasts messages to subscribed clients that are connected to the broker. In cluster mode,
+     * the messages published to the broker are relayed to the brokers of the other nodes as well.
      *
      * @param registry the registry for configuring the message broker
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         registry.setApplicationDestinationPrefixes("/app");
-        registry.enableSimpleBroker("/queue", "/topic", "/user");
+        registry.enableSimpleBroker("/queue", "/topic");
         registry.setUserDestinationPrefix("/user");
+        // The outbound channel is multi-threaded; keep each session's messages in the order they were published.
+        registry.setPreservePublishOrder(true);
+        if (properties.getBroker().isAsync()) {
+            registry.configureBrokerChannel().taskExecutor(channelExecutor("ws-broker-", properties.getBroker()));
+        }
+        if (clusterNode != null) {
+            registry.configureBrokerChannel().interceptors(clusterNode);
+        }
+    }
+
+    /**
+     * Backs the channel of messages received from clients with the configured executor.
+     * Wire format requests are recorded as clients connect.
+     *
+     * @param registration the registration of the inbound channel
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(channelExecutor("ws-inbound-", properties.getInbound()));
+        registration.interceptors(wireFormatInterceptor);
+    }
+
+    /**
+     * Backs the channel of messages sent to clients with the configured executor.
+     * Messages to binary connections are transcoded on their way out, then their size is recorded. Once a spectator
+     * snapshot is written, the spectator hub is told, so it can send the spectator the next one.
+     *
+     * @param registration the registration of the outbound channel
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(channelExecutor("ws-outbound-", properties.getOutbound()));
+        registration.interceptors(wireFormatInterceptor, new MessageSizeInterceptor(gameMetrics));
+        if (spectatorHub != null) {
+            registration.interceptors(spectatorHub);
+        }
+    }
+
+    /**
+     * Batches the frames sent to each session when {@code tictactoe.websocket.batch.enabled} is set.
+     *
+     * @param registration the registration of the WebSocket transport
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        if (properties.getBatch().isEnabled()) {
+            registration.addDecoratorFactory(frameBatcher());
+        }
+    }
+
+    /**
+     * Batching of the frames sent to the sessions, recording the size of each batch.
+     *
+     * @return the frame batcher
+     */
+    @Bean(destroyMethod = "close")
+    public FrameBatcher frameBatcher() {
+        WebSocketProperties.Batch batch = properties.getBatch();
+        return new FrameBatcher(batch.getWindow().toNanos(), batch.getMaxMessages(),
+                (int) Math.min(Integer.MAX_VALUE, batch.getMaxSize().toBytes()), batch.getFlushThreads(),
+                gameMetrics::recordOutboundBatch);
+    }
+
+    /**
+     * Creates the executor of a channel: a virtual thread per message when {@code tictactoe.websocket.executor=VIRTUAL}
+     * and the JDK supports it, otherwise a bounded platform thread pool sized by the given settings.
+     *
+     * @param threadNamePrefix the name prefix of the channel's threads
+     * @param pool             the pool settings of the channel
+     * @return the executor for the channel
+     */
+    private ThreadPoolTaskExecutor channelExecutor(String threadNamePrefix, WebSocketProperties.Pool pool) {
+        if (properties.getExecutor() == ChannelExecutorType.VIRTUAL) {
+            if (VirtualThreads.isAvailable()) {
+                VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor();
+                executor.setThreadNamePrefix(threadNamePrefix);
+                return executor;
+            }
+            logger.warn("Virtual threads are not available on Java {}, {} uses a platform thread pool",
+                    Runtime.version().feature(), threadNamePrefix);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(pool.getCorePoolSize());
+        executor.setMaxPoolSize(pool.getMaxPoolSize());
+        executor.setQueueCapacity(pool.getQueueCapacity());
+        executor.setKeepAliveSeconds(pool.getKeepAliveSeconds());
+        return executor;
     }
 }
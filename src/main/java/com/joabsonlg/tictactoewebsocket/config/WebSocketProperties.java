@@ -0,0 +1,178 @@
+package com.joabsonlg.tictactoewebsocket.config;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.ChannelExecutorType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Tuning of the executors behind the WebSocket message channels and of the batching of the frames sent to clients,
+ * bound from {@code tictactoe.websocket.*}.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+@ConfigurationProperties(prefix = "tictactoe.websocket")
+public class WebSocketProperties {
+
+    private static final int PROCESSORS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Whether the channels run on bounded platform thread pools or on virtual threads.
+     */
+    private ChannelExecutorType executor = ChannelExecutorType.PLATFORM;
+
+    /**
+     * Pool handling messages received from clients.
+     */
+    private final Pool inbound = new Pool(PROCESSORS * 2, PROCESSORS * 4, 10_000);
+
+    /**
+     * Pool writing messages to client sessions.
+     */
+    private final Pool outbound = new Pool(PROCESSORS * 2, PROCESSORS * 4, 10_000);
+
+    /**
+     * Pool between the application and the broker. Only used when {@link Pool#isAsync()} is set, since an
+     * asynchronous broker channel no longer delivers consecutive messages of a game in order.
+     */
+    private final Pool broker = new Pool(PROCESSORS, PROCESSORS * 2, 10_000);
+
+    /**
+     * Coalescing of the frames sent to a session into fewer WebSocket messages.
+     */
+    private final Batch batch = new Batch();
+
+    public ChannelExecutorType getExecutor() {
+        return executor;
+    }
+
+    public void setExecutor(ChannelExecutorType executor) {
+        this.executor = executor;
+    }
+
+    public Pool getInbound() {
+        return inbound;
+    }
+
+    public Pool getOutbound() {
+        return outbound;
+    }
+
+    public Pool getBroker() {
+        return broker;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    /**
+     * Sizing of a platform thread pool.
+     */
+    public static class Pool {
+        private int corePoolSize;
+        private int maxPoolSize;
+        private int queueCapacity;
+        private int keepAliveSeconds = 60;
+        private boolean async;
+
+        public Pool(int corePoolSize, int maxPoolSize, int queueCapacity) {
+            this.corePoolSize = corePoolSize;
+            this.maxPoolSize = maxPoolSize;
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getCorePoolSize() {
+            return corePoolSize;
+        }
+
+        public void setCorePoolSize(int corePoolSize) {
+            this.corePoolSize = corePoolSize;
+        }
+
+        public int getMaxPoolSize() {
+            return maxPoolSize;
+        }
+
+        public void setMaxPoolSize(int maxPoolSize) {
+            this.maxPoolSize = maxPoolSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getKeepAliveSeconds() {
+            return keepAliveSeconds;
+        }
+
+        public void setKeepAliveSeconds(int keepAliveSeconds) {
+            this.keepAliveSeconds = keepAliveSeconds;
+        }
+
+        public boolean isAsync() {
+            return async;
+        }
+
+        public void setAsync(boolean async) {
+            this.async = async;
+        }
+    }
+
+    /**
+     * Batching of the frames sent to a session: frames sent within the window are written as one WebSocket message,
+     * unless the batch reaches either limit first.
+     */
+    public static class Batch {
+        private boolean enabled = true;
+        private Duration window = Duration.ofMillis(2);
+        private int maxMessages = 32;
+        private DataSize maxSize = DataSize.ofKilobytes(64);
+        private int flushThreads = Math.max(2, PROCESSORS / 2);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getMaxMessages() {
+            return maxMessages;
+        }
+
+        public void setMaxMessages(int maxMessages) {
+            this.maxMessages = maxMessages;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getFlushThreads() {
+            return flushThreads;
+        }
+
+        public void setFlushThreads(int flushThreads) {
+            this.flushThreads = flushThreads;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.joabsonlg.tictactoewebsocket.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joabsonlg.tictactoewebsocket.persistence.ArchivedGame;
+import com.joabsonlg.tictactoewebsocket.persistence.GameArchive;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Controller class serving finished games from the {@link GameArchive} as JSON, for replays and audits.
+ * <p>
+ * Responses are written straight to the connection as the games are read from disk, so a page of history never has
+ * to be held in memory as a whole.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+@RestController
+@RequestMapping("/api")
+@ConditionalOnProperty(name = "tictactoe.archive.enabled", havingValue = "true")
+public class GameArchiveController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private GameArchive gameArchive;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Returns a finished game with its moves in the order they were played.
+     *
+     * @param gameId the ID of the game
+     * @return the game, or 404 if it is not in the archive
+     * @throws IOException if the archive cannot be read
+     */
+    @GetMapping("/games/{gameId}")
+    public ResponseEntity<StreamingResponseBody> game(@PathVariable String gameId) throws IOException {
+        ArchivedGame game = gameArchive.find(gameId);
+        if (game == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(out -> {
+            try (JsonGenerator json = createGenerator(out)) {
+                writeGame(json, game);
+            }
+        });
+    }
+
+    /**
+     * Returns a page of the finished games of a player, from the newest to the oldest.
+     *
+     * @param player the name of the player
+     * @param before the "next" cursor of the previous page, or nothing for the first page
+     * @param limit  the maximum number of games in the page, at most {@value #MAX_PAGE_SIZE}
+     * @return the games and the cursor of the next page, null on the last page; or 400 if the cursor is not valid
+     * @throws IOException if the archive cannot be read
+     */
+    @GetMapping("/players/{player}/games")
+    public ResponseEntity<StreamingResponseBody> history(@PathVariable String player,
+                                                         @RequestParam(defaultValue = "-1") long before,
+                                                         @RequestParam(defaultValue = "20") int limit) throws IOException {
+        if (before >= 0 && !gameArchive.isHistoryCursor(player, before)) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(out -> {
+            try (JsonGenerator json = createGenerator(out)) {
+                json.writeStartObject();
+                json.writeStringField("player", player);
+                json.writeArrayFieldStart("games");
+                long next;
+                try {
+                    next = gameArchive.history(player, before, pageSize, game -> {
+                        try {
+                            writeGame(json, game);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                json.writeEndArray();
+                if (next >= 0) {
+                    json.writeNumberField("next", next);
+                } else {
+                    json.writeNullField("next");
+                }
+                json.writeEndObject();
+            }
+        });
+    }
+
+    private JsonGenerator createGenerator(OutputStream out) throws IOException {
+        return objectMapper.getFactory().createGenerator(out);
+    }
+
+    private static void writeGame(JsonGenerator json, ArchivedGame game) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("gameId", game.gameId());
+        json.writeStringField("player1", game.player1());
+        json.writeStringField("player2", game.player2());
+        json.writeStringField("winner", game.winner());
+        json.writeStringField("gameState", game.state().name());
+        json.writeNumberField("size", game.size());
+        json.writeNumberField("winLength", game.winLength());
+        json.writeNumberField("finishedAt", game.finishedAt());
+        json.writeArrayFieldStart("moves");
+        int[] moves = game.moves();
+        for (int i = 0; i < moves.length; i++) {
+            json.writeStartObject();
+            json.writeNumberField("seq", i + 1);
+            json.writeStringField("player", game.playerOf(i));
+            json.writeNumberField("cell", moves[i]);
+            json.writeStringField("mark", game.markOf(i));
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+}
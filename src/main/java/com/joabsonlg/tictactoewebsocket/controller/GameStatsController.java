@@ -0,0 +1,37 @@
+package com.joabsonlg.tictactoewebsocket.controller;
+
+import com.joabsonlg.tictactoewebsocket.manager.GameMailboxes;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Controller class exposing runtime statistics of the game server as JSON.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+@RestController
+@RequestMapping("/api/stats")
+public class GameStatsController {
+
+    @Autowired
+    private GameMailboxes gameMailboxes;
+
+    /**
+     * Returns the backlog of every game mailbox that currently has pending events.
+     *
+     * @return the mailbox capacity, the number of busy mailboxes and the queue depth per game ID
+     */
+    @GetMapping("/mailboxes")
+    public Map<String, Object> mailboxes() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("capacity", gameMailboxes.getCapacity());
+        stats.put("active", gameMailboxes.activeMailboxes());
+        stats.put("queueDepths", gameMailboxes.queueDepths());
+        return stats;
+    }
+}
@@ -1,22 +1,42 @@
 package com.joabsonlg.tictactoewebsocket.controller;
 
+import com.joabsonlg.tictactoewebsocket.cluster.ClusterNode;
+import com.joabsonlg.tictactoewebsocket.engine.BoardVariant;
+import com.joabsonlg.tictactoewebsocket.enumeration.ExecutionMode;
 import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.manager.BotSeatedEvent;
+import com.joabsonlg.tictactoewebsocket.manager.GameExpiredEvent;
+import com.joabsonlg.tictactoewebsocket.manager.GameMailboxes;
+import com.joabsonlg.tictactoewebsocket.manager.PlayerRatings;
 import com.joabsonlg.tictactoewebsocket.manager.TicTacToeManager;
+import com.joabsonlg.tictactoewebsocket.manager.WaitingPlayerMovedEvent;
+import com.joabsonlg.tictactoewebsocket.metrics.GameMetrics;
+import com.joabsonlg.tictactoewebsocket.metrics.GameMetrics.Handler;
 import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
 import com.joabsonlg.tictactoewebsocket.model.dto.JoinMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.MoveMessage;
 import com.joabsonlg.tictactoewebsocket.model.dto.PlayerMessage;
 import com.joabsonlg.tictactoewebsocket.model.dto.TicTacToeMessage;
+import com.joabsonlg.tictactoewebsocket.spectator.SpectatorHub;
+import com.joabsonlg.tictactoewebsocket.tournament.TournamentMatchEvent;
+import com.joabsonlg.tictactoewebsocket.tournament.TournamentRoundEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
 
+import java.util.Map;
+
 /**
  * Controller class for handling WebSocket messages and managing the Tic-Tac-Toe games.
  *
@@ -34,126 +54,473 @@ public class MessageController {
     /**
      * Manager for the Tic-Tac-Toe games.
      */
-    private final TicTacToeManager ticTacToeManager = new TicTacToeManager();
+    @Autowired
+    private TicTacToeManager ticTacToeManager;
+
+    /**
+     * Per-game mailboxes used in {@link ExecutionMode#ACTOR} mode.
+     */
+    @Autowired
+    private GameMailboxes gameMailboxes;
+
+    /**
+     * Meters of the handlers below.
+     */
+    @Autowired
+    private GameMetrics gameMetrics;
+
+    /**
+     * Ratings of the players, for the rating spread of the games started by a join.
+     */
+    @Autowired
+    private PlayerRatings playerRatings;
+
+    /**
+     * This application's node in cluster mode, or null when running alone.
+     */
+    @Autowired(required = false)
+    private ClusterNode clusterNode;
+
+    /**
+     * The spectators' broadcast pipeline, or null when spectating is disabled.
+     */
+    @Autowired(required = false)
+    private SpectatorHub spectatorHub;
+
+    /**
+     * Whether game events run directly on the inbound channel thread or in the game's mailbox.
+     */
+    @Value("${tictactoe.execution.mode:DIRECT}")
+    private ExecutionMode executionMode;
 
     /**
      * Handles a request from a client to join a Tic-Tac-Toe game.
-     * If a game is available and the player is successfully added to the game,
-     * the current state of the game is sent to all subscribers of the game's topic.
+     * If a game is available and the player is successfully added to the game, the current state of the game
+     * is sent only to the joining session, on its {@code /user/queue/game.state} destination, and the other
+     * player is notified through the game's topic. Nothing is broadcast to unrelated clients.
+     * Finding a seat does not depend on a single game, so it always runs on the calling thread;
+     * the resulting messages are dispatched to the game so they are ordered with the game's other events.
+     * The player is only paired with players asking for the same board; without a size, the classic board is used.
      *
-     * @param message the message from the client containing the player's name
-     * @return the current state of the game, or an error message if the player was unable to join
+     * @param message the message from the client containing the player's name and the board they want to play on
      */
     @MessageMapping("/game.join")
-    @SendTo("/topic/game.state")
-    public Object joinGame(@Payload JoinMessage message, SimpMessageHeaderAccessor headerAccessor) {
-        TicTacToe game = ticTacToeManager.joinGame(message.getPlayer());
+    public void joinGame(@Payload JoinMessage message, SimpMessageHeaderAccessor headerAccessor) {
+        long start = System.nanoTime();
+        String sessionId = headerAccessor.getSessionId();
+        int size = message.getSize() == 0 ? BoardVariant.CLASSIC.size() : message.getSize();
+        int winLength = message.getWinLength() == 0 ? size : message.getWinLength();
+        TicTacToe game = BoardVariant.isValid(size, winLength)
+                ? ticTacToeManager.joinGame(message.getPlayer(), new BoardVariant(size, winLength)) : null;
         if (game == null) {
             TicTacToeMessage errorMessage = new TicTacToeMessage();
             errorMessage.setType("error");
             errorMessage.setContent("Não foi possível entrar no jogo. Talvez o jogo já esteja cheio ou ocorreu um erro interno.");
-            return errorMessage;
+            sendToSession(sessionId, "/queue/game.state", errorMessage);
+            gameMetrics.recordHandler(Handler.JOIN, start);
+            return;
         }
-        headerAccessor.getSessionAttributes().put("gameId", game.getGameId());
+        String gameId = game.getGameId();
+        headerAccessor.getSessionAttributes().put("gameId", gameId);
         headerAccessor.getSessionAttributes().put("player", message.getPlayer());
 
-        TicTacToeMessage gameMessage = gameToMessage(game);
-        gameMessage.setType("game.joined");
-        return gameMessage;
+        dispatch(gameId, Handler.JOIN, start, () -> ticTacToeManager.withGameLock(gameId, () -> {
+            if (message.getPlayer().equals(game.getPlayer2()) && game.getWaitingSince() != 0) {
+                gameMetrics.recordMatchmakingWait(game.getWaitingSince());
+                gameMetrics.recordMatchRatingSpread(Math.abs(
+                        playerRatings.getRating(game.getPlayer1()) - playerRatings.getRating(game.getPlayer2())));
+                game.setWaitingSince(0);
+            }
+            TicTacToeMessage joinedMessage = gameToMessage(game);
+            joinedMessage.setType("game.joined");
+            sendToSession(sessionId, "/queue/game.state", joinedMessage);
+
+            TicTacToeMessage joinMessage = gameToMessage(game);
+            joinMessage.setType("game.join");
+            messagingTemplate.convertAndSend("/topic/game." + gameId, joinMessage);
+        }));
     }
 
     /**
      * Handles a request from a client to leave a Tic-Tac-Toe game.
      * If the player is successfully removed from the game, a message is sent to subscribers
      * of the game's topic indicating that the player has left.
+     * In cluster mode, a player not seated on this node leaves through the node owning the given game.
      *
      * @param message the message from the client containing the player's name
      */
     @MessageMapping("/game.leave")
     public void leaveGame(@Payload PlayerMessage message) {
-        TicTacToe game = ticTacToeManager.leaveGame(message.getPlayer());
-        if (game != null) {
-            TicTacToeMessage gameMessage = gameToMessage(game);
-            gameMessage.setType("game.left");
-            messagingTemplate.convertAndSend("/topic/game." + game.getGameId(), gameMessage);
+        long start = System.nanoTime();
+        TicTacToe current = ticTacToeManager.getGameByPlayer(message.getPlayer());
+        if (current == null) {
+            forwardToOwner(message.getGameId(), "/app/game.leave", message, null);
+            return;
         }
+        dispatch(current.getGameId(), Handler.LEAVE, start, () -> {
+            TicTacToe game = ticTacToeManager.leaveGame(message.getPlayer());
+            if (game != null) {
+                TicTacToeMessage gameMessage = gameToMessage(game);
+                gameMessage.setType("game.left");
+                messagingTemplate.convertAndSend("/topic/game." + game.getGameId(), gameMessage);
+            }
+        });
     }
 
     /**
      * Handles a request from a client to make a move in a Tic-Tac-Toe game.
-     * If the move is valid, the game state is updated and sent to all subscribers of the game's topic.
-     * If the game is over, a message is sent indicating the result of the game.
+     * If the move is valid, a {@link MoveMessage} delta with the move and the resulting state is sent to all
+     * subscribers of the game's topic; clients apply it on top of their last snapshot. The delta of the final
+     * move carries the result, so no separate snapshot is sent when the game ends.
+     * The whole move runs under the game's lock, so concurrent moves on one game are applied and broadcast in order.
+     * In a game against a bot, the bot's reply is broadcast once played: at once on the classic board, and after a search
+     * run outside the handler and the game's lock on larger boards.
+     * In cluster mode, moves on games owned by another node are forwarded to it.
      *
      * @param message the message from the client containing the player's name, game ID, and move
      */
     @MessageMapping("/game.move")
     public void makeMove(@Payload TicTacToeMessage message) {
+        long start = System.nanoTime();
         String player = message.getSender();
         String gameId = message.getGameId();
         int move = message.getMove();
-        TicTacToe game = ticTacToeManager.getGame(gameId);
-
-        if (game == null || game.isGameOver()) {
-            TicTacToeMessage errorMessage = new TicTacToeMessage();
-            errorMessage.setType("error");
-            errorMessage.setContent("Game not found or is already over.");
-            this.messagingTemplate.convertAndSend("/topic/game." + gameId, errorMessage);
+        if (forwardToOwner(gameId, "/app/game.move", message, null)) {
             return;
         }
+        dispatch(gameId, Handler.MOVE, start, () -> ticTacToeManager.withGameLock(gameId, () -> {
+            TicTacToe game = ticTacToeManager.getGame(gameId);
 
-        if (game.getGameState().equals(GameState.WAITING_FOR_PLAYER)) {
-            TicTacToeMessage errorMessage = new TicTacToeMessage();
-            errorMessage.setType("error");
-            errorMessage.setContent("Game is waiting for another player to join.");
-            this.messagingTemplate.convertAndSend("/topic/game." + gameId, errorMessage);
-            return;
-        }
+            if (game == null || game.isGameOver()) {
+                TicTacToeMessage errorMessage = new TicTacToeMessage();
+                errorMessage.setType("error");
+                errorMessage.setContent("Game not found or is already over.");
+                this.messagingTemplate.convertAndSend("/topic/game." + gameId, errorMessage);
+                return;
+            }
 
-        if (game.getTurn().equals(player)) {
-            game.makeMove(player, move);
+            if (game.getGameState().equals(GameState.WAITING_FOR_PLAYER)) {
+                TicTacToeMessage errorMessage = new TicTacToeMessage();
+                errorMessage.setType("error");
+                errorMessage.setContent("Game is waiting for another player to join.");
+                this.messagingTemplate.convertAndSend("/topic/game." + gameId, errorMessage);
+                return;
+            }
 
-            TicTacToeMessage gameStateMessage = new TicTacToeMessage(game);
-            gameStateMessage.setType("game.move");
-            this.messagingTemplate.convertAndSend("/topic/game." + gameId, gameStateMessage);
+            if (game.getTurn().equals(player) && ticTacToeManager.makeMove(game, player, move)) {
+                gameMetrics.moveApplied();
+                this.messagingTemplate.convertAndSend("/topic/game." + gameId, new MoveMessage(game, move));
 
-            if (game.isGameOver()) {
-                TicTacToeMessage gameOverMessage = gameToMessage(game);
-                gameOverMessage.setType("game.gameOver");
-                this.messagingTemplate.convertAndSend("/topic/game." + gameId, gameOverMessage);
-                ticTacToeManager.removeGame(gameId);
+                if (game.isGameOver()) {
+                    finishGame(game);
+                    return;
+                }
+                ticTacToeManager.playBot(game, reply -> {
+                    gameMetrics.botMoveApplied();
+                    this.messagingTemplate.convertAndSend("/topic/game." + gameId, new MoveMessage(game, reply));
+                    if (game.isGameOver()) {
+                        finishGame(game);
+                    }
+                });
             }
+        }));
+    }
+
+    /**
+     * Records the result of a game whose last move was just broadcast and removes it. The caller must hold the game's
+     * lock.
+     */
+    private void finishGame(TicTacToe game) {
+        gameMetrics.gameFinished(game.getGameState());
+        ticTacToeManager.removeGame(game.getGameId());
+    }
+
+    /**
+     * Handles a request from a client for a full snapshot of its game, sent when the client missed a delta.
+     * The snapshot is sent only to the requesting session, on its {@code /user/queue/game.state} destination.
+     * In cluster mode, requests about games owned by another node are forwarded to it, which replies to the session.
+     *
+     * @param message        the message from the client containing the game ID
+     * @param headerAccessor the headers of the request, used to find the requesting session
+     */
+    @MessageMapping("/game.resync")
+    public void resyncGame(@Payload PlayerMessage message, SimpMessageHeaderAccessor headerAccessor) {
+        long start = System.nanoTime();
+        String sessionId = headerAccessor.getSessionId();
+        String gameId = message.getGameId();
+        if (forwardToOwner(gameId, "/app/game.resync", message, sessionId)) {
+            return;
+        }
+        dispatch(gameId, Handler.RESYNC, start, () -> ticTacToeManager.withGameLock(gameId, () -> {
+            TicTacToe game = ticTacToeManager.getGame(gameId);
+            if (game == null) {
+                TicTacToeMessage errorMessage = new TicTacToeMessage();
+                errorMessage.setType("error");
+                errorMessage.setContent("Game not found or is already over.");
+                sendToSession(sessionId, "/queue/game.state", errorMessage);
+                return;
+            }
+            TicTacToeMessage snapshot = gameToMessage(game);
+            snapshot.setType("game.resync");
+            sendToSession(sessionId, "/queue/game.state", snapshot);
+        }));
+    }
+
+    /**
+     * Handles a request from a client to watch a game. The spectator receives snapshots of the game on its
+     * {@code /user/queue/game.spectate} destination, starting with the current state, until the game ends or the
+     * spectator stops watching. Snapshots are sent by the {@link SpectatorHub} in batches, apart from the players'
+     * topic. In cluster mode, requests about games owned by another node are forwarded to it.
+     *
+     * @param message        the message from the client containing the game ID
+     * @param headerAccessor the headers of the request, used to find the requesting session
+     */
+    @MessageMapping("/game.spectate")
+    public void spectateGame(@Payload PlayerMessage message, SimpMessageHeaderAccessor headerAccessor) {
+        long start = System.nanoTime();
+        String sessionId = headerAccessor.getSessionId();
+        if (forwardToOwner(message.getGameId(), "/app/game.spectate", message, sessionId)) {
+            return;
+        }
+        try {
+            // Relayed requests come from sessions of another node, whose outbound channel does not count down.
+            boolean local = headerAccessor.getHeader(ClusterNode.RELAYED_FROM_HEADER) == null;
+            if (spectatorHub == null || !spectatorHub.watch(sessionId, message.getGameId(), local)) {
+                TicTacToeMessage errorMessage = new TicTacToeMessage();
+                errorMessage.setType("error");
+                errorMessage.setContent(spectatorHub == null
+                        ? "Spectating is disabled."
+                        : "Game not found or is already over.");
+                sendToSession(sessionId, SpectatorHub.DESTINATION, errorMessage);
+            }
+        } finally {
+            gameMetrics.recordHandler(Handler.SPECTATE, start);
+        }
+    }
+
+    /**
+     * Handles a request from a spectator to stop watching its game.
+     *
+     * @param headerAccessor the headers of the request, used to find the requesting session
+     */
+    @MessageMapping("/game.unspectate")
+    public void unspectateGame(SimpMessageHeaderAccessor headerAccessor) {
+        if (spectatorHub != null) {
+            spectatorHub.unwatch(headerAccessor.getSessionId());
         }
     }
 
+    /**
+     * Handles a WebSocket session closing. A spectating session stops watching. If the session had joined a game,
+     * its player forfeits it. Sessions that never joined a game have nothing else to clean up.
+     *
+     * @param event the disconnect event
+     */
     @EventListener
     public void SessionDisconnectEvent(SessionDisconnectEvent event) {
+        long start = System.nanoTime();
         StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
-        String gameId = headerAccessor.getSessionAttributes().get("gameId").toString();
-        String player = headerAccessor.getSessionAttributes().get("player").toString();
-        TicTacToe game = ticTacToeManager.getGame(gameId);
-        if (game != null) {
-            if (game.getPlayer1().equals(player)) {
-                game.setPlayer1(null);
-                if (game.getPlayer2() != null) {
-                    game.setGameState(GameState.PLAYER2_WON);
-                    game.setWinner(game.getPlayer2());
-                } else {
-                    ticTacToeManager.removeGame(gameId);
-                }
-            } else if (game.getPlayer2() != null && game.getPlayer2().equals(player)) {
-                game.setPlayer2(null);
-                if (game.getPlayer1() != null) {
-                    game.setGameState(GameState.PLAYER1_WON);
-                    game.setWinner(game.getPlayer1());
-                } else {
-                    ticTacToeManager.removeGame(gameId);
+        if (spectatorHub != null) {
+            spectatorHub.unwatch(event.getSessionId());
+        }
+        Map<String, Object> attributes = headerAccessor.getSessionAttributes();
+        if (attributes == null || attributes.get("gameId") == null || attributes.get("player") == null) {
+            return;
+        }
+        String gameId = attributes.get("gameId").toString();
+        String player = attributes.get("player").toString();
+        dispatch(gameId, Handler.DISCONNECT, start, () -> {
+            TicTacToe game = ticTacToeManager.disconnect(gameId, player);
+            if (game != null) {
+                if (game.getWinner() != null) {
+                    gameMetrics.gameForfeited();
                 }
+                TicTacToeMessage gameMessage = gameToMessage(game);
+                gameMessage.setType("game.gameOver");
+                messagingTemplate.convertAndSend("/topic/game." + gameId, gameMessage);
+            }
+        });
+    }
+
+    /**
+     * Tells the player of a game that waited too long that a bot took the open seat, the way a joining player is
+     * announced. The player moves first, and the bot answers each move on the server.
+     *
+     * @param event the event published by the bot player
+     */
+    @EventListener
+    public void onBotSeated(BotSeatedEvent event) {
+        TicTacToe game = event.game();
+        String gameId = game.getGameId();
+        gameMetrics.botSeated();
+        dispatch(gameId, Handler.JOIN, System.nanoTime(), () -> ticTacToeManager.withGameLock(gameId, () -> {
+            if (game.getWaitingSince() != 0) {
+                // No rating spread: bots are not rated, so it would measure the player's distance from the default.
+                gameMetrics.recordMatchmakingWait(game.getWaitingSince());
+                game.setWaitingSince(0);
+            }
+            TicTacToeMessage joinMessage = gameToMessage(game);
+            joinMessage.setType("game.join");
+            messagingTemplate.convertAndSend("/topic/game." + gameId, joinMessage);
+        }));
+    }
+
+    /**
+     * Tells the players of a game removed for inactivity that it is over. The game is already gone, so later
+     * messages about it are answered with an error and the clients join again.
+     *
+     * @param event the expiration event published by the reaper
+     */
+    @EventListener
+    public void onGameExpired(GameExpiredEvent event) {
+        TicTacToe game = event.game();
+        gameMetrics.gameExpired(event.waiting());
+        TicTacToeMessage expiredMessage = gameToMessage(game);
+        expiredMessage.setType("game.expired");
+        expiredMessage.setContent(event.waiting()
+                ? "No opponent joined in time, the game was closed."
+                : "The game was closed after a period of inactivity.");
+        messagingTemplate.convertAndSend("/topic/game." + game.getGameId(), expiredMessage);
+    }
+
+    /**
+     * Moves the client of a player whose waiting game was closed for their tournament match: the state of the match is
+     * sent on the closed game's topic, which the client still listens to, and the client switches to the match's.
+     *
+     * @param event the event published by the tournament service
+     */
+    @EventListener
+    public void onTournamentMatch(TournamentMatchEvent event) {
+        TicTacToe game = event.game();
+        String gameId = game.getGameId();
+        dispatch(gameId, Handler.JOIN, System.nanoTime(), () -> ticTacToeManager.withGameLock(gameId, () -> {
+            TicTacToeMessage matchMessage = gameToMessage(game);
+            matchMessage.setType("tournament.match");
+            matchMessage.setContent("Your tournament match has started.");
+            messagingTemplate.convertAndSend("/topic/game." + event.closedGameId(), matchMessage);
+        }));
+    }
+
+    /**
+     * Tells a waiting player moved by the rematcher which game they are now in, on the topic of the game they were
+     * waiting in, and announces them to their new opponent the way a joining player is announced.
+     *
+     * @param event the event published by the rematcher
+     */
+    @EventListener
+    public void onWaitingPlayerMoved(WaitingPlayerMovedEvent event) {
+        TicTacToe game = event.game();
+        String gameId = game.getGameId();
+        dispatch(gameId, Handler.JOIN, System.nanoTime(), () -> ticTacToeManager.withGameLock(gameId, () -> {
+            boolean started = game.getPlayer2() != null;
+            if (started && game.getWaitingSince() != 0) {
+                gameMetrics.recordMatchmakingWait(game.getWaitingSince());
+                gameMetrics.recordMatchRatingSpread(Math.abs(
+                        playerRatings.getRating(game.getPlayer1()) - playerRatings.getRating(game.getPlayer2())));
+                game.setWaitingSince(0);
             }
-            TicTacToeMessage gameMessage = gameToMessage(game);
-            gameMessage.setType("game.gameOver");
-            messagingTemplate.convertAndSend("/topic/game." + gameId, gameMessage);
-            ticTacToeManager.removeGame(gameId);
+            TicTacToeMessage movedMessage = gameToMessage(game);
+            movedMessage.setType("game.moved");
+            movedMessage.setContent(started ? "An opponent was found." : "Still waiting for an opponent.");
+            messagingTemplate.convertAndSend("/topic/game." + event.closedGameId(), movedMessage);
+            if (started) {
+                TicTacToeMessage joinMessage = gameToMessage(game);
+                joinMessage.setType("game.join");
+                messagingTemplate.convertAndSend("/topic/game." + gameId, joinMessage);
+            }
+        }));
+    }
+
+    /**
+     * Tells the subscribers of a tournament's topic that a round started, so its players join their matches, or that
+     * the tournament is over.
+     *
+     * @param event the event published by the tournament service
+     */
+    @EventListener
+    public void onTournamentRound(TournamentRoundEvent event) {
+        TicTacToeMessage roundMessage = new TicTacToeMessage();
+        roundMessage.setType(event.finished() ? "tournament.finished" : "tournament.round");
+        roundMessage.setContent(event.finished()
+                ? "The tournament is over."
+                : "Round " + event.round() + " of " + event.tournament().getTotalRounds() + " started.");
+        messagingTemplate.convertAndSend("/topic/tournament." + event.tournament().getId(), roundMessage);
+    }
+
+    /**
+     * Runs a game event according to the execution mode: directly on the calling thread, or enqueued in the
+     * game's mailbox. If the game's mailbox is full, the event is dropped and the game's subscribers are told so.
+     * The handler's timer is stopped once the event has run, so in actor mode it includes the time spent queued.
+     *
+     * @param gameId     the ID of the game the event belongs to
+     * @param handler    the handler timed for this event
+     * @param startNanos the {@link System#nanoTime()} at which the event was received
+     * @param event      the event handler
+     */
+    private void dispatch(String gameId, Handler handler, long startNanos, Runnable event) {
+        if (executionMode != ExecutionMode.ACTOR) {
+            try {
+                event.run();
+            } finally {
+                gameMetrics.recordHandler(handler, startNanos);
+            }
+            return;
+        }
+        boolean accepted = gameMailboxes.submit(gameId, () -> {
+            try {
+                event.run();
+            } finally {
+                gameMetrics.recordHandler(handler, startNanos);
+            }
+        });
+        if (!accepted) {
+            gameMetrics.eventRejected();
+            TicTacToeMessage errorMessage = new TicTacToeMessage();
+            errorMessage.setType("error");
+            errorMessage.setContent("Game is busy, please try again.");
+            messagingTemplate.convertAndSend("/topic/game." + gameId, errorMessage);
+        }
+    }
+
+    /**
+     * In cluster mode, sends a client message about a game owned by another node to that node, which handles it.
+     * If the owner cannot be reached, the game's subscribers are told so.
+     *
+     * @param gameId      the ID of the game, or null
+     * @param destination the application destination the message was sent to
+     * @param payload     the message from the client
+     * @param sessionId   the ID of the client session, needed if the owner replies to it, or null
+     * @return true if the message was for another node, false if it is handled here
+     */
+    private boolean forwardToOwner(String gameId, String destination, Object payload, String sessionId) {
+        if (clusterNode == null || gameId == null || clusterNode.isLocal(gameId)) {
+            return false;
         }
+        Message<?> serialized = messagingTemplate.getMessageConverter().toMessage(payload,
+                new MessageHeaders(Map.of(MessageHeaders.CONTENT_TYPE, MimeTypeUtils.APPLICATION_JSON)));
+        if (serialized == null || !clusterNode.forward(gameId, destination, (byte[]) serialized.getPayload(),
+                MimeTypeUtils.APPLICATION_JSON, sessionId)) {
+            TicTacToeMessage errorMessage = new TicTacToeMessage();
+            errorMessage.setType("error");
+            errorMessage.setContent("Game server unavailable, please try again.");
+            messagingTemplate.convertAndSend("/topic/game." + gameId, errorMessage);
+        }
+        return true;
+    }
+
+    /**
+     * Sends a message to a single WebSocket session. Clients are anonymous, so the session ID stands in for the
+     * user name and the message is delivered to the session's subscription of {@code /user} + destination.
+     *
+     * @param sessionId   the ID of the target session
+     * @param destination the user destination, e.g. {@code /queue/game.state}
+     * @param payload     the message to send
+     */
+    private void sendToSession(String sessionId, String destination, Object payload) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(sessionId, destination, payload, headers.getMessageHeaders());
     }
 
     private TicTacToeMessage gameToMessage(TicTacToe game) {
@@ -162,9 +529,11 @@ public class MessageController {
         message.setPlayer1(game.getPlayer1());
         message.setPlayer2(game.getPlayer2());
         message.setBoard(game.getBoard());
+        message.setWinLength(game.getWinLength());
         message.setTurn(game.getTurn());
         message.setGameState(game.getGameState());
         message.setWinner(game.getWinner());
+        message.setSeq(game.getSequence());
         return message;
     }
 }
@@ -0,0 +1,113 @@
+package com.joabsonlg.tictactoewebsocket.controller;
+
+import com.joabsonlg.tictactoewebsocket.engine.BoardVariant;
+import com.joabsonlg.tictactoewebsocket.enumeration.TournamentFormat;
+import com.joabsonlg.tictactoewebsocket.tournament.Tournament;
+import com.joabsonlg.tictactoewebsocket.tournament.TournamentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller class creating tournaments and serving their rounds and standings as JSON.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+@RestController
+@RequestMapping("/api/tournaments")
+@ConditionalOnProperty(name = "tictactoe.tournament.enabled", havingValue = "true")
+public class TournamentController {
+
+    private static final int MAX_STANDINGS = 1000;
+
+    @Autowired
+    private TournamentService tournamentService;
+
+    /**
+     * Request creating a tournament.
+     *
+     * @param format    how the players are paired
+     * @param players   the names of the players, best seed first
+     * @param rounds    the number of Swiss rounds, or 0 for the default
+     * @param size      the number of rows and columns of the boards, or null for the classic board
+     * @param winLength the number of marks in a row needed to win, or null for as many as the size
+     */
+    public record CreateRequest(TournamentFormat format, List<String> players, int rounds, Integer size,
+                                Integer winLength) {
+    }
+
+    /**
+     * A tournament, with the matches of its current round and the top of its standings.
+     */
+    public record TournamentView(String id, TournamentFormat format, BoardVariant variant, int players, int round,
+                                 int rounds, boolean finished, List<MatchView> matches,
+                                 List<Tournament.Standing> standings) {
+    }
+
+    /**
+     * A match of the current round.
+     */
+    public record MatchView(String player1, String player2, String gameId) {
+    }
+
+    /**
+     * Creates a tournament and starts its first round.
+     *
+     * @param request the format, players, rounds and board of the tournament
+     * @return the tournament, or 400 if the request does not describe a valid tournament
+     */
+    @PostMapping
+    public ResponseEntity<TournamentView> create(@RequestBody CreateRequest request) {
+        if (request.format() == null || request.players() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        Tournament tournament;
+        try {
+            BoardVariant variant = request.size() == null ? BoardVariant.CLASSIC : new BoardVariant(request.size(),
+                    request.winLength() == null ? request.size() : request.winLength());
+            tournament = tournamentService.create(request.format(), request.players(), request.rounds(), variant);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(view(tournament, 0, 0));
+    }
+
+    /**
+     * Returns a tournament.
+     *
+     * @param tournamentId the ID of the tournament
+     * @param limit        the number of players of the standings, at most {@value #MAX_STANDINGS}
+     * @param matches      the maximum number of matches of the current round
+     * @return the tournament, or 404 if there is no such tournament
+     */
+    @GetMapping("/{tournamentId}")
+    public ResponseEntity<TournamentView> tournament(@PathVariable String tournamentId,
+                                                     @RequestParam(defaultValue = "20") int limit,
+                                                     @RequestParam(defaultValue = "0") int matches) {
+        Tournament tournament = tournamentService.getTournament(tournamentId);
+        if (tournament == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(view(tournament, Math.min(limit, MAX_STANDINGS), Math.min(matches, MAX_STANDINGS)));
+    }
+
+    private static TournamentView view(Tournament tournament, int limit, int matchLimit) {
+        List<MatchView> matches = tournament.getMatches().stream()
+                .limit(Math.max(matchLimit, 0))
+                .map(match -> new MatchView(match.getPlayer1(), match.getPlayer2(), match.getGameId()))
+                .toList();
+        return new TournamentView(tournament.getId(), tournament.getFormat(), tournament.getVariant(),
+                tournament.getPlayerCount(), tournament.getRound(), tournament.getTotalRounds(), tournament.isFinished(),
+                matches, tournament.getStandings(limit));
+    }
+}
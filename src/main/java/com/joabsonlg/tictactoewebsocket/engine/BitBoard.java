@@ -0,0 +1,115 @@
+package com.joabsonlg.tictactoewebsocket.engine;
+
+/**
+ * Primitive 3x3 Tic-Tac-Toe board backed by two 9-bit masks, one per mark.
+ * <p>
+ * Cell {@code i} (0..8, row-major) is bit {@code i} of the masks. Placing a mark is a single OR,
+ * win detection is a lookup in a 512-entry table built from the eight winning lines and
+ * "board full" is a popcount, so applying a move never allocates. This is the
+ * {@link Board} used for the classic 3x3 configuration.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public final class BitBoard implements Board {
+
+    public static final int SIZE = 3;
+    public static final int CELLS = SIZE * SIZE;
+
+    private static final int FULL = (1 << CELLS) - 1;
+
+    /**
+     * The eight winning lines: three rows, three columns and both diagonals.
+     */
+    static final int[] LINES = {
+            0b000_000_111, 0b000_111_000, 0b111_000_000,
+            0b001_001_001, 0b010_010_010, 0b100_100_100,
+            0b100_010_001, 0b001_010_100
+    };
+
+    /**
+     * {@code WINNING[mask]} is true when {@code mask} contains at least one complete line.
+     */
+    private static final boolean[] WINNING = new boolean[1 << CELLS];
+
+    static {
+        for (int mask = 0; mask <= FULL; mask++) {
+            for (int line : LINES) {
+                if ((mask & line) == line) {
+                    WINNING[mask] = true;
+                    break;
+                }
+            }
+        }
+    }
+
+    private int x;
+    private int o;
+
+    @Override
+    public boolean place(int cell, int mark) {
+        if (cell < 0 || cell >= CELLS) {
+            return false;
+        }
+        int bit = 1 << cell;
+        if (((x | o) & bit) != 0) {
+            return false;
+        }
+        if (mark == X) {
+            x |= bit;
+        } else {
+            o |= bit;
+        }
+        return true;
+    }
+
+    @Override
+    public int markAt(int cell) {
+        int bit = 1 << cell;
+        if ((x & bit) != 0) {
+            return X;
+        }
+        return (o & bit) != 0 ? O : EMPTY;
+    }
+
+    @Override
+    public int winner() {
+        if (WINNING[x]) {
+            return X;
+        }
+        return WINNING[o] ? O : EMPTY;
+    }
+
+    @Override
+    public boolean isFull() {
+        return Integer.bitCount(x | o) == CELLS;
+    }
+
+    @Override
+    public void clear() {
+        x = 0;
+        o = 0;
+    }
+
+    @Override
+    public int size() {
+        return SIZE;
+    }
+
+    @Override
+    public int winLength() {
+        return SIZE;
+    }
+
+    @Override
+    public int moveCount() {
+        return Integer.bitCount(x | o);
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getO() {
+        return o;
+    }
+}
@@ -0,0 +1,94 @@
+package com.joabsonlg.tictactoewebsocket.engine;
+
+/**
+ * A square k-in-a-row board. Cells are indexed row-major from {@code 0} to {@code size * size - 1}.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public interface Board {
+
+    int EMPTY = 0;
+    int X = 1;
+    int O = 2;
+
+    /**
+     * Creates a board for the given configuration. The classic 3x3, three-in-a-row game is served by
+     * {@link BitBoard}; every other configuration by {@link GridBoard}.
+     *
+     * @param size      the number of rows and columns
+     * @param winLength the number of marks in a row needed to win
+     * @return a new empty board
+     */
+    static Board create(int size, int winLength) {
+        if (size == BitBoard.SIZE && winLength == BitBoard.SIZE) {
+            return new BitBoard();
+        }
+        return new GridBoard(size, winLength);
+    }
+
+    /**
+     * @return the number of rows and columns of the board
+     */
+    int size();
+
+    /**
+     * @return the number of marks in a row needed to win
+     */
+    int winLength();
+
+    /**
+     * Places a mark on the given cell.
+     *
+     * @param cell the cell index
+     * @param mark {@link #X} or {@link #O}
+     * @return true if the mark was placed, false if the cell is out of range or already taken
+     */
+    boolean place(int cell, int mark);
+
+    /**
+     * Returns the mark on the given cell.
+     *
+     * @param cell the cell index
+     * @return {@link #X}, {@link #O} or {@link #EMPTY}
+     */
+    int markAt(int cell);
+
+    /**
+     * Returns the mark that completed a line, if any.
+     *
+     * @return {@link #X}, {@link #O} or {@link #EMPTY} if nobody has won
+     */
+    int winner();
+
+    /**
+     * Check if the board is full.
+     *
+     * @return true if every cell is taken
+     */
+    boolean isFull();
+
+    /**
+     * @return the number of marks on the board
+     */
+    int moveCount();
+
+    /**
+     * Removes every mark from the board.
+     */
+    void clear();
+
+    /**
+     * Builds the "X"/"O"/" " representation of the board used by the web client.
+     *
+     * @return a new size x size array of marks
+     */
+    default String[][] toArray() {
+        int size = size();
+        String[][] board = new String[size][size];
+        for (int cell = 0; cell < size * size; cell++) {
+            int mark = markAt(cell);
+            board[cell / size][cell % size] = mark == X ? "X" : mark == O ? "O" : " ";
+        }
+        return board;
+    }
+}
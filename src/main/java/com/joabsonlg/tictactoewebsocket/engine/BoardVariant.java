@@ -0,0 +1,45 @@
+package com.joabsonlg.tictactoewebsocket.engine;
+
+/**
+ * The size of a board and the number of marks in a row needed to win on it, chosen by a player when joining.
+ * Players are only paired with players of the same variant.
+ *
+ * @param size      the number of rows and columns
+ * @param winLength the number of marks in a row needed to win
+ * @author Joabson Arley do Nascimento
+ */
+public record BoardVariant(int size, int winLength) {
+
+    /**
+     * The classic 3x3, three-in-a-row game.
+     */
+    public static final BoardVariant CLASSIC = new BoardVariant(3, 3);
+
+    /**
+     * The largest board a player can ask for, the 19x19 board of Go and Gomoku.
+     */
+    public static final int MAX_SIZE = 19;
+
+    /**
+     * Constructs a new BoardVariant.
+     *
+     * @throws IllegalArgumentException if the configuration is not {@link #isValid valid}
+     */
+    public BoardVariant {
+        if (!isValid(size, winLength)) {
+            throw new IllegalArgumentException("Invalid board variant: size " + size + ", win length " + winLength);
+        }
+    }
+
+    /**
+     * Check if a configuration can be played: at least three in a row are needed to win, on a board no larger than
+     * {@value #MAX_SIZE}x{@value #MAX_SIZE}.
+     *
+     * @param size      the number of rows and columns
+     * @param winLength the number of marks in a row needed to win
+     * @return true if a game can be created with this configuration
+     */
+    public static boolean isValid(int size, int winLength) {
+        return winLength >= 3 && winLength <= size && size <= MAX_SIZE;
+    }
+}
@@ -0,0 +1,137 @@
+package com.joabsonlg.tictactoewebsocket.engine;
+
+import java.util.Arrays;
+
+/**
+ * N x N board where {@code winLength} marks in a row win, for Gomoku-style variants such as 15x15 or 19x19.
+ * <p>
+ * Every row, column, diagonal and anti-diagonal keeps a per-mark counter. After a move only the four lines
+ * through the last cell are considered, and a line is only scanned when its counter shows it can hold a run
+ * of {@code winLength}. The scan walks at most {@code winLength - 1} cells in each direction, so a move costs
+ * O(k) instead of O(N²).
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public final class GridBoard implements Board {
+
+    private final int size;
+    private final int winLength;
+    private final byte[] cells;
+
+    /**
+     * Marks per line, indexed by {@code mark - 1} and then by line number.
+     * Diagonals are numbered {@code row - col + size - 1} and anti-diagonals {@code row + col}.
+     */
+    private final int[][] rowCounts;
+    private final int[][] colCounts;
+    private final int[][] diagCounts;
+    private final int[][] antiDiagCounts;
+
+    private int moveCount;
+    private int winner;
+
+    public GridBoard(int size, int winLength) {
+        if (size < 1 || winLength < 1 || winLength > size) {
+            throw new IllegalArgumentException("Invalid board configuration: size " + size + ", win length " + winLength);
+        }
+        this.size = size;
+        this.winLength = winLength;
+        this.cells = new byte[size * size];
+        this.rowCounts = new int[2][size];
+        this.colCounts = new int[2][size];
+        this.diagCounts = new int[2][2 * size - 1];
+        this.antiDiagCounts = new int[2][2 * size - 1];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int winLength() {
+        return winLength;
+    }
+
+    @Override
+    public boolean place(int cell, int mark) {
+        if (cell < 0 || cell >= cells.length || cells[cell] != EMPTY) {
+            return false;
+        }
+        int row = cell / size;
+        int col = cell % size;
+        int m = mark - 1;
+        cells[cell] = (byte) mark;
+        moveCount++;
+
+        int inRow = ++rowCounts[m][row];
+        int inCol = ++colCounts[m][col];
+        int inDiag = ++diagCounts[m][row - col + size - 1];
+        int inAntiDiag = ++antiDiagCounts[m][row + col];
+
+        if (winner == EMPTY && ((inRow >= winLength && hasRun(row, col, 0, 1, mark))
+                || (inCol >= winLength && hasRun(row, col, 1, 0, mark))
+                || (inDiag >= winLength && hasRun(row, col, 1, 1, mark))
+                || (inAntiDiag >= winLength && hasRun(row, col, 1, -1, mark)))) {
+            winner = mark;
+        }
+        return true;
+    }
+
+    /**
+     * Check if the cell at (row, col) is part of a run of {@code winLength} marks along the given direction.
+     */
+    private boolean hasRun(int row, int col, int dRow, int dCol, int mark) {
+        int run = 1;
+        run += count(row, col, dRow, dCol, mark, winLength - run);
+        if (run < winLength) {
+            run += count(row, col, -dRow, -dCol, mark, winLength - run);
+        }
+        return run >= winLength;
+    }
+
+    private int count(int row, int col, int dRow, int dCol, int mark, int limit) {
+        int found = 0;
+        int r = row + dRow;
+        int c = col + dCol;
+        while (found < limit && r >= 0 && r < size && c >= 0 && c < size && cells[r * size + c] == mark) {
+            found++;
+            r += dRow;
+            c += dCol;
+        }
+        return found;
+    }
+
+    @Override
+    public int markAt(int cell) {
+        return cells[cell];
+    }
+
+    @Override
+    public int winner() {
+        return winner;
+    }
+
+    @Override
+    public boolean isFull() {
+        return moveCount == cells.length;
+    }
+
+    @Override
+    public int moveCount() {
+        return moveCount;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(cells, (byte) EMPTY);
+        for (int m = 0; m < 2; m++) {
+            Arrays.fill(rowCounts[m], 0);
+            Arrays.fill(colCounts[m], 0);
+            Arrays.fill(diagCounts[m], 0);
+            Arrays.fill(antiDiagCounts[m], 0);
+        }
+        moveCount = 0;
+        winner = EMPTY;
+    }
+}
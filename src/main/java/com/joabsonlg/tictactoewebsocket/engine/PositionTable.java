@@ -0,0 +1,137 @@
+package com.joabsonlg.tictactoewebsocket.engine;
+
+import java.util.Arrays;
+
+/**
+ * Perfect play for the classic 3x3 game, solved once when the class is loaded.
+ * <p>
+ * A position is the board packed in base 3, cell {@code i} being the trit of weight 3<sup>i</sup> (0 empty, 1 X,
+ * 2 O), so there are {@value #POSITIONS} of them and the side to move follows from the number of marks, X moving
+ * first. Every position reachable from the empty board is solved by negamax; the table holds the best move and the
+ * value of each, so the best reply to any position is an array read. The best move wins as fast as possible, or
+ * loses as late as possible, ties going to the lowest cell.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public final class PositionTable {
+
+    public static final int POSITIONS = 19683;
+
+    /**
+     * {@code TERNARY[mask]} is the position with a 1 on every cell of the 9-bit mask.
+     */
+    private static final int[] TERNARY = new int[1 << BitBoard.CELLS];
+
+    private static final byte UNSOLVED = Byte.MIN_VALUE;
+
+    /**
+     * Best cell to play, or -1 when the game is over or the position is not reachable.
+     */
+    private static final byte[] BEST_MOVE = new byte[POSITIONS];
+
+    /**
+     * Score of the position for the side to move: 10 minus the number of marks at the end of the game when it wins,
+     * the opposite when it loses, 0 on a draw.
+     */
+    private static final byte[] SCORE = new byte[POSITIONS];
+
+    static {
+        for (int mask = 1; mask < TERNARY.length; mask++) {
+            int low = Integer.numberOfTrailingZeros(mask);
+            TERNARY[mask] = TERNARY[mask & mask - 1] + pow3(low);
+        }
+        Arrays.fill(BEST_MOVE, (byte) -1);
+        Arrays.fill(SCORE, UNSOLVED);
+        solve(0, 0);
+    }
+
+    private PositionTable() {
+    }
+
+    /**
+     * Packs a board given as the masks of its marks.
+     *
+     * @param x the cells of X, bit {@code i} for cell {@code i}
+     * @param o the cells of O
+     * @return the position
+     */
+    public static int position(int x, int o) {
+        return TERNARY[x] + 2 * TERNARY[o];
+    }
+
+    /**
+     * Returns the best move for the side to move.
+     *
+     * @param position a position reachable in a game
+     * @return the cell to play, or -1 if the game is over or the position is not reachable
+     */
+    public static int bestMove(int position) {
+        return BEST_MOVE[position];
+    }
+
+    /**
+     * Returns the outcome of the position with perfect play from both sides.
+     *
+     * @param position a position reachable in a game
+     * @return 1 if the side to move wins, -1 if it loses, 0 on a draw or if the position is not reachable
+     */
+    public static int value(int position) {
+        int score = SCORE[position];
+        return score == UNSOLVED ? 0 : Integer.signum(score);
+    }
+
+    /**
+     * Solves a position by negamax, memoized in the table.
+     *
+     * @return the score for the side to move
+     */
+    private static int solve(int x, int o) {
+        int position = position(x, o);
+        if (SCORE[position] != UNSOLVED) {
+            return SCORE[position];
+        }
+        int marks = Integer.bitCount(x | o);
+        int score;
+        int best = -1;
+        if (wins(x) || wins(o)) {
+            // The side that just moved made the line.
+            score = marks - 10;
+        } else if (marks == BitBoard.CELLS) {
+            score = 0;
+        } else {
+            boolean xToMove = (marks & 1) == 0;
+            score = Integer.MIN_VALUE;
+            for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+                int bit = 1 << cell;
+                if (((x | o) & bit) != 0) {
+                    continue;
+                }
+                int child = -(xToMove ? solve(x | bit, o) : solve(x, o | bit));
+                if (child > score) {
+                    score = child;
+                    best = cell;
+                }
+            }
+        }
+        SCORE[position] = (byte) score;
+        BEST_MOVE[position] = (byte) best;
+        return score;
+    }
+
+    private static boolean wins(int mask) {
+        for (int line : BitBoard.LINES) {
+            if ((mask & line) == line) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int pow3(int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 3;
+        }
+        return result;
+    }
+}
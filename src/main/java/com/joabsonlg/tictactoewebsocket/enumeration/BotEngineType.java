@@ -0,0 +1,15 @@
+package com.joabsonlg.tictactoewebsocket.enumeration;
+
+/**
+ * Search choosing the bots' moves on boards larger than the classic one.
+ */
+public enum BotEngineType {
+    /**
+     * Alpha-beta search with a transposition table, deepened until the move's time budget runs out.
+     */
+    ALPHA_BETA,
+    /**
+     * Monte Carlo tree search on a fork/join pool, as strong as the configured {@link Difficulty}.
+     */
+    MONTE_CARLO
+}
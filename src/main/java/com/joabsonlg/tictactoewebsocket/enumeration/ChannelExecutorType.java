@@ -0,0 +1,15 @@
+package com.joabsonlg.tictactoewebsocket.enumeration;
+
+/**
+ * Kind of threads backing the WebSocket message channels.
+ */
+public enum ChannelExecutorType {
+    /**
+     * Bounded pools of platform threads, sized by configuration.
+     */
+    PLATFORM,
+    /**
+     * One virtual thread per message. Requires Java 21 or later; falls back to {@link #PLATFORM} otherwise.
+     */
+    VIRTUAL
+}
@@ -0,0 +1,10 @@
+package com.joabsonlg.tictactoewebsocket.enumeration;
+
+/**
+ * Strength of the Monte Carlo bot, each level with its own playouts, time and workers per move.
+ */
+public enum Difficulty {
+    EASY,
+    MEDIUM,
+    HARD
+}
@@ -0,0 +1,15 @@
+package com.joabsonlg.tictactoewebsocket.enumeration;
+
+/**
+ * How game events received over STOMP are executed.
+ */
+public enum ExecutionMode {
+    /**
+     * Handlers run on the inbound channel thread and take the game's lock.
+     */
+    DIRECT,
+    /**
+     * Handlers enqueue the event in the game's mailbox, which runs the game's events one at a time.
+     */
+    ACTOR
+}
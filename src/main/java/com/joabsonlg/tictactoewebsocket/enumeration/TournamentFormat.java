@@ -0,0 +1,15 @@
+package com.joabsonlg.tictactoewebsocket.enumeration;
+
+/**
+ * How the players of a tournament are paired from round to round.
+ */
+public enum TournamentFormat {
+    /**
+     * Every player plays every round against a player with a similar score they have not met yet.
+     */
+    SWISS,
+    /**
+     * Players are seeded in a bracket and the loser of each match is out.
+     */
+    SINGLE_ELIMINATION
+}
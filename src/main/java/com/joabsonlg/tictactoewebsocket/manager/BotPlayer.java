@@ -0,0 +1,89 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Seats a bot in games that wait too long for a second player, so nobody sits in
+ * {@link GameState#WAITING_FOR_PLAYER} forever.
+ * <p>
+ * A timeout is scheduled on a {@link TimerWheel} whenever a game starts waiting. When it fires, the wait is checked
+ * again under the game's lock against the game's {@link TicTacToe#getLastActivity() last activity}, since the seat
+ * may have been taken and vacated again in the meantime, and the bot is seated through
+ * {@link TicTacToeManager#seatBot}. Timeouts of games that started in the meantime find no open seat; nothing is
+ * cancelled, as a pending timeout only costs a slot of the wheel.
+ * The bot's moves are played by {@link TicTacToeManager#playBot} after its opponent's, on the server.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class BotPlayer implements GameEventListener {
+
+    private final TicTacToeManager manager;
+    private final TimerWheel wheel;
+    private final long waitNanos;
+    private final Consumer<TicTacToe> onSeated;
+
+    /**
+     * Constructs a new BotPlayer, registers it as a listener of the manager and starts the wait of the games already
+     * waiting.
+     *
+     * @param manager   the manager whose waiting games get a bot
+     * @param wheel     the timer wheel scheduling the waits
+     * @param waitNanos how long a game waits for a player before a bot takes the seat
+     * @param onSeated  called with each game a bot was seated in, outside its lock
+     */
+    public BotPlayer(TicTacToeManager manager, TimerWheel wheel, long waitNanos, Consumer<TicTacToe> onSeated) {
+        this.manager = manager;
+        this.wheel = wheel;
+        this.waitNanos = waitNanos;
+        this.onSeated = onSeated;
+        manager.addListener(this);
+        // Games restored before the listener was added; one seen twice only gets a redundant timeout.
+        manager.forEachGame(this::gameRestored);
+    }
+
+    @Override
+    public void gameCreated(TicTacToe game) {
+        schedule(game.getGameId());
+    }
+
+    @Override
+    public void playerLeft(TicTacToe game, String player) {
+        schedule(game.getGameId());
+    }
+
+    @Override
+    public void gameRestored(TicTacToe game) {
+        if (game.getGameState() == GameState.WAITING_FOR_PLAYER) {
+            schedule(game.getGameId());
+        }
+    }
+
+    private void schedule(String gameId) {
+        // A tick more, since the current tick is already under way and the timeout must not fire before the wait.
+        wheel.schedule(() -> seat(gameId), waitNanos + wheel.getTickNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs on the wheel's thread when the wait of a game is over.
+     */
+    private void seat(String gameId) {
+        TicTacToe seated = manager.withGameLock(gameId, () -> {
+            TicTacToe game = manager.getGame(gameId);
+            if (game == null || game.getGameState() != GameState.WAITING_FOR_PLAYER) {
+                return null;
+            }
+            if (System.nanoTime() - game.getLastActivity() < waitNanos) {
+                // Started waiting again since, and that wait has its own timeout.
+                return null;
+            }
+            return manager.seatBot(gameId);
+        });
+        if (seated != null) {
+            onSeated.accept(seated);
+        }
+    }
+}
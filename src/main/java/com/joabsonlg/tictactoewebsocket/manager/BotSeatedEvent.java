@@ -0,0 +1,12 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+
+/**
+ * Application event published when the {@link BotPlayer} seats a bot in a game that waited too long.
+ *
+ * @param game the game, started with the bot as player 2
+ * @author Joabson Arley do Nascimento
+ */
+public record BotSeatedEvent(TicTacToe game) {
+}
@@ -0,0 +1,60 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+
+/**
+ * Listener of the changes the {@link TicTacToeManager} makes to its games.
+ * <p>
+ * Callbacks run synchronously on the thread making the change, while it holds the game's lock, so the callbacks of
+ * one game are never concurrent and arrive in the order the changes were made. They must be quick and must not block.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public interface GameEventListener {
+
+    /**
+     * A game was created with its first player, waiting for a second one.
+     */
+    default void gameCreated(TicTacToe game) {
+    }
+
+    /**
+     * A player took the open seat of a game, which has started.
+     */
+    default void playerJoined(TicTacToe game, String player) {
+    }
+
+    /**
+     * A move was applied.
+     *
+     * @param game   the game, after the move
+     * @param player the player who made the move
+     * @param cell   the row-major index of the cell played
+     */
+    default void moveMade(TicTacToe game, String player, int cell) {
+    }
+
+    /**
+     * A player left a game with an opponent, who now waits for a new one on a cleared board.
+     */
+    default void playerLeft(TicTacToe game, String player) {
+    }
+
+    /**
+     * A game ended with a win or a tie, by moves or by forfeit. The game is removed right after.
+     */
+    default void gameFinished(TicTacToe game) {
+    }
+
+    /**
+     * A game was removed from the manager.
+     */
+    default void gameRemoved(String gameId) {
+    }
+
+    /**
+     * A game rebuilt from persisted state was put back in the manager.
+     */
+    default void gameRestored(TicTacToe game) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+
+/**
+ * Application event published when the {@link GameReaper} expires a game.
+ *
+ * @param game    the expired game, already removed from the manager
+ * @param waiting whether the game expired waiting for a second player rather than idle mid-game
+ * @author Joabson Arley do Nascimento
+ */
+public record GameExpiredEvent(TicTacToe game, boolean waiting) {
+}
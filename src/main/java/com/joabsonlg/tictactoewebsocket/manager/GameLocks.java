@@ -0,0 +1,86 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped locks keyed by game ID.
+ * <p>
+ * Every operation that reads or changes a game runs under the stripe of its game ID, so operations on the
+ * same game are linearizable while operations on different games only contend when their IDs share a stripe.
+ * A thread never holds more than one stripe at a time, which rules out lock-ordering deadlocks.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class GameLocks {
+
+    /**
+     * Default number of stripes. Must be a power of two.
+     */
+    public static final int DEFAULT_STRIPES = 4096;
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public GameLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Constructs a new GameLocks.
+     *
+     * @param stripes the number of locks, rounded up to a power of two
+     */
+    public GameLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1) << 1);
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the lock guarding the given game.
+     *
+     * @param gameId the ID of the game
+     * @return the stripe for the game ID
+     */
+    public ReentrantLock lockFor(String gameId) {
+        int h = gameId != null ? gameId.hashCode() : 0;
+        return stripes[(h ^ (h >>> 16)) & mask];
+    }
+
+    /**
+     * Runs the action while holding the lock of the given game.
+     *
+     * @param gameId the ID of the game
+     * @param action the action to run
+     * @return the result of the action
+     */
+    public <T> T withLock(String gameId, Supplier<T> action) {
+        ReentrantLock lock = lockFor(gameId);
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs the action while holding the lock of the given game.
+     *
+     * @param gameId the ID of the game
+     * @param action the action to run
+     */
+    public void withLock(String gameId, Runnable action) {
+        ReentrantLock lock = lockFor(gameId);
+        lock.lock();
+        try {
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Actor-style execution of game events: each live game gets a mailbox whose tasks run one at a time,
+ * in submission order, on a shared executor.
+ * <p>
+ * A mailbox only exists while it has pending work. It is created by the first submission and closed
+ * and dropped once its queue drains, so idle games cost nothing. The backlog of a single game is capped;
+ * submissions beyond the cap are rejected so a hot game cannot build up unbounded work.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class GameMailboxes {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameMailboxes.class);
+
+    /**
+     * Depth value of a mailbox that has been closed and must not accept tasks anymore.
+     */
+    private static final int CLOSED = -1;
+
+    /**
+     * Number of tasks a mailbox runs before yielding its thread back to the executor.
+     */
+    private static final int BATCH_SIZE = 64;
+
+    private final Map<String, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final int capacity;
+
+    /**
+     * Constructs a new GameMailboxes.
+     *
+     * @param executor the executor running the mailboxes
+     * @param capacity the maximum number of pending tasks per game
+     */
+    public GameMailboxes(Executor executor, int capacity) {
+        this.executor = executor;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Enqueues a task in the mailbox of the given game.
+     *
+     * @param gameId the ID of the game
+     * @param task   the task to run
+     * @return true if the task was enqueued, false if the game's backlog is full
+     */
+    public boolean submit(String gameId, Runnable task) {
+        while (true) {
+            Mailbox mailbox = mailboxes.computeIfAbsent(gameId, Mailbox::new);
+            int depth = mailbox.depth.get();
+            if (depth == CLOSED) {
+                // Drained and closing; replace it with a fresh mailbox.
+                mailboxes.remove(gameId, mailbox);
+                continue;
+            }
+            if (depth >= capacity) {
+                return false;
+            }
+            if (mailbox.depth.compareAndSet(depth, depth + 1)) {
+                mailbox.queue.offer(task);
+                if (depth == 0) {
+                    executor.execute(mailbox);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of pending tasks for the given game.
+     *
+     * @param gameId the ID of the game
+     * @return the number of tasks queued or running, 0 if the game has no mailbox
+     */
+    public int queueDepth(String gameId) {
+        Mailbox mailbox = mailboxes.get(gameId);
+        return mailbox != null ? Math.max(0, mailbox.depth.get()) : 0;
+    }
+
+    /**
+     * Returns the queue depth of every game with pending work.
+     *
+     * @return a snapshot of queue depths by game ID
+     */
+    public Map<String, Integer> queueDepths() {
+        Map<String, Integer> depths = new HashMap<>();
+        mailboxes.forEach((gameId, mailbox) -> {
+            int depth = mailbox.depth.get();
+            if (depth > 0) {
+                depths.put(gameId, depth);
+            }
+        });
+        return depths;
+    }
+
+    /**
+     * @return the number of games that currently have pending work
+     */
+    public int activeMailboxes() {
+        return mailboxes.size();
+    }
+
+    /**
+     * @return the maximum number of pending tasks per game
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Stops the executor if this instance owns one. Pending tasks are dropped.
+     */
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Mailbox of a single game. {@code depth} counts tasks submitted but not finished yet; the submitter that
+     * moves it from 0 to 1 schedules the mailbox, and the mailbox keeps running until it brings it back to 0.
+     */
+    private final class Mailbox implements Runnable {
+        private final String gameId;
+        private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+
+        private Mailbox(String gameId) {
+            this.gameId = gameId;
+        }
+
+        @Override
+        public void run() {
+            for (int processed = 0; processed < BATCH_SIZE; processed++) {
+                Runnable task;
+                while ((task = queue.poll()) == null) {
+                    // A submitter counted its task but has not enqueued it yet.
+                    Thread.onSpinWait();
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    logger.error("Task for game {} failed", gameId, e);
+                }
+                if (depth.decrementAndGet() == 0) {
+                    // Either close the drained mailbox, or a submitter just moved it back to 1 and scheduled it again.
+                    if (depth.compareAndSet(0, CLOSED)) {
+                        mailboxes.remove(gameId, this);
+                    }
+                    return;
+                }
+            }
+            executor.execute(this);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Expires games nobody plays anymore: games waiting for a second player longer than the waiting TTL, and started
+ * games without a move for longer than the idle TTL. Without it a game only goes away when it ends or a player
+ * disconnects, so abandoned games would pile up in the manager.
+ * <p>
+ * Each live game has a single timeout on a {@link TimerWheel}, scheduled when the game is created or its seats
+ * change and cancelled when it is removed. Moves do not touch the wheel: the game only records its
+ * {@link TicTacToe#getLastActivity() last activity}, and when the timeout fires the deadline is checked again under
+ * the game's lock. A game that saw activity in the meantime is rescheduled for the rest of its TTL.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class GameReaper implements GameEventListener {
+
+    private final TicTacToeManager manager;
+    private final TimerWheel wheel;
+    private final long idleTtlNanos;
+    private final long waitingTtlNanos;
+    private final Consumer<TicTacToe> onExpired;
+
+    /**
+     * Timeout of each tracked game, with the game ID as the key.
+     */
+    private final Map<String, TimerWheel.Timeout> timeouts = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new GameReaper and registers it as a listener of the manager.
+     *
+     * @param manager         the manager whose games are expired
+     * @param wheel           the timer wheel scheduling the expirations
+     * @param idleTtlNanos    how long a started game may go without activity
+     * @param waitingTtlNanos how long a game may wait for its second player
+     * @param onExpired       called with each expired game, after it was removed and outside its lock
+     */
+    public GameReaper(TicTacToeManager manager, TimerWheel wheel, long idleTtlNanos, long waitingTtlNanos,
+                      Consumer<TicTacToe> onExpired) {
+        this.manager = manager;
+        this.wheel = wheel;
+        this.idleTtlNanos = idleTtlNanos;
+        this.waitingTtlNanos = waitingTtlNanos;
+        this.onExpired = onExpired;
+        manager.addListener(this);
+    }
+
+    @Override
+    public void gameCreated(TicTacToe game) {
+        track(game);
+    }
+
+    @Override
+    public void playerJoined(TicTacToe game, String player) {
+        track(game);
+    }
+
+    @Override
+    public void playerLeft(TicTacToe game, String player) {
+        track(game);
+    }
+
+    @Override
+    public void gameRestored(TicTacToe game) {
+        track(game);
+    }
+
+    @Override
+    public void gameRemoved(String gameId) {
+        TimerWheel.Timeout timeout = timeouts.remove(gameId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * @return the number of games with a pending expiration
+     */
+    public int getTrackedGameCount() {
+        return timeouts.size();
+    }
+
+    /**
+     * Starts tracking a new game, or restarts the timeout of a game that started or started waiting again,
+     * since the two states have different TTLs.
+     */
+    private void track(TicTacToe game) {
+        schedule(game.getGameId(), ttlOf(game));
+    }
+
+    private void schedule(String gameId, long delayNanos) {
+        TimerWheel.Timeout timeout = wheel.schedule(() -> expire(gameId), delayNanos, TimeUnit.NANOSECONDS);
+        TimerWheel.Timeout previous = timeouts.put(gameId, timeout);
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private long ttlOf(TicTacToe game) {
+        return game.getGameState() == GameState.WAITING_FOR_PLAYER ? waitingTtlNanos : idleTtlNanos;
+    }
+
+    /**
+     * Runs on the wheel's thread when the timeout of a game fires.
+     */
+    private void expire(String gameId) {
+        TicTacToe expired = manager.withGameLock(gameId, () -> {
+            TicTacToe game = manager.getGame(gameId);
+            if (game == null) {
+                // Removed before its timeout could be cancelled, e.g. left right after being created.
+                timeouts.remove(gameId);
+                return null;
+            }
+            long remaining = game.getLastActivity() + ttlOf(game) - System.nanoTime();
+            if (remaining > 0) {
+                schedule(gameId, remaining);
+                return null;
+            }
+            manager.removeGame(gameId);
+            return game;
+        });
+        if (expired != null) {
+            onExpired.accept(expired);
+        }
+    }
+}
@@ -0,0 +1,303 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import com.joabsonlg.tictactoewebsocket.engine.BoardVariant;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.BiPredicate;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Lock-free queues of Tic-Tac-Toe games with an open seat, bucketed by the rating of the waiting player.
+ * Each {@link BoardVariant} has buckets of its own, so players are never paired across board sizes.
+ * <p>
+ * Games are offered when they start waiting for a second player and polled when a player joins. A joining player
+ * takes the oldest game of the nearest bucket whose player accepts them: a waiting player accepts opponents rated
+ * within a window that starts at the initial window and widens with the time waited, up to the maximum window.
+ * Two players are paired when their rating difference is within the wider of their two windows, so a joining player,
+ * who has not waited, is paired within the waiting player's window.
+ * Only the oldest game of each bucket is considered, as it has waited the longest, so a join looks at a fixed number
+ * of buckets however many games are queued.
+ * <p>
+ * As windows widen while players wait, two waiting players may come to accept each other with nobody joining;
+ * {@link #rematch} pairs them, and is meant to be run periodically.
+ * <p>
+ * Games that were filled, abandoned or removed in the meantime are not unlinked eagerly; they are discarded the next
+ * time they reach the head of their bucket.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class Matchmaker {
+
+    /**
+     * Ratings above it share the last bucket.
+     */
+    static final int MAX_RATING = 4000;
+
+    /**
+     * A queued game and the rating of its waiting player when it was offered.
+     */
+    private record Entry(TicTacToe game, int rating) {
+    }
+
+    private final ToIntFunction<String> ratings;
+    private final int bucketWidth;
+    private final int initialWindow;
+    private final double windowGrowthPerNano;
+    private final int maxWindow;
+
+    private final int bucketCount;
+
+    /**
+     * Games waiting for a second player, oldest first in each bucket, keyed by {@link #variantKey}. May contain stale
+     * entries.
+     */
+    private final Map<Integer, List<Queue<Entry>>> variants = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a Matchmaker pairing players in the order they started waiting, regardless of their rating.
+     */
+    public Matchmaker() {
+        this(player -> PlayerRatings.INITIAL_RATING, MAX_RATING, MAX_RATING, 0, MAX_RATING);
+    }
+
+    /**
+     * Constructs a Matchmaker pairing players by rating.
+     *
+     * @param ratings       the rating of each player
+     * @param bucketWidth   the range of ratings of a bucket
+     * @param initialWindow the rating difference a player accepts as soon as they start waiting
+     * @param windowGrowth  the rating difference added to the window per second of waiting
+     * @param maxWindow     the rating difference a player accepts after waiting long enough
+     */
+    public Matchmaker(ToIntFunction<String> ratings, int bucketWidth, int initialWindow, int windowGrowth,
+                      int maxWindow) {
+        if (bucketWidth <= 0 || initialWindow < 0 || windowGrowth < 0 || maxWindow < initialWindow) {
+            throw new IllegalArgumentException("Invalid matchmaking window");
+        }
+        this.ratings = ratings;
+        this.bucketWidth = bucketWidth;
+        this.initialWindow = initialWindow;
+        this.windowGrowthPerNano = windowGrowth / 1e9;
+        this.maxWindow = maxWindow;
+        this.bucketCount = (MAX_RATING - 1) / bucketWidth + 1;
+    }
+
+    /**
+     * Adds a game that is waiting for a second player, in the bucket of its first player's rating among the buckets
+     * of its board.
+     *
+     * @param game the game with an open seat
+     */
+    public void offer(TicTacToe game) {
+        int rating = ratings.applyAsInt(game.getPlayer1());
+        List<Queue<Entry>> buckets = variants.computeIfAbsent(variantKey(game.getSize(), game.getWinLength()),
+                key -> newBuckets());
+        buckets.get(bucketOf(rating)).offer(new Entry(game, rating));
+    }
+
+    /**
+     * Removes and returns an open classic game for the player, as {@link #poll(String, BoardVariant, Predicate)}.
+     *
+     * @param player the name of the joining player
+     * @param isOpen check that the game still has an open seat
+     * @return the open game, or null if no waiting player accepts the player yet
+     */
+    public TicTacToe poll(String player, Predicate<TicTacToe> isOpen) {
+        return poll(player, BoardVariant.CLASSIC, isOpen);
+    }
+
+    /**
+     * Removes and returns the open game of the variant closest in rating to the player whose waiting player accepts
+     * them, discarding stale entries on the way. The caller must still claim the seat atomically, since the game can
+     * change after it is returned.
+     *
+     * @param player  the name of the joining player
+     * @param variant the board the player wants to play on
+     * @param isOpen  check that the game still has an open seat
+     * @return the open game, or null if no waiting player accepts the player yet
+     */
+    public TicTacToe poll(String player, BoardVariant variant, Predicate<TicTacToe> isOpen) {
+        List<Queue<Entry>> buckets = variants.get(variantKey(variant.size(), variant.winLength()));
+        if (buckets == null) {
+            return null;
+        }
+        int rating = ratings.applyAsInt(player);
+        int home = bucketOf(rating);
+        int reach = maxWindow / bucketWidth + 1;
+        long now = System.nanoTime();
+        for (int distance = 0; distance <= reach; distance++) {
+            TicTacToe game = poll(buckets, home - distance, rating, now, isOpen);
+            if (game == null && distance > 0) {
+                game = poll(buckets, home + distance, rating, now, isOpen);
+            }
+            if (game != null) {
+                return game;
+            }
+        }
+        return null;
+    }
+
+    private TicTacToe poll(List<Queue<Entry>> buckets, int bucket, int rating, long now,
+                           Predicate<TicTacToe> isOpen) {
+        if (bucket < 0 || bucket >= buckets.size()) {
+            return null;
+        }
+        Queue<Entry> queue = buckets.get(bucket);
+        Entry head;
+        while ((head = queue.peek()) != null) {
+            if (!isOpen.test(head.game())) {
+                queue.remove(head);
+            } else if (!accepts(head, rating, 0, now)) {
+                return null;
+            } else if (queue.remove(head)) {
+                return head.game();
+            }
+            // Otherwise another joining player took the head first; look at the next one.
+        }
+        return null;
+    }
+
+    /**
+     * Pairs waiting games of the same variant whose players now accept each other. The oldest game of each bucket is
+     * paired with the next game of its own bucket or the oldest game of a bucket above, the nearest in rating first.
+     * Both games are removed from the queues before they are handed to {@code pair}, which must move the player of
+     * the second game to the first; the games it rejects are offered again if still open.
+     *
+     * @param isOpen check that a game still has an open seat
+     * @param pair   pairs the game that waited the longest with the other one, returning false if either is gone
+     * @return the number of pairs made
+     */
+    public int rematch(Predicate<TicTacToe> isOpen, BiPredicate<TicTacToe, TicTacToe> pair) {
+        int paired = 0;
+        int reach = maxWindow / bucketWidth + 1;
+        long now = System.nanoTime();
+        for (List<Queue<Entry>> buckets : variants.values()) {
+            for (int bucket = 0; bucket < buckets.size(); bucket++) {
+                Queue<Entry> queue = buckets.get(bucket);
+                Entry head;
+                while ((head = openHead(queue, isOpen)) != null) {
+                    Entry other = partner(buckets, bucket, head, reach, now, isOpen);
+                    if (other == null || !queue.remove(head)) {
+                        break;
+                    }
+                    if (!buckets.get(bucketOf(other.rating())).remove(other)) {
+                        // Another player joined it first.
+                        queue.offer(head);
+                        break;
+                    }
+                    boolean older = head.game().getWaitingSince() - other.game().getWaitingSince() <= 0;
+                    TicTacToe kept = older ? head.game() : other.game();
+                    TicTacToe moved = older ? other.game() : head.game();
+                    if (!pair.test(kept, moved)) {
+                        reofferIfOpen(head, isOpen);
+                        reofferIfOpen(other, isOpen);
+                        break;
+                    }
+                    paired++;
+                }
+            }
+        }
+        return paired;
+    }
+
+    private Entry openHead(Queue<Entry> queue, Predicate<TicTacToe> isOpen) {
+        Entry head;
+        while ((head = queue.peek()) != null && !isOpen.test(head.game())) {
+            queue.remove(head);
+        }
+        return head;
+    }
+
+    /**
+     * Finds a game whose player and the head's player accept each other: the next open game of the head's bucket,
+     * then the oldest open game of each bucket above, nearest first.
+     */
+    private Entry partner(List<Queue<Entry>> buckets, int bucket, Entry head, int reach, long now,
+                          Predicate<TicTacToe> isOpen) {
+        for (Entry entry : buckets.get(bucket)) {
+            if (entry != head && isOpen.test(entry.game())) {
+                if (accepts(entry, head.rating(), now - head.game().getWaitingSince(), now)) {
+                    return entry;
+                }
+                break;
+            }
+        }
+        for (int distance = 1; distance <= reach && bucket + distance < buckets.size(); distance++) {
+            Entry other = openHead(buckets.get(bucket + distance), isOpen);
+            if (other != null && accepts(other, head.rating(), now - head.game().getWaitingSince(), now)) {
+                return other;
+            }
+        }
+        return null;
+    }
+
+    private void reofferIfOpen(Entry entry, Predicate<TicTacToe> isOpen) {
+        if (isOpen.test(entry.game())) {
+            offer(entry.game());
+        }
+    }
+
+    /**
+     * Check if a waiting game and a player accept each other, within the wider of their windows.
+     *
+     * @param entry       the waiting game
+     * @param rating      the rating of the other player
+     * @param waitedNanos the time the other player has waited
+     * @param now         the current time of {@link System#nanoTime()}
+     */
+    private boolean accepts(Entry entry, int rating, long waitedNanos, long now) {
+        long window = Math.max(window(now - entry.game().getWaitingSince()), window(waitedNanos));
+        return Math.abs(entry.rating() - rating) <= window;
+    }
+
+    /**
+     * @param waitedNanos the time a player has waited
+     * @return the rating difference the player accepts
+     */
+    long window(long waitedNanos) {
+        return Math.min(maxWindow, initialWindow + (long) (Math.max(waitedNanos, 0) * windowGrowthPerNano));
+    }
+
+    private int bucketOf(int rating) {
+        return Math.min(Math.max(rating, 0), MAX_RATING - 1) / bucketWidth;
+    }
+
+    private List<Queue<Entry>> newBuckets() {
+        List<Queue<Entry>> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new ConcurrentLinkedQueue<>());
+        }
+        return buckets;
+    }
+
+    /**
+     * Keys the buckets by the size and win length of the board rather than by {@link BoardVariant}, so games restored
+     * with a board outside the variants players can ask for are still queued.
+     */
+    private static int variantKey(int size, int winLength) {
+        return size << 16 | winLength;
+    }
+
+    /**
+     * Counts the queued entries, including stale ones not yet discarded. Traverses the queues, so it is meant for
+     * diagnostics rather than the hot path.
+     *
+     * @return the number of queued entries
+     */
+    public int size() {
+        int size = 0;
+        for (List<Queue<Entry>> buckets : variants.values()) {
+            for (Queue<Entry> bucket : buckets) {
+                size += bucket.size();
+            }
+        }
+        return size;
+    }
+}
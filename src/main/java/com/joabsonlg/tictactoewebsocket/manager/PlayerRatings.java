@@ -0,0 +1,107 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Elo ratings of the players, updated when a game between two players ends, forfeits included. Games against a bot
+ * are not rated.
+ * <p>
+ * New players start at {@link #INITIAL_RATING} and move faster during their first {@link #PROVISIONAL_GAMES} games,
+ * so they reach their level quickly, as a Glicko deviation would allow, without keeping a deviation per player.
+ * The ratings are kept in memory only.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class PlayerRatings implements GameEventListener {
+
+    public static final int INITIAL_RATING = 1500;
+
+    /**
+     * Number of games during which a player's rating is provisional.
+     */
+    static final int PROVISIONAL_GAMES = 20;
+
+    private static final double PROVISIONAL_K = 40;
+    private static final double K = 20;
+
+    /**
+     * The rating of a player.
+     *
+     * @param value the rating
+     * @param games the number of rated games played
+     */
+    public record Rating(double value, int games) {
+    }
+
+    private final Map<String, Rating> ratings = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the rating of a player, rounded.
+     *
+     * @param player the name of the player
+     * @return the rating, or {@link #INITIAL_RATING} for a player who has played no rated game
+     */
+    public int getRating(String player) {
+        Rating rating = player != null ? ratings.get(player) : null;
+        return rating != null ? (int) Math.round(rating.value()) : INITIAL_RATING;
+    }
+
+    /**
+     * @param player the name of the player
+     * @return the rating of the player, or null if they have played no rated game
+     */
+    public Rating get(String player) {
+        return ratings.get(player);
+    }
+
+    /**
+     * @return the number of rated players
+     */
+    public int size() {
+        return ratings.size();
+    }
+
+    @Override
+    public void gameFinished(TicTacToe game) {
+        String player1 = game.getPlayer1();
+        String player2 = game.getPlayer2();
+        if (player1 == null || player2 == null || TicTacToeManager.isBot(player1) || TicTacToeManager.isBot(player2)) {
+            return;
+        }
+        double score;
+        if (game.getGameState() == GameState.PLAYER1_WON) {
+            score = 1;
+        } else if (game.getGameState() == GameState.PLAYER2_WON) {
+            score = 0;
+        } else if (game.getGameState() == GameState.TIE) {
+            score = 0.5;
+        } else {
+            return;
+        }
+        record(player1, player2, score);
+    }
+
+    /**
+     * Updates the ratings of two players after a game.
+     *
+     * @param player1 the name of the first player
+     * @param player2 the name of the second player
+     * @param score   the score of the first player: 1 for a win, 0.5 for a tie, 0 for a loss
+     */
+    void record(String player1, String player2, double score) {
+        Rating rating1 = ratings.getOrDefault(player1, new Rating(INITIAL_RATING, 0));
+        Rating rating2 = ratings.getOrDefault(player2, new Rating(INITIAL_RATING, 0));
+        double expected = 1 / (1 + Math.pow(10, (rating2.value() - rating1.value()) / 400));
+        ratings.put(player1, update(rating1, score - expected));
+        ratings.put(player2, update(rating2, expected - score));
+    }
+
+    private static Rating update(Rating rating, double surprise) {
+        double k = rating.games() < PROVISIONAL_GAMES ? PROVISIONAL_K : K;
+        return new Rating(rating.value() + k * surprise, rating.games() + 1);
+    }
+}
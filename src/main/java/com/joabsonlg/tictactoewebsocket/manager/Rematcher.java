@@ -0,0 +1,55 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Periodically pairs players already waiting for an opponent, through {@link TicTacToeManager#rematchWaiting}.
+ * Joining players are only paired when they join, so without it two waiting players whose rating windows came to
+ * overlap would keep waiting until a third player joins, or a bot takes their seat.
+ * <p>
+ * The pass runs on a {@link TimerWheel}, and schedules the next one when it is done, so passes never overlap.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class Rematcher {
+
+    private final TicTacToeManager manager;
+    private final TimerWheel wheel;
+    private final long intervalNanos;
+    private final BiConsumer<String, TicTacToe> onMoved;
+
+    /**
+     * Constructs a new Rematcher and schedules its first pass.
+     *
+     * @param manager       the manager whose waiting players are paired
+     * @param wheel         the timer wheel running the passes
+     * @param intervalNanos the time between two passes
+     * @param onMoved       called with the ID of each game closed by a pass and the game its player was moved to
+     */
+    public Rematcher(TicTacToeManager manager, TimerWheel wheel, long intervalNanos,
+                     BiConsumer<String, TicTacToe> onMoved) {
+        this.manager = manager;
+        this.wheel = wheel;
+        this.intervalNanos = intervalNanos;
+        this.onMoved = onMoved;
+        schedule();
+    }
+
+    private void schedule() {
+        wheel.schedule(this::rematch, intervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Runs on the wheel's thread.
+     */
+    private void rematch() {
+        try {
+            manager.rematchWaiting(onMoved);
+        } finally {
+            schedule();
+        }
+    }
+}
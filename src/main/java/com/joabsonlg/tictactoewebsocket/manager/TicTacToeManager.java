@@ -1,10 +1,24 @@
 package com.joabsonlg.tictactoewebsocket.manager;
 
+import com.joabsonlg.tictactoewebsocket.ai.BotEngine;
+import com.joabsonlg.tictactoewebsocket.engine.Board;
+import com.joabsonlg.tictactoewebsocket.engine.BoardVariant;
+import com.joabsonlg.tictactoewebsocket.engine.PositionTable;
 import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
 import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 
 /**
  * Manager class for the Tic-Tac-Toe games.
@@ -14,6 +28,12 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class TicTacToeManager {
 
+    /**
+     * Prefix of the names of the bots seated by {@link #seatBot}. Players cannot pick a name starting with it,
+     * so a bot is recognized by its name alone, also in games restored from disk.
+     */
+    public static final String BOT_NAME_PREFIX = "[bot] ";
+
     /**
      * Map of active Tic-Tac-Toe games, with the game ID as the key.
      */
@@ -25,71 +45,475 @@ public class TicTacToeManager {
     protected final Map<String, String> waitingPlayers;
 
     /**
-     * Constructs a new TicTacToeManager.
+     * Map of the game each player is seated in, with the player's name as the key and the game ID as the value.
+     * Kept in sync with {@link #games} so lookups by player never scan the games.
+     */
+    protected final Map<String, String> playerGames;
+
+    /**
+     * IDs of the games created by {@link #createMatch}, whose seats are never offered to other players.
+     */
+    private final Set<String> matches;
+
+    /**
+     * Queue of games with an open seat, used to pair joining players.
+     */
+    private final Matchmaker matchmaker;
+
+    /**
+     * Per-game locks. Every change to a game's seats, state or board happens under its stripe.
+     */
+    private final GameLocks locks;
+
+    /**
+     * Listeners told about every change to the games. An array rather than a list so notifying is allocation-free.
+     */
+    private volatile GameEventListener[] listeners = new GameEventListener[0];
+
+    /**
+     * Chooses the bots' moves on boards other than the classic one, or null to play the first free cell.
+     */
+    private volatile BotEngine botEngine;
+
+    /**
+     * Runs the searches of the bot engine, without any game's lock. Runs them on the calling thread unless set.
+     */
+    private volatile Executor botExecutor = Runnable::run;
+
+    /**
+     * Creates the IDs of new games; random UUIDs unless the games must be owned by this node of a cluster.
+     */
+    private volatile Supplier<String> gameIdSupplier = () -> UUID.randomUUID().toString();
+
+    /**
+     * Constructs a new TicTacToeManager pairing players in the order they join.
      */
     public TicTacToeManager() {
+        this(new Matchmaker());
+    }
+
+    /**
+     * Constructs a new TicTacToeManager.
+     *
+     * @param matchmaker the queue of open games pairing joining players
+     */
+    public TicTacToeManager(Matchmaker matchmaker) {
         games = new ConcurrentHashMap<>();
         waitingPlayers = new ConcurrentHashMap<>();
+        playerGames = new ConcurrentHashMap<>();
+        matches = ConcurrentHashMap.newKeySet();
+        this.matchmaker = matchmaker;
+        locks = new GameLocks();
     }
 
     /**
-     * Attempts to add a player to an existing Tic-Tac-Toe game, or creates a new game if no open games are available.
+     * Attempts to add a player to an existing classic Tic-Tac-Toe game, or creates a new one if no open game accepts
+     * them.
      *
-     * @param player the name of the player
-     * @return the Tic-Tac-Toe game the player was added to
+     * @param player the name of the player, at most {@link TicTacToe#MAX_PLAYER_NAME_BYTES} bytes in UTF-8
+     * @return the Tic-Tac-Toe game the player was added to, or null if the name is missing, too long or a bot's
+     * @see #joinGame(String, BoardVariant)
      */
-    public synchronized TicTacToe joinGame(String player) {
-        if (games.values().stream().anyMatch(game -> game.getPlayer1().equals(player) || (game.getPlayer2() != null && game.getPlayer2().equals(player)))) {
-            return games.values().stream().filter(game -> game.getPlayer1().equals(player) || game.getPlayer2().equals(player)).findFirst().get();
+    public TicTacToe joinGame(String player) {
+        return joinGame(player, BoardVariant.CLASSIC);
+    }
+
+    /**
+     * Attempts to add a player to an existing Tic-Tac-Toe game of the given variant, or creates a new game if no open
+     * game accepts them. Open games are taken from the {@link Matchmaker} queues of the variant, so joining does not
+     * scan the games or lock the manager. A player already seated gets their current game back, whatever its variant.
+     *
+     * @param player  the name of the player, at most {@link TicTacToe#MAX_PLAYER_NAME_BYTES} bytes in UTF-8
+     * @param variant the size and win length of the board
+     * @return the Tic-Tac-Toe game the player was added to, or null if the name is missing, too long or a bot's
+     */
+    public TicTacToe joinGame(String player, BoardVariant variant) {
+        if (!isValidName(player)) {
+            return null;
+        }
+        TicTacToe existing = getGameByPlayer(player);
+        if (existing != null) {
+            return existing;
         }
 
-        for (TicTacToe game : games.values()) {
-            if (game.getPlayer1() != null && game.getPlayer2() == null) {
-                game.setPlayer2(player);
-                game.setGameState(GameState.PLAYER1_TURN);
+        TicTacToe open;
+        while ((open = matchmaker.poll(player, variant, this::isOpen)) != null) {
+            TicTacToe game = takeSeat(open, player);
+            if (game != null) {
                 return game;
             }
         }
 
-        TicTacToe game = new TicTacToe(player, null);
-        games.put(game.getGameId(), game);
-        waitingPlayers.put(player, game.getGameId());
-        return game;
+        String gameId = gameIdSupplier.get();
+        TicTacToe game = new TicTacToe(gameId, player, null, variant.size(), variant.winLength());
+        // Held so no change to the game can be seen by the listeners before its creation.
+        return locks.withLock(gameId, () -> {
+            games.put(gameId, game);
+            String current = playerGames.putIfAbsent(player, gameId);
+            if (current != null) {
+                // The same player joined concurrently and won the race.
+                games.remove(gameId);
+                return games.get(current);
+            }
+            waitingPlayers.put(player, gameId);
+            for (GameEventListener listener : listeners) {
+                listener.gameCreated(game);
+            }
+            matchmaker.offer(game);
+            return game;
+        });
+    }
+
+    /**
+     * Creates a started classic game between two given players, as {@link #createMatch(String, String, BoardVariant)}.
+     *
+     * @param player1 the name of the first player
+     * @param player2 the name of the second player
+     * @return the game, or null if a name is invalid or either player is already seated in a game
+     */
+    public TicTacToe createMatch(String player1, String player2) {
+        return createMatch(player1, player2, BoardVariant.CLASSIC);
     }
 
     /**
-     * Removes a player from their Tic-Tac-Toe game. If the player was the only player in the game,
-     * the game is removed.
+     * Creates a started game between two given players, e.g. a tournament match, without going through the
+     * matchmaking queue. Player 1 moves first. Leaving the game forfeits it, as its seats are not offered to others.
      *
-     * @param player the name of the player
+     * @param player1 the name of the first player
+     * @param player2 the name of the second player
+     * @param variant the size and win length of the board
+     * @return the game, or null if a name is invalid or either player is already seated in a game
      */
-    public synchronized TicTacToe leaveGame(String player) {
-        String gameId = getGameByPlayer(player) != null ? getGameByPlayer(player).getGameId() : null;
-        if (gameId != null) {
-            waitingPlayers.remove(player);
+    public TicTacToe createMatch(String player1, String player2, BoardVariant variant) {
+        if (!isValidName(player1) || !isValidName(player2) || player1.equals(player2)) {
+            return null;
+        }
+        String gameId = gameIdSupplier.get();
+        TicTacToe game = new TicTacToe(gameId, player1, null, variant.size(), variant.winLength());
+        return locks.withLock(gameId, () -> {
+            if (playerGames.putIfAbsent(player1, gameId) != null) {
+                return null;
+            }
+            if (playerGames.putIfAbsent(player2, gameId) != null) {
+                playerGames.remove(player1, gameId);
+                return null;
+            }
+            games.put(gameId, game);
+            matches.add(gameId);
+            // Announced as a creation and a join, so the listeners need not know about matches.
+            for (GameEventListener listener : listeners) {
+                listener.gameCreated(game);
+            }
+            game.setPlayer2(player2);
+            game.setGameState(GameState.PLAYER1_TURN);
+            game.setWaitingSince(0);
+            game.touch();
+            for (GameEventListener listener : listeners) {
+                listener.playerJoined(game, player2);
+            }
+            return game;
+        });
+    }
+
+    /**
+     * Seats the player as player 2 of the given game if the seat is still open.
+     *
+     * @param game   the game polled from the matchmaker
+     * @param player the name of the joining player
+     * @return the game the player is now in, or null if the seat was taken or the game is gone
+     */
+    private TicTacToe takeSeat(TicTacToe game, String player) {
+        return locks.withLock(game.getGameId(), () -> {
+            if (!isOpen(game) || player.equals(game.getPlayer1())) {
+                return null;
+            }
+            String gameId = game.getGameId();
+            String current = playerGames.putIfAbsent(player, gameId);
+            if (current != null) {
+                // The same player was seated concurrently; keep the seat available for someone else.
+                matchmaker.offer(game);
+                return games.get(current);
+            }
+            game.setPlayer2(player);
+            game.setGameState(GameState.PLAYER1_TURN);
+            game.touch();
+            waitingPlayers.remove(game.getPlayer1(), gameId);
+            for (GameEventListener listener : listeners) {
+                listener.playerJoined(game, player);
+            }
+            return game;
+        });
+    }
+
+    /**
+     * Pairs the players waiting in games of the same variant who now accept each other, as their rating windows
+     * widened since they started waiting, see {@link Matchmaker#rematch}. The player who waited the least leaves their
+     * game, which is removed, and takes the open seat of the other game. Should that seat be taken in the meantime,
+     * the player joins again as a new player would.
+     *
+     * @param onMoved called with the ID of each removed game and the game its player is now in, outside its lock
+     * @return the number of players moved
+     */
+    public int rematchWaiting(BiConsumer<String, TicTacToe> onMoved) {
+        return matchmaker.rematch(this::isOpen, (kept, moved) -> {
+            String player = moved.getPlayer1();
+            String closedId = moved.getGameId();
+            boolean closed = locks.withLock(closedId, () -> {
+                if (!isOpen(moved) || !player.equals(moved.getPlayer1())) {
+                    return false;
+                }
+                waitingPlayers.remove(player, closedId);
+                playerGames.remove(player, closedId);
+                games.remove(closedId);
+                for (GameEventListener listener : listeners) {
+                    listener.gameRemoved(closedId);
+                }
+                return true;
+            });
+            if (!closed) {
+                return false;
+            }
+            TicTacToe game = takeSeat(kept, player);
+            if (game == null) {
+                game = joinGame(player, BoardVariant.isValid(moved.getSize(), moved.getWinLength())
+                        ? new BoardVariant(moved.getSize(), moved.getWinLength()) : BoardVariant.CLASSIC);
+            }
+            if (game != null) {
+                onMoved.accept(closedId, game);
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Seats a bot in the open seat of a game, so its player does not wait for an opponent any longer.
+     * The bot plays through {@link #playBot}.
+     *
+     * @param gameId the ID of the game
+     * @return the game, now started, or null if it is gone or no longer waiting
+     */
+    public TicTacToe seatBot(String gameId) {
+        return locks.withLock(gameId, () -> {
             TicTacToe game = games.get(gameId);
-            if (player.equals(game.getPlayer1())) {
-                if (game.getPlayer2() != null) {
-                    game.setPlayer1(game.getPlayer2());
-                    game.setPlayer2(null);
-                    game.setGameState(GameState.WAITING_FOR_PLAYER);
-                    game.setBoard(new String[3][3]);
-                    waitingPlayers.put(game.getPlayer1(), game.getGameId());
-                } else {
+            if (game == null || !isOpen(game)) {
+                return null;
+            }
+            String bot = BOT_NAME_PREFIX + gameId.substring(0, Math.min(8, gameId.length()));
+            if (playerGames.containsKey(bot)) {
+                bot = BOT_NAME_PREFIX + gameId;
+            }
+            return takeSeat(game, bot) == game && bot.equals(game.getPlayer2()) ? game : null;
+        });
+    }
+
+    /**
+     * Plays the move of the bot whose turn it is. The caller must hold the game's lock.
+     * <p>
+     * On the classic board the move is read from the {@link PositionTable}, so the bot never loses, and is played at
+     * once. On larger boards it is searched by the {@link #setBotEngine bot engine} on a copy of the board, on the
+     * {@link #setBotExecutor bot executor}, so the search holds neither the caller's thread nor the game's lock and
+     * other moves, on this game's stripe or elsewhere, are not held up by it. The lock is taken again to apply the
+     * move, which is dropped if the game changed meanwhile, e.g. because the player left. Without an engine, or if the
+     * search fails, the first free cell is taken.
+     *
+     * @param game   the game
+     * @param onMove called with the cell played, under the game's lock, once the bot's move is applied
+     * @return true if the bot's move was played or will be, false if the game is over or it is not a bot's turn
+     */
+    public boolean playBot(TicTacToe game, IntConsumer onMove) {
+        String bot = game.getTurn();
+        if (game.isGameOver() || game.getPlayer2() == null || !isBot(bot)) {
+            return false;
+        }
+        int position = game.getPosition();
+        BotEngine engine = botEngine;
+        if (position >= 0 || engine == null) {
+            applyBotMove(game, bot, position >= 0 ? PositionTable.bestMove(position) : -1, onMove);
+            return true;
+        }
+        String gameId = game.getGameId();
+        long sequence = game.getSequence();
+        TicTacToe board = new TicTacToe(gameId, game.getPlayer1(), bot, game.getSize(), game.getWinLength());
+        int mark = Board.X;
+        for (int cell : game.getMoves()) {
+            board.placeMark(cell, mark);
+            mark = mark == Board.X ? Board.O : Board.X;
+        }
+        botExecutor.execute(() -> {
+            int cell;
+            try {
+                cell = engine.bestMove(board);
+            } catch (RuntimeException e) {
+                cell = -1;
+            }
+            int move = cell;
+            locks.withLock(gameId, () -> {
+                if (games.get(gameId) == game && game.getSequence() == sequence && bot.equals(game.getTurn())
+                        && !game.isGameOver()) {
+                    applyBotMove(game, bot, move, onMove);
+                }
+            });
+        });
+        return true;
+    }
+
+    /**
+     * Plays the bot's chosen cell, or the first free cell if it cannot be played. The caller must hold the game's
+     * lock.
+     */
+    private void applyBotMove(TicTacToe game, String bot, int cell, IntConsumer onMove) {
+        if (cell < 0 || !makeMove(game, bot, cell)) {
+            cell = -1;
+            for (int free = 0; cell < 0 && free < game.getSize() * game.getSize(); free++) {
+                if (game.markAt(free) == Board.EMPTY && makeMove(game, bot, free)) {
+                    cell = free;
+                }
+            }
+        }
+        if (cell >= 0) {
+            onMove.accept(cell);
+        }
+    }
+
+    /**
+     * Check if a player is a bot seated by {@link #seatBot}.
+     *
+     * @param player the name of the player
+     * @return true if the name is a bot's
+     */
+    public static boolean isBot(String player) {
+        return player != null && player.startsWith(BOT_NAME_PREFIX);
+    }
+
+    /**
+     * Check if a name can be used by a joining player: present, short enough and not a bot's.
+     */
+    private static boolean isValidName(String player) {
+        return player != null && player.getBytes(StandardCharsets.UTF_8).length <= TicTacToe.MAX_PLAYER_NAME_BYTES
+                && !isBot(player);
+    }
+
+    /**
+     * Check if the game is still registered and waiting for a second player.
+     */
+    private boolean isOpen(TicTacToe game) {
+        return game.getPlayer1() != null && game.getPlayer2() == null && games.get(game.getGameId()) == game;
+    }
+
+    /**
+     * Removes a player from their Tic-Tac-Toe game. If the player was the only player in the game, or the opponent
+     * left behind is a bot, the game is removed. A player leaving a {@link #createMatch match} forfeits it, as for a
+     * disconnection.
+     *
+     * @param player the name of the player
+     */
+    public TicTacToe leaveGame(String player) {
+        if (player == null) {
+            return null;
+        }
+        String gameId;
+        while ((gameId = playerGames.get(player)) != null) {
+            ReentrantLock lock = locks.lockFor(gameId);
+            lock.lock();
+            try {
+                if (!gameId.equals(playerGames.get(player))) {
+                    // The player moved to another game before we got the lock; look it up again.
+                    continue;
+                }
+                if (matches.contains(gameId)) {
+                    return disconnect(gameId, player);
+                }
+                TicTacToe game = games.get(gameId);
+                waitingPlayers.remove(player, gameId);
+                playerGames.remove(player, gameId);
+                if (game == null) {
+                    return null;
+                }
+                String opponent = player.equals(game.getPlayer1()) ? game.getPlayer2() : game.getPlayer1();
+                if (opponent == null || isBot(opponent)) {
+                    // A bot never waits for a player.
+                    playerGames.remove(opponent == null ? player : opponent, gameId);
                     games.remove(gameId);
+                    for (GameEventListener listener : listeners) {
+                        listener.gameRemoved(gameId);
+                    }
                     return null;
                 }
-            } else if (player.equals(game.getPlayer2())) {
+                if (player.equals(game.getPlayer1())) {
+                    game.setPlayer1(game.getPlayer2());
+                }
                 game.setPlayer2(null);
-                game.setGameState(GameState.WAITING_FOR_PLAYER);
-                game.setBoard(new String[3][3]);
-                waitingPlayers.put(game.getPlayer1(), game.getGameId());
+                reopen(game);
+                for (GameEventListener listener : listeners) {
+                    listener.playerLeft(game, player);
+                }
+                return game;
+            } finally {
+                lock.unlock();
             }
-            return game;
         }
         return null;
     }
 
+    /**
+     * Resets a game whose second seat was vacated and puts it back in the matchmaking queue.
+     */
+    private void reopen(TicTacToe game) {
+        game.setGameState(GameState.WAITING_FOR_PLAYER);
+        game.setTurn(game.getPlayer1());
+        game.resetBoard();
+        game.setWaitingSince(System.nanoTime());
+        game.touch();
+        waitingPlayers.put(game.getPlayer1(), game.getGameId());
+        matchmaker.offer(game);
+    }
+
+    /**
+     * Applies a move to a game. The caller must hold the game's lock and have checked that it is the player's turn.
+     *
+     * @param game   the game
+     * @param player the name of the player making the move
+     * @param move   the row-major index of the cell to play
+     * @return true if the move was applied, false if the cell is taken or out of range
+     */
+    public boolean makeMove(TicTacToe game, String player, int move) {
+        if (!game.makeMove(player, move)) {
+            return false;
+        }
+        for (GameEventListener listener : listeners) {
+            listener.moveMade(game, player, move);
+        }
+        if (game.isGameOver()) {
+            for (GameEventListener listener : listeners) {
+                listener.gameFinished(game);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Puts back a game rebuilt from persisted state, with its seats, board and sequence number, as if its players
+     * had just joined it. A game waiting for a second player is offered to joining players again.
+     *
+     * @param game the restored game
+     */
+    public void restoreGame(TicTacToe game) {
+        String gameId = game.getGameId();
+        locks.withLock(gameId, () -> {
+            games.put(gameId, game);
+            playerGames.put(game.getPlayer1(), gameId);
+            if (game.getPlayer2() != null) {
+                playerGames.put(game.getPlayer2(), gameId);
+            } else {
+                waitingPlayers.put(game.getPlayer1(), gameId);
+                matchmaker.offer(game);
+            }
+            for (GameEventListener listener : listeners) {
+                listener.gameRestored(game);
+            }
+        });
+    }
+
     /**
      * Returns the Tic-Tac-Toe game with the given game ID.
      *
@@ -107,16 +531,163 @@ public class TicTacToeManager {
      * @return the Tic-Tac-Toe game the given player is in, or null if the player is not in a game
      */
     public TicTacToe getGameByPlayer(String player) {
-        return games.values().stream().filter(game -> game.getPlayer1().equals(player) || (game.getPlayer2() != null &&
-                game.getPlayer2().equals(player))).findFirst().orElse(null);
+        if (player == null) {
+            return null;
+        }
+        String gameId = playerGames.get(player);
+        return gameId != null ? games.get(gameId) : null;
     }
 
     /**
-     * Removes the Tic-Tac-Toe game with the given game ID.
+     * Runs the action on every live game. Games added or removed meanwhile may or may not be seen; the action must
+     * take a game's lock to read it consistently.
+     *
+     * @param action the action to run on each game
+     */
+    public void forEachGame(Consumer<TicTacToe> action) {
+        games.values().forEach(action);
+    }
+
+    /**
+     * @return the number of live games, including those waiting for a second player
+     */
+    public int getGameCount() {
+        return games.size();
+    }
+
+    /**
+     * @return the number of players waiting in a game for an opponent
+     */
+    public int getWaitingPlayerCount() {
+        return waitingPlayers.size();
+    }
+
+    /**
+     * Handles a player disconnecting from a Tic-Tac-Toe game. If an opponent is still seated,
+     * the opponent wins. The game is removed either way.
+     *
+     * @param gameId the ID of the game the player was in
+     * @param player the name of the player
+     * @return the final state of the game, or null if no such game exists
+     */
+    public TicTacToe disconnect(String gameId, String player) {
+        return locks.withLock(gameId, () -> {
+            TicTacToe game = games.get(gameId);
+            if (game == null) {
+                return null;
+            }
+            // Listeners are told about the forfeit while both seats are still filled.
+            if (player.equals(game.getPlayer1())) {
+                if (game.getPlayer2() != null) {
+                    game.setGameState(GameState.PLAYER2_WON);
+                    game.setWinner(game.getPlayer2());
+                    for (GameEventListener listener : listeners) {
+                        listener.gameFinished(game);
+                    }
+                }
+                game.setPlayer1(null);
+            } else if (player.equals(game.getPlayer2())) {
+                if (game.getPlayer1() != null) {
+                    game.setGameState(GameState.PLAYER1_WON);
+                    game.setWinner(game.getPlayer1());
+                    for (GameEventListener listener : listeners) {
+                        listener.gameFinished(game);
+                    }
+                }
+                game.setPlayer2(null);
+            }
+            playerGames.remove(player, gameId);
+            waitingPlayers.remove(player, gameId);
+            removeGame(gameId);
+            return game;
+        });
+    }
+
+    /**
+     * Removes the Tic-Tac-Toe game with the given game ID, along with its players' index entries.
      *
      * @param gameId the ID of the game to remove
      */
     public void removeGame(String gameId) {
-        games.remove(gameId);
+        locks.withLock(gameId, () -> {
+            TicTacToe game = games.remove(gameId);
+            matches.remove(gameId);
+            if (game != null) {
+                unindex(game.getPlayer1(), gameId);
+                unindex(game.getPlayer2(), gameId);
+                for (GameEventListener listener : listeners) {
+                    listener.gameRemoved(gameId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Runs the action while holding the lock of the given game, so it is linearizable with every other
+     * operation on that game. Operations on other games are not blocked.
+     *
+     * @param gameId the ID of the game
+     * @param action the action to run
+     */
+    public void withGameLock(String gameId, Runnable action) {
+        locks.withLock(gameId, action);
+    }
+
+    /**
+     * Computes a result while holding the lock of the given game.
+     *
+     * @param gameId the ID of the game
+     * @param action the action to run
+     * @return the result of the action
+     */
+    public <T> T withGameLock(String gameId, Supplier<T> action) {
+        return locks.withLock(gameId, action);
+    }
+
+    /**
+     * Sets the engine choosing the bots' moves on boards other than the classic one.
+     *
+     * @param botEngine the engine, or null to play the first free cell
+     */
+    public void setBotEngine(BotEngine botEngine) {
+        this.botEngine = botEngine;
+    }
+
+    /**
+     * Sets the executor running the searches of the bot engine. A search ends within the engine's time budget, so
+     * the executor's threads are only held that long.
+     *
+     * @param botExecutor the executor, e.g. a pool of its own
+     */
+    public void setBotExecutor(Executor botExecutor) {
+        this.botExecutor = botExecutor;
+    }
+
+    /**
+     * Sets how the IDs of new games are created, e.g. so they are owned by this node of a cluster.
+     *
+     * @param gameIdSupplier the supplier of unique game IDs
+     */
+    public void setGameIdSupplier(Supplier<String> gameIdSupplier) {
+        this.gameIdSupplier = gameIdSupplier;
+    }
+
+    /**
+     * Registers a listener told about every later change to the games.
+     *
+     * @param listener the listener
+     */
+    public synchronized void addListener(GameEventListener listener) {
+        GameEventListener[] current = listeners;
+        GameEventListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+
+    private void unindex(String player, String gameId) {
+        if (player != null) {
+            playerGames.remove(player, gameId);
+            waitingPlayers.remove(player, gameId);
+        }
     }
 }
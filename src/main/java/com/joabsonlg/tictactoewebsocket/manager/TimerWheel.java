@@ -0,0 +1,260 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timer wheel for large numbers of coarse timeouts.
+ * <p>
+ * Time advances in fixed ticks. A timeout lands in the bucket of its deadline tick modulo the wheel size, along with
+ * the number of full turns of the wheel left before it is due, so scheduling and cancelling are O(1) whatever the
+ * number of pending timeouts. Only the worker thread touches the buckets: {@link #schedule} and
+ * {@link Timeout#cancel()} hand their timeout over through lock-free queues, which the worker drains on every tick.
+ * Cancelled timeouts are unlinked on the next tick, so they do not hold memory until their deadline.
+ * <p>
+ * Tasks run on the worker thread and must be short.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class TimerWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimerWheel.class);
+
+    private final long tickNanos;
+    private final Bucket[] buckets;
+    private final int mask;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Number of ticks processed so far. Only written by the thread calling {@link #tick()}.
+     */
+    private volatile long tick;
+
+    private volatile Thread worker;
+
+    /**
+     * Constructs a new TimerWheel. It does not advance until {@link #start()} is called.
+     *
+     * @param tickDuration the length of a tick, the resolution of the timeouts
+     * @param unit         the unit of the tick duration
+     * @param wheelSize    the number of buckets, rounded up to a power of two
+     */
+    public TimerWheel(long tickDuration, TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be positive: " + tickDuration);
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1) << 1);
+        this.buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Schedules a task to run once, after the given delay rounded up to whole ticks.
+     *
+     * @param task  the task to run on the worker thread
+     * @param delay the delay, at least one tick
+     * @param unit  the unit of the delay
+     * @return the handle used to cancel the task
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        long ticks = Math.max(1, (unit.toNanos(delay) + tickNanos - 1) / tickNanos);
+        Timeout timeout = new Timeout(this, task, tick + ticks);
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Starts a daemon thread advancing the wheel by one tick every tick duration.
+     */
+    public synchronized void start() {
+        if (worker != null) {
+            return;
+        }
+        Thread thread = new Thread(this::run, "timer-wheel");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the worker thread. Pending timeouts are dropped.
+     */
+    public synchronized void stop() {
+        Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.NANOSECONDS.toMillis(tickNanos) + 1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        long startTime = System.nanoTime();
+        while (worker == Thread.currentThread()) {
+            long sleep = startTime + (tick + 1) * tickNanos - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+                continue;
+            }
+            tick();
+        }
+    }
+
+    /**
+     * Advances the wheel by one tick and runs the tasks that are due. Called by the worker thread, or directly by
+     * tests on a wheel that was never started.
+     */
+    void tick() {
+        long now = tick;
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+        while ((timeout = scheduled.poll()) != null) {
+            if (timeout.state != Timeout.PENDING) {
+                continue;
+            }
+            long deadline = Math.max(timeout.deadline, now);
+            timeout.rounds = (deadline - now) / buckets.length;
+            buckets[(int) (deadline & mask)].add(timeout);
+        }
+        Bucket bucket = buckets[(int) (now & mask)];
+        timeout = bucket.head;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.rounds > 0) {
+                timeout.rounds--;
+            } else {
+                bucket.remove(timeout);
+                timeout.expire();
+            }
+            timeout = next;
+        }
+        tick = now + 1;
+    }
+
+    /**
+     * @return the length of a tick in nanoseconds
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public static final class Timeout {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final TimerWheel wheel;
+        private final Runnable task;
+        private final long deadline;
+        private volatile int state;
+
+        // Owned by the worker thread.
+        private long rounds;
+        private Bucket bucket;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(TimerWheel wheel, Runnable task, long deadline) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task if it has not run yet.
+         *
+         * @return true if the task will not run because of this call
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                return false;
+            }
+            wheel.cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        private void expire() {
+            if (!STATE.compareAndSet(this, PENDING, EXPIRED)) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.warn("Timer task failed", e);
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of the timeouts of one slot of the wheel.
+     */
+    private static final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            timeout.prev = tail;
+            timeout.next = null;
+            if (tail == null) {
+                head = timeout;
+            } else {
+                tail.next = timeout;
+            }
+            tail = timeout;
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            if (timeout.prev == null) {
+                head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.bucket = null;
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+}
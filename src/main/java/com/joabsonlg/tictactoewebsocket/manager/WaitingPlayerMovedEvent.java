@@ -0,0 +1,14 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+
+/**
+ * Application event published when the {@link Rematcher} moves a waiting player to the game of another waiting
+ * player, closing the game they were waiting in.
+ *
+ * @param closedGameId the ID of the game the player was waiting in
+ * @param game         the game the player was moved to
+ * @author Joabson Arley do Nascimento
+ */
+public record WaitingPlayerMovedEvent(String closedGameId, TicTacToe game) {
+}
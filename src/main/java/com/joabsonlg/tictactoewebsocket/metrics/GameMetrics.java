@@ -0,0 +1,215 @@
+package com.joabsonlg.tictactoewebsocket.metrics;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.manager.GameMailboxes;
+import com.joabsonlg.tictactoewebsocket.manager.TicTacToeManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the game hot paths.
+ * <p>
+ * Every meter is registered up front and kept in a field or an array indexed by ordinal, so recording never looks up
+ * a meter, builds tags or allocates. Gauges are sampled from the manager and the mailboxes only when scraped.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class GameMetrics {
+
+    /**
+     * The STOMP handlers whose latency is timed.
+     */
+    public enum Handler {
+        JOIN, MOVE, LEAVE, RESYNC, SPECTATE, DISCONNECT
+    }
+
+    private final Timer[] handlerTimers = new Timer[Handler.values().length];
+    private final Counter[] finishedGames = new Counter[GameState.values().length];
+    private final Counter forfeitedGames;
+    private final Counter expiredIdleGames;
+    private final Counter expiredWaitingGames;
+    private final Counter moves;
+    private final Counter botMoves;
+    private final Counter botGames;
+    private final Counter rejectedEvents;
+    private final Counter spectatorSnapshots;
+    private final Counter coalescedSnapshots;
+    private final Timer matchmakingWait;
+    private final DistributionSummary matchRatingSpread;
+    private final DistributionSummary outboundMessageSize;
+    private final DistributionSummary outboundBatchSize;
+
+    public GameMetrics(MeterRegistry registry, TicTacToeManager manager, GameMailboxes mailboxes) {
+        for (Handler handler : Handler.values()) {
+            handlerTimers[handler.ordinal()] = Timer.builder("tictactoe.handler")
+                    .description("Time from receiving a game event to the end of its handling")
+                    .tag("event", handler.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+        for (GameState outcome : new GameState[]{GameState.PLAYER1_WON, GameState.PLAYER2_WON, GameState.TIE}) {
+            finishedGames[outcome.ordinal()] = finishedCounter(registry, outcome.name().toLowerCase(Locale.ROOT));
+        }
+        forfeitedGames = finishedCounter(registry, "forfeit");
+        expiredIdleGames = expiredCounter(registry, "idle");
+        expiredWaitingGames = expiredCounter(registry, "waiting");
+        moves = Counter.builder("tictactoe.moves")
+                .description("Moves applied")
+                .register(registry);
+        botMoves = Counter.builder("tictactoe.bot.moves")
+                .description("Moves played by bots")
+                .register(registry);
+        botGames = Counter.builder("tictactoe.bot.games")
+                .description("Games a bot was seated in after waiting too long for a player")
+                .register(registry);
+        rejectedEvents = Counter.builder("tictactoe.mailbox.rejected")
+                .description("Game events dropped because the game's mailbox was full")
+                .register(registry);
+        spectatorSnapshots = Counter.builder("tictactoe.spectator.snapshots")
+                .description("Game snapshots sent to spectators")
+                .register(registry);
+        coalescedSnapshots = Counter.builder("tictactoe.spectator.coalesced")
+                .description("Game snapshots skipped by slow spectators, replaced by a newer one")
+                .register(registry);
+        matchmakingWait = Timer.builder("tictactoe.matchmaking.wait")
+                .description("Time a game waited for its second player")
+                .publishPercentileHistogram()
+                .register(registry);
+        matchRatingSpread = DistributionSummary.builder("tictactoe.matchmaking.rating.spread")
+                .description("Rating difference between the two players paired by matchmaking, bots excluded")
+                .publishPercentileHistogram()
+                .register(registry);
+        outboundMessageSize = DistributionSummary.builder("tictactoe.messages.outbound.size")
+                .description("Payload size of the messages sent to clients")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(registry);
+        outboundBatchSize = DistributionSummary.builder("tictactoe.messages.outbound.batch")
+                .description("Frames written to a client as one WebSocket message")
+                .baseUnit("messages")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        Gauge.builder("tictactoe.games.live", manager, TicTacToeManager::getGameCount)
+                .description("Live games, including those waiting for a second player")
+                .register(registry);
+        Gauge.builder("tictactoe.players.waiting", manager, TicTacToeManager::getWaitingPlayerCount)
+                .description("Players waiting in a game for an opponent")
+                .register(registry);
+        Gauge.builder("tictactoe.mailbox.active", mailboxes, GameMailboxes::activeMailboxes)
+                .description("Games with pending events in their mailbox")
+                .register(registry);
+    }
+
+    private static Counter finishedCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("tictactoe.games.finished")
+                .description("Games played to the end, by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static Counter expiredCounter(MeterRegistry registry, String reason) {
+        return Counter.builder("tictactoe.games.expired")
+                .description("Games removed by the reaper, by reason")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    /**
+     * Records the handling time of an event.
+     *
+     * @param handler    the handler of the event
+     * @param startNanos the {@link System#nanoTime()} at which the event was received
+     */
+    public void recordHandler(Handler handler, long startNanos) {
+        handlerTimers[handler.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void moveApplied() {
+        moves.increment();
+    }
+
+    public void botMoveApplied() {
+        botMoves.increment();
+    }
+
+    public void botSeated() {
+        botGames.increment();
+    }
+
+    /**
+     * Counts a game that ended with a win or a tie.
+     *
+     * @param outcome the final state of the game
+     */
+    public void gameFinished(GameState outcome) {
+        Counter counter = finishedGames[outcome.ordinal()];
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    /**
+     * Counts a game won because the opponent disconnected.
+     */
+    public void gameForfeited() {
+        forfeitedGames.increment();
+    }
+
+    /**
+     * Counts a game removed by the reaper.
+     *
+     * @param waiting whether the game was waiting for a second player, rather than idle mid-game
+     */
+    public void gameExpired(boolean waiting) {
+        (waiting ? expiredWaitingGames : expiredIdleGames).increment();
+    }
+
+    public void eventRejected() {
+        rejectedEvents.increment();
+    }
+
+    /**
+     * Counts the snapshots of a tick of the spectator hub.
+     *
+     * @param sent      the snapshots sent to spectators
+     * @param coalesced the snapshots slow spectators skipped
+     */
+    public void spectatorsTicked(int sent, int coalesced) {
+        spectatorSnapshots.increment(sent);
+        coalescedSnapshots.increment(coalesced);
+    }
+
+    /**
+     * Records how long a game waited for its second player.
+     *
+     * @param waitingSince the {@link System#nanoTime()} at which the game started waiting
+     */
+    public void recordMatchmakingWait(long waitingSince) {
+        matchmakingWait.record(System.nanoTime() - waitingSince, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the rating difference between a joining player and the player they were paired with. Games a bot was
+     * seated in are not recorded, as bots are not rated.
+     *
+     * @param spread the absolute difference between the two players' ratings
+     */
+    public void recordMatchRatingSpread(int spread) {
+        matchRatingSpread.record(spread);
+    }
+
+    public void recordOutboundMessage(int bytes) {
+        outboundMessageSize.record(bytes);
+    }
+
+    public void recordOutboundBatch(int messages) {
+        outboundBatchSize.record(messages);
+    }
+}
@@ -0,0 +1,31 @@
+package com.joabsonlg.tictactoewebsocket.metrics;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+
+/**
+ * Records the payload size of every message sent to a client. Registered on the outbound channel after any
+ * interceptor that re-encodes payloads, so it measures what is actually written.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class MessageSizeInterceptor implements ChannelInterceptor {
+
+    private final GameMetrics gameMetrics;
+
+    public MessageSizeInterceptor(GameMetrics gameMetrics) {
+        this.gameMetrics = gameMetrics;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (message.getPayload() instanceof byte[] payload
+                && SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+            gameMetrics.recordOutboundMessage(payload.length);
+        }
+        return message;
+    }
+}
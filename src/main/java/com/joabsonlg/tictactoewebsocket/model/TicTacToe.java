@@ -1,5 +1,8 @@
 package com.joabsonlg.tictactoewebsocket.model;
 
+import com.joabsonlg.tictactoewebsocket.engine.BitBoard;
+import com.joabsonlg.tictactoewebsocket.engine.Board;
+import com.joabsonlg.tictactoewebsocket.engine.PositionTable;
 import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
 
 import java.util.Objects;
@@ -11,73 +14,148 @@ import java.util.UUID;
  * @author Joabson Arley do Nascimento
  */
 public class TicTacToe {
+
+    /**
+     * Longest player name accepted, in UTF-8 bytes, so names fit in fixed-size persisted records.
+     */
+    public static final int MAX_PLAYER_NAME_BYTES = 64;
+
     private String gameId;
-    private String[][] board;
+    private final Board board;
     private String player1;
     private String player2;
     private String winner;
     private String turn;
     private GameState gameState;
+    private long sequence;
+    private final short[] moves;
+    private long waitingSince;
+    private long lastActivity;
+    private long version = -1;
 
     public TicTacToe(String player1, String player2) {
-        this.gameId = UUID.randomUUID().toString();
+        this(player1, player2, 3, 3);
+    }
+
+    /**
+     * Creates a game on a size x size board where winLength marks in a row win.
+     *
+     * @param player1   the name of the first player
+     * @param player2   the name of the second player, or null if the seat is still open
+     * @param size      the number of rows and columns of the board
+     * @param winLength the number of marks in a row needed to win
+     */
+    public TicTacToe(String player1, String player2, int size, int winLength) {
+        this(UUID.randomUUID().toString(), player1, player2, size, winLength);
+    }
+
+    /**
+     * Creates a game with a known ID, e.g. when rebuilding it from persisted state.
+     *
+     * @param gameId    the ID of the game
+     * @param player1   the name of the first player
+     * @param player2   the name of the second player, or null if the seat is still open
+     * @param size      the number of rows and columns of the board
+     * @param winLength the number of marks in a row needed to win
+     */
+    public TicTacToe(String gameId, String player1, String player2, int size, int winLength) {
+        this.gameId = gameId;
         this.player1 = player1;
         this.player2 = player2;
         this.turn = player1;
-        this.board = new String[3][3];
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                this.board[i][j] = " ";
-            }
-        }
+        this.board = Board.create(size, winLength);
+        this.moves = new short[size * size];
         gameState = GameState.WAITING_FOR_PLAYER;
+        waitingSince = System.nanoTime();
+        lastActivity = waitingSince;
     }
 
     /**
      * Makes a move in the specified position on the board.
      *
      * @param player the name of the player making the move
-     * @param move   the position of the move
-     */
-    public void makeMove(String player, int move) {
-        int row = move / 3;
-        int col = move % 3;
-        if (Objects.equals(board[row][col], " ")) {
-            board[row][col] = Objects.equals(player, player1) ? "X" : "O";
-            turn = player.equals(player1) ? player2 : player1;
-            checkWinner();
-            updateGameState();
+     * @param move   the position of the move, as a row-major cell index
+     * @return true if the move was applied, false if the cell is taken or out of range
+     */
+    public boolean makeMove(String player, int move) {
+        int mark = Objects.equals(player, player1) ? Board.X : Board.O;
+        if (!board.place(move, mark)) {
+            return false;
         }
+        moves[board.moveCount() - 1] = (short) move;
+        sequence++;
+        lastActivity = System.nanoTime();
+        turn = Objects.equals(player, player1) ? player2 : player1;
+        checkWinner();
+        updateGameState();
+        return true;
     }
 
     /**
-     * Check if there is a winner. If a winning combination is found,
-     * the winner is set to the corresponding player.
+     * Returns the "X"/"O"/" " mark on the given cell.
+     *
+     * @param cell the row-major cell index
+     * @return the mark on the cell
      */
-    private void checkWinner() {
-        for (int i = 0; i < 3; i++) {
-            if (Objects.equals(board[i][0], board[i][1]) && Objects.equals(board[i][0], board[i][2])) {
-                if (!Objects.equals(board[i][0], " ")) {
-                    setWinner(Objects.equals(board[i][0], player1) ? player1 : player2);
-                    return;
-                }
-            }
+    public String getMark(int cell) {
+        int mark = board.markAt(cell);
+        return mark == Board.X ? "X" : mark == Board.O ? "O" : " ";
+    }
+
+    /**
+     * Returns the mark on the given cell as a board constant.
+     *
+     * @param cell the row-major cell index
+     * @return {@link Board#X}, {@link Board#O} or {@link Board#EMPTY}
+     */
+    public int markAt(int cell) {
+        return board.markAt(cell);
+    }
+
+    /**
+     * Puts a mark on the board without playing a move, e.g. when restoring a saved game. It is added to the
+     * {@link #getMoves() moves} like a played one; the turn, state and sequence number are left alone.
+     *
+     * @param cell the row-major cell index
+     * @param mark {@link Board#X} or {@link Board#O}
+     */
+    public void placeMark(int cell, int mark) {
+        if (board.place(cell, mark)) {
+            moves[board.moveCount() - 1] = (short) cell;
         }
+    }
+
+    /**
+     * Returns the board packed as a {@link PositionTable} position.
+     *
+     * @return the position, or -1 if the board is not the classic 3x3 one
+     */
+    public int getPosition() {
+        return board instanceof BitBoard bitBoard ? PositionTable.position(bitBoard.getX(), bitBoard.getO()) : -1;
+    }
 
-        for (int i = 0; i < 3; i++) {
-            if (Objects.equals(board[0][i], board[1][i]) && Objects.equals(board[0][i], board[2][i])) {
-                if (!Objects.equals(board[0][i], " ")) {
-                    setWinner(Objects.equals(board[0][i], player1) ? player1 : player2);
-                    return;
-                }
-            }
+    /**
+     * Returns the cells played on the current board, in order. Player 1 plays X and moves first,
+     * so the marks alternate starting with X.
+     *
+     * @return a new array of row-major cell indexes
+     */
+    public int[] getMoves() {
+        int[] played = new int[board.moveCount()];
+        for (int i = 0; i < played.length; i++) {
+            played[i] = moves[i];
         }
+        return played;
+    }
 
-        if (Objects.equals(board[0][0], board[1][1]) && Objects.equals(board[0][0], board[2][2])) {
-            if (!Objects.equals(board[0][0], " ")) {
-                setWinner(Objects.equals(board[0][0], player1) ? player1 : player2);
-                return;
-            }
+    /**
+     * Check if there is a winner. If a winning combination is found,
+     * the winner is set to the player owning the winning mark.
+     */
+    private void checkWinner() {
+        int mark = board.winner();
+        if (mark != Board.EMPTY) {
+            setWinner(mark == Board.X ? player1 : player2);
         }
     }
 
@@ -87,27 +165,18 @@ public class TicTacToe {
     private void updateGameState() {
         if (winner != null) {
             gameState = winner.equals(player1) ? GameState.PLAYER1_WON : GameState.PLAYER2_WON;
-        } else if (isBoardFull()) {
+        } else if (board.isFull()) {
             gameState = GameState.TIE;
         } else {
-            gameState = turn.equals(player1) ? GameState.PLAYER1_TURN : GameState.PLAYER2_TURN;
+            gameState = Objects.equals(turn, player1) ? GameState.PLAYER1_TURN : GameState.PLAYER2_TURN;
         }
     }
 
     /**
-     * Check if the board is full.
-     *
-     * @return true if the board is full, false otherwise
-     */
-    private boolean isBoardFull() {
-        for (int i = 0; i < 3; i++) {
-            for (int j = 0; j < 3; j++) {
-                if (Objects.equals(board[i][j], " ")) {
-                    return false;
-                }
-            }
-        }
-        return true;
+     * Clears every mark from the board, e.g. when a player leaves and the game starts over.
+     */
+    public void resetBoard() {
+        board.clear();
     }
 
     /**
@@ -116,7 +185,7 @@ public class TicTacToe {
      * @return true if the game is over, false otherwise
      */
     public boolean isGameOver() {
-        return winner != null || isBoardFull();
+        return winner != null || board.isFull();
     }
 
     /**
@@ -130,12 +199,69 @@ public class TicTacToe {
         this.gameId = gameId;
     }
 
+    /**
+     * Returns the board as "X"/"O"/" " marks. The array is built on every call and is only meant for serialization.
+     */
     public String[][] getBoard() {
-        return board;
+        return board.toArray();
+    }
+
+    public int getSize() {
+        return board.size();
+    }
+
+    public int getWinLength() {
+        return board.winLength();
     }
 
-    public void setBoard(String[][] board) {
-        this.board = board;
+    /**
+     * Returns the number of moves applied since the game was created. It keeps growing when the board is reset,
+     * so clients can order move deltas and detect gaps.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    /**
+     * Returns the journal position of the last persisted event of the game, or -1 if none was persisted.
+     * A snapshot of the game reflects every journal record up to this position.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} at which the game started waiting for a second player,
+     * or 0 once the wait has been accounted for.
+     */
+    public long getWaitingSince() {
+        return waitingSince;
+    }
+
+    public void setWaitingSince(long waitingSince) {
+        this.waitingSince = waitingSince;
+    }
+
+    /**
+     * Returns the {@link System#nanoTime()} of the last move or change of seats.
+     */
+    public long getLastActivity() {
+        return lastActivity;
+    }
+
+    /**
+     * Records activity on the game now, postponing its expiration.
+     */
+    public void touch() {
+        lastActivity = System.nanoTime();
     }
 
     public String getPlayer1() {
@@ -5,6 +5,8 @@ public class JoinMessage implements Message {
     private String gameId;
     private String player;
     private String content;
+    private int size;
+    private int winLength;
 
     @Override
     public String getType() {
@@ -40,4 +42,26 @@ public class JoinMessage implements Message {
     public void setPlayer(String player) {
         this.player = player;
     }
+
+    /**
+     * Returns the number of rows and columns of the board the player wants to play on, or 0 for the classic board.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Returns the number of marks in a row needed to win, or 0 for as many as the size.
+     */
+    public int getWinLength() {
+        return winLength;
+    }
+
+    public void setWinLength(int winLength) {
+        this.winLength = winLength;
+    }
 }
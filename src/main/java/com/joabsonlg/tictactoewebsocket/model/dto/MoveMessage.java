@@ -0,0 +1,97 @@
+package com.joabsonlg.tictactoewebsocket.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+
+/**
+ * Compact message describing a single move, sent instead of a full {@link TicTacToeMessage} snapshot.
+ * <p>
+ * Clients apply deltas in {@code seq} order on top of their last snapshot. The turn and the winner follow from
+ * {@code gameState} and the players of the snapshot. A client that sees a gap in {@code seq} asks for a resync.
+ */
+public class MoveMessage implements Message {
+    private String type;
+    private String gameId;
+    private long seq;
+    private int cell;
+    private String mark;
+    private GameState gameState;
+
+    public MoveMessage() {
+    }
+
+    /**
+     * Creates the delta of the move just applied to the given game.
+     *
+     * @param game the game after the move
+     * @param cell the cell the move was made on
+     */
+    public MoveMessage(TicTacToe game, int cell) {
+        this.type = "game.delta";
+        this.gameId = game.getGameId();
+        this.seq = game.getSequence();
+        this.cell = cell;
+        this.mark = game.getMark(cell);
+        this.gameState = game.getGameState();
+    }
+
+    /**
+     * Getters and Setters
+     */
+    @Override
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    @Override
+    public String getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(String gameId) {
+        this.gameId = gameId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public int getCell() {
+        return cell;
+    }
+
+    public void setCell(int cell) {
+        this.cell = cell;
+    }
+
+    public String getMark() {
+        return mark;
+    }
+
+    public void setMark(String mark) {
+        this.mark = mark;
+    }
+
+    public GameState getGameState() {
+        return gameState;
+    }
+
+    public void setGameState(GameState gameState) {
+        this.gameState = gameState;
+    }
+
+    @Override
+    @JsonIgnore
+    public String getContent() {
+        return null;
+    }
+}
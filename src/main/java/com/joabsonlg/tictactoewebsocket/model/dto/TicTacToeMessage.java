@@ -12,9 +12,11 @@ public class TicTacToeMessage implements Message {
     private String turn;
     private String content;
     private String[][] board;
+    private int winLength;
     private int move;
     private GameState gameState;
     private String sender;
+    private long seq;
 
     public TicTacToeMessage() {
     }
@@ -26,7 +28,9 @@ public class TicTacToeMessage implements Message {
         this.winner = game.getWinner();
         this.turn = game.getTurn();
         this.board = game.getBoard();
+        this.winLength = game.getWinLength();
         this.gameState = game.getGameState();
+        this.seq = game.getSequence();
     }
 
     /**
@@ -88,6 +92,17 @@ public class TicTacToeMessage implements Message {
         this.board = board;
     }
 
+    /**
+     * Returns the number of marks in a row needed to win; the size of the board is the length of {@link #getBoard()}.
+     */
+    public int getWinLength() {
+        return winLength;
+    }
+
+    public void setWinLength(int winLength) {
+        this.winLength = winLength;
+    }
+
     public int getMove() {
         return move;
     }
@@ -119,4 +134,12 @@ public class TicTacToeMessage implements Message {
     public void setSender(String sender) {
         this.sender = sender;
     }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
 }
@@ -0,0 +1,54 @@
+package com.joabsonlg.tictactoewebsocket.persistence;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+
+/**
+ * A finished game as stored in the {@link GameArchive}.
+ *
+ * @param gameId     the ID of the game
+ * @param player1    the first player, who played X and moved first
+ * @param player2    the second player, who played O
+ * @param winner     the winner, or null on a tie
+ * @param state      the final state of the game
+ * @param size       the number of rows and columns of the board
+ * @param winLength  the number of marks in a row needed to win
+ * @param finishedAt the wall-clock time the game ended, in epoch milliseconds
+ * @param moves      the row-major cells played, in order
+ * @author Joabson Arley do Nascimento
+ */
+public record ArchivedGame(String gameId, String player1, String player2, String winner, GameState state, int size,
+                           int winLength, long finishedAt, int[] moves) {
+
+    /**
+     * Captures a game that just ended. Must be called under the game's lock.
+     *
+     * @param game the finished game
+     * @return the archived copy of the game
+     */
+    public static ArchivedGame of(TicTacToe game) {
+        return new ArchivedGame(game.getGameId(), game.getPlayer1(), game.getPlayer2(), game.getWinner(),
+                game.getGameState(), game.getSize(), game.getWinLength(), System.currentTimeMillis(),
+                game.getMoves());
+    }
+
+    /**
+     * Returns the player who made a move; the players alternate, starting with player 1.
+     *
+     * @param index the index of the move, from 0
+     * @return the player
+     */
+    public String playerOf(int index) {
+        return index % 2 == 0 ? player1 : player2;
+    }
+
+    /**
+     * Returns the mark placed by a move.
+     *
+     * @param index the index of the move, from 0
+     * @return "X" or "O"
+     */
+    public String markOf(int index) {
+        return index % 2 == 0 ? "X" : "O";
+    }
+}
@@ -0,0 +1,409 @@
+package com.joabsonlg.tictactoewebsocket.persistence;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.manager.GameEventListener;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * On-disk store of the finished games, for replays and audits of any number of games without holding them in memory.
+ * <p>
+ * Games are appended to a data file as variable-length entries: an int length, the game (ID, end time, players,
+ * winner, state, board size, win length and the cells played, in order), the offsets of the previous entries of each
+ * of its two players, and a CRC32C. A game is found by ID through a {@link MappedHashIndex} from the ID to the offset
+ * of its entry. A second index maps each player to their latest entry, and the previous-entry offsets chain a
+ * player's games from the newest to the oldest, so a page of history costs one read per game, wherever the games are
+ * in the file.
+ * <p>
+ * Games are captured when the manager reports them finished, under their lock, and written by a single background
+ * thread, so the game threads never wait for the disk. The indexes are marked dirty while the archive is open; if
+ * the process stops without closing the archive, or the indexes do not match the data file, they are rebuilt on the
+ * next start by scanning the data file, which is truncated after its last complete entry.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class GameArchive implements GameEventListener, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameArchive.class);
+
+    private static final int FORMAT = 1;
+    private static final int MAX_ENTRY_SIZE = 1 << 20;
+    private static final int DEFAULT_INDEX_CAPACITY = 1 << 16;
+
+    private final Path dataFile;
+    private final FileChannel data;
+    private final MappedHashIndex games;
+    private final MappedHashIndex players;
+    private final int indexCapacity;
+    private final ExecutorService writer;
+
+    /**
+     * Length of the complete entries of the data file. Only written by the writer thread.
+     */
+    private volatile long end;
+
+    // Owned by the writer thread.
+    private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(256);
+    private final DataOutputStream scratchOut = new DataOutputStream(scratch);
+
+    /**
+     * An entry read from the data file.
+     */
+    private record Entry(ArchivedGame game, long length, long previous1, long previous2) {
+
+        long previousOf(String player) {
+            return player.equals(game.player1()) ? previous1 : player.equals(game.player2()) ? previous2 : -2;
+        }
+    }
+
+    /**
+     * Opens the archive in the given directory, creating it if needed.
+     *
+     * @param directory the directory of the data and index files
+     * @throws IOException if the files cannot be opened
+     */
+    public GameArchive(Path directory) throws IOException {
+        this(directory, DEFAULT_INDEX_CAPACITY);
+    }
+
+    GameArchive(Path directory, int indexCapacity) throws IOException {
+        Files.createDirectories(directory);
+        this.dataFile = directory.resolve("games.dat");
+        this.indexCapacity = indexCapacity;
+        this.data = FileChannel.open(dataFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.games = MappedHashIndex.open(directory.resolve("games.idx"), indexCapacity);
+        this.players = MappedHashIndex.open(directory.resolve("players.idx"), indexCapacity);
+        this.end = data.size();
+        if (!games.isClean() || !players.isClean() || games.getWatermark() != end
+                || players.getWatermark() != end) {
+            rebuild();
+        }
+        games.markDirty();
+        players.markDirty();
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-archive");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void gameFinished(TicTacToe game) {
+        ArchivedGame archived = ArchivedGame.of(game);
+        try {
+            writer.execute(() -> append(archived));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Archive closed, game {} was not archived", archived.gameId());
+        }
+    }
+
+    /**
+     * Finds a finished game.
+     *
+     * @param gameId the ID of the game
+     * @return the game, or null if it is not in the archive
+     * @throws IOException if the data file cannot be read
+     */
+    public ArchivedGame find(String gameId) throws IOException {
+        long offset = games.get(gameKey1(gameId), gameKey2(gameId));
+        if (offset < 0) {
+            return null;
+        }
+        Entry entry = read(offset, end);
+        return entry != null && entry.game.gameId().equals(gameId) ? entry.game : null;
+    }
+
+    /**
+     * Reads a page of the games of a player, from the newest to the oldest. Games are read from disk one at a time
+     * as they are passed to the consumer.
+     *
+     * @param player the name of the player
+     * @param cursor -1 to start from the newest game, or the cursor returned for the previous page
+     * @param limit  the maximum number of games to read
+     * @param action called with each game
+     * @return the cursor of the next page, or -1 if there are no older games
+     * @throws IOException              if the data file cannot be read
+     * @throws IllegalArgumentException if the cursor is not one of the player's games
+     */
+    public long history(String player, long cursor, int limit, Consumer<ArchivedGame> action) throws IOException {
+        long offset = cursor < 0 ? players.get(nameKey1(player), nameKey2(player)) : cursor;
+        if (cursor >= 0 && !isHistoryCursor(player, cursor)) {
+            throw new IllegalArgumentException("Not a history cursor of " + player + ": " + cursor);
+        }
+        for (int count = 0; offset >= 0 && count < limit; count++) {
+            Entry entry = read(offset, end);
+            long previous = entry != null ? entry.previousOf(player) : -2;
+            if (previous == -2) {
+                // A hash collision of two names, or an entry lost with a truncated tail.
+                return -1;
+            }
+            action.accept(entry.game);
+            offset = previous;
+        }
+        return offset;
+    }
+
+    /**
+     * Checks that a cursor points at one of the player's games.
+     *
+     * @param player the name of the player
+     * @param cursor a cursor returned by {@link #history}
+     * @return true if the cursor can be used to read the player's history
+     * @throws IOException if the data file cannot be read
+     */
+    public boolean isHistoryCursor(String player, long cursor) throws IOException {
+        Entry entry = read(cursor, end);
+        return entry != null && entry.previousOf(player) != -2;
+    }
+
+    /**
+     * @return the number of games in the archive
+     */
+    public long getGameCount() {
+        return games.size();
+    }
+
+    /**
+     * Waits until the games finished so far are written.
+     */
+    public void flush() {
+        try {
+            writer.submit(() -> {
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            logger.warn("Could not flush the game archive", e);
+        }
+    }
+
+    /**
+     * Writes the pending games, syncs the files and marks the indexes clean.
+     */
+    @Override
+    public void close() throws IOException {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Game archive writer did not stop, the indexes will be rebuilt on the next start");
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        data.force(true);
+        games.close();
+        players.close();
+        data.close();
+    }
+
+    /**
+     * Runs on the writer thread.
+     */
+    private void append(ArchivedGame game) {
+        try {
+            long previous1 = players.get(nameKey1(game.player1()), nameKey2(game.player1()));
+            long previous2 = game.player2() == null ? -1 : Objects.equals(game.player1(), game.player2())
+                    ? previous1 : players.get(nameKey1(game.player2()), nameKey2(game.player2()));
+            ByteBuffer entry = encode(game, previous1, previous2);
+            long offset = end;
+            while (entry.hasRemaining()) {
+                data.write(entry, offset + entry.position());
+            }
+            // Published before the indexes, so a reader finding the entry through them also sees it within the end.
+            end = offset + entry.limit();
+            index(game, offset);
+            games.setWatermark(end);
+            players.setWatermark(end);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not archive game {}", game.gameId(), e);
+        }
+    }
+
+    private void index(ArchivedGame game, long offset) throws IOException {
+        games.put(gameKey1(game.gameId()), gameKey2(game.gameId()), offset);
+        players.put(nameKey1(game.player1()), nameKey2(game.player1()), offset);
+        if (game.player2() != null) {
+            players.put(nameKey1(game.player2()), nameKey2(game.player2()), offset);
+        }
+    }
+
+    private ByteBuffer encode(ArchivedGame game, long previous1, long previous2) throws IOException {
+        scratch.reset();
+        DataOutputStream out = scratchOut;
+        out.writeInt(0);
+        out.writeByte(FORMAT);
+        out.writeUTF(game.gameId());
+        out.writeLong(game.finishedAt());
+        out.writeUTF(game.player1());
+        out.writeUTF(game.player2() != null ? game.player2() : "");
+        out.writeByte(game.winner() == null ? 0 : game.winner().equals(game.player1()) ? 1 : 2);
+        out.writeByte(game.state().ordinal());
+        out.writeByte(game.size());
+        out.writeByte(game.winLength());
+        out.writeShort(game.moves().length);
+        for (int cell : game.moves()) {
+            out.writeShort(cell);
+        }
+        out.writeLong(previous1);
+        out.writeLong(previous2);
+        out.writeInt(0);
+        ByteBuffer entry = ByteBuffer.wrap(scratch.toByteArray());
+        int length = entry.limit() - 8;
+        CRC32C checksum = new CRC32C();
+        checksum.update(entry.array(), 4, length);
+        entry.putInt(0, length);
+        entry.putInt(4 + length, (int) checksum.getValue());
+        return entry;
+    }
+
+    /**
+     * Reads the entry at an offset.
+     *
+     * @return the entry, or null if there is no valid entry at the offset
+     */
+    private Entry read(long offset, long limit) throws IOException {
+        if (offset < 0 || offset + 8 > limit) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.allocate(4);
+        if (!readFully(header, offset)) {
+            return null;
+        }
+        int length = header.getInt(0);
+        if (length <= 0 || length > MAX_ENTRY_SIZE || offset + 8 + length > limit) {
+            return null;
+        }
+        ByteBuffer body = ByteBuffer.allocate(length + 4);
+        if (!readFully(body, offset + 4)) {
+            return null;
+        }
+        CRC32C checksum = new CRC32C();
+        checksum.update(body.array(), 0, length);
+        if (body.getInt(length) != (int) checksum.getValue()) {
+            return null;
+        }
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(body.array(), 0, length));
+        if (in.readUnsignedByte() != FORMAT) {
+            return null;
+        }
+        String gameId = in.readUTF();
+        long finishedAt = in.readLong();
+        String player1 = in.readUTF();
+        String player2 = in.readUTF();
+        if (player2.isEmpty()) {
+            player2 = null;
+        }
+        int winner = in.readUnsignedByte();
+        int state = in.readUnsignedByte();
+        int size = in.readUnsignedByte();
+        int winLength = in.readUnsignedByte();
+        int[] moves = new int[in.readUnsignedShort()];
+        for (int i = 0; i < moves.length; i++) {
+            moves[i] = in.readUnsignedShort();
+        }
+        long previous1 = in.readLong();
+        long previous2 = in.readLong();
+        if (state >= GameState.values().length) {
+            return null;
+        }
+        ArchivedGame game = new ArchivedGame(gameId, player1, player2,
+                winner == 1 ? player1 : winner == 2 ? player2 : null, GameState.values()[state], size, winLength,
+                finishedAt, moves);
+        return new Entry(game, length + 8L, previous1, previous2);
+    }
+
+    private boolean readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (data.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds both indexes from the data file, and drops whatever follows its last complete entry.
+     */
+    private void rebuild() throws IOException {
+        long start = System.nanoTime();
+        games.clear(indexCapacity);
+        players.clear(indexCapacity);
+        long size = data.size();
+        long offset = 0;
+        long count = 0;
+        Entry entry;
+        while ((entry = read(offset, size)) != null) {
+            index(entry.game, offset);
+            offset += entry.length;
+            count++;
+        }
+        if (offset < size) {
+            logger.warn("Truncating {} bytes after the last complete entry of {}", size - offset, dataFile);
+            data.truncate(offset);
+        }
+        end = offset;
+        games.setWatermark(offset);
+        players.setWatermark(offset);
+        games.force();
+        players.force();
+        logger.info("Rebuilt the archive indexes of {} games in {} ms", count,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static long gameKey1(String gameId) {
+        UUID uuid = GameSnapshotter.parseUuid(gameId);
+        return uuid != null ? uuid.getMostSignificantBits() : nameKey1(gameId);
+    }
+
+    private static long gameKey2(String gameId) {
+        UUID uuid = GameSnapshotter.parseUuid(gameId);
+        return uuid != null ? uuid.getLeastSignificantBits() : nameKey2(gameId);
+    }
+
+    private static long nameKey1(String name) {
+        return hash(name, 0xCBF29CE484222325L);
+    }
+
+    private static long nameKey2(String name) {
+        return hash(name, 0x84222325CBF29CE4L);
+    }
+
+    /**
+     * FNV-1a over the chars of the string, with a final avalanche, from the given seed.
+     */
+    private static long hash(String value, long seed) {
+        long hash = seed;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001B3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
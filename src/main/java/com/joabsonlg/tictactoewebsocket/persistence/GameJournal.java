@@ -0,0 +1,373 @@
+package com.joabsonlg.tictactoewebsocket.persistence;
+
+import com.joabsonlg.tictactoewebsocket.manager.GameEventListener;
+import com.joabsonlg.tictactoewebsocket.manager.TicTacToeManager;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of the game events, used to rebuild the live games after a restart.
+ * <p>
+ * Every change the manager makes to a game is appended as a fixed-size {@link JournalRecord} to memory-mapped segment
+ * files. Appending claims the next slot with an atomic increment and writes the record straight into the mapping,
+ * so the game threads never wait for each other or for the disk, and a move is recorded without allocating.
+ * Since records are claimed under the game's lock, the records of a game are in the order of its events.
+ * <p>
+ * Written records survive a crash of the process as soon as they are written, since they are in the page cache.
+ * To survive a crash of the machine, a flusher thread forces the new records to disk every flush interval, so all the
+ * records written during an interval are committed by a single sync.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class GameJournal implements GameEventListener, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameJournal.class);
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int recordsPerSegment;
+    private final long flushIntervalNanos;
+
+    /**
+     * Mapped segments that may still be written or forced, with the segment index as the key.
+     */
+    private final Map<Long, MappedByteBuffer> segments = new ConcurrentHashMap<>();
+
+    /**
+     * Position of the next record.
+     */
+    private final AtomicLong nextPosition;
+
+    /**
+     * Latest segment mapped, to skip the map lookup on the common path.
+     */
+    private volatile Segment current;
+
+    private volatile Thread flusher;
+    private volatile boolean closed;
+
+    /**
+     * Opens the journal in the given directory, creating it if needed. New records are appended after the last
+     * complete record found.
+     *
+     * @param directory          the directory of the segment files
+     * @param segmentBytes       the size of a new segment file, rounded down to whole records; existing segments
+     *                           keep the size they were created with
+     * @param flushIntervalNanos the interval between two syncs of the new records to disk
+     * @throws IOException if the directory cannot be created or read
+     */
+    public GameJournal(Path directory, long segmentBytes, long flushIntervalNanos) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        List<Path> existing = segmentFiles();
+        long bytes = existing.isEmpty() ? segmentBytes : Files.size(existing.get(0));
+        if (bytes != segmentBytes && !existing.isEmpty()) {
+            logger.warn("Journal segments in {} are {} bytes, keeping that size instead of {}",
+                    directory, bytes, segmentBytes);
+        }
+        this.recordsPerSegment = (int) Math.min(Integer.MAX_VALUE / JournalRecord.SIZE, bytes / JournalRecord.SIZE);
+        if (recordsPerSegment <= 0) {
+            throw new IllegalArgumentException("Journal segments must hold at least one record: " + bytes);
+        }
+        this.flushIntervalNanos = flushIntervalNanos;
+        // Empty segments left after older ones were deleted still tell where the journal stands.
+        long[] end = {existing.isEmpty() ? 0 : segmentIndex(existing.get(0)) * recordsPerSegment};
+        read(0, record -> end[0] = Math.max(end[0], record.position() + 1));
+        this.nextPosition = new AtomicLong(end[0]);
+    }
+
+    /**
+     * Rebuilds the live games from the journal and puts them back in the manager.
+     * Must be called before the journal is registered as a listener of the manager.
+     *
+     * @param manager the manager to restore the games into
+     * @return the number of games restored
+     * @throws IOException if a segment cannot be read
+     */
+    public int restore(TicTacToeManager manager) throws IOException {
+        return restore(manager, null);
+    }
+
+    /**
+     * Rebuilds the live games from a snapshot and the journal records written since it started, and puts them back
+     * in the manager. Must be called before the journal is registered as a listener of the manager.
+     *
+     * @param manager  the manager to restore the games into
+     * @param snapshot the latest snapshot, or null to replay the whole journal
+     * @return the number of games restored
+     * @throws IOException if a segment cannot be read
+     */
+    public int restore(TicTacToeManager manager, GameSnapshotter.Snapshot snapshot) throws IOException {
+        long start = System.nanoTime();
+        JournalReplay replay = snapshot != null ? new JournalReplay(snapshot.games()) : new JournalReplay();
+        read(snapshot != null ? snapshot.position() : 0, replay::apply);
+        for (TicTacToe game : replay.getGames()) {
+            manager.restoreGame(game);
+        }
+        logger.info("Restored {} games from {} journal records in {} ms ({} records skipped)",
+                replay.getGames().size(), replay.getApplied(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), replay.getSkipped());
+        return replay.getGames().size();
+    }
+
+    /**
+     * Reads the complete records from the given position on, in order.
+     *
+     * @param from     the position of the first record to read
+     * @param consumer called with each record
+     * @throws IOException if a segment cannot be read
+     */
+    public void read(long from, Consumer<JournalRecord> consumer) throws IOException {
+        for (Path file : segmentFiles()) {
+            long index = segmentIndex(file);
+            long first = index * recordsPerSegment;
+            if (first + recordsPerSegment <= from) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                int records = (int) Math.min(recordsPerSegment, channel.size() / JournalRecord.SIZE);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                        (long) records * JournalRecord.SIZE);
+                for (int slot = (int) Math.max(0, from - first); slot < records; slot++) {
+                    JournalRecord record = JournalRecord.read(buffer, slot * JournalRecord.SIZE, first + slot);
+                    if (record != null) {
+                        consumer.accept(record);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts the flusher thread committing new records to disk.
+     */
+    public synchronized void start() {
+        if (flusher != null || closed) {
+            return;
+        }
+        Thread thread = new Thread(this::flushLoop, "journal-flusher");
+        thread.setDaemon(true);
+        flusher = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the flusher and forces every record written so far to disk. Later events are not recorded.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        Thread thread = flusher;
+        flusher = null;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) + 1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        force(0, nextPosition.get());
+        segments.clear();
+        current = null;
+    }
+
+    /**
+     * Deletes the segments whose records are all before the given position, once a snapshot made them unnecessary.
+     *
+     * @param position the position of the first record that must be kept
+     * @return the number of segment files deleted
+     * @throws IOException if a segment cannot be deleted
+     */
+    public int deleteBefore(long position) throws IOException {
+        // Keep the segment of the position even if it is still empty, so a restart knows where to continue.
+        map(position / recordsPerSegment);
+        int deleted = 0;
+        for (Path file : segmentFiles()) {
+            long index = segmentIndex(file);
+            if ((index + 1) * recordsPerSegment <= position) {
+                segments.remove(index);
+                Files.delete(file);
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * @return the position the next record will be written at
+     */
+    public long getPosition() {
+        return nextPosition.get();
+    }
+
+    @Override
+    public void gameCreated(TicTacToe game) {
+        append(game, JournalRecord.Type.CREATED, game.getPlayer1(), game.getSize(), game.getWinLength());
+    }
+
+    @Override
+    public void playerJoined(TicTacToe game, String player) {
+        append(game, JournalRecord.Type.JOINED, player, 0, 0);
+    }
+
+    @Override
+    public void moveMade(TicTacToe game, String player, int cell) {
+        append(game, JournalRecord.Type.MOVE, null, cell, player.equals(game.getPlayer1()) ? 1 : 2);
+    }
+
+    @Override
+    public void playerLeft(TicTacToe game, String player) {
+        append(game, JournalRecord.Type.LEFT, player, 0, 0);
+    }
+
+    @Override
+    public void gameFinished(TicTacToe game) {
+        append(game, JournalRecord.Type.FINISHED, game.getWinner(), game.getGameState().ordinal(), 0);
+    }
+
+    @Override
+    public void gameRemoved(String gameId) {
+        append(JournalRecord.Type.REMOVED, gameId, null, 0, 0);
+    }
+
+    /**
+     * Appends a record of the game and makes its position the game's version.
+     */
+    private void append(TicTacToe game, JournalRecord.Type type, String player, int arg0, int arg1) {
+        long position = append(type, game.getGameId(), player, arg0, arg1);
+        if (position >= 0) {
+            game.setVersion(position);
+        }
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @return the position of the record, or -1 if it could not be written
+     */
+    private long append(JournalRecord.Type type, String gameId, String player, int arg0, int arg1) {
+        if (closed) {
+            return -1;
+        }
+        long position = nextPosition.getAndIncrement();
+        try {
+            MappedByteBuffer buffer = segment(position / recordsPerSegment);
+            int offset = (int) (position % recordsPerSegment) * JournalRecord.SIZE;
+            JournalRecord.write(buffer, offset, type, gameId, player, arg0, arg1, System.currentTimeMillis());
+            return position;
+        } catch (UncheckedIOException | IllegalArgumentException e) {
+            // The game goes on; it will just not be restored exactly after a restart.
+            logger.error("Could not journal {} of game {}", type, gameId, e);
+            return -1;
+        }
+    }
+
+    private MappedByteBuffer segment(long index) {
+        Segment segment = current;
+        if (segment != null && segment.index == index) {
+            return segment.buffer;
+        }
+        MappedByteBuffer buffer = segments.get(index);
+        return buffer != null ? buffer : map(index);
+    }
+
+    private synchronized MappedByteBuffer map(long index) {
+        MappedByteBuffer buffer = segments.get(index);
+        if (buffer == null) {
+            Path file = directory.resolve(String.format("%016d%s", index, SEGMENT_SUFFIX));
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * JournalRecord.SIZE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            segments.put(index, buffer);
+        }
+        Segment segment = current;
+        if (segment == null || segment.index < index) {
+            current = new Segment(index, buffer);
+        }
+        return buffer;
+    }
+
+    private void flushLoop() {
+        // Records are claimed before they are written, so each sync also covers the range of the previous one
+        // to catch records that were still being written then.
+        long previousEnd = nextPosition.get();
+        long end = previousEnd;
+        while (flusher == Thread.currentThread()) {
+            LockSupport.parkNanos(this, flushIntervalNanos);
+            long newEnd = nextPosition.get();
+            try {
+                if (previousEnd != newEnd) {
+                    force(previousEnd, newEnd);
+                }
+                long index = newEnd / recordsPerSegment;
+                if (newEnd % recordsPerSegment > recordsPerSegment * 3L / 4) {
+                    // Map the next segment ahead of time so appends do not wait for it.
+                    map(index + 1);
+                }
+                long forcedSegments = previousEnd / recordsPerSegment;
+                segments.keySet().removeIf(segmentIndex -> segmentIndex < forcedSegments);
+            } catch (RuntimeException e) {
+                logger.error("Could not flush the journal", e);
+            }
+            previousEnd = end;
+            end = newEnd;
+        }
+    }
+
+    /**
+     * Forces the records in the given range of positions to disk.
+     */
+    private void force(long from, long to) {
+        for (long index = from / recordsPerSegment; index * recordsPerSegment < to; index++) {
+            MappedByteBuffer buffer = segments.get(index);
+            if (buffer == null) {
+                continue;
+            }
+            long first = index * recordsPerSegment;
+            int start = (int) (Math.max(from, first) - first);
+            int end = (int) (Math.min(to, first + recordsPerSegment) - first);
+            buffer.force(start * JournalRecord.SIZE, (end - start) * JournalRecord.SIZE);
+        }
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segmentFiles = new ArrayList<>(files
+                    .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .toList());
+            segmentFiles.sort(null);
+            return segmentFiles;
+        }
+    }
+
+    private static long segmentIndex(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private record Segment(long index, MappedByteBuffer buffer) {
+    }
+}
@@ -0,0 +1,326 @@
+package com.joabsonlg.tictactoewebsocket.persistence;
+
+import com.joabsonlg.tictactoewebsocket.engine.Board;
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.manager.TicTacToeManager;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Periodically saves every live game to a compact binary snapshot, so a restart only replays the journal records
+ * written since the last snapshot, and the older journal segments can be deleted.
+ * <p>
+ * A snapshot is tagged with the journal position at which it started. Games are copied one at a time, each under its
+ * own lock for as long as it takes to encode it, so moves and joins never wait for the snapshot as a whole. A game
+ * copied late may already include events journaled after the start; its {@link TicTacToe#getVersion() version} tells
+ * the replay which records to skip. The snapshot is written to a temporary file, synced and atomically renamed over
+ * the previous one, so a crash leaves either the old or the new snapshot.
+ * <p>
+ * File layout, big-endian: a {@value #MAGIC} header, the format version and the journal position; then each game
+ * (ID, version, sequence number, board size and win length, players, turn, state and the cells played, in order, as
+ * one byte each on boards of up to 256 cells); then a zero byte, the number of games and a CRC32C of everything
+ * before it. Version 1 files, which stored the board packed at 2 bits per cell without the order of the moves,
+ * are still read.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class GameSnapshotter implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(GameSnapshotter.class);
+
+    static final int MAGIC = 0x54545453;
+    private static final int FORMAT_VERSION = 2;
+
+    private static final int GAME_UUID = 1;
+    private static final int GAME_STRING = 2;
+    private static final int END = 0;
+
+    private final Path file;
+    private final TicTacToeManager manager;
+    private final GameJournal journal;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * The games saved in a snapshot and the journal position from which newer records must be replayed.
+     *
+     * @param position the journal position at which the snapshot started
+     * @param games    the games, with their versions
+     */
+    public record Snapshot(long position, List<TicTacToe> games) {
+    }
+
+    /**
+     * Constructs a new GameSnapshotter.
+     *
+     * @param file    the snapshot file
+     * @param manager the manager whose games are saved
+     * @param journal the journal the snapshots are positioned in
+     */
+    public GameSnapshotter(Path file, TicTacToeManager manager, GameJournal journal) {
+        this.file = file;
+        this.manager = manager;
+        this.journal = journal;
+    }
+
+    /**
+     * Starts taking a snapshot at a fixed interval.
+     *
+     * @param interval     the interval between two snapshots
+     * @param intervalUnit the unit of the interval
+     */
+    public synchronized void start(long interval, TimeUnit intervalUnit) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-snapshotter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException e) {
+                logger.error("Could not write the game snapshot {}", file, e);
+            }
+        }, interval, interval, intervalUnit);
+    }
+
+    /**
+     * Stops the periodic snapshots and takes a last one, so the next start has nothing to replay.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        try {
+            snapshot();
+        } catch (IOException e) {
+            logger.error("Could not write the game snapshot {}", file, e);
+        }
+    }
+
+    /**
+     * Saves every live game, replaces the previous snapshot and deletes the journal segments it made unnecessary.
+     *
+     * @return the number of games saved
+     * @throws IOException if the snapshot cannot be written
+     */
+    public synchronized int snapshot() throws IOException {
+        long start = System.nanoTime();
+        long position = journal.getPosition();
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        CRC32C checksum = new CRC32C();
+        int[] count = {0};
+        try (OutputStream fileOut = Files.newOutputStream(temporary);
+             DataOutputStream out = new DataOutputStream(
+                     new CheckedOutputStream(new BufferedOutputStream(fileOut, 1 << 16), checksum))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(position);
+            ByteArrayOutputStream scratch = new ByteArrayOutputStream(256);
+            DataOutputStream gameOut = new DataOutputStream(scratch);
+            manager.forEachGame(game -> {
+                scratch.reset();
+                boolean live = manager.withGameLock(game.getGameId(), () -> {
+                    if (manager.getGame(game.getGameId()) != game) {
+                        return false;
+                    }
+                    try {
+                        writeGame(gameOut, game);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return true;
+                });
+                if (live) {
+                    try {
+                        scratch.writeTo(out);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    count[0]++;
+                }
+            });
+            out.writeByte(END);
+            out.writeInt(count[0]);
+            out.flush();
+            new DataOutputStream(fileOut).writeLong(checksum.getValue());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        int deleted = journal.deleteBefore(position);
+        logger.info("Saved {} games to {} in {} ms, deleted {} journal segments", count[0], file,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), deleted);
+        return count[0];
+    }
+
+    /**
+     * Reads a snapshot file.
+     *
+     * @param file the snapshot file
+     * @return the snapshot, or null if there is no snapshot yet
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    public static Snapshot load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        CRC32C checksum = new CRC32C();
+        try (InputStream fileIn = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+             DataInputStream in = new DataInputStream(new CheckedInputStream(fileIn, checksum))) {
+            int format;
+            if (in.readInt() != MAGIC || (format = in.readInt()) < 1 || format > FORMAT_VERSION) {
+                throw new IOException("Not a game snapshot: " + file);
+            }
+            long position = in.readLong();
+            List<TicTacToe> games = new ArrayList<>();
+            int kind;
+            while ((kind = in.readUnsignedByte()) != END) {
+                games.add(readGame(in, kind, format));
+            }
+            int count = in.readInt();
+            long expected = checksum.getValue();
+            if (count != games.size() || new DataInputStream(fileIn).readLong() != expected) {
+                throw new IOException("Corrupt game snapshot: " + file);
+            }
+            return new Snapshot(position, games);
+        }
+    }
+
+    private static void writeGame(DataOutputStream out, TicTacToe game) throws IOException {
+        UUID uuid = parseUuid(game.getGameId());
+        if (uuid != null) {
+            out.writeByte(GAME_UUID);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+        } else {
+            out.writeByte(GAME_STRING);
+            out.writeUTF(game.getGameId());
+        }
+        out.writeLong(game.getVersion());
+        out.writeLong(game.getSequence());
+        out.writeByte(game.getSize());
+        out.writeByte(game.getWinLength());
+        out.writeUTF(game.getPlayer1());
+        out.writeBoolean(game.getPlayer2() != null);
+        if (game.getPlayer2() != null) {
+            out.writeUTF(game.getPlayer2());
+        }
+        out.writeByte(seatOf(game, game.getTurn()));
+        out.writeByte(seatOf(game, game.getWinner()));
+        out.writeByte(game.getGameState().ordinal());
+        int[] moves = game.getMoves();
+        boolean wide = game.getSize() * game.getSize() > 256;
+        out.writeShort(moves.length);
+        for (int cell : moves) {
+            if (wide) {
+                out.writeShort(cell);
+            } else {
+                out.writeByte(cell);
+            }
+        }
+    }
+
+    private static TicTacToe readGame(DataInputStream in, int kind, int format) throws IOException {
+        String gameId = switch (kind) {
+            case GAME_UUID -> new UUID(in.readLong(), in.readLong()).toString();
+            case GAME_STRING -> in.readUTF();
+            default -> throw new IOException("Corrupt game snapshot, unknown game kind " + kind);
+        };
+        long version = in.readLong();
+        long sequence = in.readLong();
+        int size = in.readUnsignedByte();
+        int winLength = in.readUnsignedByte();
+        String player1 = in.readUTF();
+        String player2 = in.readBoolean() ? in.readUTF() : null;
+        TicTacToe game = new TicTacToe(gameId, player1, player2, size, winLength);
+        game.setTurn(playerAt(game, in.readUnsignedByte()));
+        game.setWinner(playerAt(game, in.readUnsignedByte()));
+        int state = in.readUnsignedByte();
+        if (state >= GameState.values().length) {
+            throw new IOException("Corrupt game snapshot, unknown state " + state);
+        }
+        game.setGameState(GameState.values()[state]);
+        int cells = size * size;
+        if (format == 1) {
+            for (int cell = 0; cell < cells; cell += 4) {
+                int packed = in.readUnsignedByte();
+                for (int i = 0; i < 4 && cell + i < cells; i++) {
+                    int mark = packed >> i * 2 & 3;
+                    if (mark != 0) {
+                        game.placeMark(cell + i, mark);
+                    }
+                }
+            }
+        } else {
+            int moveCount = in.readUnsignedShort();
+            for (int i = 0; i < moveCount; i++) {
+                int cell = cells > 256 ? in.readUnsignedShort() : in.readUnsignedByte();
+                game.placeMark(cell, i % 2 == 0 ? Board.X : Board.O);
+            }
+        }
+        game.setSequence(sequence);
+        game.setVersion(version);
+        game.setWaitingSince(0);
+        return game;
+    }
+
+    private static int seatOf(TicTacToe game, String player) {
+        if (player == null) {
+            return 0;
+        }
+        return player.equals(game.getPlayer1()) ? 1 : 2;
+    }
+
+    private static String playerAt(TicTacToe game, int seat) {
+        return seat == 1 ? game.getPlayer1() : seat == 2 ? game.getPlayer2() : null;
+    }
+
+    static UUID parseUuid(String gameId) {
+        if (gameId.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(gameId);
+            return uuid.toString().equals(gameId) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
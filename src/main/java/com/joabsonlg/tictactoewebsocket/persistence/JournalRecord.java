@@ -0,0 +1,137 @@
+package com.joabsonlg.tictactoewebsocket.persistence;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One event of the {@link GameJournal}, and the layout of its fixed-size on-disk record.
+ * <p>
+ * Records are {@value #SIZE} bytes, big-endian, so a record never straddles a segment or a page:
+ * <pre>
+ *   0  int   header: {@value #MAGIC} in the high bytes, the {@link Type} in the low byte
+ *   4  int   arg0
+ *   8  int   arg1
+ *  12  byte  length of the game ID
+ *  13  byte  length of the player name
+ *  16  36    game ID, ASCII
+ *  52  64    player name, UTF-8
+ * 120  long  wall-clock time of the event, in epoch milliseconds
+ * </pre>
+ * The header is written last with release semantics, so a record whose header is not valid was never completely
+ * written and is skipped on replay.
+ *
+ * @param position  the index of the record in the journal
+ * @param type      the kind of event
+ * @param gameId    the ID of the game
+ * @param player    the player the event is about, or null
+ * @param arg0      {@link Type#CREATED}: board size; {@link Type#MOVE}: cell; {@link Type#FINISHED}: game state ordinal
+ * @param arg1      {@link Type#CREATED}: win length; {@link Type#MOVE}: seat of the player, 1 or 2
+ * @param timestamp the wall-clock time of the event, in epoch milliseconds
+ * @author Joabson Arley do Nascimento
+ */
+public record JournalRecord(long position, Type type, String gameId, String player, int arg0, int arg1,
+                            long timestamp) {
+
+    public static final int SIZE = 128;
+
+    static final int MAGIC = 0x545454;
+    static final int MAX_GAME_ID_BYTES = 36;
+    static final int MAX_PLAYER_BYTES = 64;
+
+    private static final int ARG0 = 4;
+    private static final int ARG1 = 8;
+    private static final int GAME_ID_LENGTH = 12;
+    private static final int PLAYER_LENGTH = 13;
+    private static final int GAME_ID = 16;
+    private static final int PLAYER = 52;
+    private static final int TIMESTAMP = 120;
+
+    private static final VarHandle HEADER = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    /**
+     * Kinds of journaled events. The codes are persisted and must not change.
+     */
+    public enum Type {
+        CREATED(1), JOINED(2), MOVE(3), LEFT(4), FINISHED(5), REMOVED(6);
+
+        private static final Type[] BY_CODE = new Type[7];
+
+        static {
+            for (Type type : values()) {
+                BY_CODE[type.code] = type;
+            }
+        }
+
+        final int code;
+
+        Type(int code) {
+            this.code = code;
+        }
+
+        static Type of(int code) {
+            return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        }
+    }
+
+    /**
+     * Writes a record at the given offset of the buffer. The game ID is copied char by char, so a record without a
+     * player name is written without allocating.
+     *
+     * @throws IllegalArgumentException if the game ID is longer than {@value #MAX_GAME_ID_BYTES} chars or not ASCII
+     */
+    static void write(ByteBuffer buffer, int offset, Type type, String gameId, String player, int arg0, int arg1,
+                      long timestamp) {
+        int gameIdLength = gameId.length();
+        if (gameIdLength > MAX_GAME_ID_BYTES) {
+            throw new IllegalArgumentException("Game ID too long for the journal: " + gameId);
+        }
+        for (int i = 0; i < gameIdLength; i++) {
+            char c = gameId.charAt(i);
+            if (c > 0x7F) {
+                throw new IllegalArgumentException("Game ID is not ASCII: " + gameId);
+            }
+            buffer.put(offset + GAME_ID + i, (byte) c);
+        }
+        int playerLength = 0;
+        if (player != null) {
+            byte[] bytes = player.getBytes(StandardCharsets.UTF_8);
+            playerLength = Math.min(bytes.length, MAX_PLAYER_BYTES);
+            buffer.put(offset + PLAYER, bytes, 0, playerLength);
+        }
+        buffer.putInt(offset + ARG0, arg0);
+        buffer.putInt(offset + ARG1, arg1);
+        buffer.put(offset + GAME_ID_LENGTH, (byte) gameIdLength);
+        buffer.put(offset + PLAYER_LENGTH, (byte) playerLength);
+        buffer.putLong(offset + TIMESTAMP, timestamp);
+        HEADER.setRelease(buffer, offset, MAGIC << 8 | type.code);
+    }
+
+    /**
+     * Reads the record at the given offset of the buffer.
+     *
+     * @return the record, or null if the slot is empty or holds an incomplete or corrupt record
+     */
+    static JournalRecord read(ByteBuffer buffer, int offset, long position) {
+        int header = buffer.getInt(offset);
+        Type type = Type.of(header & 0xFF);
+        int gameIdLength = buffer.get(offset + GAME_ID_LENGTH);
+        int playerLength = buffer.get(offset + PLAYER_LENGTH);
+        if (header >>> 8 != MAGIC || type == null || gameIdLength <= 0 || gameIdLength > MAX_GAME_ID_BYTES
+                || playerLength < 0 || playerLength > MAX_PLAYER_BYTES) {
+            return null;
+        }
+        byte[] bytes = new byte[Math.max(gameIdLength, playerLength)];
+        buffer.get(offset + GAME_ID, bytes, 0, gameIdLength);
+        String gameId = new String(bytes, 0, gameIdLength, StandardCharsets.ISO_8859_1);
+        String player = null;
+        if (playerLength > 0) {
+            buffer.get(offset + PLAYER, bytes, 0, playerLength);
+            player = new String(bytes, 0, playerLength, StandardCharsets.UTF_8);
+        }
+        return new JournalRecord(position, type, gameId, player, buffer.getInt(offset + ARG0),
+                buffer.getInt(offset + ARG1), buffer.getLong(offset + TIMESTAMP));
+    }
+}
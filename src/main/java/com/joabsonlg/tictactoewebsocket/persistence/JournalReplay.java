@@ -0,0 +1,111 @@
+package com.joabsonlg.tictactoewebsocket.persistence;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rebuilds the live games from journal records, applying each event the way the manager applied it.
+ * Games that were removed leave nothing behind, so the memory used is bounded by the number of live games,
+ * not by the length of the journal.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class JournalReplay {
+
+    private final Map<String, TicTacToe> games = new HashMap<>();
+    private long applied;
+    private long skipped;
+
+    /**
+     * Constructs a JournalReplay starting from no games.
+     */
+    public JournalReplay() {
+    }
+
+    /**
+     * Constructs a JournalReplay starting from previously saved games. Records up to the {@link TicTacToe#getVersion()
+     * version} of a saved game are already reflected in it and are skipped.
+     *
+     * @param games the games to start from
+     */
+    public JournalReplay(Collection<TicTacToe> games) {
+        for (TicTacToe game : games) {
+            this.games.put(game.getGameId(), game);
+        }
+    }
+
+    /**
+     * Applies the event of a record to the game it belongs to.
+     *
+     * @param record the next record of the journal
+     */
+    public void apply(JournalRecord record) {
+        String gameId = record.gameId();
+        TicTacToe game = games.get(gameId);
+        if (game != null && record.position() <= game.getVersion()) {
+            // Already reflected in the saved game.
+            skipped++;
+            return;
+        }
+        if (record.type() == JournalRecord.Type.CREATED) {
+            game = new TicTacToe(gameId, record.player(), null, record.arg0(), record.arg1());
+            game.setVersion(record.position());
+            games.put(gameId, game);
+            applied++;
+            return;
+        }
+        if (game == null) {
+            // The creation of the game was lost, e.g. written in a slot that never completed.
+            skipped++;
+            return;
+        }
+        switch (record.type()) {
+            case JOINED -> {
+                game.setPlayer2(record.player());
+                game.setGameState(GameState.PLAYER1_TURN);
+                game.setWaitingSince(0);
+            }
+            case MOVE -> game.makeMove(record.arg1() == 1 ? game.getPlayer1() : game.getPlayer2(), record.arg0());
+            case LEFT -> {
+                if (record.player().equals(game.getPlayer1())) {
+                    game.setPlayer1(game.getPlayer2());
+                }
+                game.setPlayer2(null);
+                game.setGameState(GameState.WAITING_FOR_PLAYER);
+                game.setTurn(game.getPlayer1());
+                game.resetBoard();
+            }
+            case REMOVED -> games.remove(gameId);
+            default -> {
+                // FINISHED only records the result; the game is removed by the next record.
+            }
+        }
+        game.setVersion(record.position());
+        applied++;
+    }
+
+    /**
+     * @return the games live after the records applied so far
+     */
+    public Collection<TicTacToe> getGames() {
+        return games.values();
+    }
+
+    /**
+     * @return the number of records applied
+     */
+    public long getApplied() {
+        return applied;
+    }
+
+    /**
+     * @return the number of records ignored because their game was unknown or already up to date
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+}
@@ -0,0 +1,244 @@
+package com.joabsonlg.tictactoewebsocket.persistence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Hash table from 128-bit keys to non-negative longs, kept in a memory-mapped file so an index of millions of
+ * entries costs page cache rather than heap.
+ * <p>
+ * Open addressing with linear probing over {@value #SLOT_SIZE}-byte slots holding the two halves of the key and the
+ * value plus one, so a zero marks an empty slot. One thread writes, any number read: a slot's key is written before
+ * its value is published with release semantics, and readers load the value first with acquire semantics, so they
+ * never see a half-written slot. Once the table is 70% full it is rebuilt into a file twice as large, which replaces
+ * the old one; readers still probing the old mapping finish on it. A table is mapped in one piece, which caps it at
+ * 2<sup>26</sup> slots.
+ * <p>
+ * The header records how much of the indexed data the table covers and whether it was closed cleanly, so its owner
+ * can tell when it must be rebuilt.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+class MappedHashIndex implements Closeable {
+
+    static final int MAGIC = 0x54544958;
+
+    private static final int HEADER_SIZE = 64;
+    private static final int SLOT_SIZE = 24;
+    private static final int MAX_CAPACITY = 1 << 26;
+
+    private static final int CLEAN = 4;
+    private static final int CAPACITY = 8;
+    private static final int SIZE = 16;
+    private static final int WATERMARK = 24;
+
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path file;
+
+    /**
+     * The current mapping, swapped when the table grows.
+     */
+    private volatile Table table;
+
+    private record Table(MappedByteBuffer buffer, int capacity) {
+    }
+
+    private MappedHashIndex(Path file, Table table) {
+        this.file = file;
+        this.table = table;
+    }
+
+    /**
+     * Opens an index file, or creates an empty one if it does not exist or is not an index.
+     *
+     * @param file            the index file
+     * @param initialCapacity the number of slots of a new table, rounded up to a power of two
+     * @return the index
+     * @throws IOException if the file cannot be mapped
+     */
+    static MappedHashIndex open(Path file, int initialCapacity) throws IOException {
+        if (Files.exists(file) && Files.size(file) >= HEADER_SIZE) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+                long capacity = buffer.getLong(CAPACITY);
+                if (buffer.getInt(0) == MAGIC && Long.bitCount(capacity) == 1 && capacity <= MAX_CAPACITY
+                        && channel.size() == HEADER_SIZE + capacity * SLOT_SIZE) {
+                    return new MappedHashIndex(file, new Table(buffer, (int) capacity));
+                }
+            }
+        }
+        int capacity = Integer.highestOneBit(Math.max(2, Math.min(initialCapacity, MAX_CAPACITY) - 1) << 1);
+        return new MappedHashIndex(file, create(file, capacity));
+    }
+
+    /**
+     * Deletes every entry.
+     *
+     * @param capacity the number of slots of the new table, rounded up to a power of two
+     * @throws IOException if the file cannot be replaced
+     */
+    void clear(int capacity) throws IOException {
+        table = create(file, Integer.highestOneBit(Math.max(2, Math.min(capacity, MAX_CAPACITY) - 1) << 1));
+    }
+
+    /**
+     * Looks a key up.
+     *
+     * @return the value, or -1 if the key is not in the index
+     */
+    long get(long key1, long key2) {
+        Table current = table;
+        int mask = current.capacity - 1;
+        for (int slot = slotOf(key1, key2, mask); ; slot = slot + 1 & mask) {
+            int offset = HEADER_SIZE + slot * SLOT_SIZE;
+            long stored = (long) LONG.getAcquire(current.buffer, offset + 16);
+            if (stored == 0) {
+                return -1;
+            }
+            if (current.buffer.getLong(offset) == key1 && current.buffer.getLong(offset + 8) == key2) {
+                return stored - 1;
+            }
+        }
+    }
+
+    /**
+     * Maps a key to a value, replacing its previous value. Only one thread may call it at a time.
+     *
+     * @param value a non-negative value
+     * @throws IOException if the table has to grow and the new file cannot be written
+     */
+    void put(long key1, long key2, long value) throws IOException {
+        Table current = table;
+        long size = current.buffer.getLong(SIZE);
+        if ((size + 1) * 10 > current.capacity * 7L) {
+            current = grow(current);
+        }
+        if (insert(current, key1, key2, value)) {
+            current.buffer.putLong(SIZE, size + 1);
+        }
+    }
+
+    /**
+     * @return the number of keys in the index
+     */
+    long size() {
+        return table.buffer.getLong(SIZE);
+    }
+
+    /**
+     * @return the length of the data covered by the index, as last recorded
+     */
+    long getWatermark() {
+        return table.buffer.getLong(WATERMARK);
+    }
+
+    void setWatermark(long watermark) {
+        table.buffer.putLong(WATERMARK, watermark);
+    }
+
+    /**
+     * @return whether the index was closed cleanly and has not been written to since it was opened
+     */
+    boolean isClean() {
+        return table.buffer.getInt(CLEAN) == 1;
+    }
+
+    /**
+     * Records on disk that the index is being written to, before the first write after opening it.
+     */
+    void markDirty() {
+        MappedByteBuffer buffer = table.buffer;
+        buffer.putInt(CLEAN, 0);
+        buffer.force();
+    }
+
+    /**
+     * Syncs the table to disk.
+     */
+    void force() {
+        table.buffer.force();
+    }
+
+    /**
+     * Syncs the table to disk and marks it clean.
+     */
+    @Override
+    public void close() {
+        MappedByteBuffer buffer = table.buffer;
+        buffer.force();
+        buffer.putInt(CLEAN, 1);
+        buffer.force();
+    }
+
+    private Table grow(Table current) throws IOException {
+        if (current.capacity >= MAX_CAPACITY) {
+            throw new IOException("Index " + file + " is full at " + current.capacity + " slots");
+        }
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Table grown = create(temporary, current.capacity << 1);
+        long size = 0;
+        for (int slot = 0; slot < current.capacity; slot++) {
+            int offset = HEADER_SIZE + slot * SLOT_SIZE;
+            long stored = current.buffer.getLong(offset + 16);
+            if (stored != 0 && insert(grown, current.buffer.getLong(offset), current.buffer.getLong(offset + 8),
+                    stored - 1)) {
+                size++;
+            }
+        }
+        grown.buffer.putLong(SIZE, size);
+        grown.buffer.putLong(WATERMARK, current.buffer.getLong(WATERMARK));
+        grown.buffer.putInt(CLEAN, current.buffer.getInt(CLEAN));
+        grown.buffer.force();
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        table = grown;
+        return grown;
+    }
+
+    /**
+     * @return true if the key was added, false if its value was replaced
+     */
+    private static boolean insert(Table table, long key1, long key2, long value) {
+        int mask = table.capacity - 1;
+        for (int slot = slotOf(key1, key2, mask); ; slot = slot + 1 & mask) {
+            int offset = HEADER_SIZE + slot * SLOT_SIZE;
+            long stored = table.buffer.getLong(offset + 16);
+            if (stored == 0) {
+                table.buffer.putLong(offset, key1);
+                table.buffer.putLong(offset + 8, key2);
+                LONG.setRelease(table.buffer, offset + 16, value + 1);
+                return true;
+            }
+            if (table.buffer.getLong(offset) == key1 && table.buffer.getLong(offset + 8) == key2) {
+                LONG.setRelease(table.buffer, offset + 16, value + 1);
+                return false;
+            }
+        }
+    }
+
+    private static int slotOf(long key1, long key2, int mask) {
+        long hash = (key1 ^ Long.rotateLeft(key2, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 32) & mask;
+    }
+
+    private static Table create(Path file, int capacity) throws IOException {
+        Files.deleteIfExists(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_SIZE + (long) capacity * SLOT_SIZE);
+            buffer.putInt(0, MAGIC);
+            buffer.putLong(CAPACITY, capacity);
+            return new Table(buffer, capacity);
+        }
+    }
+}
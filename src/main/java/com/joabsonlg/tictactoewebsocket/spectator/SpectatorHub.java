@@ -0,0 +1,385 @@
+package com.joabsonlg.tictactoewebsocket.spectator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joabsonlg.tictactoewebsocket.manager.GameEventListener;
+import com.joabsonlg.tictactoewebsocket.manager.TicTacToeManager;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import com.joabsonlg.tictactoewebsocket.model.dto.TicTacToeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Broadcast pipeline of the spectators, kept apart from the players' topic so thousands of watchers cannot slow
+ * down the delivery of the moves.
+ * <p>
+ * The game events only flag the watched games as changed, under the game's lock. A tick on the hub's own thread then
+ * builds one snapshot of each changed game, serializes it once and sends the same bytes to each of its spectators,
+ * so the moves made between two ticks are coalesced into the latest snapshot.
+ * <p>
+ * Each spectator may have at most {@code maxInFlight} snapshots not yet written to its connection; as an interceptor
+ * of the outbound channel, the hub counts them down as they are handled. A spectator at the limit is skipped, and
+ * once it catches up it gets the latest snapshot only, never the ones it missed. A slow spectator thus costs a bounded
+ * number of queued messages and never holds up the others or the players.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class SpectatorHub implements GameEventListener, ExecutorChannelInterceptor, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpectatorHub.class);
+
+    /**
+     * User destination of the snapshots, subscribed to as {@code /user/queue/game.spectate}.
+     */
+    public static final String DESTINATION = "/queue/game.spectate";
+
+    /**
+     * Header marking the messages sent by the hub, so the outbound channel can count them down.
+     */
+    public static final String SPECTATOR_HEADER = "tictactoe.spectator";
+
+    /**
+     * Ticks a feed of a removed game is kept for spectators that have not received its last snapshot yet.
+     */
+    private static final int LINGER_TICKS = 50;
+
+    /**
+     * Sends a serialized snapshot to a session.
+     */
+    @FunctionalInterface
+    public interface Sender {
+        void send(String sessionId, byte[] payload);
+    }
+
+    /**
+     * Counts of the tick loop, reported to the metrics.
+     */
+    public interface Listener {
+        /**
+         * Called after each tick that sent something or coalesced something.
+         *
+         * @param sent      the snapshots sent
+         * @param coalesced the snapshots that spectators at their limit will never receive, as newer ones replaced them
+         */
+        void ticked(int sent, int coalesced);
+    }
+
+    private final TicTacToeManager manager;
+    private final ObjectMapper mapper;
+    private final Sender sender;
+    private final int maxInFlight;
+    private final Listener listener;
+    private final Map<String, Feed> feeds = new ConcurrentHashMap<>();
+    private final Map<String, Watcher> watchers = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * The spectators of a game and its latest snapshot.
+     */
+    private static final class Feed {
+        final String gameId;
+        final Set<Watcher> watchers = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Set by the game events, cleared by the tick that rebuilds the snapshot.
+         */
+        volatile boolean dirty = true;
+
+        /**
+         * The game's last state, captured when it finished, as it is removed right after.
+         */
+        volatile TicTacToeMessage last;
+        volatile boolean removed;
+
+        // Only touched by the tick.
+        byte[] snapshot;
+        long version;
+        int lingered;
+
+        Feed(String gameId) {
+            this.gameId = gameId;
+        }
+    }
+
+    /**
+     * A spectator session.
+     */
+    private static final class Watcher {
+        final String sessionId;
+        final Feed feed;
+
+        /**
+         * Whether the session is connected to this application, so its snapshots are counted down by the outbound
+         * channel. Others, e.g. on another node of a cluster, are sent one snapshot per change without a limit.
+         */
+        final boolean tracked;
+        final AtomicInteger inFlight = new AtomicInteger();
+
+        // Only touched by the tick.
+        long sentVersion;
+
+        Watcher(String sessionId, Feed feed, boolean tracked) {
+            this.sessionId = sessionId;
+            this.feed = feed;
+            this.tracked = tracked;
+        }
+    }
+
+    /**
+     * Constructs a new SpectatorHub and registers it as a listener of the manager.
+     *
+     * @param manager     the manager of the watched games
+     * @param mapper      the mapper serializing the snapshots
+     * @param sender      sends a snapshot to a session
+     * @param maxInFlight the snapshots a spectator may have pending before it is skipped
+     * @param listener    told the counts of each tick
+     */
+    public SpectatorHub(TicTacToeManager manager, ObjectMapper mapper, Sender sender, int maxInFlight,
+                        Listener listener) {
+        this.manager = manager;
+        this.mapper = mapper;
+        this.sender = sender;
+        this.maxInFlight = maxInFlight;
+        this.listener = listener;
+        manager.addListener(this);
+    }
+
+    /**
+     * Starts sending the snapshots at a fixed interval.
+     *
+     * @param tick     the interval between two ticks
+     * @param tickUnit the unit of the interval
+     */
+    public synchronized void start(long tick, TimeUnit tickUnit) {
+        if (scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "spectator-hub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                tick();
+            } catch (RuntimeException e) {
+                logger.error("Could not send the spectator snapshots", e);
+            }
+        }, tick, tick, tickUnit);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Makes a session watch a game, instead of the game it watched before. The first snapshot is sent on the next
+     * tick.
+     *
+     * @param sessionId the ID of the spectator's session
+     * @param gameId    the ID of the game
+     * @param tracked   whether the session is connected to this application
+     * @return false if there is no such game
+     */
+    public boolean watch(String sessionId, String gameId, boolean tracked) {
+        if (manager.getGame(gameId) == null) {
+            return false;
+        }
+        unwatch(sessionId);
+        Feed feed = feeds.computeIfAbsent(gameId, Feed::new);
+        Watcher watcher = new Watcher(sessionId, feed, tracked);
+        feed.watchers.add(watcher);
+        watchers.put(sessionId, watcher);
+        if (feed.removed) {
+            // Removed in the meantime; the spectator still gets its last state if the feed has it.
+            feed.dirty = true;
+        }
+        return true;
+    }
+
+    /**
+     * Stops a session's watching, e.g. when it disconnects.
+     *
+     * @param sessionId the ID of the spectator's session
+     */
+    public void unwatch(String sessionId) {
+        Watcher watcher = watchers.remove(sessionId);
+        if (watcher != null) {
+            watcher.feed.watchers.remove(watcher);
+        }
+    }
+
+    /**
+     * @return the number of spectators
+     */
+    public int getSpectatorCount() {
+        return watchers.size();
+    }
+
+    @Override
+    public void playerJoined(TicTacToe game, String player) {
+        changed(game.getGameId());
+    }
+
+    @Override
+    public void moveMade(TicTacToe game, String player, int cell) {
+        changed(game.getGameId());
+    }
+
+    @Override
+    public void playerLeft(TicTacToe game, String player) {
+        changed(game.getGameId());
+    }
+
+    @Override
+    public void gameFinished(TicTacToe game) {
+        Feed feed = feeds.get(game.getGameId());
+        if (feed != null) {
+            feed.last = snapshotOf(game);
+            feed.dirty = true;
+        }
+    }
+
+    @Override
+    public void gameRemoved(String gameId) {
+        Feed feed = feeds.get(gameId);
+        if (feed != null) {
+            feed.removed = true;
+            feed.dirty = true;
+        }
+    }
+
+    private void changed(String gameId) {
+        Feed feed = feeds.get(gameId);
+        if (feed != null) {
+            feed.dirty = true;
+        }
+    }
+
+    /**
+     * Counts down a snapshot handed to its session's connection.
+     */
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler,
+                                    Exception ex) {
+        if (message.getHeaders().get(SPECTATOR_HEADER) != null) {
+            delivered(SimpMessageHeaderAccessor.getSessionId(message.getHeaders()));
+        }
+    }
+
+    void delivered(String sessionId) {
+        Watcher watcher = sessionId != null ? watchers.get(sessionId) : null;
+        if (watcher != null) {
+            watcher.inFlight.updateAndGet(count -> Math.max(0, count - 1));
+        }
+    }
+
+    /**
+     * Rebuilds the snapshots of the changed games and sends the latest snapshot to each spectator that does not have
+     * it yet and is below its limit. Runs on the hub's thread.
+     */
+    void tick() {
+        int sent = 0;
+        int coalesced = 0;
+        for (Feed feed : feeds.values()) {
+            if (feed.watchers.isEmpty() && !feed.removed) {
+                feeds.remove(feed.gameId, feed);
+                continue;
+            }
+            if (feed.dirty) {
+                feed.dirty = false;
+                byte[] snapshot = serialize(feed);
+                if (snapshot != null) {
+                    feed.snapshot = snapshot;
+                    feed.version++;
+                    for (Watcher watcher : feed.watchers) {
+                        if (watcher.sentVersion > 0 && watcher.sentVersion < feed.version - 1) {
+                            coalesced++;
+                        }
+                    }
+                }
+            }
+            boolean caughtUp = true;
+            if (feed.snapshot != null) {
+                for (Watcher watcher : feed.watchers) {
+                    if (watcher.sentVersion == feed.version) {
+                        continue;
+                    }
+                    if (watcher.tracked && watcher.inFlight.get() >= maxInFlight) {
+                        caughtUp = false;
+                        continue;
+                    }
+                    if (watcher.tracked) {
+                        watcher.inFlight.incrementAndGet();
+                    }
+                    watcher.sentVersion = feed.version;
+                    sender.send(watcher.sessionId, feed.snapshot);
+                    sent++;
+                }
+            }
+            if (feed.removed && (caughtUp || ++feed.lingered > LINGER_TICKS)) {
+                feeds.remove(feed.gameId, feed);
+                for (Watcher watcher : feed.watchers) {
+                    watchers.remove(watcher.sessionId, watcher);
+                }
+            }
+        }
+        if (sent > 0 || coalesced > 0) {
+            listener.ticked(sent, coalesced);
+        }
+    }
+
+    /**
+     * Serializes the current state of a feed's game, read under its lock, or its last state if it is gone.
+     *
+     * @return the snapshot, or null if there is nothing to send
+     */
+    private byte[] serialize(Feed feed) {
+        TicTacToeMessage message = manager.withGameLock(feed.gameId, () -> {
+            TicTacToe game = manager.getGame(feed.gameId);
+            return game != null ? snapshotOf(game) : null;
+        });
+        if (message == null) {
+            message = feed.last;
+        }
+        if (message == null && feed.removed) {
+            message = new TicTacToeMessage();
+            message.setType("game.spectate");
+            message.setGameId(feed.gameId);
+            message.setContent("The game was closed.");
+        }
+        if (message == null) {
+            return null;
+        }
+        try {
+            return mapper.writeValueAsBytes(message);
+        } catch (JsonProcessingException e) {
+            logger.error("Could not serialize the snapshot of game {}", feed.gameId, e);
+            return null;
+        }
+    }
+
+    private static TicTacToeMessage snapshotOf(TicTacToe game) {
+        TicTacToeMessage message = new TicTacToeMessage(game);
+        message.setType("game.spectate");
+        return message;
+    }
+}
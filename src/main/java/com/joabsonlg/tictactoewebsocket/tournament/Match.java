@@ -0,0 +1,75 @@
+package com.joabsonlg.tictactoewebsocket.tournament;
+
+/**
+ * A match of a {@link Tournament} round: two players, by their seed, and the game they play it in once scheduled.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public final class Match {
+
+    private final Tournament tournament;
+    private final int round;
+    private final int slot;
+    private final int player1;
+    private final int player2;
+    private final int replays;
+    private volatile String gameId;
+
+    // Guarded by the tournament.
+    boolean resolved;
+
+    Match(Tournament tournament, int round, int slot, int player1, int player2, int replays) {
+        this.tournament = tournament;
+        this.round = round;
+        this.slot = slot;
+        this.player1 = player1;
+        this.player2 = player2;
+        this.replays = replays;
+    }
+
+    public Tournament getTournament() {
+        return tournament;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    /**
+     * @return the first player, who moves first
+     */
+    public String getPlayer1() {
+        return tournament.playerName(player1);
+    }
+
+    public String getPlayer2() {
+        return tournament.playerName(player2);
+    }
+
+    /**
+     * @return the ID of the game the match is played in, or null until it is scheduled
+     */
+    public String getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(String gameId) {
+        this.gameId = gameId;
+    }
+
+    int getSlot() {
+        return slot;
+    }
+
+    int getPlayer1Seed() {
+        return player1;
+    }
+
+    int getPlayer2Seed() {
+        return player2;
+    }
+
+    int getReplays() {
+        return replays;
+    }
+}
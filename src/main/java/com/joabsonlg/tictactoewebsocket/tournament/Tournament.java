@@ -0,0 +1,449 @@
+package com.joabsonlg.tictactoewebsocket.tournament;
+
+import com.joabsonlg.tictactoewebsocket.engine.BoardVariant;
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.enumeration.TournamentFormat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * State of a tournament: its rounds, the matches of the current round and the standings.
+ * <p>
+ * The standings are kept up to date by each result rather than recomputed from all of them. Every player has a score,
+ * counted in half points so it stays an integer, and a Buchholz tie-break, the sum of the scores of the opponents met
+ * so far; a result adds to the scores of the match's players and to the Buchholz of the few players they met. Pairing a
+ * Swiss round buckets the players by score, which takes time linear in the number of players, and each player is
+ * paired with the best ranked player below it they have not met, searched among the next {@value #LOOKAHEAD} players.
+ * <p>
+ * A single elimination bracket is seeded the usual way, so the best seeds meet last and get the byes of a field that
+ * is not a power of two. Tic-Tac-Toe draws often, so a tied match is replayed with the seats swapped, up to
+ * {@value #MAX_REPLAYS} times, before the better seed goes through.
+ * <p>
+ * The methods are synchronized: results are reported on the tournament's thread while the standings are read by
+ * any thread.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class Tournament {
+
+    /**
+     * The maximum number of players, bounded so a player's rank fits in a sort key.
+     */
+    public static final int MAX_PLAYERS = 1 << 20;
+
+    /**
+     * The maximum number of Swiss rounds, bounded so a Buchholz score fits in a sort key.
+     */
+    public static final int MAX_ROUNDS = 1000;
+
+    private static final int WIN = 2;
+    private static final int TIE = 1;
+    private static final int LOOKAHEAD = 64;
+    private static final int MAX_REPLAYS = 2;
+    private static final int SEED_BITS = 21;
+    private static final int FIELD_BITS = 21;
+    private static final long SEED_MASK = (1L << SEED_BITS) - 1;
+
+    /**
+     * A player's place in the standings.
+     *
+     * @param rank     the place, from 1
+     * @param player   the name of the player
+     * @param points   the score: 1 per win, 1/2 per tie, and 1 per bye
+     * @param buchholz the sum of the scores of the opponents met
+     * @param active   false once the player is out of an elimination tournament
+     */
+    public record Standing(int rank, String player, double points, double buchholz, boolean active) {
+    }
+
+    private final String id;
+    private final TournamentFormat format;
+    private final BoardVariant variant;
+    private final String[] players;
+    private final int totalRounds;
+
+    private final int[] points;
+    private final int[] buchholz;
+    private final int[][] opponents;
+    private final int[] opponentCount;
+    private final int[] firstMoves;
+    private final boolean[] hadBye;
+
+    /**
+     * Single elimination: the players still in, in bracket order, -1 for an empty slot; and the round each player
+     * lost in, or {@link Integer#MAX_VALUE} while they are in.
+     */
+    private int[] bracket;
+    private int[] nextBracket;
+    private final int[] eliminatedIn;
+
+    private int round;
+    private List<Match> matches = List.of();
+    private int pending;
+
+    /**
+     * Constructs a new Tournament played on the classic board. No round is paired until {@link #nextRound()} is
+     * called.
+     *
+     * @param id      the ID of the tournament
+     * @param format  how the players are paired
+     * @param players the names of the players, best seed first, at least 2 and distinct
+     * @param rounds  the number of rounds of a Swiss tournament, at most {@value #MAX_ROUNDS}, or 0 for as many as it
+     *                takes to single out a winner; ignored by the other formats
+     * @throws IllegalArgumentException if there are too few or too many players or rounds, or duplicate players
+     */
+    public Tournament(String id, TournamentFormat format, List<String> players, int rounds) {
+        this(id, format, players, rounds, BoardVariant.CLASSIC);
+    }
+
+    /**
+     * Constructs a new Tournament. No round is paired until {@link #nextRound()} is called.
+     *
+     * @param id      the ID of the tournament
+     * @param format  how the players are paired
+     * @param players the names of the players, best seed first, at least 2 and distinct
+     * @param rounds  the number of rounds of a Swiss tournament, at most {@value #MAX_ROUNDS}, or 0 for as many as it
+     *                takes to single out a winner; ignored by the other formats
+     * @param variant the board every match is played on
+     * @throws IllegalArgumentException if there are too few or too many players or rounds, or duplicate players
+     */
+    public Tournament(String id, TournamentFormat format, List<String> players, int rounds, BoardVariant variant) {
+        if (players.size() < 2 || players.size() > MAX_PLAYERS) {
+            throw new IllegalArgumentException("A tournament has 2 to " + MAX_PLAYERS + " players");
+        }
+        if (rounds > MAX_ROUNDS) {
+            throw new IllegalArgumentException("A tournament has at most " + MAX_ROUNDS + " rounds");
+        }
+        if (players.stream().distinct().count() != players.size()) {
+            throw new IllegalArgumentException("The players of a tournament must be distinct");
+        }
+        this.id = id;
+        this.format = format;
+        this.variant = variant;
+        this.players = players.toArray(String[]::new);
+        int n = this.players.length;
+        int bracketRounds = 32 - Integer.numberOfLeadingZeros(n - 1);
+        this.totalRounds = format == TournamentFormat.SWISS && rounds > 0 ? rounds : bracketRounds;
+        this.points = new int[n];
+        this.buchholz = new int[n];
+        this.opponents = new int[n][];
+        this.opponentCount = new int[n];
+        this.firstMoves = new int[n];
+        this.hadBye = new boolean[n];
+        this.eliminatedIn = new int[n];
+        Arrays.fill(eliminatedIn, Integer.MAX_VALUE);
+        if (format == TournamentFormat.SINGLE_ELIMINATION) {
+            bracket = seededBracket(n, 1 << bracketRounds);
+        }
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public TournamentFormat getFormat() {
+        return format;
+    }
+
+    public BoardVariant getVariant() {
+        return variant;
+    }
+
+    public int getPlayerCount() {
+        return players.length;
+    }
+
+    public int getTotalRounds() {
+        return totalRounds;
+    }
+
+    /**
+     * @return the number of rounds paired so far
+     */
+    public synchronized int getRound() {
+        return round;
+    }
+
+    /**
+     * @return the matches of the current round, replays included
+     */
+    public synchronized List<Match> getMatches() {
+        return List.copyOf(matches);
+    }
+
+    /**
+     * @return true once every match of the current round has a result
+     */
+    public synchronized boolean isRoundComplete() {
+        return pending == 0;
+    }
+
+    /**
+     * @return true once the last round is complete
+     */
+    public synchronized boolean isFinished() {
+        if (pending > 0) {
+            return false;
+        }
+        return format == TournamentFormat.SWISS ? round >= totalRounds : bracket.length == 1;
+    }
+
+    /**
+     * Pairs the next round. Byes are scored right away; the returned matches must be played.
+     *
+     * @return the matches of the round, or an empty list if the tournament is finished
+     * @throws IllegalStateException if the current round is not complete
+     */
+    public synchronized List<Match> nextRound() {
+        if (pending > 0) {
+            throw new IllegalStateException("Round " + round + " of tournament " + id + " is not complete");
+        }
+        if (isFinished()) {
+            return List.of();
+        }
+        round++;
+        matches = format == TournamentFormat.SWISS ? pairSwiss() : pairBracket();
+        pending = matches.size();
+        return List.copyOf(matches);
+    }
+
+    /**
+     * Records the result of a match. A match reported twice keeps its first result.
+     *
+     * @param match   the match, of the current round
+     * @param outcome {@link GameState#PLAYER1_WON}, {@link GameState#PLAYER2_WON} or {@link GameState#TIE}, or null if
+     *                the game ended without a result, which counts as a loss for both players, except that the better
+     *                seed goes through in an elimination
+     * @return the matches to play in addition, i.e. the replay of a tied elimination match
+     */
+    public synchronized List<Match> report(Match match, GameState outcome) {
+        if (match.getTournament() != this || match.resolved || match.getRound() != round) {
+            return List.of();
+        }
+        match.resolved = true;
+        pending--;
+        int player1 = match.getPlayer1Seed();
+        int player2 = match.getPlayer2Seed();
+        if (outcome == GameState.PLAYER1_WON) {
+            addPoints(player1, WIN);
+        } else if (outcome == GameState.PLAYER2_WON) {
+            addPoints(player2, WIN);
+        } else if (outcome == GameState.TIE) {
+            addPoints(player1, TIE);
+            addPoints(player2, TIE);
+        }
+        if (format == TournamentFormat.SWISS) {
+            return List.of();
+        }
+
+        if (outcome == GameState.TIE && match.getReplays() < MAX_REPLAYS) {
+            Match replay = new Match(this, round, match.getSlot(), player2, player1, match.getReplays() + 1);
+            firstMoves[player2]++;
+            matches.add(replay);
+            pending++;
+            return List.of(replay);
+        }
+        int winner = outcome == GameState.PLAYER1_WON ? player1
+                : outcome == GameState.PLAYER2_WON ? player2
+                : Math.min(player1, player2);
+        eliminatedIn[winner == player1 ? player2 : player1] = round;
+        nextBracket[match.getSlot()] = winner;
+        if (pending == 0) {
+            bracket = nextBracket;
+        }
+        return List.of();
+    }
+
+    /**
+     * Returns the best players of the standings: by score, then Buchholz, then seed in a Swiss tournament; by the round
+     * they were knocked out in, then score, then seed in an elimination.
+     *
+     * @param limit the maximum number of players
+     * @return the standings, from the first place
+     */
+    public synchronized List<Standing> getStandings(int limit) {
+        int n = players.length;
+        long[] keys = new long[n];
+        for (int player = 0; player < n; player++) {
+            long primary = format == TournamentFormat.SWISS
+                    ? points[player]
+                    : Math.min(eliminatedIn[player], round + 1);
+            long secondary = format == TournamentFormat.SWISS ? buchholz[player] : points[player];
+            // Descending on the key, so the seed is stored flipped to sort the better seed first.
+            keys[player] = primary << (SEED_BITS + FIELD_BITS) | secondary << SEED_BITS | (SEED_MASK - player);
+        }
+        Arrays.sort(keys);
+        int size = Math.min(Math.max(limit, 0), n);
+        List<Standing> standings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            int player = (int) (SEED_MASK - (keys[n - 1 - i] & SEED_MASK));
+            standings.add(new Standing(i + 1, players[player], points[player] / 2.0, buchholz[player] / 2.0,
+                    eliminatedIn[player] == Integer.MAX_VALUE));
+        }
+        return standings;
+    }
+
+    String playerName(int seed) {
+        return players[seed];
+    }
+
+    private List<Match> pairSwiss() {
+        int n = players.length;
+        int[] order = rankByScore();
+        boolean[] paired = new boolean[n];
+        if (n % 2 == 1) {
+            int bye = order[n - 1];
+            for (int i = n - 1; i >= 0; i--) {
+                if (!hadBye[order[i]]) {
+                    bye = order[i];
+                    break;
+                }
+            }
+            hadBye[bye] = true;
+            paired[bye] = true;
+            addPoints(bye, WIN);
+        }
+        List<Match> pairings = new ArrayList<>(n / 2);
+        for (int i = 0; i < n; i++) {
+            int player = order[i];
+            if (paired[player]) {
+                continue;
+            }
+            int opponent = -1;
+            int fallback = -1;
+            for (int j = i + 1, candidates = 0; j < n && candidates < LOOKAHEAD; j++) {
+                int candidate = order[j];
+                if (paired[candidate]) {
+                    continue;
+                }
+                if (fallback < 0) {
+                    fallback = candidate;
+                }
+                if (!hasMet(player, candidate)) {
+                    opponent = candidate;
+                    break;
+                }
+                candidates++;
+            }
+            if (opponent < 0) {
+                // Everyone nearby was met already; a rematch beats leaving a player out.
+                opponent = fallback;
+            }
+            paired[player] = true;
+            paired[opponent] = true;
+            pairings.add(pair(pairings.size(), player, opponent));
+        }
+        return pairings;
+    }
+
+    private List<Match> pairBracket() {
+        nextBracket = new int[bracket.length / 2];
+        List<Match> pairings = new ArrayList<>(nextBracket.length);
+        for (int slot = 0; slot < nextBracket.length; slot++) {
+            int top = bracket[2 * slot];
+            int bottom = bracket[2 * slot + 1];
+            if (top < 0 || bottom < 0) {
+                nextBracket[slot] = Math.max(top, bottom);
+                continue;
+            }
+            pairings.add(pair(slot, Math.min(top, bottom), Math.max(top, bottom)));
+        }
+        if (pairings.isEmpty()) {
+            bracket = nextBracket;
+        }
+        return pairings;
+    }
+
+    /**
+     * Creates the match of two players and adds each to the other's opponents. The player who moved first less
+     * often moves first, the better ranked one on equal counts.
+     */
+    private Match pair(int slot, int player, int opponent) {
+        boolean swap = firstMoves[opponent] < firstMoves[player];
+        int first = swap ? opponent : player;
+        int second = swap ? player : opponent;
+        firstMoves[first]++;
+        meet(player, opponent);
+        meet(opponent, player);
+        return new Match(this, round, slot, first, second, 0);
+    }
+
+    private void meet(int player, int opponent) {
+        int[] met = opponents[player];
+        if (met == null) {
+            met = opponents[player] = new int[Math.max(4, totalRounds)];
+        } else if (opponentCount[player] == met.length) {
+            met = opponents[player] = Arrays.copyOf(met, met.length * 2);
+        }
+        met[opponentCount[player]++] = opponent;
+        buchholz[player] += points[opponent];
+    }
+
+    private boolean hasMet(int player, int opponent) {
+        int[] met = opponents[player];
+        for (int i = 0; i < opponentCount[player]; i++) {
+            if (met[i] == opponent) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds to a player's score and to the Buchholz of everyone they met.
+     */
+    private void addPoints(int player, int delta) {
+        points[player] += delta;
+        int[] met = opponents[player];
+        for (int i = 0; i < opponentCount[player]; i++) {
+            buchholz[met[i]] += delta;
+        }
+    }
+
+    /**
+     * Orders the players by score, best first, and by seed within a score, with a counting sort.
+     */
+    private int[] rankByScore() {
+        int n = players.length;
+        int maxPoints = 0;
+        for (int player = 0; player < n; player++) {
+            maxPoints = Math.max(maxPoints, points[player]);
+        }
+        int[] starts = new int[maxPoints + 2];
+        for (int player = 0; player < n; player++) {
+            starts[maxPoints - points[player] + 1]++;
+        }
+        for (int i = 1; i < starts.length; i++) {
+            starts[i] += starts[i - 1];
+        }
+        int[] order = new int[n];
+        for (int player = 0; player < n; player++) {
+            order[starts[maxPoints - points[player]]++] = player;
+        }
+        return order;
+    }
+
+    /**
+     * Places the seeds in a bracket of the given size, so seeds 1 and 2 can only meet in the final, and the best
+     * seeds face the empty slots of a field smaller than the bracket.
+     */
+    private static int[] seededBracket(int players, int size) {
+        int[] slots = {0};
+        while (slots.length < size) {
+            int[] next = new int[slots.length * 2];
+            for (int i = 0; i < slots.length; i++) {
+                next[2 * i] = slots[i];
+                next[2 * i + 1] = next.length - 1 - slots[i];
+            }
+            slots = next;
+        }
+        for (int i = 0; i < size; i++) {
+            if (slots[i] >= players) {
+                slots[i] = -1;
+            }
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,14 @@
+package com.joabsonlg.tictactoewebsocket.tournament;
+
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+
+/**
+ * Application event published when a player waiting for an opponent is moved to their tournament match, closing the
+ * game they were waiting in.
+ *
+ * @param closedGameId the ID of the game the player was waiting in
+ * @param game         the game of the match
+ * @author Joabson Arley do Nascimento
+ */
+public record TournamentMatchEvent(String closedGameId, TicTacToe game) {
+}
@@ -0,0 +1,12 @@
+package com.joabsonlg.tictactoewebsocket.tournament;
+
+/**
+ * Application event published when a {@link Tournament} starts a round or finishes.
+ *
+ * @param tournament the tournament
+ * @param round      the round just started, or the last round if the tournament is finished
+ * @param finished   whether the tournament is finished
+ * @author Joabson Arley do Nascimento
+ */
+public record TournamentRoundEvent(Tournament tournament, int round, boolean finished) {
+}
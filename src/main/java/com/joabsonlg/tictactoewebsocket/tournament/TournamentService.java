@@ -0,0 +1,263 @@
+package com.joabsonlg.tictactoewebsocket.tournament;
+
+import com.joabsonlg.tictactoewebsocket.engine.BoardVariant;
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.enumeration.TournamentFormat;
+import com.joabsonlg.tictactoewebsocket.manager.GameEventListener;
+import com.joabsonlg.tictactoewebsocket.manager.TicTacToeManager;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Runs the tournaments: plays each match of a round as a game of the {@link TicTacToeManager}, records the results as
+ * the games end and pairs the next round once every match of the current one has a result.
+ * <p>
+ * The results arrive as game events, under the lock of the finished game, and count once the game is removed and its
+ * players may be seated again. Pairing a round creates thousands of games under their own locks, so the events only
+ * hand the result over to the service's single thread, which runs every change to the tournaments in order. A game
+ * removed without a result, e.g. because it expired, counts as lost by both players; a player still seated in another
+ * game when their match is created forfeits it.
+ * <p>
+ * Players find their match by joining a game as usual: the manager seats a player who already has a game in it. A
+ * player waiting for an opponent in another game when their match is created is moved to the match, and told so
+ * through the closed game.
+ *
+ * @author Joabson Arley do Nascimento
+ */
+public class TournamentService implements GameEventListener, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TournamentService.class);
+
+    private final TicTacToeManager manager;
+    private final Consumer<Tournament> onRound;
+    private final BiConsumer<String, TicTacToe> onMoved;
+    private final ExecutorService executor;
+    private final Map<String, Tournament> tournaments = new ConcurrentHashMap<>();
+
+    /**
+     * The match played in each tournament game, with the game ID as the key.
+     */
+    private final Map<String, Match> matchesByGame = new ConcurrentHashMap<>();
+
+    /**
+     * The outcome of each finished tournament game, kept until the game is removed and its players are free again.
+     */
+    private final Map<String, GameState> outcomes = new ConcurrentHashMap<>();
+
+    /**
+     * The match whose game the service's thread is creating, so the game is mapped to it before anyone can end it.
+     */
+    private final ThreadLocal<Match> creating = new ThreadLocal<>();
+
+    /**
+     * Constructs a new TournamentService and registers it as a listener of the manager.
+     *
+     * @param manager the manager the matches are played in
+     * @param onRound called on the service's thread when a tournament starts a round or finishes
+     */
+    public TournamentService(TicTacToeManager manager, Consumer<Tournament> onRound) {
+        this(manager, onRound, (closedGameId, game) -> {
+        });
+    }
+
+    /**
+     * Constructs a new TournamentService and registers it as a listener of the manager.
+     *
+     * @param manager the manager the matches are played in
+     * @param onRound called on the service's thread when a tournament starts a round or finishes
+     * @param onMoved called on the service's thread when a player's waiting game was closed to seat them in their
+     *                match, with the ID of the closed game and the game of the match
+     */
+    public TournamentService(TicTacToeManager manager, Consumer<Tournament> onRound,
+                             BiConsumer<String, TicTacToe> onMoved) {
+        this.manager = manager;
+        this.onRound = onRound;
+        this.onMoved = onMoved;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tournament");
+            thread.setDaemon(true);
+            return thread;
+        });
+        manager.addListener(this);
+    }
+
+    /**
+     * Creates a tournament played on the classic board and starts its first round.
+     *
+     * @param format  how the players are paired
+     * @param players the names of the players, best seed first
+     * @param rounds  the number of Swiss rounds, or 0 for the default
+     * @return the tournament
+     * @throws IllegalArgumentException if the players or rounds are not valid for a tournament
+     */
+    public Tournament create(TournamentFormat format, List<String> players, int rounds) {
+        return create(format, players, rounds, BoardVariant.CLASSIC);
+    }
+
+    /**
+     * Creates a tournament and starts its first round.
+     *
+     * @param format  how the players are paired
+     * @param players the names of the players, best seed first
+     * @param rounds  the number of Swiss rounds, or 0 for the default
+     * @param variant the board every match is played on
+     * @return the tournament
+     * @throws IllegalArgumentException if the players or rounds are not valid for a tournament
+     */
+    public Tournament create(TournamentFormat format, List<String> players, int rounds, BoardVariant variant) {
+        Tournament tournament = new Tournament(UUID.randomUUID().toString(), format, players, rounds, variant);
+        tournaments.put(tournament.getId(), tournament);
+        executor.execute(() -> advance(tournament));
+        return tournament;
+    }
+
+    /**
+     * Returns the tournament with the given ID.
+     *
+     * @param tournamentId the ID of the tournament
+     * @return the tournament, or null if no such tournament exists
+     */
+    public Tournament getTournament(String tournamentId) {
+        return tournaments.get(tournamentId);
+    }
+
+    /**
+     * @return every tournament, running or finished
+     */
+    public Collection<Tournament> getTournaments() {
+        return tournaments.values();
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void gameCreated(TicTacToe game) {
+        Match match = creating.get();
+        if (match != null) {
+            match.setGameId(game.getGameId());
+            matchesByGame.put(game.getGameId(), match);
+        }
+    }
+
+    @Override
+    public void gameFinished(TicTacToe game) {
+        if (matchesByGame.containsKey(game.getGameId())) {
+            outcomes.put(game.getGameId(), game.getGameState());
+        }
+    }
+
+    @Override
+    public void gameRemoved(String gameId) {
+        Match match = matchesByGame.remove(gameId);
+        if (match != null) {
+            GameState outcome = outcomes.remove(gameId);
+            executor.execute(() -> resolve(match, outcome));
+        }
+    }
+
+    private void resolve(Match match, GameState outcome) {
+        Tournament tournament = match.getTournament();
+        play(tournament, tournament.report(match, outcome));
+        if (tournament.isRoundComplete()) {
+            advance(tournament);
+        }
+    }
+
+    /**
+     * Pairs the rounds of a tournament until one has matches to wait for, or the tournament is finished.
+     */
+    private void advance(Tournament tournament) {
+        while (!tournament.isFinished()) {
+            long start = System.nanoTime();
+            List<Match> matches = tournament.nextRound();
+            play(tournament, matches);
+            logger.debug("Tournament {} round {}: {} matches started in {} µs", tournament.getId(),
+                    tournament.getRound(), matches.size(), (System.nanoTime() - start) / 1000);
+            onRound.accept(tournament);
+            if (!tournament.isRoundComplete()) {
+                return;
+            }
+        }
+        onRound.accept(tournament);
+    }
+
+    /**
+     * Creates the games of the matches. A player still waiting for an opponent in another game leaves it first, unless
+     * their opponent is playing another game; a player playing another game forfeits the match.
+     */
+    private void play(Tournament tournament, List<Match> matches) {
+        Deque<Match> queue = new ArrayDeque<>(matches);
+        Match match;
+        while ((match = queue.poll()) != null) {
+            TicTacToe game = createGame(tournament, match);
+            if (game == null && !isPlaying(match.getPlayer1()) && !isPlaying(match.getPlayer2())) {
+                String closed1 = leaveOpenGame(match.getPlayer1());
+                String closed2 = leaveOpenGame(match.getPlayer2());
+                if (closed1 != null || closed2 != null) {
+                    game = createGame(tournament, match);
+                }
+                if (game != null && closed1 != null) {
+                    onMoved.accept(closed1, game);
+                }
+                if (game != null && closed2 != null) {
+                    onMoved.accept(closed2, game);
+                }
+            }
+            if (game != null) {
+                continue;
+            }
+            boolean busy1 = isPlaying(match.getPlayer1());
+            boolean busy2 = isPlaying(match.getPlayer2());
+            GameState outcome = busy1 == busy2 ? null : busy1 ? GameState.PLAYER2_WON : GameState.PLAYER1_WON;
+            queue.addAll(tournament.report(match, outcome));
+        }
+    }
+
+    private TicTacToe createGame(Tournament tournament, Match match) {
+        creating.set(match);
+        try {
+            return manager.createMatch(match.getPlayer1(), match.getPlayer2(), tournament.getVariant());
+        } finally {
+            creating.remove();
+        }
+    }
+
+    /**
+     * Check if a player is seated in a game with an opponent.
+     */
+    private boolean isPlaying(String player) {
+        TicTacToe game = manager.getGameByPlayer(player);
+        return game != null && game.getPlayer2() != null;
+    }
+
+    /**
+     * Removes the game in which a player waits for an opponent, if any.
+     *
+     * @return the ID of the removed game, or null if the player was not waiting
+     */
+    private String leaveOpenGame(String player) {
+        TicTacToe game = manager.getGameByPlayer(player);
+        if (game == null || game.getPlayer2() != null) {
+            return null;
+        }
+        manager.leaveGame(player);
+        return game.getGameId();
+    }
+}
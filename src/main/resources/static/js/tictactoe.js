@@ -1,6 +1,7 @@
 let stompClient = null;
 let game = null;
 let player = null;
+let gameSubscription = null;
 
 /**
  * Sends a message to the server using the STOMP client.
@@ -37,21 +38,30 @@ const messagesTypes = {
         else showWinner(message.winner);
     },
     "game.joined": (message) => {
-        if (game !== null && game.gameId !== message.gameId) return;
         player = localStorage.getItem("playerName");
         updateGame(message);
-
-        const socket = new SockJS('/ws');
-        stompClient = Stomp.over(socket);
-        stompClient.connect({}, function (frame) {
-            stompClient.subscribe(`/topic/game.${message.gameId}`, function (message) {
-                handleMessage(JSON.parse(message.body));
-            });
-        });
+        subscribeToGame(message.gameId);
     },
-    "game.move": (message) => {
+    "game.delta": (message) => {
+        applyDelta(message);
+    },
+    "game.resync": (message) => {
         updateGame(message);
     },
+    "game.expired": (message) => {
+        updateGame(message);
+        toastr.warning(message.content);
+    },
+    "tournament.match": (message) => {
+        updateGame(message);
+        subscribeToGame(message.gameId);
+        toastr.info(message.content);
+    },
+    "game.moved": (message) => {
+        updateGame(message);
+        subscribeToGame(message.gameId);
+        toastr.info(message.content);
+    },
     "game.left": (message) => {
         updateGame(message);
         if (message.winner) showWinner(message.winner);
@@ -83,8 +93,56 @@ const messageToGame = (message) => {
         player1: message.player1,
         player2: message.player2,
         gameState: message.gameState,
-        winner: message.winner
+        winner: message.winner,
+        winLength: message.winLength || message.board.length,
+        seq: message.seq
+    }
+}
+
+/**
+ * Applies a move delta on top of the current game. Deltas older than the current snapshot are ignored;
+ * if a delta was missed, a full snapshot is requested instead.
+ * @param {Object} message - The delta received, with the sequence number, cell, mark and resulting game state.
+ */
+const applyDelta = (message) => {
+    if (!game || message.gameId !== game.gameId || message.seq <= game.seq) return;
+    if (message.seq !== game.seq + 1) {
+        requestResync();
+        return;
     }
+    const size = game.board.length;
+    game.board[Math.floor(message.cell / size)][message.cell % size] = message.mark;
+    game.seq = message.seq;
+    game.gameState = message.gameState;
+    if (message.gameState === 'PLAYER1_TURN') game.turn = game.player1;
+    else if (message.gameState === 'PLAYER2_TURN') game.turn = game.player2;
+    else if (message.gameState === 'PLAYER1_WON') game.winner = game.player1;
+    else if (message.gameState === 'PLAYER2_WON') game.winner = game.player2;
+    renderGame();
+
+    if (message.gameState === 'TIE') toastr.success(`Game over! It's a tie!`);
+    else if (game.winner) showWinner(game.winner);
+}
+
+/**
+ * Asks the server for a full snapshot of the current game, sent back on "/user/queue/game.state".
+ */
+const requestResync = () => {
+    sendMessage({
+        type: "game.resync",
+        gameId: game.gameId
+    });
+}
+
+/**
+ * Subscribes to the topic of the given game, replacing any previous game subscription.
+ * @param {String} gameId - The ID of the game.
+ */
+const subscribeToGame = (gameId) => {
+    if (gameSubscription) gameSubscription.unsubscribe();
+    gameSubscription = stompClient.subscribe(`/topic/game.${gameId}`, function (message) {
+        handleMessage(JSON.parse(message.body));
+    });
 }
 
 /**
@@ -93,15 +151,47 @@ const messageToGame = (message) => {
  */
 const showWinner = (winner) => {
     toastr.success(`The winner is ${winner}!`);
-    const winningPositions = getWinnerPositions(game.board);
-    if (winningPositions && winningPositions.length === 3) {
-        winningPositions.forEach(position => {
-            const row = Math.floor(position / 3);
-            const cell = position % 3;
-            let cellElement = document.querySelector(`.row-${row} .cell-${cell} span`);
-            cellElement.style.backgroundColor = '#b3e6ff';
-        });
-    }
+    const size = game.board.length;
+    getWinnerPositions(game.board, game.winLength).forEach(position => {
+        const row = Math.floor(position / size);
+        const cell = position % size;
+        let cellElement = document.querySelector(`.row-${row} .cell-${cell} span`);
+        if (cellElement) cellElement.style.backgroundColor = '#b3e6ff';
+    });
+}
+
+/**
+ * Returns the board chosen by the player, stored as "size:winLength".
+ * @returns {Object} The size and win length of the board.
+ */
+const selectedVariant = () => {
+    const [size, winLength] = (localStorage.getItem("boardVariant") || "3:3").split(":").map(Number);
+    return {size, winLength};
+}
+
+/**
+ * Sends a message to the server requesting to join a game on the chosen board.
+ * @param {String} playerName - The name of the player.
+ */
+const sendJoin = (playerName) => {
+    const variant = selectedVariant();
+    sendMessage({
+        type: "game.join",
+        player: playerName,
+        size: variant.size,
+        winLength: variant.winLength
+    });
+}
+
+/**
+ * Stores the board chosen in the selector. It is used right away if the player is not in a game yet,
+ * and the next time they join otherwise.
+ */
+const changeVariant = () => {
+    localStorage.setItem("boardVariant", document.getElementById("variant").value);
+    const playerName = localStorage.getItem("playerName");
+    if (!game && playerName) sendJoin(playerName);
+    else if (game) toastr.info("The new board will be used the next time you join a game.");
 }
 
 /**
@@ -110,20 +200,18 @@ const showWinner = (winner) => {
 const joinGame = () => {
     const playerName = prompt("Enter your name:");
     localStorage.setItem("playerName", playerName);
-    sendMessage({
-        type: "game.join",
-        player: playerName
-    });
+    sendJoin(playerName);
 }
 
 /**
- * Connects the STOMP client to the server and subscribes to the "/topic/game.state" topic.
+ * Connects the STOMP client to the server and subscribes to this session's "/user/queue/game.state" queue,
+ * where the server replies to join requests.
  */
 const connect = () => {
     const socket = new SockJS('/ws');
     stompClient = Stomp.over(socket);
     stompClient.connect({}, function (frame) {
-        stompClient.subscribe('/topic/game.state', function (message) {
+        stompClient.subscribe('/user/queue/game.state', function (message) {
             handleMessage(JSON.parse(message.body));
         });
         loadGame();
@@ -136,10 +224,7 @@ const connect = () => {
 const loadGame = () => {
     const playerName = localStorage.getItem("playerName");
     if (playerName) {
-        sendMessage({
-            type: "game.join",
-            player: playerName
-        });
+        sendJoin(playerName);
     } else {
         joinGame();
     }
@@ -151,18 +236,50 @@ const loadGame = () => {
  */
 const updateGame = (message) => {
     game = messageToGame(message);
-    updateBoard(message.board);
+    renderGame();
+}
+
+/**
+ * Renders the current game state.
+ */
+const renderGame = () => {
+    updateBoard(game.board);
     document.getElementById("player1").innerHTML = game.player1;
     document.getElementById("player2").innerHTML = game.player2 || (game.winner ? '-' : 'Waiting for player 2...');
     document.getElementById("turn").innerHTML = game.turn;
     document.getElementById("winner").innerHTML = game.winner || '-';
 }
 
+/**
+ * Rebuilds the grid of the board when its size changes, scaling the cells so large boards fit on the screen.
+ * @param {Number} size - The number of rows and columns of the board.
+ */
+const buildGrid = (size) => {
+    const boardElement = document.getElementById("board");
+    if (boardElement.childElementCount === size) return;
+    boardElement.innerHTML = '';
+    for (let r = 0; r < size; r++) {
+        const rowElement = document.createElement("div");
+        rowElement.className = `row row-${r}`;
+        for (let c = 0; c < size; c++) {
+            const cellElement = document.createElement("div");
+            cellElement.className = `cell cell-${c}`;
+            rowElement.appendChild(cellElement);
+        }
+        boardElement.appendChild(rowElement);
+    }
+    const width = size <= 3 ? 300 : Math.min(size * 32, 608);
+    boardElement.style.width = `${width}px`;
+    boardElement.style.height = `${width}px`;
+    boardElement.style.setProperty('--cell-font', `${Math.floor(width / size / 2)}px`);
+}
+
 /**
  * Updates the game board with the information received from the server.
  * @param {Array} board - The board received from the server.
  */
 const updateBoard = (board) => {
+    buildGrid(board.length);
     let counter = 0;
     board.forEach((row, rowIndex) => {
         row.forEach((cell, cellIndex) => {
@@ -174,37 +291,36 @@ const updateBoard = (board) => {
 }
 
 /**
- * Get the winner positions from the board.
+ * Get the winner positions from the board: the cells of every run of at least winLength equal marks,
+ * along rows, columns, diagonals and anti-diagonals.
  * @param {Array} board - The board received from the server.
+ * @param {Number} winLength - The number of marks in a row needed to win.
  */
-const getWinnerPositions = (board) => {
+const getWinnerPositions = (board, winLength) => {
+    const size = board.length;
     const winnerPositions = [];
+    const directions = [[0, 1], [1, 0], [1, 1], [1, -1]];
+    const markAt = (r, c) => r >= 0 && r < size && c >= 0 && c < size ? board[r][c] : null;
 
-    for (let i = 0; i < 3; i++) {
-        if (board[i][0] === board[i][1] && board[i][1] === board[i][2] && board[i][0] !== ' ') {
-            winnerPositions.push(i * 3);
-            winnerPositions.push(i * 3 + 1);
-            winnerPositions.push(i * 3 + 2);
-        }
-    }
-
-    for (let i = 0; i < 3; i++) {
-        if (board[0][i] === board[1][i] && board[1][i] === board[2][i] && board[0][i] !== ' ') {
-            winnerPositions.push(i);
-            winnerPositions.push(i + 3);
-            winnerPositions.push(i + 6);
+    for (let r = 0; r < size; r++) {
+        for (let c = 0; c < size; c++) {
+            const mark = board[r][c];
+            if (mark === ' ') continue;
+            directions.forEach(([dr, dc]) => {
+                // Only count from the first cell of a run.
+                if (markAt(r - dr, c - dc) === mark) return;
+                let length = 0;
+                while (markAt(r + length * dr, c + length * dc) === mark) length++;
+                if (length < winLength) return;
+                for (let i = 0; i < length; i++) winnerPositions.push((r + i * dr) * size + c + i * dc);
+            });
         }
     }
 
-    if (board[0][0] === board[1][1] && board[1][1] === board[2][2] && board[0][0] !== ' ') {
-        winnerPositions.push(0);
-        winnerPositions.push(4);
-        winnerPositions.push(8);
-    }
-
     return winnerPositions;
 }
 
 window.onload = function () {
+    document.getElementById("variant").value = localStorage.getItem("boardVariant") || "3:3";
     connect();
 }
@@ -3,7 +3,7 @@ package com.joabsonlg.tictactoewebsocket;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = {"tictactoe.journal.enabled=false", "tictactoe.archive.enabled=false"})
 class TictactoewebsocketApplicationTests {
 
     @Test
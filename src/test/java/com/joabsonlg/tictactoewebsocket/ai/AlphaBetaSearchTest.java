@@ -0,0 +1,106 @@
+package com.joabsonlg.tictactoewebsocket.ai;
+
+import com.joabsonlg.tictactoewebsocket.engine.Board;
+import com.joabsonlg.tictactoewebsocket.engine.PositionTable;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public class AlphaBetaSearchTest {
+
+    private static final long NO_LIMIT = TimeUnit.MINUTES.toNanos(1);
+
+    //// search() ////
+
+    /**
+     * Tests that the full-depth search agrees with the position table on the outcome of every classic position.
+     */
+    @Test
+    void testSearch_agreesWithPositionTable() {
+        AlphaBetaSearch search = new AlphaBetaSearch(NO_LIMIT, 1 << 20);
+        List<int[]> positions = new ArrayList<>();
+        collect(new int[0], new HashSet<>(), positions);
+        for (int[] moves : positions) {
+            TicTacToe game = play(3, 3, moves);
+            AlphaBetaSearch.Result result = search.search(game, NO_LIMIT, 9);
+            int expected = Integer.signum(PositionTable.value(game.getPosition()));
+            int score = result.score();
+            int actual = score > AlphaBetaSearch.WIN / 2 ? 1 : score < -AlphaBetaSearch.WIN / 2 ? -1 : 0;
+            Assertions.assertEquals(expected, actual, () -> "moves " + Arrays.toString(moves));
+            Assertions.assertEquals(Board.EMPTY, game.markAt(result.move()));
+        }
+        Assertions.assertTrue(positions.size() > 4000);
+    }
+
+    /**
+     * Tests that five in a row is completed on a 15x15 board, and blocked when it is the opponent's.
+     */
+    @Test
+    void testSearch_winsAndBlocksOnLargeBoard() {
+        AlphaBetaSearch search = new AlphaBetaSearch(TimeUnit.MILLISECONDS.toNanos(200), 1 << 20);
+        // X on row 7, columns 3 to 6; O scattered. X to move completes the row on 2 or 7.
+        TicTacToe xToMove = play(15, 5, new int[]{cell(7, 3), cell(0, 0), cell(7, 4), cell(0, 14), cell(7, 5),
+                cell(14, 0), cell(7, 6), cell(14, 14)});
+        int win = search.bestMove(xToMove);
+        Assertions.assertTrue(win == cell(7, 2) || win == cell(7, 7), "move " + win);
+
+        // X on row 7, columns 3 to 6 with column 2 taken by O; O to move must block on 7.
+        TicTacToe oToMove = play(15, 5, new int[]{cell(7, 3), cell(7, 2), cell(7, 4), cell(0, 14), cell(7, 5),
+                cell(14, 0), cell(7, 6)});
+        Assertions.assertEquals(cell(7, 7), search.bestMove(oToMove));
+    }
+
+    /**
+     * Tests that the search stops close to its time budget and still returns a legal move.
+     */
+    @Test
+    void testSearch_respectsTimeBudget() {
+        AlphaBetaSearch search = new AlphaBetaSearch(NO_LIMIT, 1 << 20);
+        TicTacToe game = play(15, 5, new int[]{cell(7, 7), cell(7, 8), cell(8, 8)});
+        long budget = TimeUnit.MILLISECONDS.toNanos(50);
+        AlphaBetaSearch.Result result = search.search(game, budget, 64);
+        Assertions.assertTrue(result.elapsedNanos() < budget + TimeUnit.MILLISECONDS.toNanos(500),
+                "took " + result.elapsedNanos());
+        Assertions.assertTrue(result.depth() >= 1);
+        Assertions.assertEquals(Board.EMPTY, game.markAt(result.move()));
+        Assertions.assertTrue(result.probes() > 0 && result.hits() <= result.probes());
+    }
+
+    /**
+     * Collects a move sequence reaching each undecided position of the classic board.
+     */
+    private static void collect(int[] moves, Set<Integer> seen, List<int[]> positions) {
+        TicTacToe game = play(3, 3, moves);
+        // Placed marks do not set the winner, so finished games are the ones the table has no move for.
+        if (PositionTable.bestMove(game.getPosition()) < 0 || !seen.add(game.getPosition())) {
+            return;
+        }
+        positions.add(moves);
+        for (int cell = 0; cell < 9; cell++) {
+            if (game.markAt(cell) == Board.EMPTY) {
+                int[] next = Arrays.copyOf(moves, moves.length + 1);
+                next[moves.length] = cell;
+                collect(next, seen, positions);
+            }
+        }
+    }
+
+    private static TicTacToe play(int size, int winLength, int[] moves) {
+        TicTacToe game = new TicTacToe("alice", "bob", size, winLength);
+        for (int i = 0; i < moves.length; i++) {
+            game.placeMark(moves[i], i % 2 == 0 ? Board.X : Board.O);
+        }
+        return game;
+    }
+
+    private static int cell(int row, int col) {
+        return row * 15 + col;
+    }
+}
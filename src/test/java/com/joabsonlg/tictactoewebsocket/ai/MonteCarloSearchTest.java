@@ -0,0 +1,103 @@
+package com.joabsonlg.tictactoewebsocket.ai;
+
+import com.joabsonlg.tictactoewebsocket.engine.Board;
+import com.joabsonlg.tictactoewebsocket.engine.PositionTable;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+public class MonteCarloSearchTest {
+
+    private static final long NO_LIMIT = TimeUnit.MINUTES.toNanos(1);
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    //// search() ////
+
+    /**
+     * Tests that every playout of the quota runs, split over the workers, when time is not the limit.
+     */
+    @Test
+    void testSearch_runsAllPlayoutsOnEveryWorker() {
+        MonteCarloSearch search = new MonteCarloSearch(pool, 10_001, NO_LIMIT, 4);
+        MonteCarloSearch.Result result = search.search(play(7, 4, new int[]{24}));
+        Assertions.assertEquals(10_001, result.playouts());
+        Assertions.assertEquals(Board.EMPTY, play(7, 4, new int[]{24}).markAt(result.move()));
+        Assertions.assertTrue(result.playoutsPerSecond() > 0);
+    }
+
+    /**
+     * Tests that the search plays the classic board as well as the position table from positions with a forced
+     * result: it wins the won ones and does not lose the drawn ones.
+     */
+    @Test
+    void testSearch_findsForcedResultsOnClassicBoard() {
+        MonteCarloSearch search = new MonteCarloSearch(pool, 20_000, NO_LIMIT, 4);
+        int[][] openings = {{0, 4, 8}, {4, 0}, {0, 1, 4}, {4, 0, 8, 2}, {}};
+        for (int[] moves : openings) {
+            TicTacToe game = play(3, 3, moves);
+            int value = PositionTable.value(game.getPosition());
+            int move = search.bestMove(game);
+            Assertions.assertEquals(Board.EMPTY, game.markAt(move));
+            game.placeMark(move, moves.length % 2 == 0 ? Board.X : Board.O);
+            // The value after the move is the opponent's, so a won position must stay lost for them.
+            int after = PositionTable.value(game.getPosition());
+            if (value > 0) {
+                Assertions.assertTrue(after < 0, "gave the win away after " + Arrays.toString(moves));
+            } else if (value == 0) {
+                Assertions.assertTrue(after <= 0, "lost a drawn position after " + Arrays.toString(moves));
+            }
+        }
+    }
+
+    /**
+     * Tests that five in a row is completed on a 15x15 board, and blocked when it is the opponent's.
+     */
+    @Test
+    void testSearch_winsAndBlocksOnLargeBoard() {
+        MonteCarloSearch search = new MonteCarloSearch(pool, 40_000, NO_LIMIT, 4);
+        TicTacToe xToMove = play(15, 5, new int[]{cell(7, 3), cell(0, 0), cell(7, 4), cell(0, 14), cell(7, 5),
+                cell(14, 0), cell(7, 6), cell(14, 14)});
+        int win = search.bestMove(xToMove);
+        Assertions.assertTrue(win == cell(7, 2) || win == cell(7, 7), "move " + win);
+
+        TicTacToe oToMove = play(15, 5, new int[]{cell(7, 3), cell(7, 2), cell(7, 4), cell(0, 14), cell(7, 5),
+                cell(14, 0), cell(7, 6)});
+        Assertions.assertEquals(cell(7, 7), search.bestMove(oToMove));
+    }
+
+    /**
+     * Tests that the search stops close to its time budget.
+     */
+    @Test
+    void testSearch_respectsTimeBudget() {
+        long budget = TimeUnit.MILLISECONDS.toNanos(50);
+        MonteCarloSearch search = new MonteCarloSearch(pool, Long.MAX_VALUE, budget, 2);
+        MonteCarloSearch.Result result = search.search(play(15, 5, new int[]{cell(7, 7)}));
+        Assertions.assertTrue(result.elapsedNanos() < budget + TimeUnit.MILLISECONDS.toNanos(500),
+                "took " + result.elapsedNanos());
+        Assertions.assertTrue(result.playouts() > 0);
+    }
+
+    private static TicTacToe play(int size, int winLength, int[] moves) {
+        TicTacToe game = new TicTacToe("alice", "bob", size, winLength);
+        for (int i = 0; i < moves.length; i++) {
+            game.placeMark(moves[i], i % 2 == 0 ? Board.X : Board.O);
+        }
+        return game;
+    }
+
+    private static int cell(int row, int col) {
+        return row * 15 + col;
+    }
+}
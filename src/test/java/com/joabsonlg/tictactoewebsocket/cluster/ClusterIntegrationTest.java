@@ -0,0 +1,187 @@
+package com.joabsonlg.tictactoewebsocket.cluster;
+
+import com.joabsonlg.tictactoewebsocket.TictactoewebsocketApplication;
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.model.dto.JoinMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.PlayerMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.TicTacToeMessage;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end tests of two nodes started in this JVM and connected by the {@link LoopbackRelay}.
+ */
+public class ClusterIntegrationTest {
+
+    private static final List<String> NODES = List.of("node-a", "node-b");
+
+    private static ConfigurableApplicationContext nodeA;
+    private static ConfigurableApplicationContext nodeB;
+
+    private WebSocketStompClient stompClient;
+    private final List<StompSession> sessions = new ArrayList<>();
+
+    @BeforeAll
+    static void startNodes() {
+        nodeA = startNode("node-a");
+        nodeB = startNode("node-b");
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        stompClient = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessions.forEach(StompSession::disconnect);
+        stompClient.stop();
+    }
+
+    /**
+     * Tests that a game is owned by the node it was created on, that a move sent to the other node is forwarded to the
+     * owner and that its broadcast reaches the subscribers of both nodes.
+     */
+    @Test
+    void testMove_forwardedToOwnerAndBroadcastToEveryNode() throws Exception {
+        StompSession alice = connect(nodeA);
+        BlockingQueue<TicTacToeMessage> aliceReplies = subscribe(alice, "/user/queue/game.state");
+        alice.send("/app/game.join", joinMessage("alice"));
+        TicTacToeMessage joined = aliceReplies.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(joined, "alice joined");
+        String gameId = joined.getGameId();
+        Assertions.assertEquals("node-a", new HashRing(NODES, 256).ownerOf(gameId));
+        BlockingQueue<TicTacToeMessage> aliceGame = subscribe(alice, "/topic/game." + gameId);
+
+        StompSession spectator = connect(nodeB);
+        BlockingQueue<TicTacToeMessage> spectatorGame = subscribe(spectator, "/topic/game." + gameId);
+
+        StompSession bob = connect(nodeA);
+        BlockingQueue<TicTacToeMessage> bobReplies = subscribe(bob, "/user/queue/game.state");
+        bob.send("/app/game.join", joinMessage("bob"));
+        Assertions.assertEquals(gameId, bobReplies.poll(5, TimeUnit.SECONDS).getGameId());
+        Assertions.assertEquals("game.join", aliceGame.poll(5, TimeUnit.SECONDS).getType());
+        TicTacToeMessage relayedJoin = spectatorGame.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(relayedJoin, "join relayed to node-b");
+        Assertions.assertEquals("bob", relayedJoin.getPlayer2());
+
+        // Alice's move arrives at node-b, e.g. after a reconnection, and is played on node-a.
+        StompSession aliceOnB = connect(nodeB);
+        TicTacToeMessage move = new TicTacToeMessage();
+        move.setType("game.move");
+        move.setGameId(gameId);
+        move.setSender("alice");
+        move.setMove(4);
+        aliceOnB.send("/app/game.move", move);
+
+        TicTacToeMessage delta = aliceGame.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(delta, "move broadcast on node-a");
+        Assertions.assertEquals("game.delta", delta.getType());
+        Assertions.assertEquals(GameState.PLAYER2_TURN, delta.getGameState());
+        TicTacToeMessage relayedDelta = spectatorGame.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(relayedDelta, "move relayed to node-b");
+        Assertions.assertEquals("game.delta", relayedDelta.getType());
+        Assertions.assertEquals(delta.getSeq(), relayedDelta.getSeq());
+    }
+
+    /**
+     * Tests that a resync sent to a node not owning the game is answered by the owner to the requesting session.
+     */
+    @Test
+    void testResync_answeredByOwnerToSessionOnOtherNode() throws Exception {
+        StompSession carol = connect(nodeB);
+        BlockingQueue<TicTacToeMessage> carolReplies = subscribe(carol, "/user/queue/game.state");
+        carol.send("/app/game.join", joinMessage("carol"));
+        TicTacToeMessage joined = carolReplies.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(joined, "carol joined");
+        Assertions.assertEquals("node-b", new HashRing(NODES, 256).ownerOf(joined.getGameId()));
+
+        StompSession other = connect(nodeA);
+        BlockingQueue<TicTacToeMessage> otherReplies = subscribe(other, "/user/queue/game.state");
+        PlayerMessage resync = new PlayerMessage();
+        resync.setType("game.resync");
+        resync.setGameId(joined.getGameId());
+        resync.setPlayer("carol");
+        other.send("/app/game.resync", resync);
+
+        TicTacToeMessage snapshot = otherReplies.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(snapshot, "snapshot from node-b");
+        Assertions.assertEquals("game.resync", snapshot.getType());
+        Assertions.assertEquals("carol", snapshot.getPlayer1());
+        Assertions.assertNull(carolReplies.poll(200, TimeUnit.MILLISECONDS), "nothing for the player's own session");
+    }
+
+    private static ConfigurableApplicationContext startNode(String nodeId) {
+        return new SpringApplicationBuilder(TictactoewebsocketApplication.class).run(
+                "--server.port=0",
+                "--spring.jmx.enabled=false",
+                "--tictactoe.journal.enabled=false",
+                "--tictactoe.archive.enabled=false",
+                "--tictactoe.cluster.enabled=true",
+                "--tictactoe.cluster.node-id=" + nodeId,
+                "--tictactoe.cluster.nodes=" + String.join(",", NODES));
+    }
+
+    private StompSession connect(ConfigurableApplicationContext node) throws Exception {
+        int port = ((WebServerApplicationContext) node).getWebServer().getPort();
+        StompSession session = stompClient.connectAsync("ws://localhost:" + port + "/ws", new StompSessionHandlerAdapter() {
+        }).get(5, TimeUnit.SECONDS);
+        sessions.add(session);
+        return session;
+    }
+
+    private static BlockingQueue<TicTacToeMessage> subscribe(StompSession session, String destination) throws Exception {
+        BlockingQueue<TicTacToeMessage> messages = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return TicTacToeMessage.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                messages.add((TicTacToeMessage) payload);
+            }
+        });
+        // Make sure the subscription is registered before anything is sent.
+        Thread.sleep(100);
+        return messages;
+    }
+
+    private static JoinMessage joinMessage(String player) {
+        JoinMessage message = new JoinMessage();
+        message.setType("game.join");
+        message.setPlayer(player);
+        return message;
+    }
+}
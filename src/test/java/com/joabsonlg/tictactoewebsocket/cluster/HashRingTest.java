@@ -0,0 +1,75 @@
+package com.joabsonlg.tictactoewebsocket.cluster;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+public class HashRingTest {
+
+    //// ownerOf() ////
+
+    /**
+     * Tests that rings built from the same nodes in any order agree on every owner.
+     */
+    @Test
+    void testOwnerOf_sameOnEveryNode() {
+        HashRing ring = new HashRing(List.of("a", "b", "c"), 64);
+        HashRing other = new HashRing(List.of("c", "a", "b", "a"), 64);
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            String key = key(random);
+            Assertions.assertEquals(ring.ownerOf(key), other.ownerOf(key));
+        }
+        Assertions.assertEquals(List.of("a", "b", "c"), other.getNodes());
+    }
+
+    /**
+     * Tests that the keys are spread evenly over the nodes.
+     */
+    @Test
+    void testOwnerOf_balanced() {
+        HashRing ring = new HashRing(List.of("a", "b", "c", "d"), 256);
+        Map<String, Integer> counts = new HashMap<>();
+        Random random = new Random(42);
+        int keys = 40_000;
+        for (int i = 0; i < keys; i++) {
+            counts.merge(ring.ownerOf(key(random)), 1, Integer::sum);
+        }
+        Assertions.assertEquals(4, counts.size());
+        counts.values().forEach(count -> Assertions.assertTrue(Math.abs(count - keys / 4) < keys / 4 * 0.25,
+                "unbalanced " + counts));
+    }
+
+    /**
+     * Tests that adding a node only moves keys to the new node, about its share of them.
+     */
+    @Test
+    void testOwnerOf_addingNodeMovesOnlyItsShare() {
+        HashRing before = new HashRing(List.of("a", "b", "c"), 256);
+        HashRing after = new HashRing(List.of("a", "b", "c", "d"), 256);
+        Random random = new Random(42);
+        int keys = 20_000;
+        int moved = 0;
+        for (int i = 0; i < keys; i++) {
+            String key = key(random);
+            String owner = after.ownerOf(key);
+            if (!owner.equals(before.ownerOf(key))) {
+                Assertions.assertEquals("d", owner);
+                moved++;
+            }
+        }
+        Assertions.assertTrue(moved > keys / 4 * 0.75 && moved < keys / 4 * 1.25, "moved " + moved);
+    }
+
+    /**
+     * Game IDs drawn from a fixed seed, so the bounds are checked against the same keys on every run.
+     */
+    private static String key(Random random) {
+        return new UUID(random.nextLong(), random.nextLong()).toString();
+    }
+}
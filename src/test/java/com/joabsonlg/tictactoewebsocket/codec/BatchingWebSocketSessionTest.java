@@ -0,0 +1,145 @@
+package com.joabsonlg.tictactoewebsocket.codec;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class BatchingWebSocketSessionTest {
+
+    private final List<Integer> batches = new CopyOnWriteArrayList<>();
+    private final WebSocketSession delegate = Mockito.mock(WebSocketSession.class);
+    private FrameBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        batcher.close();
+    }
+
+    //// sendMessage() ////
+
+    /**
+     * Tests that the frames sent within the window are written as one message once the window ends.
+     */
+    @Test
+    void testSendMessage_coalescedWithinWindow() throws Exception {
+        BatchingWebSocketSession session = session(TimeUnit.MILLISECONDS.toNanos(200), 32);
+        session.sendMessage(new TextMessage("MESSAGE\n\nmove\0"));
+        session.sendMessage(new TextMessage("MESSAGE\n\nbot\0"));
+
+        ArgumentCaptor<WebSocketMessage<?>> written = ArgumentCaptor.forClass(WebSocketMessage.class);
+        Mockito.verify(delegate, Mockito.timeout(5000)).sendMessage(written.capture());
+        Assertions.assertEquals("MESSAGE\n\nmove\0MESSAGE\n\nbot\0", written.getValue().getPayload());
+        Assertions.assertEquals(List.of(2), batches);
+    }
+
+    /**
+     * Tests that a batch reaching the message limit is written right away.
+     */
+    @Test
+    void testSendMessage_flushedAtLimit() throws Exception {
+        BatchingWebSocketSession session = session(TimeUnit.HOURS.toNanos(1), 3);
+        for (int i = 0; i < 7; i++) {
+            session.sendMessage(new TextMessage("F" + i + "\0"));
+        }
+        ArgumentCaptor<TextMessage> written = ArgumentCaptor.forClass(TextMessage.class);
+        Mockito.verify(delegate, Mockito.times(2)).sendMessage(written.capture());
+        Assertions.assertEquals(List.of("F0\0F1\0F2\0", "F3\0F4\0F5\0"),
+                written.getAllValues().stream().map(TextMessage::getPayload).toList());
+
+        session.flush();
+        Mockito.verify(delegate, Mockito.times(3)).sendMessage(Mockito.any());
+        Assertions.assertEquals(List.of(3, 3, 1), batches);
+    }
+
+    /**
+     * Tests that text and binary frames are not mixed and that heart-beats are sent on their own, after the frames
+     * sent before them.
+     */
+    @Test
+    void testSendMessage_separatesBinaryAndHeartbeats() throws Exception {
+        BatchingWebSocketSession session = session(TimeUnit.HOURS.toNanos(1), 32);
+        session.sendMessage(new TextMessage("A\0"));
+        session.sendMessage(new BinaryMessage("B\0".getBytes(StandardCharsets.UTF_8)));
+        session.sendMessage(new BinaryMessage("C\0".getBytes(StandardCharsets.UTF_8)));
+        session.sendMessage(new TextMessage("\n"));
+
+        ArgumentCaptor<WebSocketMessage<?>> written = ArgumentCaptor.forClass(WebSocketMessage.class);
+        Mockito.verify(delegate, Mockito.times(3)).sendMessage(written.capture());
+        List<WebSocketMessage<?>> messages = written.getAllValues();
+        Assertions.assertEquals("A\0", messages.get(0).getPayload());
+        BinaryMessage binary = (BinaryMessage) messages.get(1);
+        Assertions.assertEquals("B\0C\0", StandardCharsets.UTF_8.decode(binary.getPayload()).toString());
+        Assertions.assertEquals("\n", messages.get(2).getPayload());
+    }
+
+    /**
+     * Tests that a timed flush blocked on a client that does not read does not delay the flush of another session.
+     */
+    @Test
+    void testSendMessage_blockedClientDoesNotDelayOthers() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        WebSocketSession slow = Mockito.mock(WebSocketSession.class);
+        Mockito.doAnswer(invocation -> {
+            blocked.countDown();
+            release.await();
+            return null;
+        }).when(slow).sendMessage(Mockito.any());
+        batcher = new FrameBatcher(TimeUnit.MILLISECONDS.toNanos(20), 32, 64 * 1024, 1, batches::add);
+        try {
+            BatchingWebSocketSession slowSession = new BatchingWebSocketSession(slow, batcher);
+            BatchingWebSocketSession session = new BatchingWebSocketSession(delegate, batcher);
+            slowSession.sendMessage(new TextMessage("MESSAGE\n\nslow\0"));
+            Assertions.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+
+            long start = System.nanoTime();
+            session.sendMessage(new TextMessage("MESSAGE\n\nmove\0"));
+            session.sendMessage(new TextMessage("MESSAGE\n\nbot\0"));
+            ArgumentCaptor<WebSocketMessage<?>> written = ArgumentCaptor.forClass(WebSocketMessage.class);
+            Mockito.verify(delegate, Mockito.timeout(1000)).sendMessage(written.capture());
+            Assertions.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+            Assertions.assertEquals("MESSAGE\n\nmove\0MESSAGE\n\nbot\0", written.getValue().getPayload());
+
+            // A frame sent to the slow session meanwhile is written once the blocked write returns.
+            slowSession.sendMessage(new TextMessage("MESSAGE\n\nlater\0"));
+            release.countDown();
+            Mockito.verify(slow, Mockito.timeout(5000).times(2)).sendMessage(Mockito.any());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    //// close() ////
+
+    /**
+     * Tests that the pending batch is written before the session is closed.
+     */
+    @Test
+    void testClose_flushesPending() throws Exception {
+        BatchingWebSocketSession session = session(TimeUnit.HOURS.toNanos(1), 32);
+        session.sendMessage(new TextMessage("ERROR\n\n\0"));
+        session.close(CloseStatus.NORMAL);
+
+        var order = Mockito.inOrder(delegate);
+        order.verify(delegate).sendMessage(Mockito.any());
+        order.verify(delegate).close(CloseStatus.NORMAL);
+    }
+
+    private BatchingWebSocketSession session(long windowNanos, int maxMessages) {
+        batcher = new FrameBatcher(windowNanos, maxMessages, 64 * 1024, 1, batches::add);
+        return new BatchingWebSocketSession(delegate, batcher);
+    }
+}
@@ -0,0 +1,107 @@
+package com.joabsonlg.tictactoewebsocket.codec;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import com.joabsonlg.tictactoewebsocket.model.dto.JoinMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.MoveMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.TicTacToeMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+public class BinaryMessageCodecTest {
+
+    //// encode() / decode() ////
+
+    /**
+     * Tests that a full game snapshot survives a round trip, board included.
+     */
+    @Test
+    void testRoundTrip_snapshot() {
+        TicTacToe game = new TicTacToe("player1", "player2");
+        game.makeMove("player1", 4);
+        game.makeMove("player2", 0);
+        TicTacToeMessage message = new TicTacToeMessage(game);
+        message.setType("game.joined");
+
+        TicTacToeMessage decoded = (TicTacToeMessage) BinaryMessageCodec.decode(BinaryMessageCodec.encode(message));
+        Assertions.assertEquals("game.joined", decoded.getType());
+        Assertions.assertEquals(game.getGameId(), decoded.getGameId());
+        Assertions.assertEquals("player1", decoded.getPlayer1());
+        Assertions.assertEquals("player2", decoded.getPlayer2());
+        Assertions.assertNull(decoded.getWinner());
+        Assertions.assertEquals("player1", decoded.getTurn());
+        Assertions.assertEquals(GameState.PLAYER1_TURN, decoded.getGameState());
+        Assertions.assertEquals(2, decoded.getSeq());
+        Assertions.assertTrue(Arrays.deepEquals(game.getBoard(), decoded.getBoard()));
+        Assertions.assertEquals(3, decoded.getWinLength());
+    }
+
+    /**
+     * Tests that the snapshot of a large board keeps its size and win length.
+     */
+    @Test
+    void testRoundTrip_largeBoard() {
+        TicTacToe game = new TicTacToe("player1", "player2", 15, 5);
+        game.makeMove("player1", 224);
+        TicTacToeMessage decoded = (TicTacToeMessage) BinaryMessageCodec.decode(
+                BinaryMessageCodec.encode(new TicTacToeMessage(game)));
+        Assertions.assertEquals(15, decoded.getBoard().length);
+        Assertions.assertEquals(5, decoded.getWinLength());
+        Assertions.assertEquals("X", decoded.getBoard()[14][14]);
+    }
+
+    /**
+     * Tests that a move delta survives a round trip and stays small.
+     */
+    @Test
+    void testRoundTrip_delta() {
+        TicTacToe game = new TicTacToe("player1", "player2");
+        game.makeMove("player1", 8);
+        byte[] frame = BinaryMessageCodec.encode(new MoveMessage(game, 8));
+        Assertions.assertEquals(23, frame.length);
+
+        MoveMessage decoded = (MoveMessage) BinaryMessageCodec.decode(frame);
+        Assertions.assertEquals("game.delta", decoded.getType());
+        Assertions.assertEquals(game.getGameId(), decoded.getGameId());
+        Assertions.assertEquals(1, decoded.getSeq());
+        Assertions.assertEquals(8, decoded.getCell());
+        Assertions.assertEquals("X", decoded.getMark());
+        Assertions.assertEquals(GameState.PLAYER2_TURN, decoded.getGameState());
+    }
+
+    /**
+     * Tests that a client message with a free-form game ID and no board survives a round trip.
+     */
+    @Test
+    void testRoundTrip_join() {
+        JoinMessage message = new JoinMessage();
+        message.setType("game.join");
+        message.setGameId("not-a-uuid");
+        message.setPlayer("jogador ç");
+        message.setSize(15);
+        message.setWinLength(5);
+
+        JoinMessage decoded = (JoinMessage) BinaryMessageCodec.decode(BinaryMessageCodec.encode(message));
+        Assertions.assertEquals("game.join", decoded.getType());
+        Assertions.assertEquals("not-a-uuid", decoded.getGameId());
+        Assertions.assertEquals("jogador ç", decoded.getPlayer());
+        Assertions.assertNull(decoded.getContent());
+        Assertions.assertEquals(15, decoded.getSize());
+        Assertions.assertEquals(5, decoded.getWinLength());
+    }
+
+    /**
+     * Tests that truncated frames are rejected.
+     */
+    @Test
+    void testDecode_truncated() {
+        TicTacToe game = new TicTacToe("player1", null);
+        byte[] frame = BinaryMessageCodec.encode(new TicTacToeMessage(game));
+        for (int length = 0; length < frame.length; length++) {
+            byte[] truncated = Arrays.copyOf(frame, length);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> BinaryMessageCodec.decode(truncated));
+        }
+    }
+}
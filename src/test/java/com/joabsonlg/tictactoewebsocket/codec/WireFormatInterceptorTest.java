@@ -0,0 +1,78 @@
+package com.joabsonlg.tictactoewebsocket.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import com.joabsonlg.tictactoewebsocket.model.dto.TicTacToeMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+public class WireFormatInterceptorTest {
+
+    private final WireFormatInterceptor interceptor = new WireFormatInterceptor();
+
+    //// preSend() ////
+
+    /**
+     * Tests that a message to a binary session is encoded from the game message kept by the JSON converter, without
+     * reading its JSON back, and that a JSON session gets the JSON.
+     */
+    @Test
+    void testPreSend_encodesFromSource() {
+        connect("binary", true);
+        connect("json", false);
+        TicTacToe game = new TicTacToe("player1", "player2");
+        game.setGameState(GameState.PLAYER1_TURN);
+        game.makeMove("player1", 4);
+        TicTacToeMessage snapshot = new TicTacToeMessage(game);
+        snapshot.setType("game.move");
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setLeaveMutable(true);
+        Message<?> published = new GameJsonMessageConverter(new ObjectMapper())
+                .toMessage(snapshot, headers.getMessageHeaders());
+        Assertions.assertSame(snapshot, published.getHeaders().get(GameJsonMessageConverter.SOURCE_HEADER));
+
+        // Not JSON of a game message: only the kept snapshot can be encoded.
+        byte[] payload = "{}".getBytes(StandardCharsets.UTF_8);
+        Message<?> binary = interceptor.preSend(toSubscriber("binary", payload, published), null);
+        Assertions.assertArrayEquals(BinaryMessageCodec.encode(snapshot), (byte[]) binary.getPayload());
+        Assertions.assertEquals(BinaryMessageConverter.MIME_TYPE,
+                SimpMessageHeaderAccessor.wrap(binary).getContentType());
+
+        Message<?> json = interceptor.preSend(toSubscriber("json", payload, published), null);
+        Assertions.assertSame(payload, json.getPayload());
+    }
+
+    private void connect(String sessionId, boolean binary) {
+        Map<String, Object> attributes = new HashMap<>();
+        interceptor.beforeHandshake(null, null, null, attributes);
+        StompHeaderAccessor connect = StompHeaderAccessor.create(StompCommand.CONNECT);
+        connect.setSessionId(sessionId);
+        connect.setSessionAttributes(attributes);
+        if (binary) {
+            connect.setNativeHeader(WireFormatInterceptor.WIRE_FORMAT_HEADER, WireFormatInterceptor.BINARY);
+        }
+        interceptor.preSend(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()), null);
+        Assertions.assertEquals(binary, interceptor.isBinary(sessionId));
+    }
+
+    private static Message<?> toSubscriber(String sessionId, byte[] payload, Message<?> published) {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        headers.copyHeadersIfAbsent(published.getHeaders());
+        headers.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        headers.setLeaveMutable(true);
+        return MessageBuilder.createMessage(payload, headers.getMessageHeaders());
+    }
+}
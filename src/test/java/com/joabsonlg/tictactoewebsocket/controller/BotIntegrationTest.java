@@ -0,0 +1,151 @@
+package com.joabsonlg.tictactoewebsocket.controller;
+
+import com.joabsonlg.tictactoewebsocket.ai.AlphaBetaSearch;
+import com.joabsonlg.tictactoewebsocket.ai.BotEngine;
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.manager.TicTacToeManager;
+import com.joabsonlg.tictactoewebsocket.model.dto.JoinMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.MoveMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.TicTacToeMessage;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * End-to-end tests of a bot seated in a game whose player waited too long, playing with the alpha-beta search.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "tictactoe.journal.enabled=false", "tictactoe.archive.enabled=false", "tictactoe.bot.enabled=true",
+        "tictactoe.bot.wait=500ms", "tictactoe.expiry.tick=50ms", "tictactoe.bot.engine=ALPHA_BETA",
+        "tictactoe.bot.search.move-time=200ms", "tictactoe.bot.search.table-size=1MB"})
+public class BotIntegrationTest {
+
+    private static final int SIZE = 15;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private BotEngine botEngine;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private WebSocketStompClient stompClient;
+    private StompSession session;
+
+    @BeforeEach
+    void setUp() {
+        stompClient = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (session != null) {
+            session.disconnect();
+        }
+        stompClient.stop();
+    }
+
+    /**
+     * Tests that a player left waiting in a 15x15 game gets a bot, which answers every move with the alpha-beta
+     * search and blocks a line of five along the player's row.
+     */
+    @Test
+    void testBot_playsAlphaBetaOnLargeBoard() throws Exception {
+        Assertions.assertInstanceOf(AlphaBetaSearch.class, botEngine);
+        session = stompClient.connectAsync("ws://localhost:" + port + "/ws", new StompSessionHandlerAdapter() {
+        }).get(5, TimeUnit.SECONDS);
+        BlockingQueue<TicTacToeMessage> replies = subscribe(session, "/user/queue/game.state",
+                TicTacToeMessage.class, message -> true);
+        JoinMessage join = new JoinMessage();
+        join.setType("game.join");
+        join.setPlayer("kim");
+        join.setSize(SIZE);
+        join.setWinLength(5);
+        session.send("/app/game.join", join);
+        TicTacToeMessage joined = replies.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(joined, "join reply");
+        String gameId = joined.getGameId();
+        Assertions.assertEquals(SIZE, joined.getBoard().length);
+
+        BlockingQueue<TicTacToeMessage> joins = subscribe(session, "/topic/game." + gameId,
+                TicTacToeMessage.class, message -> "game.join".equals(message.getType()));
+        BlockingQueue<MoveMessage> deltas = subscribe(session, "/topic/game." + gameId,
+                MoveMessage.class, message -> "game.delta".equals(message.getType()));
+        TicTacToeMessage botJoined = joins.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(botJoined, "bot seated");
+        Assertions.assertTrue(TicTacToeManager.isBot(botJoined.getPlayer2()));
+
+        // The player lines up marks from the edge of row 7; playing the first free cell would never block them.
+        Set<Integer> bot = new HashSet<>();
+        GameState state = GameState.PLAYER1_TURN;
+        for (int col = 0; col < 5 && !bot.contains(7 * SIZE + col) && state == GameState.PLAYER1_TURN; col++) {
+            TicTacToeMessage move = new TicTacToeMessage();
+            move.setType("game.move");
+            move.setGameId(gameId);
+            move.setSender("kim");
+            move.setMove(7 * SIZE + col);
+            session.send("/app/game.move", move);
+
+            MoveMessage played = deltas.poll(5, TimeUnit.SECONDS);
+            Assertions.assertNotNull(played, "delta of the move");
+            Assertions.assertEquals("X", played.getMark());
+            MoveMessage reply = deltas.poll(5, TimeUnit.SECONDS);
+            Assertions.assertNotNull(reply, "bot reply");
+            Assertions.assertEquals("O", reply.getMark());
+            bot.add(reply.getCell());
+            state = reply.getGameState();
+        }
+        Assertions.assertNotEquals(GameState.PLAYER1_WON, state);
+        Assertions.assertTrue(bot.stream().anyMatch(cell -> cell > 7 * SIZE && cell < 7 * SIZE + 5),
+                "row 7 not blocked: " + bot);
+        Assertions.assertEquals(0, meterRegistry.get("tictactoe.matchmaking.rating.spread").summary().count());
+    }
+
+    private static <T> BlockingQueue<T> subscribe(StompSession session, String destination, Class<T> type,
+                                                  Predicate<T> filter) throws Exception {
+        BlockingQueue<T> messages = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return type;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                T message = type.cast(payload);
+                if (filter.test(message)) {
+                    messages.add(message);
+                }
+            }
+        });
+        // Make sure the subscription is registered before anything is sent.
+        Thread.sleep(100);
+        return messages;
+    }
+}
@@ -0,0 +1,285 @@
+package com.joabsonlg.tictactoewebsocket.controller;
+
+import com.joabsonlg.tictactoewebsocket.codec.BinaryMessageConverter;
+import com.joabsonlg.tictactoewebsocket.codec.WireFormatInterceptor;
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.model.dto.JoinMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.MoveMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.PlayerMessage;
+import com.joabsonlg.tictactoewebsocket.model.dto.TicTacToeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end tests of the STOMP handlers against the embedded server.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {"tictactoe.journal.enabled=false", "tictactoe.archive.enabled=false"})
+public class MessageControllerIntegrationTest {
+
+    @LocalServerPort
+    private int port;
+
+    private WebSocketStompClient stompClient;
+    private final List<StompSession> sessions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        stompClient = new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        stompClient.setMessageConverter(new MappingJackson2MessageConverter());
+    }
+
+    @AfterEach
+    void tearDown() {
+        sessions.forEach(StompSession::disconnect);
+        stompClient.stop();
+    }
+
+    /**
+     * Tests that a join is answered only to the joining session and announced only on the game's topic.
+     */
+    @Test
+    void testJoinGame_repliesToJoiningSessionOnly() throws Exception {
+        StompSession bystander = connect();
+        BlockingQueue<TicTacToeMessage> bystanderMessages = subscribe(bystander, "/user/queue/game.state");
+        BlockingQueue<TicTacToeMessage> legacyTopic = subscribe(bystander, "/topic/game.state");
+
+        StompSession first = connect();
+        BlockingQueue<TicTacToeMessage> firstReplies = subscribe(first, "/user/queue/game.state");
+        first.send("/app/game.join", joinMessage("alice"));
+        TicTacToeMessage joined = firstReplies.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(joined, "first reply");
+        Assertions.assertEquals("game.joined", joined.getType());
+        Assertions.assertEquals("alice", joined.getPlayer1());
+        BlockingQueue<TicTacToeMessage> firstGame = subscribe(first, "/topic/game." + joined.getGameId());
+
+        StompSession second = connect();
+        BlockingQueue<TicTacToeMessage> secondReplies = subscribe(second, "/user/queue/game.state");
+        second.send("/app/game.join", joinMessage("bob"));
+        TicTacToeMessage secondJoined = secondReplies.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(secondJoined, "second reply");
+        Assertions.assertEquals(joined.getGameId(), secondJoined.getGameId());
+        Assertions.assertEquals("bob", secondJoined.getPlayer2());
+
+        TicTacToeMessage announced = firstGame.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(announced, "announce");
+        Assertions.assertEquals("game.join", announced.getType());
+        Assertions.assertEquals("bob", announced.getPlayer2());
+
+        Assertions.assertNull(firstReplies.poll(200, TimeUnit.MILLISECONDS));
+        Assertions.assertTrue(bystanderMessages.isEmpty());
+        Assertions.assertTrue(legacyTopic.isEmpty());
+    }
+
+    /**
+     * Tests that a connection negotiating the binary format sends and receives binary frames,
+     * while its opponent on SockJS keeps receiving JSON.
+     */
+    @Test
+    void testJoinGame_binaryWireFormat() throws Exception {
+        StompSession json = connect();
+        BlockingQueue<TicTacToeMessage> jsonReplies = subscribe(json, "/user/queue/game.state");
+        json.send("/app/game.join", joinMessage("dave"));
+        TicTacToeMessage jsonJoined = jsonReplies.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(jsonJoined, "JSON reply");
+        BlockingQueue<TicTacToeMessage> jsonGame = subscribe(json, "/topic/game." + jsonJoined.getGameId());
+
+        WebSocketStompClient binaryClient = new WebSocketStompClient(new StandardWebSocketClient());
+        binaryClient.setMessageConverter(new BinaryMessageConverter());
+        try {
+            StompHeaders connectHeaders = new StompHeaders();
+            connectHeaders.add(WireFormatInterceptor.WIRE_FORMAT_HEADER, WireFormatInterceptor.BINARY);
+            StompSession binary = binaryClient.connectAsync("ws://localhost:" + port + "/ws-native",
+                    new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {
+                    }).get(5, TimeUnit.SECONDS);
+            BlockingQueue<TicTacToeMessage> binaryReplies = subscribe(binary, "/user/queue/game.state");
+
+            StompHeaders sendHeaders = new StompHeaders();
+            sendHeaders.setDestination("/app/game.join");
+            sendHeaders.setContentType(BinaryMessageConverter.MIME_TYPE);
+            binary.send(sendHeaders, joinMessage("erin"));
+
+            TicTacToeMessage binaryJoined = binaryReplies.poll(5, TimeUnit.SECONDS);
+            Assertions.assertNotNull(binaryJoined, "binary reply");
+            Assertions.assertEquals("game.joined", binaryJoined.getType());
+            Assertions.assertEquals(jsonJoined.getGameId(), binaryJoined.getGameId());
+            Assertions.assertEquals("erin", binaryJoined.getPlayer2());
+            Assertions.assertEquals(3, binaryJoined.getBoard().length);
+
+            TicTacToeMessage announced = jsonGame.poll(5, TimeUnit.SECONDS);
+            Assertions.assertNotNull(announced, "JSON announce");
+            Assertions.assertEquals("erin", announced.getPlayer2());
+            binary.disconnect();
+        } finally {
+            binaryClient.stop();
+        }
+    }
+
+    /**
+     * Tests that players are only paired on the board they asked for, and that a 15x15 game is won with five in a row.
+     */
+    @Test
+    void testJoinGame_largeBoard() throws Exception {
+        StompSession first = connect();
+        BlockingQueue<TicTacToeMessage> firstReplies = subscribe(first, "/user/queue/game.state");
+        first.send("/app/game.join", joinMessage("hugo", 15, 5));
+        TicTacToeMessage joined = firstReplies.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(joined, "first reply");
+        Assertions.assertEquals(15, joined.getBoard().length);
+        Assertions.assertEquals(5, joined.getWinLength());
+        BlockingQueue<MoveMessage> deltas = subscribeDeltas(first, "/topic/game." + joined.getGameId());
+
+        StompSession classic = connect();
+        BlockingQueue<TicTacToeMessage> classicReplies = subscribe(classic, "/user/queue/game.state");
+        classic.send("/app/game.join", joinMessage("iris"));
+        TicTacToeMessage classicJoined = classicReplies.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(classicJoined, "classic reply");
+        Assertions.assertNotEquals(joined.getGameId(), classicJoined.getGameId());
+        Assertions.assertEquals(3, classicJoined.getBoard().length);
+
+        StompSession second = connect();
+        BlockingQueue<TicTacToeMessage> secondReplies = subscribe(second, "/user/queue/game.state");
+        second.send("/app/game.join", joinMessage("joao", 15, 5));
+        TicTacToeMessage secondJoined = secondReplies.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(secondJoined, "second reply");
+        Assertions.assertEquals(joined.getGameId(), secondJoined.getGameId());
+        Assertions.assertEquals("joao", secondJoined.getPlayer2());
+
+        // hugo fills row 7 from column 3 to 7 while joao plays along row 0.
+        MoveMessage delta = null;
+        for (int turn = 0; turn < 9; turn++) {
+            boolean firstTurn = turn % 2 == 0;
+            int cell = firstTurn ? 7 * 15 + 3 + turn / 2 : turn / 2;
+            TicTacToeMessage move = new TicTacToeMessage();
+            move.setType("game.move");
+            move.setGameId(joined.getGameId());
+            move.setSender(firstTurn ? "hugo" : "joao");
+            move.setMove(cell);
+            (firstTurn ? first : second).send("/app/game.move", move);
+            delta = deltas.poll(5, TimeUnit.SECONDS);
+            Assertions.assertNotNull(delta, "delta of move " + turn);
+            Assertions.assertEquals(cell, delta.getCell());
+        }
+        Assertions.assertEquals(GameState.PLAYER1_WON, delta.getGameState());
+    }
+
+    /**
+     * Tests that a spectator gets the state of the game it watches on its own destination, then the state after
+     * each move.
+     */
+    @Test
+    void testSpectateGame_sendsSnapshots() throws Exception {
+        StompSession first = connect();
+        BlockingQueue<TicTacToeMessage> firstReplies = subscribe(first, "/user/queue/game.state");
+        first.send("/app/game.join", joinMessage("frank"));
+        TicTacToeMessage joined = firstReplies.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(joined, "first reply");
+        StompSession second = connect();
+        BlockingQueue<TicTacToeMessage> secondReplies = subscribe(second, "/user/queue/game.state");
+        second.send("/app/game.join", joinMessage("grace"));
+        Assertions.assertNotNull(secondReplies.poll(5, TimeUnit.SECONDS), "second reply");
+
+        StompSession spectator = connect();
+        BlockingQueue<TicTacToeMessage> snapshots = subscribe(spectator, "/user/queue/game.spectate");
+        PlayerMessage spectate = new PlayerMessage();
+        spectate.setType("game.spectate");
+        spectate.setGameId(joined.getGameId());
+        spectator.send("/app/game.spectate", spectate);
+        TicTacToeMessage snapshot = snapshots.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(snapshot, "first snapshot");
+        Assertions.assertEquals("game.spectate", snapshot.getType());
+        Assertions.assertEquals("grace", snapshot.getPlayer2());
+
+        TicTacToeMessage move = new TicTacToeMessage();
+        move.setType("game.move");
+        move.setGameId(joined.getGameId());
+        move.setSender("frank");
+        move.setMove(4);
+        first.send("/app/game.move", move);
+        TicTacToeMessage moved = snapshots.poll(5, TimeUnit.SECONDS);
+        Assertions.assertNotNull(moved, "snapshot after the move");
+        Assertions.assertEquals(GameState.PLAYER2_TURN, moved.getGameState());
+        Assertions.assertEquals("X", moved.getBoard()[1][1]);
+    }
+
+    private StompSession connect() throws Exception {
+        StompSession session = stompClient.connectAsync("ws://localhost:" + port + "/ws", new StompSessionHandlerAdapter() {
+        }).get(5, TimeUnit.SECONDS);
+        sessions.add(session);
+        return session;
+    }
+
+    private static BlockingQueue<TicTacToeMessage> subscribe(StompSession session, String destination) throws Exception {
+        BlockingQueue<TicTacToeMessage> messages = new LinkedBlockingQueue<>();
+        StompSession.Receiptable receipt = session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return TicTacToeMessage.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                messages.add((TicTacToeMessage) payload);
+            }
+        });
+        // Make sure the subscription is registered before anything is sent.
+        Thread.sleep(100);
+        return messages;
+    }
+
+    private static BlockingQueue<MoveMessage> subscribeDeltas(StompSession session, String destination)
+            throws Exception {
+        BlockingQueue<MoveMessage> deltas = new LinkedBlockingQueue<>();
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return MoveMessage.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                // The topic also carries the snapshots of joins and leaves.
+                MoveMessage message = (MoveMessage) payload;
+                if ("game.delta".equals(message.getType())) {
+                    deltas.add(message);
+                }
+            }
+        });
+        Thread.sleep(100);
+        return deltas;
+    }
+
+    private static JoinMessage joinMessage(String player) {
+        JoinMessage message = new JoinMessage();
+        message.setType("game.join");
+        message.setPlayer(player);
+        return message;
+    }
+
+    private static JoinMessage joinMessage(String player, int size, int winLength) {
+        JoinMessage message = joinMessage(player);
+        message.setSize(size);
+        message.setWinLength(winLength);
+        return message;
+    }
+}
@@ -0,0 +1,92 @@
+package com.joabsonlg.tictactoewebsocket.engine;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class GridBoardTest {
+
+    /**
+     * Tests that five in a row on a 15x15 board wins along every direction.
+     */
+    @Test
+    void testPlace_fiveInARow() {
+        int[][] directions = {{0, 1}, {1, 0}, {1, 1}, {1, -1}};
+        for (int[] d : directions) {
+            GridBoard board = new GridBoard(15, 5);
+            for (int i = 0; i < 5; i++) {
+                Assertions.assertEquals(Board.EMPTY, board.winner());
+                int row = 7 + d[0] * (i - 2);
+                int col = 7 + d[1] * (i - 2);
+                Assertions.assertTrue(board.place(row * 15 + col, Board.O));
+            }
+            Assertions.assertEquals(Board.O, board.winner());
+        }
+    }
+
+    /**
+     * Tests that marks on the same line separated by a gap do not win.
+     */
+    @Test
+    void testPlace_brokenRunDoesNotWin() {
+        GridBoard board = new GridBoard(15, 5);
+        for (int col : new int[]{0, 1, 2, 4, 5}) {
+            board.place(col, Board.X);
+        }
+        Assertions.assertEquals(Board.EMPTY, board.winner());
+        board.place(3, Board.X);
+        Assertions.assertEquals(Board.X, board.winner());
+    }
+
+    /**
+     * Tests that occupied and out of range cells are rejected.
+     */
+    @Test
+    void testPlace_invalidCells() {
+        GridBoard board = new GridBoard(19, 5);
+        Assertions.assertTrue(board.place(0, Board.X));
+        Assertions.assertFalse(board.place(0, Board.O));
+        Assertions.assertFalse(board.place(-1, Board.O));
+        Assertions.assertFalse(board.place(19 * 19, Board.O));
+        Assertions.assertEquals(1, board.moveCount());
+    }
+
+    /**
+     * Tests that the general engine agrees with {@link BitBoard} on random 3x3 games.
+     */
+    @Test
+    void testPlace_matchesBitBoard() {
+        Random random = new Random(42);
+        for (int game = 0; game < 1000; game++) {
+            GridBoard grid = new GridBoard(3, 3);
+            BitBoard bits = new BitBoard();
+            int mark = Board.X;
+            while (grid.winner() == Board.EMPTY && !grid.isFull()) {
+                int cell = random.nextInt(9);
+                Assertions.assertEquals(bits.place(cell, mark), grid.place(cell, mark));
+                if (grid.markAt(cell) == mark) {
+                    mark = mark == Board.X ? Board.O : Board.X;
+                }
+                Assertions.assertEquals(bits.winner(), grid.winner());
+                Assertions.assertEquals(bits.isFull(), grid.isFull());
+            }
+        }
+    }
+
+    /**
+     * Tests that {@link GridBoard#clear()} resets marks and win state.
+     */
+    @Test
+    void testClear() {
+        GridBoard board = new GridBoard(4, 3);
+        board.place(0, Board.X);
+        board.place(1, Board.X);
+        board.place(2, Board.X);
+        Assertions.assertEquals(Board.X, board.winner());
+        board.clear();
+        Assertions.assertEquals(Board.EMPTY, board.winner());
+        Assertions.assertEquals(0, board.moveCount());
+        Assertions.assertEquals(Board.EMPTY, board.markAt(1));
+    }
+}
@@ -0,0 +1,78 @@
+package com.joabsonlg.tictactoewebsocket.engine;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PositionTableTest {
+
+    //// bestMove() / value() ////
+
+    /**
+     * Tests that the empty board is a draw and that a finished game has no move.
+     */
+    @Test
+    void testValue_emptyAndFinishedBoards() {
+        Assertions.assertEquals(0, PositionTable.value(0));
+        Assertions.assertTrue(PositionTable.bestMove(0) >= 0);
+        int xWon = PositionTable.position(0b000_000_111, 0b000_011_000);
+        Assertions.assertEquals(-1, PositionTable.bestMove(xWon));
+        Assertions.assertEquals(-1, PositionTable.value(xWon));
+    }
+
+    /**
+     * Tests that a winning move is taken over blocking the opponent.
+     */
+    @Test
+    void testBestMove_winsBeforeBlocking() {
+        // X on 0 and 1, O on 3 and 4, X to move: 2 wins at once.
+        Assertions.assertEquals(2, PositionTable.bestMove(PositionTable.position(0b000_000_011, 0b000_011_000)));
+        // X on 0, 1 and 8, O on 3 and 4, O to move: 5 wins rather than blocking on 2.
+        int position = PositionTable.position(0b100_000_011, 0b000_011_000);
+        Assertions.assertEquals(5, PositionTable.bestMove(position));
+        Assertions.assertEquals(1, PositionTable.value(position));
+    }
+
+    /**
+     * Tests that the table never loses, as X or as O, against every possible sequence of opponent moves.
+     */
+    @Test
+    void testBestMove_neverLoses() {
+        Assertions.assertEquals(0, losses(new BitBoard(), Board.X, Board.X));
+        Assertions.assertEquals(0, losses(new BitBoard(), Board.X, Board.O));
+    }
+
+    /**
+     * Plays every opponent move against the table's moves and counts the games the table lost.
+     */
+    private static int losses(BitBoard board, int toMove, int table) {
+        if (board.winner() != Board.EMPTY) {
+            return board.winner() == table ? 0 : 1;
+        }
+        if (board.isFull()) {
+            return 0;
+        }
+        int next = toMove == Board.X ? Board.O : Board.X;
+        if (toMove == table) {
+            int cell = PositionTable.bestMove(PositionTable.position(board.getX(), board.getO()));
+            return losses(copyWith(board, cell, toMove), next, table);
+        }
+        int lost = 0;
+        for (int cell = 0; cell < BitBoard.CELLS; cell++) {
+            if (board.markAt(cell) == Board.EMPTY) {
+                lost += losses(copyWith(board, cell, toMove), next, table);
+            }
+        }
+        return lost;
+    }
+
+    private static BitBoard copyWith(BitBoard board, int cell, int mark) {
+        BitBoard copy = new BitBoard();
+        for (int i = 0; i < BitBoard.CELLS; i++) {
+            if (board.markAt(i) != Board.EMPTY) {
+                copy.place(i, board.markAt(i));
+            }
+        }
+        Assertions.assertTrue(copy.place(cell, mark));
+        return copy;
+    }
+}
@@ -0,0 +1,224 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import com.joabsonlg.tictactoewebsocket.ai.MonteCarloSearch;
+import com.joabsonlg.tictactoewebsocket.engine.Board;
+import com.joabsonlg.tictactoewebsocket.engine.BoardVariant;
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+public class BotPlayerTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toNanos(1);
+
+    //// seating ////
+
+    /**
+     * Tests that a game waiting past the wait gets a bot as its second player.
+     */
+    @Test
+    void testSeat_afterWait() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TimerWheel wheel = new TimerWheel(1, TimeUnit.MILLISECONDS, 8);
+        List<TicTacToe> seated = new ArrayList<>();
+        new BotPlayer(manager, wheel, 0, seated::add);
+
+        TicTacToe game = manager.joinGame("player1");
+        wheel.tick();
+        wheel.tick();
+
+        Assertions.assertEquals(List.of(game), seated);
+        Assertions.assertTrue(TicTacToeManager.isBot(game.getPlayer2()));
+        Assertions.assertEquals(GameState.PLAYER1_TURN, game.getGameState());
+        Assertions.assertSame(game, manager.getGameByPlayer(game.getPlayer2()));
+        Assertions.assertEquals(0, manager.getWaitingPlayerCount());
+        Assertions.assertNotSame(game, manager.joinGame("player2"));
+    }
+
+    /**
+     * Tests that games within their wait, or started by a player, get no bot.
+     */
+    @Test
+    void testSeat_notBeforeWaitOrOnceStarted() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TimerWheel wheel = new TimerWheel(1, TimeUnit.MILLISECONDS, 8);
+        List<TicTacToe> seated = new ArrayList<>();
+        new BotPlayer(manager, wheel, 0, seated::add);
+        TicTacToeManager slowManager = new TicTacToeManager();
+        new BotPlayer(slowManager, wheel, HOUR, seated::add);
+
+        manager.joinGame("player1");
+        TicTacToe game = manager.joinGame("player2");
+        slowManager.joinGame("player3");
+        wheel.tick();
+        wheel.tick();
+
+        Assertions.assertTrue(seated.isEmpty());
+        Assertions.assertEquals("player2", game.getPlayer2());
+    }
+
+    /**
+     * Tests that players cannot take a bot's name.
+     */
+    @Test
+    void testJoin_botNameRejected() {
+        TicTacToeManager manager = new TicTacToeManager();
+        Assertions.assertNull(manager.joinGame(TicTacToeManager.BOT_NAME_PREFIX + "player1"));
+        Assertions.assertEquals(0, manager.getGameCount());
+    }
+
+    //// playBot() ////
+
+    /**
+     * Tests that the bot answers every move at once and never loses, and that it does not play out of turn.
+     */
+    @Test
+    void testPlayBot_answersAndNeverLoses() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe game = manager.joinGame("player1");
+        Assertions.assertSame(game, manager.seatBot(game.getGameId()));
+        Assertions.assertFalse(manager.playBot(game, cell -> Assertions.fail("out of turn")));
+
+        // The player takes the first free cell every turn.
+        for (int cell = 0; !game.isGameOver(); cell++) {
+            if (game.markAt(cell) != 0) {
+                continue;
+            }
+            int move = cell;
+            manager.withGameLock(game.getGameId(), () -> {
+                Assertions.assertTrue(manager.makeMove(game, "player1", move));
+                if (!game.isGameOver()) {
+                    List<Integer> replies = new ArrayList<>();
+                    Assertions.assertTrue(manager.playBot(game, replies::add));
+                    Assertions.assertEquals(1, replies.size(), "played at once");
+                    Assertions.assertFalse(manager.playBot(game, replies::add));
+                }
+            });
+        }
+        Assertions.assertNotEquals(GameState.PLAYER1_WON, game.getGameState());
+    }
+
+    /**
+     * Tests that a bot seated in a 15x15 game plays the moves of the Monte Carlo search, searched on the bot executor,
+     * and blocks five in a row.
+     */
+    @Test
+    void testPlayBot_monteCarloOnLargeBoard() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        ExecutorService searches = Executors.newSingleThreadExecutor();
+        try {
+            MonteCarloSearch search = new MonteCarloSearch(pool, 20_000, Long.MAX_VALUE, 2);
+            List<Integer> searched = new CopyOnWriteArrayList<>();
+            TicTacToeManager manager = new TicTacToeManager();
+            manager.setBotExecutor(searches);
+            manager.setBotEngine(game -> {
+                int move = search.bestMove(game);
+                searched.add(move);
+                return move;
+            });
+            TimerWheel wheel = new TimerWheel(1, TimeUnit.MILLISECONDS, 8);
+            List<TicTacToe> seated = new ArrayList<>();
+            new BotPlayer(manager, wheel, 0, seated::add);
+
+            TicTacToe game = manager.joinGame("player1", new BoardVariant(15, 5));
+            wheel.tick();
+            wheel.tick();
+            Assertions.assertEquals(List.of(game), seated);
+
+            // The player lines up marks from the edge of row 0, so only a fifth one at (0, 4) would win.
+            BlockingQueue<Integer> replies = new LinkedBlockingQueue<>();
+            List<Integer> played = new ArrayList<>();
+            for (int cell = 0; cell < 5 && game.markAt(cell) == 0 && !game.isGameOver(); cell++) {
+                int move = cell;
+                boolean answered = manager.withGameLock(game.getGameId(), () -> {
+                    Assertions.assertTrue(manager.makeMove(game, "player1", move));
+                    return manager.playBot(game, replies::add);
+                });
+                if (answered) {
+                    Integer reply = replies.poll(30, TimeUnit.SECONDS);
+                    Assertions.assertNotNull(reply, "bot reply");
+                    played.add(reply);
+                }
+            }
+            Assertions.assertFalse(played.isEmpty());
+            Assertions.assertEquals(searched, played);
+            Assertions.assertNotEquals(GameState.PLAYER1_WON, game.getGameState());
+            Assertions.assertTrue(IntStream.range(1, 5).anyMatch(cell -> game.markAt(cell) == Board.O),
+                    "row 0 not blocked: " + played);
+        } finally {
+            searches.shutdown();
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Tests that the search runs without the game's lock, and that its move is dropped if the game changed meanwhile.
+     */
+    @Test
+    void testPlayBot_searchesWithoutLock() throws Exception {
+        CountDownLatch searching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService searches = Executors.newSingleThreadExecutor();
+        try {
+            TicTacToeManager manager = new TicTacToeManager();
+            manager.setBotExecutor(searches);
+            manager.setBotEngine(game -> {
+                searching.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return 0;
+            });
+            TicTacToe game = manager.joinGame("player1", new BoardVariant(15, 5));
+            manager.seatBot(game.getGameId());
+            List<Integer> replies = new CopyOnWriteArrayList<>();
+            manager.withGameLock(game.getGameId(), () -> {
+                Assertions.assertTrue(manager.makeMove(game, "player1", 112));
+                Assertions.assertTrue(manager.playBot(game, replies::add));
+            });
+            Assertions.assertTrue(searching.await(5, TimeUnit.SECONDS));
+
+            // Another thread gets the lock while the search runs, and the player leaves.
+            Executors.newSingleThreadExecutor().submit(() -> manager.leaveGame("player1")).get(5, TimeUnit.SECONDS);
+            release.countDown();
+            searches.shutdown();
+            Assertions.assertTrue(searches.awaitTermination(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(replies.isEmpty());
+            Assertions.assertEquals(Board.EMPTY, game.markAt(0));
+        } finally {
+            release.countDown();
+            searches.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests that a game is removed with its bot when the player leaves it.
+     */
+    @Test
+    void testLeave_removesBotGame() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe game = manager.joinGame("player1");
+        manager.seatBot(game.getGameId());
+        String bot = game.getPlayer2();
+
+        Assertions.assertNull(manager.leaveGame("player1"));
+        Assertions.assertNull(manager.getGame(game.getGameId()));
+        Assertions.assertNull(manager.getGameByPlayer(bot));
+        Assertions.assertEquals(0, manager.getGameCount());
+    }
+}
@@ -0,0 +1,94 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class GameMailboxesTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Tests that tasks of one game run one at a time, in submission order.
+     */
+    @Test
+    void testSubmit_runsInOrder() throws Exception {
+        GameMailboxes mailboxes = new GameMailboxes(executor, 10_000);
+        List<Integer> seen = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(5000);
+        for (int i = 0; i < 5000; i++) {
+            int value = i;
+            Assertions.assertTrue(mailboxes.submit("game", () -> {
+                seen.add(value);
+                done.countDown();
+            }));
+        }
+        Assertions.assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 5000; i++) {
+            Assertions.assertEquals(i, seen.get(i));
+        }
+    }
+
+    /**
+     * Tests that submissions beyond the capacity of a game are rejected while other games are unaffected.
+     */
+    @Test
+    void testSubmit_rejectsWhenFull() throws Exception {
+        GameMailboxes mailboxes = new GameMailboxes(executor, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        Assertions.assertTrue(mailboxes.submit("game", () -> {
+            started.countDown();
+            awaitQuietly(release);
+        }));
+        Assertions.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(mailboxes.submit("game", () -> {
+        }));
+        Assertions.assertFalse(mailboxes.submit("game", () -> {
+        }));
+        Assertions.assertEquals(2, mailboxes.queueDepth("game"));
+        Assertions.assertTrue(mailboxes.submit("other", () -> {
+        }));
+        release.countDown();
+    }
+
+    /**
+     * Tests that a drained mailbox is dropped and a later submission still runs.
+     */
+    @Test
+    void testSubmit_mailboxDroppedWhenDrained() throws Exception {
+        GameMailboxes mailboxes = new GameMailboxes(executor, 16);
+        CountDownLatch first = new CountDownLatch(1);
+        mailboxes.submit("game", first::countDown);
+        Assertions.assertTrue(first.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 100 && mailboxes.activeMailboxes() > 0; i++) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(0, mailboxes.activeMailboxes());
+        Assertions.assertTrue(mailboxes.queueDepths().isEmpty());
+
+        CountDownLatch second = new CountDownLatch(1);
+        Assertions.assertTrue(mailboxes.submit("game", second::countDown));
+        Assertions.assertTrue(second.await(5, TimeUnit.SECONDS));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
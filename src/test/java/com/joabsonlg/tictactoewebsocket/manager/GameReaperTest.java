@@ -0,0 +1,100 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class GameReaperTest {
+
+    private static final long HOUR = TimeUnit.HOURS.toNanos(1);
+
+    //// expiration ////
+
+    /**
+     * Tests that a game waiting for a second player past the waiting TTL is removed with its player.
+     */
+    @Test
+    void testExpire_waitingGame() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TimerWheel wheel = new TimerWheel(1, TimeUnit.MILLISECONDS, 8);
+        List<TicTacToe> expired = new ArrayList<>();
+        new GameReaper(manager, wheel, HOUR, 0, expired::add);
+
+        TicTacToe game = manager.joinGame("player1");
+        wheel.tick();
+        wheel.tick();
+
+        Assertions.assertEquals(List.of(game), expired);
+        Assertions.assertNull(manager.getGame(game.getGameId()));
+        Assertions.assertNull(manager.getGameByPlayer("player1"));
+        Assertions.assertEquals(0, manager.getWaitingPlayerCount());
+    }
+
+    /**
+     * Tests that a started game within its idle TTL is kept and tracked again when its timeout fires.
+     */
+    @Test
+    void testExpire_activeGameRescheduled() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TimerWheel wheel = new TimerWheel(1, TimeUnit.MILLISECONDS, 8);
+        List<TicTacToe> expired = new ArrayList<>();
+        GameReaper reaper = new GameReaper(manager, wheel, HOUR, 0, expired::add);
+
+        manager.joinGame("player1");
+        TicTacToe game = manager.joinGame("player2");
+        wheel.tick();
+        wheel.tick();
+
+        Assertions.assertTrue(expired.isEmpty());
+        Assertions.assertSame(game, manager.getGame(game.getGameId()));
+        Assertions.assertEquals(1, reaper.getTrackedGameCount());
+    }
+
+    /**
+     * Tests that a started game without a move past the idle TTL is removed.
+     */
+    @Test
+    void testExpire_idleGame() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TimerWheel wheel = new TimerWheel(1, TimeUnit.MILLISECONDS, 8);
+        List<TicTacToe> expired = new ArrayList<>();
+        GameReaper reaper = new GameReaper(manager, wheel, 0, HOUR, expired::add);
+
+        manager.joinGame("player1");
+        TicTacToe game = manager.joinGame("player2");
+        for (int i = 0; i < 10 && expired.isEmpty(); i++) {
+            wheel.tick();
+        }
+
+        Assertions.assertEquals(List.of(game), expired);
+        Assertions.assertEquals(0, manager.getGameCount());
+        Assertions.assertEquals(0, reaper.getTrackedGameCount());
+    }
+
+    //// untrack ////
+
+    /**
+     * Tests that games removed by the manager stop being tracked, so churn does not accumulate timeouts.
+     */
+    @Test
+    void testUntrack_removedGames() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TimerWheel wheel = new TimerWheel(1, TimeUnit.MILLISECONDS, 8);
+        GameReaper reaper = new GameReaper(manager, wheel, HOUR, HOUR, game -> Assertions.fail());
+
+        for (int i = 0; i < 100; i++) {
+            manager.joinGame("player" + i);
+            manager.leaveGame("player" + i);
+        }
+        TicTacToe game = manager.joinGame("player1");
+        manager.joinGame("player2");
+        manager.removeGame(game.getGameId());
+
+        Assertions.assertEquals(0, manager.getGameCount());
+        Assertions.assertEquals(0, reaper.getTrackedGameCount());
+    }
+}
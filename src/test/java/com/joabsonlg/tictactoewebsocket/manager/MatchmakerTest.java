@@ -0,0 +1,142 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import com.joabsonlg.tictactoewebsocket.engine.BoardVariant;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiPredicate;
+
+public class MatchmakerTest {
+
+    private static final Map<String, Integer> RATINGS = Map.of(
+            "low", 1000, "mid", 1500, "mid+", 1580, "joiner", 1570, "joiner-", 1490, "far", 1500 + 450);
+
+    private static Matchmaker newMatchmaker() {
+        return new Matchmaker(player -> RATINGS.getOrDefault(player, PlayerRatings.INITIAL_RATING), 50, 100, 25, 1000);
+    }
+
+    //// poll() ////
+
+    /**
+     * Tests that a joining player gets the waiting game closest to their rating rather than the oldest one.
+     */
+    @Test
+    void testPoll_closestRatingFirst() {
+        Matchmaker matchmaker = newMatchmaker();
+        TicTacToe mid = new TicTacToe("mid", null);
+        TicTacToe midPlus = new TicTacToe("mid+", null);
+        matchmaker.offer(mid);
+        matchmaker.offer(midPlus);
+
+        Assertions.assertSame(midPlus, matchmaker.poll("joiner", game -> true));
+        Assertions.assertSame(mid, matchmaker.poll("joiner-", game -> true));
+        Assertions.assertNull(matchmaker.poll("joiner", game -> true));
+    }
+
+    /**
+     * Tests that a joining player is only given games on the board they asked for.
+     */
+    @Test
+    void testPoll_sameVariantOnly() {
+        Matchmaker matchmaker = newMatchmaker();
+        TicTacToe classic = new TicTacToe("mid", null);
+        TicTacToe gomoku = new TicTacToe("mid+", null, 15, 5);
+        matchmaker.offer(classic);
+        matchmaker.offer(gomoku);
+
+        Assertions.assertNull(matchmaker.poll("joiner", new BoardVariant(19, 5), game -> true));
+        Assertions.assertSame(gomoku, matchmaker.poll("joiner", new BoardVariant(15, 5), game -> true));
+        Assertions.assertSame(classic, matchmaker.poll("joiner", game -> true));
+    }
+
+    /**
+     * Tests that a waiting player only accepts distant ratings after waiting long enough.
+     */
+    @Test
+    void testPoll_windowWidensWithWait() {
+        Matchmaker matchmaker = newMatchmaker();
+        TicTacToe low = new TicTacToe("low", null);
+        matchmaker.offer(low);
+        Assertions.assertNull(matchmaker.poll("mid", game -> true));
+
+        low.setWaitingSince(System.nanoTime() - TimeUnit.SECONDS.toNanos(30));
+        Assertions.assertNull(matchmaker.poll("far", game -> true), "950 apart is beyond the window after 30 seconds");
+        Assertions.assertSame(low, matchmaker.poll("mid", game -> true));
+    }
+
+    /**
+     * Tests that games no longer open are discarded when reached.
+     */
+    @Test
+    void testPoll_staleEntriesDiscarded() {
+        Matchmaker matchmaker = newMatchmaker();
+        matchmaker.offer(new TicTacToe("mid", null));
+        matchmaker.offer(new TicTacToe("mid+", null));
+        Assertions.assertEquals(2, matchmaker.size());
+
+        Assertions.assertNull(matchmaker.poll("joiner", game -> false));
+        Assertions.assertEquals(0, matchmaker.size());
+    }
+
+    //// rematch() ////
+
+    /**
+     * Tests that two waiting players are paired, the newer one moved to the older one's game, once the wider of their
+     * windows covers their rating difference.
+     */
+    @Test
+    void testRematch_pairsOnceWindowsOverlap() {
+        Matchmaker matchmaker = newMatchmaker();
+        TicTacToe low = new TicTacToe("low", null);
+        TicTacToe mid = new TicTacToe("mid", null);
+        low.setWaitingSince(System.nanoTime());
+        mid.setWaitingSince(System.nanoTime());
+        matchmaker.offer(low);
+        matchmaker.offer(mid);
+        List<List<TicTacToe>> pairs = new ArrayList<>();
+        BiPredicate<TicTacToe, TicTacToe> pair = (kept, moved) -> pairs.add(List.of(kept, moved));
+
+        Assertions.assertEquals(0, matchmaker.rematch(game -> true, pair), "500 apart is beyond both windows");
+        Assertions.assertEquals(2, matchmaker.size());
+
+        // Only the player waiting for 20 seconds accepts 500 apart; the other still accepts 100.
+        low.setWaitingSince(System.nanoTime() - TimeUnit.SECONDS.toNanos(20));
+        Assertions.assertEquals(1, matchmaker.rematch(game -> true, pair));
+        Assertions.assertEquals(List.of(List.of(low, mid)), pairs);
+        Assertions.assertEquals(0, matchmaker.size());
+    }
+
+    /**
+     * Tests that the games a pairing rejects are queued again if still open, and stale games are dropped.
+     */
+    @Test
+    void testRematch_rejectedPairOfferedAgain() {
+        Matchmaker matchmaker = newMatchmaker();
+        TicTacToe mid = new TicTacToe("mid", null);
+        TicTacToe midPlus = new TicTacToe("mid+", null);
+        matchmaker.offer(mid);
+        matchmaker.offer(midPlus);
+
+        Assertions.assertEquals(0, matchmaker.rematch(game -> game != midPlus, (kept, moved) -> false));
+        Assertions.assertEquals(1, matchmaker.size());
+        Assertions.assertSame(mid, matchmaker.poll("joiner", game -> true));
+    }
+
+    //// window() ////
+
+    /**
+     * Tests that the window grows linearly with the wait and stops at the maximum.
+     */
+    @Test
+    void testWindow_growsUpToMaximum() {
+        Matchmaker matchmaker = newMatchmaker();
+        Assertions.assertEquals(100, matchmaker.window(0));
+        Assertions.assertEquals(350, matchmaker.window(TimeUnit.SECONDS.toNanos(10)));
+        Assertions.assertEquals(1000, matchmaker.window(TimeUnit.HOURS.toNanos(1)));
+    }
+}
@@ -0,0 +1,67 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PlayerRatingsTest {
+
+    private static TicTacToe finished(String player1, String player2, GameState outcome) {
+        TicTacToe game = new TicTacToe(player1, player2);
+        game.setGameState(outcome);
+        return game;
+    }
+
+    //// gameFinished() ////
+
+    /**
+     * Tests that the winner gains what the loser loses, and that a tie between equal players changes nothing.
+     */
+    @Test
+    void testGameFinished_zeroSum() {
+        PlayerRatings ratings = new PlayerRatings();
+        ratings.gameFinished(finished("player1", "player2", GameState.PLAYER2_WON));
+        Assertions.assertEquals(1480, ratings.getRating("player1"));
+        Assertions.assertEquals(1520, ratings.getRating("player2"));
+
+        ratings.gameFinished(finished("player3", "player4", GameState.TIE));
+        Assertions.assertEquals(PlayerRatings.INITIAL_RATING, ratings.getRating("player3"));
+        Assertions.assertEquals(1, ratings.get("player3").games());
+    }
+
+    /**
+     * Tests that games against a bot and games not over are not rated.
+     */
+    @Test
+    void testGameFinished_unratedGames() {
+        PlayerRatings ratings = new PlayerRatings();
+        ratings.gameFinished(finished("player1", TicTacToeManager.BOT_NAME_PREFIX + "1", GameState.PLAYER1_WON));
+        ratings.gameFinished(finished("player1", "player2", GameState.PLAYER1_TURN));
+        Assertions.assertEquals(0, ratings.size());
+        Assertions.assertEquals(PlayerRatings.INITIAL_RATING, ratings.getRating("player1"));
+    }
+
+    //// record() ////
+
+    /**
+     * Tests that ratings move faster while provisional, and that beating a much weaker player earns little.
+     */
+    @Test
+    void testRecord_provisionalAndExpected() {
+        PlayerRatings ratings = new PlayerRatings();
+        for (int i = 0; i < PlayerRatings.PROVISIONAL_GAMES; i++) {
+            ratings.record("veteran", "newcomer" + i, 0.5);
+        }
+        ratings.record("veteran", "newcomer", 1);
+        Assertions.assertEquals(1510, ratings.getRating("veteran"));
+        Assertions.assertEquals(1480, ratings.getRating("newcomer"));
+
+        for (int i = 0; i < 10; i++) {
+            ratings.record("strong", "weak", 1);
+        }
+        double before = ratings.get("strong").value();
+        ratings.record("strong", "weak", 1);
+        Assertions.assertTrue(ratings.get("strong").value() - before < 10);
+    }
+}
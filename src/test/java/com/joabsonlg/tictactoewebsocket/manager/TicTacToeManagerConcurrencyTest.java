@@ -0,0 +1,177 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stress tests hammering the {@link TicTacToeManager} from many threads.
+ */
+public class TicTacToeManagerConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    /**
+     * Many threads race to move in the same game through {@link TicTacToeManager#makeMove}, making the checks of the
+     * move handler first. Every accepted move must land on the board exactly once, players must strictly alternate,
+     * and each listener notification must see the game as its move left it.
+     */
+    @Test
+    void testMoves_sameGameFromManyThreads() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            TicTacToeManager manager = new TicTacToeManager();
+            TicTacToe game = manager.joinGame("player1");
+            manager.joinGame("player2");
+            String gameId = game.getGameId();
+            AtomicInteger applied = new AtomicInteger();
+            // Not thread-safe on purpose: the manager notifies under the game's lock.
+            List<Integer> notified = new ArrayList<>();
+            AtomicInteger finished = new AtomicInteger();
+            manager.addListener(new GameEventListener() {
+                @Override
+                public void moveMade(TicTacToe moved, String player, int cell) {
+                    notified.add(cell);
+                    Assertions.assertEquals(notified.size(), moved.getSequence());
+                    Assertions.assertNotEquals(" ", moved.getBoard()[cell / 3][cell % 3]);
+                }
+
+                @Override
+                public void gameFinished(TicTacToe over) {
+                    finished.incrementAndGet();
+                }
+            });
+
+            runConcurrently(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 50; i++) {
+                    String player = random.nextBoolean() ? "player1" : "player2";
+                    int move = random.nextInt(9);
+                    manager.withGameLock(gameId, () -> {
+                        if (!game.isGameOver() && game.getTurn().equals(player)
+                                && manager.makeMove(game, player, move)) {
+                            applied.incrementAndGet();
+                        }
+                    });
+                }
+            });
+
+            int xs = 0;
+            int os = 0;
+            for (String[] row : game.getBoard()) {
+                for (String cell : row) {
+                    xs += "X".equals(cell) ? 1 : 0;
+                    os += "O".equals(cell) ? 1 : 0;
+                }
+            }
+            Assertions.assertEquals(applied.get(), xs + os);
+            Assertions.assertEquals(applied.get(), notified.size());
+            Assertions.assertEquals(game.isGameOver() ? 1 : 0, finished.get());
+            Assertions.assertTrue(xs - os == 0 || xs - os == 1, "players must alternate");
+            if (game.getGameState() == GameState.PLAYER1_TURN) {
+                Assertions.assertEquals(xs, os);
+            } else if (game.getGameState() == GameState.PLAYER2_TURN) {
+                Assertions.assertEquals(xs, os + 1);
+            }
+        }
+    }
+
+    /**
+     * Many threads join at once. Every player must end up in exactly one game and no game may hold more than two.
+     */
+    @Test
+    void testJoinGame_concurrentJoins() throws Exception {
+        TicTacToeManager manager = new TicTacToeManager();
+        AtomicInteger next = new AtomicInteger();
+        int players = 4000;
+
+        runConcurrently(() -> {
+            int i;
+            while ((i = next.getAndIncrement()) < players) {
+                manager.joinGame("player" + i);
+            }
+        });
+
+        Set<String> seated = new HashSet<>();
+        for (int i = 0; i < players; i++) {
+            String player = "player" + i;
+            TicTacToe game = manager.getGameByPlayer(player);
+            Assertions.assertNotNull(game, player + " has no game");
+            Assertions.assertTrue(player.equals(game.getPlayer1()) || player.equals(game.getPlayer2()));
+            if (game.getPlayer2() != null) {
+                Assertions.assertEquals(GameState.PLAYER1_TURN, game.getGameState());
+            }
+            Assertions.assertTrue(seated.add(player));
+        }
+        Assertions.assertEquals(players, manager.playerGames.size());
+    }
+
+    /**
+     * Threads repeatedly join and leave while others disconnect. The player index must match the seats afterwards.
+     */
+    @Test
+    void testJoinLeaveDisconnect_indexStaysConsistent() throws Exception {
+        TicTacToeManager manager = new TicTacToeManager();
+
+        runConcurrently(() -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int i = 0; i < 2000; i++) {
+                String player = "player" + random.nextInt(200);
+                switch (random.nextInt(3)) {
+                    case 0 -> manager.joinGame(player);
+                    case 1 -> manager.leaveGame(player);
+                    default -> {
+                        TicTacToe game = manager.getGameByPlayer(player);
+                        if (game != null) {
+                            manager.disconnect(game.getGameId(), player);
+                        }
+                    }
+                }
+            }
+        });
+
+        manager.playerGames.forEach((player, gameId) -> {
+            TicTacToe game = manager.getGame(gameId);
+            Assertions.assertNotNull(game, "index points to a removed game");
+            Assertions.assertTrue(player.equals(game.getPlayer1()) || player.equals(game.getPlayer2()));
+        });
+        for (String player : List.copyOf(manager.waitingPlayers.keySet())) {
+            TicTacToe game = manager.getGame(manager.waitingPlayers.get(player));
+            Assertions.assertNotNull(game);
+            Assertions.assertNull(game.getPlayer2());
+        }
+    }
+
+    private static void runConcurrently(Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
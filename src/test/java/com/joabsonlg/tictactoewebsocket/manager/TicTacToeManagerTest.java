@@ -8,6 +8,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
 @ExtendWith(MockitoExtension.class)
 public class TicTacToeManagerTest {
 
@@ -54,6 +58,35 @@ public class TicTacToeManagerTest {
         Assertions.assertEquals(GameState.WAITING_FOR_PLAYER, game2.getGameState());
     }
 
+    /**
+     * Tests the {@link TicTacToeManager#joinGame(String)} method when a seat was reopened by a leaving player.
+     */
+    @Test
+    void testJoinGame_reopenedSeat() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe game = manager.joinGame("player1");
+        manager.joinGame("player2");
+        manager.leaveGame("player2");
+        TicTacToe game2 = manager.joinGame("player3");
+        Assertions.assertEquals(game, game2);
+        Assertions.assertEquals("player3", game2.getPlayer2());
+        Assertions.assertEquals(GameState.PLAYER1_TURN, game2.getGameState());
+    }
+
+    /**
+     * Tests the {@link TicTacToeManager#joinGame(String)} method when the only open game was abandoned.
+     */
+    @Test
+    void testJoinGame_abandonedGameSkipped() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe game = manager.joinGame("player1");
+        manager.leaveGame("player1");
+        TicTacToe game2 = manager.joinGame("player2");
+        Assertions.assertNotEquals(game.getGameId(), game2.getGameId());
+        Assertions.assertEquals("player2", game2.getPlayer1());
+        Assertions.assertEquals(GameState.WAITING_FOR_PLAYER, game2.getGameState());
+    }
+
 
     //// leaveGame() ////
 
@@ -151,4 +184,132 @@ public class TicTacToeManagerTest {
         TicTacToe game = manager.joinGame("player1");
         Assertions.assertNull(manager.getGame("invalid_game_id"));
     }
+
+    //// getGameByPlayer() ////
+
+    /**
+     * Tests the {@link TicTacToeManager#getGameByPlayer(String)} method for both seated players.
+     */
+    @Test
+    void testGetGameByPlayer_seatedPlayers() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe game = manager.joinGame("player1");
+        manager.joinGame("player2");
+        Assertions.assertEquals(game, manager.getGameByPlayer("player1"));
+        Assertions.assertEquals(game, manager.getGameByPlayer("player2"));
+        Assertions.assertNull(manager.getGameByPlayer("player3"));
+    }
+
+    /**
+     * Tests the {@link TicTacToeManager#getGameByPlayer(String)} method after player 1 leaves and player 2 takes the seat.
+     */
+    @Test
+    void testGetGameByPlayer_afterLeave() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe game = manager.joinGame("player1");
+        manager.joinGame("player2");
+        manager.leaveGame("player1");
+        Assertions.assertNull(manager.getGameByPlayer("player1"));
+        Assertions.assertEquals(game, manager.getGameByPlayer("player2"));
+        Assertions.assertEquals("player2", game.getPlayer1());
+    }
+
+    /**
+     * Tests the {@link TicTacToeManager#getGameByPlayer(String)} method after the game is removed.
+     */
+    @Test
+    void testGetGameByPlayer_afterRemoveGame() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe game = manager.joinGame("player1");
+        manager.joinGame("player2");
+        manager.removeGame(game.getGameId());
+        Assertions.assertNull(manager.getGameByPlayer("player1"));
+        Assertions.assertNull(manager.getGameByPlayer("player2"));
+        Assertions.assertTrue(manager.playerGames.isEmpty());
+    }
+
+    //// disconnect() ////
+
+    /**
+     * Tests the {@link TicTacToeManager#disconnect(String, String)} method when an opponent is still seated.
+     */
+    @Test
+    void testDisconnect_opponentWins() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe game = manager.joinGame("player1");
+        manager.joinGame("player2");
+        TicTacToe result = manager.disconnect(game.getGameId(), "player1");
+        Assertions.assertEquals(GameState.PLAYER2_WON, result.getGameState());
+        Assertions.assertEquals("player2", result.getWinner());
+        Assertions.assertNull(manager.getGame(game.getGameId()));
+        Assertions.assertTrue(manager.playerGames.isEmpty());
+        Assertions.assertTrue(manager.waitingPlayers.isEmpty());
+    }
+
+    //// createMatch() ////
+
+    /**
+     * Tests the {@link TicTacToeManager#createMatch(String, String)} method: the game starts right away, outside the
+     * matchmaking queue, and players already seated elsewhere are refused.
+     */
+    @Test
+    void testCreateMatch_startedAndNotMatchmade() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe match = manager.createMatch("player1", "player2");
+        Assertions.assertEquals(GameState.PLAYER1_TURN, match.getGameState());
+        Assertions.assertEquals("player2", match.getPlayer2());
+        Assertions.assertEquals(match, manager.getGameByPlayer("player2"));
+        Assertions.assertNull(manager.createMatch("player2", "player3"));
+        Assertions.assertNull(manager.getGameByPlayer("player3"));
+
+        TicTacToe other = manager.joinGame("player3");
+        Assertions.assertNotEquals(match, other);
+        Assertions.assertEquals(GameState.WAITING_FOR_PLAYER, other.getGameState());
+    }
+
+    /**
+     * Tests that leaving a match forfeits it rather than reopening its seat.
+     */
+    @Test
+    void testLeaveGame_matchForfeited() {
+        TicTacToeManager manager = new TicTacToeManager();
+        TicTacToe match = manager.createMatch("player1", "player2");
+        TicTacToe result = manager.leaveGame("player1");
+        Assertions.assertEquals(GameState.PLAYER2_WON, result.getGameState());
+        Assertions.assertNull(manager.getGame(match.getGameId()));
+        Assertions.assertTrue(manager.playerGames.isEmpty());
+        Assertions.assertNull(manager.joinGame("player3").getPlayer2());
+    }
+
+    //// rematchWaiting() ////
+
+    /**
+     * Tests that the rematcher's pass on the timer wheel moves a waiting player to the game of another waiting player
+     * once their windows overlap, and removes the game the player left.
+     */
+    @Test
+    void testRematchWaiting_movesNewerPlayer() {
+        Map<String, Integer> ratings = Map.of("player1", 1000, "player2", 1500);
+        TicTacToeManager manager = new TicTacToeManager(
+                new Matchmaker(player -> ratings.getOrDefault(player, PlayerRatings.INITIAL_RATING), 50, 100, 25, 1000));
+        TicTacToe older = manager.joinGame("player1");
+        TicTacToe newer = manager.joinGame("player2");
+        Assertions.assertNotEquals(older, newer);
+
+        Map<String, TicTacToe> moved = new HashMap<>();
+        TimerWheel wheel = new TimerWheel(1, TimeUnit.MILLISECONDS, 8);
+        new Rematcher(manager, wheel, TimeUnit.MILLISECONDS.toNanos(1), moved::put);
+        wheel.tick();
+        wheel.tick();
+        Assertions.assertTrue(moved.isEmpty());
+
+        older.setWaitingSince(System.nanoTime() - TimeUnit.SECONDS.toNanos(20));
+        wheel.tick();
+        Assertions.assertEquals(Map.of(newer.getGameId(), older), moved);
+        Assertions.assertEquals("player2", older.getPlayer2());
+        Assertions.assertEquals(GameState.PLAYER1_TURN, older.getGameState());
+        Assertions.assertNull(manager.getGame(newer.getGameId()));
+        Assertions.assertEquals(older, manager.getGameByPlayer("player2"));
+        Assertions.assertTrue(manager.waitingPlayers.isEmpty());
+    }
 }
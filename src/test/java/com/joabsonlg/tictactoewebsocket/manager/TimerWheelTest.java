@@ -0,0 +1,105 @@
+package com.joabsonlg.tictactoewebsocket.manager;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class TimerWheelTest {
+
+    //// schedule() ////
+
+    /**
+     * Tests that a task runs on the tick of its deadline, rounded up to whole ticks, and only once.
+     */
+    @Test
+    void testSchedule_runsOnDeadlineTick() {
+        TimerWheel wheel = new TimerWheel(10, TimeUnit.MILLISECONDS, 8);
+        AtomicInteger runs = new AtomicInteger();
+        TimerWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, 25, TimeUnit.MILLISECONDS);
+
+        tick(wheel, 3);
+        Assertions.assertEquals(0, runs.get());
+        tick(wheel, 1);
+        Assertions.assertEquals(1, runs.get());
+        Assertions.assertTrue(timeout.isExpired());
+        tick(wheel, 16);
+        Assertions.assertEquals(1, runs.get());
+    }
+
+    /**
+     * Tests that a delay longer than a turn of the wheel waits for the extra rounds.
+     */
+    @Test
+    void testSchedule_longerThanWheel() {
+        TimerWheel wheel = new TimerWheel(1, TimeUnit.SECONDS, 4);
+        AtomicInteger runs = new AtomicInteger();
+        wheel.schedule(runs::incrementAndGet, 10, TimeUnit.SECONDS);
+
+        tick(wheel, 10);
+        Assertions.assertEquals(0, runs.get());
+        tick(wheel, 1);
+        Assertions.assertEquals(1, runs.get());
+    }
+
+    /**
+     * Tests that a task scheduled by a running task runs on a later tick.
+     */
+    @Test
+    void testSchedule_fromTask() {
+        TimerWheel wheel = new TimerWheel(1, TimeUnit.SECONDS, 4);
+        AtomicInteger runs = new AtomicInteger();
+        wheel.schedule(() -> wheel.schedule(runs::incrementAndGet, 1, TimeUnit.SECONDS), 1, TimeUnit.SECONDS);
+
+        tick(wheel, 2);
+        Assertions.assertEquals(0, runs.get());
+        tick(wheel, 1);
+        Assertions.assertEquals(1, runs.get());
+    }
+
+    /**
+     * Tests that the worker thread advances a started wheel.
+     */
+    @Test
+    void testStart_advancesWithTime() throws InterruptedException {
+        TimerWheel wheel = new TimerWheel(1, TimeUnit.MILLISECONDS, 64);
+        CountDownLatch ran = new CountDownLatch(1);
+        wheel.start();
+        try {
+            wheel.schedule(ran::countDown, 20, TimeUnit.MILLISECONDS);
+            Assertions.assertTrue(ran.await(5, TimeUnit.SECONDS));
+        } finally {
+            wheel.stop();
+        }
+    }
+
+    //// cancel() ////
+
+    /**
+     * Tests that a cancelled task does not run, whether it was cancelled before or after reaching its bucket.
+     */
+    @Test
+    void testCancel() {
+        TimerWheel wheel = new TimerWheel(1, TimeUnit.SECONDS, 8);
+        AtomicInteger runs = new AtomicInteger();
+        TimerWheel.Timeout early = wheel.schedule(runs::incrementAndGet, 3, TimeUnit.SECONDS);
+        TimerWheel.Timeout late = wheel.schedule(runs::incrementAndGet, 3, TimeUnit.SECONDS);
+        Assertions.assertTrue(early.cancel());
+        tick(wheel, 1);
+        Assertions.assertTrue(late.cancel());
+        Assertions.assertFalse(late.cancel());
+
+        tick(wheel, 8);
+        Assertions.assertEquals(0, runs.get());
+        Assertions.assertTrue(early.isCancelled());
+        Assertions.assertTrue(late.isCancelled());
+    }
+
+    private static void tick(TimerWheel wheel, int ticks) {
+        for (int i = 0; i < ticks; i++) {
+            wheel.tick();
+        }
+    }
+}
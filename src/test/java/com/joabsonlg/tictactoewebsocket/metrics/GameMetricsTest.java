@@ -0,0 +1,72 @@
+package com.joabsonlg.tictactoewebsocket.metrics;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.manager.GameMailboxes;
+import com.joabsonlg.tictactoewebsocket.manager.TicTacToeManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GameMetricsTest {
+
+    //// gauges ////
+
+    /**
+     * Tests that the gauges follow the live games and waiting players of the manager.
+     */
+    @Test
+    void testGauges_followManager() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TicTacToeManager manager = new TicTacToeManager();
+        new GameMetrics(registry, manager, new GameMailboxes(Runnable::run, 16));
+
+        manager.joinGame("player1");
+        Assertions.assertEquals(1, registry.get("tictactoe.games.live").gauge().value());
+        Assertions.assertEquals(1, registry.get("tictactoe.players.waiting").gauge().value());
+
+        manager.joinGame("player2");
+        Assertions.assertEquals(1, registry.get("tictactoe.games.live").gauge().value());
+        Assertions.assertEquals(0, registry.get("tictactoe.players.waiting").gauge().value());
+    }
+
+    //// gameFinished() ////
+
+    /**
+     * Tests that finished games are counted by outcome and that other states are ignored.
+     */
+    @Test
+    void testGameFinished_byOutcome() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GameMetrics metrics = new GameMetrics(registry, new TicTacToeManager(), new GameMailboxes(Runnable::run, 16));
+
+        metrics.gameFinished(GameState.TIE);
+        metrics.gameFinished(GameState.TIE);
+        metrics.gameFinished(GameState.PLAYER1_WON);
+        metrics.gameFinished(GameState.PLAYER1_TURN);
+        metrics.gameForfeited();
+
+        Assertions.assertEquals(2, registry.get("tictactoe.games.finished").tag("outcome", "tie").counter().count());
+        Assertions.assertEquals(1, registry.get("tictactoe.games.finished").tag("outcome", "player1_won").counter().count());
+        Assertions.assertEquals(0, registry.get("tictactoe.games.finished").tag("outcome", "player2_won").counter().count());
+        Assertions.assertEquals(1, registry.get("tictactoe.games.finished").tag("outcome", "forfeit").counter().count());
+    }
+
+    //// recordHandler() ////
+
+    /**
+     * Tests that handler latencies are recorded on the timer of their event.
+     */
+    @Test
+    void testRecordHandler_perEvent() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GameMetrics metrics = new GameMetrics(registry, new TicTacToeManager(), new GameMailboxes(Runnable::run, 16));
+
+        metrics.recordHandler(GameMetrics.Handler.MOVE, System.nanoTime());
+        metrics.recordHandler(GameMetrics.Handler.MOVE, System.nanoTime());
+        metrics.recordHandler(GameMetrics.Handler.JOIN, System.nanoTime());
+
+        Assertions.assertEquals(2, registry.get("tictactoe.handler").tag("event", "move").timer().count());
+        Assertions.assertEquals(1, registry.get("tictactoe.handler").tag("event", "join").timer().count());
+        Assertions.assertEquals(0, registry.get("tictactoe.handler").tag("event", "leave").timer().count());
+    }
+}
@@ -0,0 +1,102 @@
+package com.joabsonlg.tictactoewebsocket.model;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TicTacToeTest {
+
+    //// makeMove() ////
+
+    /**
+     * Tests the {@link TicTacToe#makeMove(String, int)} method when player 1 completes a row.
+     */
+    @Test
+    void testMakeMove_player1WinsRow() {
+        TicTacToe game = new TicTacToe("player1", "player2");
+        game.makeMove("player1", 0);
+        game.makeMove("player2", 3);
+        game.makeMove("player1", 1);
+        game.makeMove("player2", 4);
+        game.makeMove("player1", 2);
+        Assertions.assertEquals("player1", game.getWinner());
+        Assertions.assertEquals(GameState.PLAYER1_WON, game.getGameState());
+        Assertions.assertTrue(game.isGameOver());
+    }
+
+    /**
+     * Tests the {@link TicTacToe#makeMove(String, int)} method when player 2 completes the anti-diagonal.
+     */
+    @Test
+    void testMakeMove_player2WinsAntiDiagonal() {
+        TicTacToe game = new TicTacToe("player1", "player2");
+        game.makeMove("player1", 0);
+        game.makeMove("player2", 2);
+        game.makeMove("player1", 1);
+        game.makeMove("player2", 4);
+        game.makeMove("player1", 5);
+        game.makeMove("player2", 6);
+        Assertions.assertEquals("player2", game.getWinner());
+        Assertions.assertEquals(GameState.PLAYER2_WON, game.getGameState());
+    }
+
+    /**
+     * Tests the {@link TicTacToe#makeMove(String, int)} method when the board fills up without a winner.
+     */
+    @Test
+    void testMakeMove_tie() {
+        TicTacToe game = new TicTacToe("player1", "player2");
+        int[] moves = {0, 1, 2, 4, 3, 5, 7, 6, 8};
+        for (int i = 0; i < moves.length; i++) {
+            game.makeMove(i % 2 == 0 ? "player1" : "player2", moves[i]);
+        }
+        Assertions.assertNull(game.getWinner());
+        Assertions.assertEquals(GameState.TIE, game.getGameState());
+        Assertions.assertTrue(game.isGameOver());
+    }
+
+    /**
+     * Tests the {@link TicTacToe#makeMove(String, int)} method when the cell is already taken.
+     */
+    @Test
+    void testMakeMove_occupiedCell() {
+        TicTacToe game = new TicTacToe("player1", "player2");
+        Assertions.assertTrue(game.makeMove("player1", 4));
+        Assertions.assertFalse(game.makeMove("player2", 4));
+        Assertions.assertEquals("player2", game.getTurn());
+        Assertions.assertEquals("X", game.getBoard()[1][1]);
+        Assertions.assertEquals(1, game.getSequence());
+    }
+
+    //// getSequence() ////
+
+    /**
+     * Tests the {@link TicTacToe#getSequence()} method keeps counting moves after the board is reset.
+     */
+    @Test
+    void testGetSequence_afterReset() {
+        TicTacToe game = new TicTacToe("player1", "player2");
+        game.makeMove("player1", 0);
+        game.makeMove("player2", 1);
+        game.resetBoard();
+        game.makeMove("player1", 0);
+        Assertions.assertEquals(3, game.getSequence());
+        Assertions.assertEquals("X", game.getMark(0));
+        Assertions.assertEquals(" ", game.getMark(1));
+    }
+
+    //// getBoard() ////
+
+    /**
+     * Tests the {@link TicTacToe#getBoard()} method on a new game.
+     */
+    @Test
+    void testGetBoard_empty() {
+        TicTacToe game = new TicTacToe("player1", null);
+        for (String[] row : game.getBoard()) {
+            for (String cell : row) {
+                Assertions.assertEquals(" ", cell);
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.joabsonlg.tictactoewebsocket.persistence;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.manager.TicTacToeManager;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    //// find() ////
+
+    /**
+     * Tests that a game won by moves is archived with its moves in the order they were played.
+     */
+    @Test
+    void testFind_finishedGame() throws IOException {
+        TicTacToeManager manager = new TicTacToeManager();
+        GameArchive archive = openArchive(manager);
+        String gameId = playWin(manager, "player1", "player2");
+        archive.flush();
+
+        ArchivedGame game = archive.find(gameId);
+        Assertions.assertNotNull(game);
+        Assertions.assertEquals("player1", game.player1());
+        Assertions.assertEquals("player2", game.player2());
+        Assertions.assertEquals("player1", game.winner());
+        Assertions.assertEquals(GameState.PLAYER1_WON, game.state());
+        Assertions.assertArrayEquals(new int[]{0, 3, 1, 4, 2}, game.moves());
+        Assertions.assertEquals("player2", game.playerOf(1));
+        Assertions.assertEquals("O", game.markOf(1));
+        Assertions.assertNull(archive.find("unknown"));
+        archive.close();
+    }
+
+    /**
+     * Tests that a game lost by disconnecting is archived with both players and the moves made before.
+     */
+    @Test
+    void testFind_forfeit() throws IOException {
+        TicTacToeManager manager = new TicTacToeManager();
+        GameArchive archive = openArchive(manager);
+        manager.joinGame("player1");
+        TicTacToe game = manager.joinGame("player2");
+        move(manager, game, "player1", 4);
+        manager.disconnect(game.getGameId(), "player1");
+        archive.flush();
+
+        ArchivedGame archived = archive.find(game.getGameId());
+        Assertions.assertEquals("player1", archived.player1());
+        Assertions.assertEquals("player2", archived.winner());
+        Assertions.assertArrayEquals(new int[]{4}, archived.moves());
+        archive.close();
+    }
+
+    //// history() ////
+
+    /**
+     * Tests that a player's games are paged from the newest to the oldest, and that other cursors are rejected.
+     */
+    @Test
+    void testHistory_pages() throws IOException {
+        TicTacToeManager manager = new TicTacToeManager();
+        GameArchive archive = openArchive(manager);
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            expected.add(0, playWin(manager, "player", "opponent" + i));
+            playWin(manager, "other" + i, "opponent" + i);
+        }
+        archive.flush();
+
+        List<String> actual = new ArrayList<>();
+        long cursor = -1;
+        int pages = 0;
+        do {
+            cursor = archive.history("player", cursor, 2, game -> actual.add(game.gameId()));
+            pages++;
+        } while (cursor >= 0);
+        Assertions.assertEquals(expected, actual);
+        Assertions.assertEquals(3, pages);
+
+        long second = archive.history("player", -1, 1, game -> {
+        });
+        Assertions.assertTrue(archive.isHistoryCursor("opponent3", second));
+        Assertions.assertFalse(archive.isHistoryCursor("opponent0", second));
+        Assertions.assertFalse(archive.isHistoryCursor("player", second + 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> archive.history("other0", second, 1, game -> {
+        }));
+        Assertions.assertEquals(-1, archive.history("nobody", -1, 10, game -> Assertions.fail()));
+        archive.close();
+    }
+
+    //// GameArchive() ////
+
+    /**
+     * Tests that games survive a restart while the indexes grow well past their initial capacity.
+     */
+    @Test
+    void testOpen_reopensGrownIndexes() throws IOException {
+        TicTacToeManager manager = new TicTacToeManager();
+        GameArchive archive = openArchive(manager);
+        List<String> gameIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            gameIds.add(playWin(manager, "player" + i, "opponent" + i));
+        }
+        archive.close();
+
+        GameArchive reopened = new GameArchive(directory, 4);
+        Assertions.assertEquals(50, reopened.getGameCount());
+        for (String gameId : gameIds) {
+            Assertions.assertEquals(gameId, reopened.find(gameId).gameId());
+        }
+        reopened.close();
+    }
+
+    /**
+     * Tests that an archive that was not closed has its indexes rebuilt, without the torn entry at its end.
+     */
+    @Test
+    void testOpen_rebuildsAfterCrash() throws IOException {
+        TicTacToeManager manager = new TicTacToeManager();
+        GameArchive archive = openArchive(manager);
+        String first = playWin(manager, "player1", "player2");
+        String second = playWin(manager, "player1", "player3");
+        archive.flush();
+        long length = Files.size(directory.resolve("games.dat"));
+        Files.write(directory.resolve("games.dat"), new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        GameArchive reopened = new GameArchive(directory, 4);
+        Assertions.assertEquals(length, Files.size(directory.resolve("games.dat")));
+        Assertions.assertEquals(first, reopened.find(first).gameId());
+        List<String> history = new ArrayList<>();
+        reopened.history("player1", -1, 10, game -> history.add(game.gameId()));
+        Assertions.assertEquals(List.of(second, first), history);
+        reopened.close();
+    }
+
+    private GameArchive openArchive(TicTacToeManager manager) throws IOException {
+        GameArchive archive = new GameArchive(directory, 4);
+        manager.addListener(archive);
+        return archive;
+    }
+
+    /**
+     * Plays a game the first player wins on the top row, then removes it like the message controller does.
+     */
+    private static String playWin(TicTacToeManager manager, String player1, String player2) {
+        manager.joinGame(player1);
+        TicTacToe game = manager.joinGame(player2);
+        Assertions.assertEquals(player1, game.getPlayer1());
+        int[] cells = {0, 3, 1, 4, 2};
+        for (int i = 0; i < cells.length; i++) {
+            move(manager, game, i % 2 == 0 ? player1 : player2, cells[i]);
+        }
+        manager.removeGame(game.getGameId());
+        return game.getGameId();
+    }
+
+    private static void move(TicTacToeManager manager, TicTacToe game, String player, int cell) {
+        manager.withGameLock(game.getGameId(), () -> {
+            Assertions.assertTrue(manager.makeMove(game, player, cell));
+        });
+    }
+}
@@ -0,0 +1,165 @@
+package com.joabsonlg.tictactoewebsocket.persistence;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.manager.TicTacToeManager;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class GameJournalTest {
+
+    private static final long FLUSH_INTERVAL = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @TempDir
+    Path directory;
+
+    //// restore() ////
+
+    /**
+     * Tests that games in progress, waiting games and games whose seat was reopened and taken again are restored
+     * as they were,
+     * and that finished and abandoned games are not.
+     */
+    @Test
+    void testRestore_liveGames() throws IOException {
+        TicTacToeManager manager = new TicTacToeManager();
+        GameJournal journal = open(manager);
+
+        manager.joinGame("player1");
+        TicTacToe playing = manager.joinGame("player2");
+        move(manager, playing, "player1", 4);
+        move(manager, playing, "player2", 0);
+
+        manager.joinGame("player4");
+        TicTacToe finished = manager.joinGame("player5");
+        move(manager, finished, "player4", 0);
+        move(manager, finished, "player5", 3);
+        move(manager, finished, "player4", 1);
+        move(manager, finished, "player5", 4);
+        move(manager, finished, "player4", 2);
+        manager.removeGame(finished.getGameId());
+
+        manager.joinGame("player6");
+        TicTacToe reopened = manager.joinGame("player7");
+        move(manager, reopened, "player6", 8);
+        manager.leaveGame("player6");
+        manager.joinGame("player8");
+
+        manager.joinGame("player9");
+        manager.leaveGame("player9");
+
+        TicTacToe waiting = manager.joinGame("player3");
+        journal.close();
+
+        TicTacToeManager restored = new TicTacToeManager();
+        Assertions.assertEquals(3, new GameJournal(directory, 1 << 20, FLUSH_INTERVAL).restore(restored));
+        Assertions.assertEquals(3, restored.getGameCount());
+        assertSameGame(playing, restored.getGameByPlayer("player2"));
+        assertSameGame(waiting, restored.getGameByPlayer("player3"));
+        assertSameGame(reopened, restored.getGameByPlayer("player7"));
+        Assertions.assertNull(restored.getGameByPlayer("player4"));
+        Assertions.assertNull(restored.getGameByPlayer("player6"));
+        Assertions.assertNull(restored.getGameByPlayer("player9"));
+        Assertions.assertEquals(1, restored.getWaitingPlayerCount());
+
+        // Restored waiting games are matched again.
+        TicTacToe matched = restored.joinGame("player10");
+        Assertions.assertEquals(waiting.getGameId(), matched.getGameId());
+        Assertions.assertEquals(GameState.PLAYER1_TURN, matched.getGameState());
+    }
+
+    /**
+     * Tests that records are appended across segments and after the records of an earlier run.
+     */
+    @Test
+    void testRestore_acrossSegmentsAndRuns() throws IOException {
+        TicTacToeManager manager = new TicTacToeManager();
+        GameJournal journal = open(manager, 4 * JournalRecord.SIZE);
+        manager.joinGame("player1");
+        TicTacToe game = manager.joinGame("player2");
+        move(manager, game, "player1", 0);
+        move(manager, game, "player2", 1);
+        move(manager, game, "player1", 2);
+        journal.close();
+
+        TicTacToeManager second = new TicTacToeManager();
+        journal = open(second, 4 * JournalRecord.SIZE);
+        Assertions.assertEquals(5, journal.getPosition());
+        TicTacToe restored = second.getGame(game.getGameId());
+        move(second, restored, "player2", 3);
+        journal.close();
+
+        TicTacToeManager third = new TicTacToeManager();
+        open(third, 4 * JournalRecord.SIZE).close();
+        TicTacToe restoredAgain = third.getGame(game.getGameId());
+        Assertions.assertEquals(4, restoredAgain.getSequence());
+        Assertions.assertEquals("O", restoredAgain.getMark(3));
+        Assertions.assertEquals(GameState.PLAYER1_TURN, restoredAgain.getGameState());
+    }
+
+    //// read() ////
+
+    /**
+     * Tests that the records of the events come back in order, with their fields.
+     */
+    @Test
+    void testRead_records() throws IOException {
+        TicTacToeManager manager = new TicTacToeManager();
+        GameJournal journal = open(manager);
+        TicTacToe game = manager.joinGame("jogador ç");
+        manager.joinGame("player2");
+        move(manager, game, "jogador ç", 7);
+        manager.disconnect(game.getGameId(), "player2");
+        journal.close();
+
+        List<JournalRecord> records = new ArrayList<>();
+        new GameJournal(directory, 1 << 20, FLUSH_INTERVAL).read(0, records::add);
+        Assertions.assertEquals(List.of(JournalRecord.Type.CREATED, JournalRecord.Type.JOINED,
+                        JournalRecord.Type.MOVE, JournalRecord.Type.FINISHED, JournalRecord.Type.REMOVED),
+                records.stream().map(JournalRecord::type).toList());
+        Assertions.assertEquals("jogador ç", records.get(0).player());
+        Assertions.assertEquals(3, records.get(0).arg0());
+        Assertions.assertEquals(game.getGameId(), records.get(2).gameId());
+        Assertions.assertEquals(7, records.get(2).arg0());
+        Assertions.assertEquals(1, records.get(2).arg1());
+        Assertions.assertEquals(GameState.PLAYER1_WON.ordinal(), records.get(3).arg0());
+        Assertions.assertEquals(4, records.get(4).position());
+    }
+
+    private GameJournal open(TicTacToeManager manager) throws IOException {
+        return open(manager, 1 << 20);
+    }
+
+    private GameJournal open(TicTacToeManager manager, int segmentBytes) throws IOException {
+        GameJournal journal = new GameJournal(directory, segmentBytes, FLUSH_INTERVAL);
+        journal.restore(manager);
+        manager.addListener(journal);
+        journal.start();
+        return journal;
+    }
+
+    private static void move(TicTacToeManager manager, TicTacToe game, String player, int cell) {
+        manager.withGameLock(game.getGameId(), () -> {
+            Assertions.assertTrue(manager.makeMove(game, player, cell));
+        });
+    }
+
+    private static void assertSameGame(TicTacToe expected, TicTacToe actual) {
+        Assertions.assertNotNull(actual);
+        Assertions.assertEquals(expected.getGameId(), actual.getGameId());
+        Assertions.assertEquals(expected.getPlayer1(), actual.getPlayer1());
+        Assertions.assertEquals(expected.getPlayer2(), actual.getPlayer2());
+        Assertions.assertEquals(expected.getTurn(), actual.getTurn());
+        Assertions.assertEquals(expected.getGameState(), actual.getGameState());
+        Assertions.assertEquals(expected.getSequence(), actual.getSequence());
+        Assertions.assertTrue(Arrays.deepEquals(expected.getBoard(), actual.getBoard()));
+    }
+}
@@ -0,0 +1,163 @@
+package com.joabsonlg.tictactoewebsocket.persistence;
+
+import com.joabsonlg.tictactoewebsocket.manager.TicTacToeManager;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+public class GameSnapshotterTest {
+
+    private static final long FLUSH_INTERVAL = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int SEGMENT_BYTES = 8 * JournalRecord.SIZE;
+
+    @TempDir
+    Path directory;
+
+    //// snapshot() / load() ////
+
+    /**
+     * Tests that a snapshot followed by newer journal records restores the games as they were.
+     */
+    @Test
+    void testLoad_snapshotAndNewerRecords() throws IOException {
+        TicTacToeManager manager = new TicTacToeManager();
+        GameJournal journal = openJournal(manager);
+        GameSnapshotter snapshotter = new GameSnapshotter(snapshotFile(), manager, journal);
+
+        manager.joinGame("player1");
+        TicTacToe playing = manager.joinGame("player2");
+        move(manager, playing, "player1", 4);
+        TicTacToe waiting = manager.joinGame("player3");
+        Assertions.assertEquals(2, snapshotter.snapshot());
+
+        move(manager, playing, "player2", 0);
+        TicTacToe late = manager.joinGame("player4");
+        journal.close();
+
+        TicTacToeManager restored = restore();
+        Assertions.assertEquals(2, restored.getGameCount());
+        assertSameGame(playing, restored.getGameByPlayer("player1"));
+        Assertions.assertEquals(late.getGameId(), restored.getGameByPlayer("player4").getGameId());
+        Assertions.assertEquals(waiting.getGameId(), late.getGameId());
+    }
+
+    /**
+     * Tests that records a saved game already reflects are not applied twice, as happens when a game is copied
+     * after events journaled since the snapshot started.
+     */
+    @Test
+    void testLoad_skipsRecordsInSnapshot() throws IOException {
+        TicTacToeManager manager = new TicTacToeManager();
+        GameJournal journal = openJournal(manager);
+        manager.joinGame("player1");
+        TicTacToe game = manager.joinGame("player2");
+        move(manager, game, "player1", 0);
+        manager.leaveGame("player2");
+        manager.joinGame("player3");
+        move(manager, game, "player1", 4);
+        new GameSnapshotter(snapshotFile(), manager, journal).snapshot();
+        journal.close();
+
+        GameSnapshotter.Snapshot snapshot = GameSnapshotter.load(snapshotFile());
+        TicTacToeManager restored = new TicTacToeManager();
+        new GameJournal(directory.resolve("journal"), SEGMENT_BYTES, FLUSH_INTERVAL)
+                .restore(restored, new GameSnapshotter.Snapshot(0, snapshot.games()));
+        assertSameGame(game, restored.getGame(game.getGameId()));
+    }
+
+    /**
+     * Tests that a snapshot deletes the journal segments it covers and that restarts still restore every game.
+     */
+    @Test
+    void testSnapshot_deletesCoveredSegments() throws IOException {
+        TicTacToeManager manager = new TicTacToeManager();
+        GameJournal journal = openJournal(manager);
+        GameSnapshotter snapshotter = new GameSnapshotter(snapshotFile(), manager, journal);
+        for (int i = 0; i < 20; i++) {
+            manager.joinGame("player" + i);
+        }
+        snapshotter.snapshot();
+        Assertions.assertEquals(1, segmentCount());
+        journal.close();
+
+        TicTacToeManager second = new TicTacToeManager();
+        journal = openJournal(second);
+        Assertions.assertEquals(10, second.getGameCount());
+        TicTacToe game = second.getGameByPlayer("player0");
+        move(second, game, game.getPlayer1(), 8);
+        new GameSnapshotter(snapshotFile(), second, journal).close();
+        journal.close();
+
+        TicTacToeManager third = restore();
+        Assertions.assertEquals(10, third.getGameCount());
+        Assertions.assertEquals("X", third.getGameByPlayer("player0").getMark(8));
+    }
+
+    /**
+     * Tests that a damaged snapshot is rejected rather than restored wrong.
+     */
+    @Test
+    void testLoad_corrupt() throws IOException {
+        TicTacToeManager manager = new TicTacToeManager();
+        GameJournal journal = openJournal(manager);
+        manager.joinGame("player1");
+        new GameSnapshotter(snapshotFile(), manager, journal).snapshot();
+        journal.close();
+
+        byte[] bytes = Files.readAllBytes(snapshotFile());
+        bytes[20] ^= 1;
+        Files.write(snapshotFile(), bytes);
+        Assertions.assertThrows(IOException.class, () -> GameSnapshotter.load(snapshotFile()));
+        Assertions.assertNull(GameSnapshotter.load(directory.resolve("missing")));
+    }
+
+    private Path snapshotFile() {
+        return directory.resolve("games.snapshot");
+    }
+
+    private GameJournal openJournal(TicTacToeManager manager) throws IOException {
+        GameJournal journal = new GameJournal(directory.resolve("journal"), SEGMENT_BYTES, FLUSH_INTERVAL);
+        journal.restore(manager, GameSnapshotter.load(snapshotFile()));
+        manager.addListener(journal);
+        return journal;
+    }
+
+    private TicTacToeManager restore() throws IOException {
+        TicTacToeManager manager = new TicTacToeManager();
+        openJournal(manager).close();
+        return manager;
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve("journal"))) {
+            return files.count();
+        }
+    }
+
+    private static void move(TicTacToeManager manager, TicTacToe game, String player, int cell) {
+        manager.withGameLock(game.getGameId(), () -> {
+            Assertions.assertTrue(manager.makeMove(game, player, cell));
+        });
+    }
+
+    private static void assertSameGame(TicTacToe expected, TicTacToe actual) {
+        Assertions.assertNotNull(actual);
+        Assertions.assertEquals(expected.getGameId(), actual.getGameId());
+        Assertions.assertEquals(expected.getPlayer1(), actual.getPlayer1());
+        Assertions.assertEquals(expected.getPlayer2(), actual.getPlayer2());
+        Assertions.assertEquals(expected.getTurn(), actual.getTurn());
+        Assertions.assertEquals(expected.getGameState(), actual.getGameState());
+        Assertions.assertEquals(expected.getSequence(), actual.getSequence());
+        Assertions.assertEquals(expected.getVersion(), actual.getVersion());
+        Assertions.assertTrue(Arrays.deepEquals(expected.getBoard(), actual.getBoard()));
+        Assertions.assertArrayEquals(expected.getMoves(), actual.getMoves());
+    }
+}
@@ -0,0 +1,156 @@
+package com.joabsonlg.tictactoewebsocket.spectator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.manager.TicTacToeManager;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import com.joabsonlg.tictactoewebsocket.model.dto.TicTacToeMessage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SpectatorHubTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, List<byte[]>> sent = new HashMap<>();
+    private int coalesced;
+    private TicTacToeManager manager;
+    private SpectatorHub hub;
+    private TicTacToe game;
+
+    @BeforeEach
+    void setUp() {
+        manager = new TicTacToeManager();
+        hub = new SpectatorHub(manager, mapper,
+                (sessionId, payload) -> sent.computeIfAbsent(sessionId, id -> new ArrayList<>()).add(payload),
+                1, (sentCount, coalescedCount) -> coalesced += coalescedCount);
+        manager.joinGame("alice");
+        game = manager.joinGame("bob");
+    }
+
+    //// watch() ////
+
+    /**
+     * Tests that only existing games can be watched and that a spectator gets the current state on the next tick.
+     */
+    @Test
+    void testWatch_sendsCurrentState() throws IOException {
+        Assertions.assertFalse(hub.watch("s1", "missing", true));
+        Assertions.assertTrue(hub.watch("s1", game.getGameId(), true));
+        hub.tick();
+        List<TicTacToeMessage> snapshots = snapshots("s1");
+        Assertions.assertEquals(1, snapshots.size());
+        Assertions.assertEquals("game.spectate", snapshots.get(0).getType());
+        Assertions.assertEquals("bob", snapshots.get(0).getPlayer2());
+        Assertions.assertEquals(GameState.PLAYER1_TURN, snapshots.get(0).getGameState());
+        hub.tick();
+        Assertions.assertEquals(1, sent.get("s1").size(), "nothing new to send");
+    }
+
+    //// tick() ////
+
+    /**
+     * Tests that the moves made between two ticks are sent as one snapshot of the latest state, serialized once for
+     * every spectator.
+     */
+    @Test
+    void testTick_coalescesMovesBetweenTicks() throws IOException {
+        hub.watch("s1", game.getGameId(), true);
+        hub.watch("s2", game.getGameId(), true);
+        hub.tick();
+        hub.delivered("s1");
+        hub.delivered("s2");
+
+        move("alice", 0);
+        move("bob", 4);
+        move("alice", 8);
+        hub.tick();
+
+        Assertions.assertEquals(2, sent.get("s1").size());
+        Assertions.assertSame(sent.get("s1").get(1), sent.get("s2").get(1));
+        Assertions.assertEquals(game.getSequence(), snapshots("s1").get(1).getSeq());
+    }
+
+    /**
+     * Tests that a spectator at its limit is skipped without holding up the others, and once it catches up gets only
+     * the latest snapshot.
+     */
+    @Test
+    void testTick_slowSpectatorSkipsToLatest() throws IOException {
+        hub.watch("fast", game.getGameId(), true);
+        hub.watch("slow", game.getGameId(), true);
+        hub.tick();
+
+        String[] players = {"alice", "bob", "alice"};
+        int[] cells = {0, 4, 8};
+        for (int i = 0; i < cells.length; i++) {
+            hub.delivered("fast");
+            move(players[i], cells[i]);
+            hub.tick();
+        }
+        Assertions.assertEquals(4, sent.get("fast").size());
+        Assertions.assertEquals(1, sent.get("slow").size(), "nothing sent while at the limit");
+        Assertions.assertEquals(2, coalesced);
+
+        hub.delivered("slow");
+        hub.tick();
+        List<TicTacToeMessage> slow = snapshots("slow");
+        Assertions.assertEquals(2, slow.size());
+        Assertions.assertEquals(game.getSequence(), slow.get(1).getSeq());
+    }
+
+    /**
+     * Tests that the spectators of a finished game get its final state and are then dropped.
+     */
+    @Test
+    void testTick_finishedGameSendsFinalStateAndDrops() throws IOException {
+        hub.watch("s1", game.getGameId(), false);
+        hub.tick();
+        move("alice", 0);
+        move("bob", 3);
+        move("alice", 1);
+        move("bob", 4);
+        move("alice", 2);
+        manager.removeGame(game.getGameId());
+        hub.tick();
+
+        List<TicTacToeMessage> snapshots = snapshots("s1");
+        Assertions.assertEquals(2, snapshots.size());
+        Assertions.assertEquals(GameState.PLAYER1_WON, snapshots.get(1).getGameState());
+        Assertions.assertEquals(0, hub.getSpectatorCount());
+    }
+
+    //// unwatch() ////
+
+    /**
+     * Tests that a spectator that stopped watching is sent nothing more.
+     */
+    @Test
+    void testUnwatch_stopsSnapshots() {
+        hub.watch("s1", game.getGameId(), true);
+        hub.tick();
+        hub.unwatch("s1");
+        move("alice", 0);
+        hub.tick();
+        Assertions.assertEquals(1, sent.get("s1").size());
+        Assertions.assertEquals(0, hub.getSpectatorCount());
+    }
+
+    private void move(String player, int cell) {
+        manager.withGameLock(game.getGameId(), () -> Assertions.assertTrue(manager.makeMove(game, player, cell)));
+    }
+
+    private List<TicTacToeMessage> snapshots(String sessionId) throws IOException {
+        List<TicTacToeMessage> snapshots = new ArrayList<>();
+        for (byte[] payload : sent.get(sessionId)) {
+            snapshots.add(mapper.readValue(payload, TicTacToeMessage.class));
+        }
+        return snapshots;
+    }
+}
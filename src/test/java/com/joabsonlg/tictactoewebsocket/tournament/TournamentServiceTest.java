@@ -0,0 +1,99 @@
+package com.joabsonlg.tictactoewebsocket.tournament;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.enumeration.TournamentFormat;
+import com.joabsonlg.tictactoewebsocket.manager.TicTacToeManager;
+import com.joabsonlg.tictactoewebsocket.model.TicTacToe;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class TournamentServiceTest {
+
+    private final BlockingQueue<Integer> rounds = new LinkedBlockingQueue<>();
+    private final Map<String, TicTacToe> moved = new ConcurrentHashMap<>();
+    private TicTacToeManager manager;
+    private TournamentService service;
+
+    @BeforeEach
+    void setUp() {
+        manager = new TicTacToeManager();
+        service = new TournamentService(manager, tournament -> rounds.add(tournament.isFinished() ? -1 : tournament.getRound()),
+                moved::put);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    //// create() ////
+
+    /**
+     * Tests that the matches of a round are played as games of the manager and that the next round starts once every
+     * game of the round has ended, by moves or by forfeit.
+     */
+    @Test
+    void testCreate_roundsAdvanceAsGamesEnd() throws Exception {
+        Tournament tournament = service.create(TournamentFormat.SWISS, List.of("a", "b", "c", "d"), 2);
+        Assertions.assertEquals(1, rounds.poll(5, TimeUnit.SECONDS));
+        List<Match> first = tournament.getMatches();
+        Assertions.assertEquals(2, first.size());
+
+        TicTacToe won = manager.getGame(first.get(0).getGameId());
+        Assertions.assertEquals(first.get(0).getPlayer1(), won.getPlayer1());
+        play(won, 0, 3, 1, 4, 2);
+        manager.removeGame(won.getGameId());
+        Assertions.assertNull(rounds.poll(200, TimeUnit.MILLISECONDS), "round 1 still has a game");
+
+        TicTacToe forfeited = manager.getGame(first.get(1).getGameId());
+        manager.leaveGame(forfeited.getPlayer1());
+        Assertions.assertEquals(2, rounds.poll(5, TimeUnit.SECONDS));
+
+        List<Tournament.Standing> standings = tournament.getStandings(2);
+        Assertions.assertEquals(1.0, standings.get(0).points());
+        Assertions.assertEquals(1.0, standings.get(1).points());
+        for (Match match : tournament.getMatches()) {
+            manager.disconnect(match.getGameId(), match.getPlayer2());
+        }
+        Assertions.assertEquals(-1, rounds.poll(5, TimeUnit.SECONDS));
+        Assertions.assertTrue(tournament.isFinished());
+        Assertions.assertEquals(0, manager.getGameCount());
+    }
+
+    /**
+     * Tests that a player waiting for an opponent in another game is moved to their match and told so through the closed
+     * game, while a player busy playing another game forfeits it.
+     */
+    @Test
+    void testCreate_busyPlayers() throws Exception {
+        manager.joinGame("a");
+        manager.joinGame("x");
+        TicTacToe waiting = manager.joinGame("c");
+        Tournament tournament = service.create(TournamentFormat.SWISS, List.of("a", "b", "c", "d"), 1);
+        Assertions.assertEquals(1, rounds.poll(5, TimeUnit.SECONDS));
+
+        Assertions.assertNull(manager.getGame(waiting.getGameId()));
+        Match forfeited = tournament.getMatches().stream().filter(match -> match.getGameId() == null).findFirst().orElseThrow();
+        Assertions.assertTrue(List.of(forfeited.getPlayer1(), forfeited.getPlayer2()).contains("a"));
+        Match played = tournament.getMatches().stream().filter(match -> match.getGameId() != null).findFirst().orElseThrow();
+        Assertions.assertEquals(GameState.PLAYER1_TURN, manager.getGame(played.getGameId()).getGameState());
+        Assertions.assertEquals(Map.of(waiting.getGameId(), manager.getGame(played.getGameId())), moved);
+    }
+
+    private void play(TicTacToe game, int... cells) {
+        manager.withGameLock(game.getGameId(), () -> {
+            for (int cell : cells) {
+                Assertions.assertTrue(manager.makeMove(game, game.getTurn(), cell));
+            }
+        });
+    }
+}
@@ -0,0 +1,156 @@
+package com.joabsonlg.tictactoewebsocket.tournament;
+
+import com.joabsonlg.tictactoewebsocket.enumeration.GameState;
+import com.joabsonlg.tictactoewebsocket.enumeration.TournamentFormat;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+public class TournamentTest {
+
+    //// nextRound() ////
+
+    /**
+     * Tests that a Swiss round pairs every player once, never pairs players who met already while it can be avoided,
+     * and gives the bye of an odd field to a different player each round.
+     */
+    @Test
+    void testNextRound_swissPairsWithoutRematches() {
+        Tournament tournament = new Tournament("t", TournamentFormat.SWISS, players(9), 4);
+        Set<String> pairs = new HashSet<>();
+        Set<String> byes = new HashSet<>();
+        Random random = new Random(7);
+        for (int round = 1; round <= 4; round++) {
+            List<Match> matches = tournament.nextRound();
+            Assertions.assertEquals(4, matches.size());
+            Set<String> seated = new HashSet<>();
+            for (Match match : matches) {
+                Assertions.assertTrue(seated.add(match.getPlayer1()) && seated.add(match.getPlayer2()));
+                Assertions.assertTrue(pairs.add(pairKey(match)), "rematch " + pairKey(match));
+            }
+            String bye = players(9).stream().filter(player -> !seated.contains(player)).findFirst().orElseThrow();
+            Assertions.assertTrue(byes.add(bye), "second bye for " + bye);
+            for (Match match : matches) {
+                tournament.report(match, randomOutcome(random));
+            }
+        }
+        Assertions.assertTrue(tournament.isFinished());
+        Assertions.assertTrue(tournament.nextRound().isEmpty());
+    }
+
+    /**
+     * Tests that the next round cannot be paired before the current one is complete.
+     */
+    @Test
+    void testNextRound_currentRoundPending() {
+        Tournament tournament = new Tournament("t", TournamentFormat.SWISS, players(4), 2);
+        List<Match> matches = tournament.nextRound();
+        tournament.report(matches.get(0), GameState.TIE);
+        Assertions.assertThrows(IllegalStateException.class, tournament::nextRound);
+    }
+
+    //// report() ////
+
+    /**
+     * Tests that the scores and Buchholz kept up to date by each result match the standings recomputed from every
+     * result at the end.
+     */
+    @Test
+    void testReport_standingsMatchRecomputation() {
+        int players = 101;
+        Tournament tournament = new Tournament("t", TournamentFormat.SWISS, players(players), 7);
+        Map<String, Double> points = new HashMap<>();
+        Map<String, List<String>> opponents = new HashMap<>();
+        Random random = new Random(42);
+        while (!tournament.isFinished()) {
+            List<Match> matches = tournament.nextRound();
+            Set<String> seated = new HashSet<>();
+            for (Match match : matches) {
+                seated.add(match.getPlayer1());
+                seated.add(match.getPlayer2());
+                opponents.computeIfAbsent(match.getPlayer1(), player -> new ArrayList<>()).add(match.getPlayer2());
+                opponents.computeIfAbsent(match.getPlayer2(), player -> new ArrayList<>()).add(match.getPlayer1());
+                GameState outcome = randomOutcome(random);
+                tournament.report(match, outcome);
+                points.merge(match.getPlayer1(), outcome == GameState.PLAYER1_WON ? 1 : outcome == GameState.TIE ? 0.5 : 0, Double::sum);
+                points.merge(match.getPlayer2(), outcome == GameState.PLAYER2_WON ? 1 : outcome == GameState.TIE ? 0.5 : 0, Double::sum);
+            }
+            players(players).stream().filter(player -> !seated.contains(player))
+                    .forEach(bye -> points.merge(bye, 1.0, Double::sum));
+        }
+
+        List<Tournament.Standing> standings = tournament.getStandings(players);
+        Assertions.assertEquals(players, standings.size());
+        for (Tournament.Standing standing : standings) {
+            double expectedBuchholz = opponents.get(standing.player()).stream().mapToDouble(points::get).sum();
+            Assertions.assertEquals(points.get(standing.player()), standing.points(), standing.player());
+            Assertions.assertEquals(expectedBuchholz, standing.buchholz(), standing.player());
+        }
+        for (int i = 1; i < standings.size(); i++) {
+            Tournament.Standing above = standings.get(i - 1);
+            Tournament.Standing below = standings.get(i);
+            Assertions.assertTrue(above.points() > below.points()
+                    || above.points() == below.points() && above.buchholz() >= below.buchholz());
+        }
+    }
+
+    /**
+     * Tests a single elimination with byes for the best seeds, a tie replayed with the seats swapped and a tie that is
+     * never broken, which the better seed goes through.
+     */
+    @Test
+    void testReport_eliminationBracket() {
+        Tournament tournament = new Tournament("t", TournamentFormat.SINGLE_ELIMINATION, players(5), 0);
+        Assertions.assertEquals(3, tournament.getTotalRounds());
+
+        List<Match> first = tournament.nextRound();
+        Assertions.assertEquals(1, first.size(), "seeds 1 to 3 have byes");
+        Assertions.assertEquals(Set.of("p3", "p4"), Set.of(first.get(0).getPlayer1(), first.get(0).getPlayer2()));
+        Match replay = tournament.report(first.get(0), GameState.TIE).get(0);
+        Assertions.assertEquals(first.get(0).getPlayer2(), replay.getPlayer1());
+        Assertions.assertFalse(tournament.isRoundComplete());
+        Assertions.assertTrue(tournament.report(replay, GameState.PLAYER2_WON).isEmpty());
+
+        List<Match> second = tournament.nextRound();
+        Assertions.assertEquals(2, second.size());
+        for (Match match : second) {
+            Match current = match;
+            List<Match> replays;
+            while (!(replays = tournament.report(current, GameState.TIE)).isEmpty()) {
+                current = replays.get(0);
+            }
+        }
+        List<Match> last = tournament.nextRound();
+        Assertions.assertEquals(Set.of("p0", "p1"), Set.of(last.get(0).getPlayer1(), last.get(0).getPlayer2()));
+        tournament.report(last.get(0), last.get(0).getPlayer1().equals("p1") ? GameState.PLAYER1_WON : GameState.PLAYER2_WON);
+
+        Assertions.assertTrue(tournament.isFinished());
+        List<Tournament.Standing> standings = tournament.getStandings(3);
+        Assertions.assertEquals("p1", standings.get(0).player());
+        Assertions.assertTrue(standings.get(0).active());
+        Assertions.assertEquals("p0", standings.get(1).player());
+        Assertions.assertFalse(standings.get(1).active());
+    }
+
+    private static List<String> players(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "p" + i).toList();
+    }
+
+    private static String pairKey(Match match) {
+        String a = match.getPlayer1();
+        String b = match.getPlayer2();
+        return a.compareTo(b) < 0 ? a + "-" + b : b + "-" + a;
+    }
+
+    private static GameState randomOutcome(Random random) {
+        return new GameState[]{GameState.PLAYER1_WON, GameState.PLAYER2_WON, GameState.TIE}[random.nextInt(3)];
+    }
+}